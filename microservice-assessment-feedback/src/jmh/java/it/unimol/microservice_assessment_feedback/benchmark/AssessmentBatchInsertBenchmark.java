@@ -0,0 +1,103 @@
+package it.unimol.microservice_assessment_feedback.benchmark;
+
+import it.unimol.microservice_assessment_feedback.enums.ReferenceType;
+import it.unimol.microservice_assessment_feedback.model.Assessment;
+import it.unimol.microservice_assessment_feedback.repository.AssessmentRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserimento di blocchi di 1000 valutazioni con saveAll su PostgreSQL, con e senza reWriteBatchedInserts.
+ * Con id nullo l'id time-ordered viene generato al persist e Spring Data esegue solo insert;
+ * con un UUID casuale già assegnato (come quando il create copiava l'id del client) ogni save
+ * diventa un merge con una SELECT per riga. Il risultato è espresso in righe inserite al secondo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class AssessmentBatchInsertBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"true", "false"})
+    private boolean rewriteBatchedInserts;
+
+    private BenchmarkApplication application;
+    private AssessmentRepository assessmentRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        application = BenchmarkApplication.start(rewriteBatchedInserts);
+        assessmentRepository = application.getBean(AssessmentRepository.class);
+        transactionTemplate = application.getBean(TransactionTemplate.class);
+        jdbcTemplate = application.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE assessments CASCADE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Assessment> saveAllTimeOrderedIds() {
+        return transactionTemplate.execute(status -> assessmentRepository.saveAll(newAssessments(false)));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Assessment> saveAllAssignedRandomIds() {
+        return transactionTemplate.execute(status -> assessmentRepository.saveAll(newAssessments(true)));
+    }
+
+    private static List<Assessment> newAssessments(boolean assignRandomIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Assessment> assessments = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Assessment assessment = new Assessment();
+            if (assignRandomIds) {
+                assessment.setId(UUID.randomUUID().toString());
+            }
+            assessment.setReferenceId("exam-" + (i % 10));
+            assessment.setReferenceType(ReferenceType.EXAM);
+            assessment.setStudentId("student-" + i);
+            assessment.setTeacherId("teacher-1");
+            assessment.setCourseId("course-1");
+            assessment.setScore(18.0 + i % 13);
+            assessment.setAssessmentDate(now);
+            assessments.add(assessment);
+        }
+        return assessments;
+    }
+}
@@ -0,0 +1,108 @@
+package it.unimol.microservice_assessment_feedback.benchmark;
+
+import it.unimol.microservice_assessment_feedback.dto.AssessmentDTO;
+import it.unimol.microservice_assessment_feedback.model.Assessment;
+import it.unimol.microservice_assessment_feedback.repository.AssessmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lettura delle 100k valutazioni di un corso in una transazione di sola lettura, come in
+ * AssessmentService.getAssessmentsByCourse: proiezione diretta in AssessmentDTO contro il caricamento
+ * delle entità seguito dalla conversione. L'allocazione per lettura si misura con -prof gc (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AssessmentProjectionBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final String COURSE_ID = "course-1";
+
+    private BenchmarkApplication application;
+    private AssessmentRepository assessmentRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        application = BenchmarkApplication.start(true);
+        assessmentRepository = application.getBean(AssessmentRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                application.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{UUID.randomUUID().toString(), "exam-" + (i % 50), "student-" + i,
+                    18.0 + i % 13, "Prova scritta e orale"});
+        }
+        JdbcTemplate jdbcTemplate = application.getBean(JdbcTemplate.class);
+        jdbcTemplate.batchUpdate("INSERT INTO assessments (id, reference_id, reference_type, student_id, teacher_id, " +
+                "course_id, score, assessment_date, notes, created_at, updated_at) " +
+                "VALUES (?, ?, 'EXAM', ?, 'teacher-1', '" + COURSE_ID + "', ?, now(), ?, now(), now())", rows);
+        jdbcTemplate.execute("VACUUM ANALYZE assessments");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    @Benchmark
+    public List<AssessmentDTO> projection() {
+        return readOnlyTransaction.execute(status -> assessmentRepository.findProjectedByCourseId(COURSE_ID));
+    }
+
+    @Benchmark
+    public List<AssessmentDTO> entitiesThenConvert() {
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT a FROM Assessment a WHERE a.courseId = :courseId", Assessment.class)
+                .setParameter("courseId", COURSE_ID)
+                .getResultList()
+                .stream()
+                .map(AssessmentProjectionBenchmark::convertToDTO)
+                .toList());
+    }
+
+    // Conversione come in AssessmentService.convertToDTO
+    private static AssessmentDTO convertToDTO(Assessment assessment) {
+        AssessmentDTO dto = new AssessmentDTO();
+        dto.setId(assessment.getId());
+        dto.setReferenceId(assessment.getReferenceId());
+        dto.setReferenceType(assessment.getReferenceType());
+        dto.setStudentId(assessment.getStudentId());
+        dto.setTeacherId(assessment.getTeacherId());
+        dto.setScore(assessment.getScore());
+        dto.setAssessmentDate(assessment.getAssessmentDate());
+        dto.setNotes(assessment.getNotes());
+        dto.setCourseId(assessment.getCourseId());
+        return dto;
+    }
+}
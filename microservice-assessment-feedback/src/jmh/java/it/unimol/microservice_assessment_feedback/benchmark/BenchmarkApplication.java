@@ -0,0 +1,65 @@
+package it.unimol.microservice_assessment_feedback.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import it.unimol.microservice_assessment_feedback.MicroserviceAssessmentFeedbackApplication;
+import it.unimol.microservice_assessment_feedback.config.TestRabbitConfig;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+
+/**
+ * Avvia il microservizio per i benchmark JMH su un PostgreSQL embedded, con lo schema creato
+ * dalle migrazioni Flyway come in produzione. RabbitMQ è sostituito dai mock del profilo test
+ * e il relay dell'outbox è disattivato.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkApplication(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    /**
+     * @param rewriteBatchedInserts Valore di reWriteBatchedInserts nell'URL JDBC (true in produzione)
+     */
+    static BenchmarkApplication start(boolean rewriteBatchedInserts) throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        String url = postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=" + rewriteBatchedInserts;
+        try {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                    MicroserviceAssessmentFeedbackApplication.class, TestRabbitConfig.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("test")
+                    .run("--spring.datasource.url=" + url,
+                            "--spring.datasource.driverClassName=org.postgresql.Driver",
+                            "--spring.datasource.username=postgres",
+                            "--spring.flyway.enabled=true",
+                            "--spring.jpa.hibernate.ddl-auto=validate",
+                            "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+                            "--spring.jpa.show-sql=false",
+                            "--logging.level.root=WARN",
+                            "--logging.level.org.springframework.security=WARN",
+                            "--logging.level.it.unimol.microservice_assessment_feedback=WARN");
+            return new BenchmarkApplication(postgres, context);
+        } catch (RuntimeException e) {
+            postgres.close();
+            throw e;
+        }
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
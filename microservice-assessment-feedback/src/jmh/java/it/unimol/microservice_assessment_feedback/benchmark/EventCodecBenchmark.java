@@ -0,0 +1,137 @@
+package it.unimol.microservice_assessment_feedback.benchmark;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.EventCodec;
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.ExamGradeRegisteredEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.outbound.AssessmentEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializzazione e deserializzazione degli eventi: record tipizzati con EventCodec contro le mappe
+ * convertite da Jackson2JsonMessageConverter e lette campo per campo, come facevano publisher e consumer
+ * prima degli eventi tipizzati. L'allocazione per messaggio si misura con -prof gc (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    private static final LocalDateTime ASSESSMENT_DATE = LocalDateTime.of(2025, 10, 18, 10, 0);
+
+    private EventCodec codec;
+    private Jackson2JsonMessageConverter converter;
+    private byte[] gradeRegisteredBody;
+    private Message gradeRegisteredMessage;
+
+    @Setup
+    public void setUp() {
+        codec = new EventCodec();
+        converter = new Jackson2JsonMessageConverter();
+
+        ExamGradeRegisteredEvent event = new ExamGradeRegisteredEvent("EXAM_GRADE_REGISTERED", 1,
+                "exam-service", 1760000000000L, "exam-1", "assessment-1", "student-1", "course-1", "teacher-1",
+                27, 30, "B+", "Buona padronanza degli argomenti", 1760000000000L);
+        gradeRegisteredBody = codec.writeAsString(event).getBytes(StandardCharsets.UTF_8);
+
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        // Intestazioni impostate da Jackson2JsonMessageConverter quando il publisher invia una HashMap
+        properties.setHeader("__TypeId__", HashMap.class.getName());
+        properties.setHeader("__KeyTypeId__", String.class.getName());
+        properties.setHeader("__ContentTypeId__", Object.class.getName());
+        gradeRegisteredMessage = new Message(gradeRegisteredBody, properties);
+    }
+
+    @Benchmark
+    public String encodeTypedEvent() {
+        return codec.writeAsString(new AssessmentEvent("ASSESSMENT_CREATED", AssessmentEvent.VERSION,
+                "assessment-feedback-service", 1760000000000L, "assessment-1", "exam-1", "EXAM", "student-1",
+                "teacher-1", "course-1", 27.0, ASSESSMENT_DATE, null));
+    }
+
+    @Benchmark
+    public Message encodeMap() {
+        Map<String, Object> message = new HashMap<>();
+        message.put("eventType", "ASSESSMENT_CREATED");
+        message.put("serviceName", "assessment-feedback-service");
+        message.put("timestamp", 1760000000000L);
+        message.put("assessmentId", "assessment-1");
+        message.put("referenceId", "exam-1");
+        message.put("referenceType", "EXAM");
+        message.put("studentId", "student-1");
+        message.put("teacherId", "teacher-1");
+        message.put("courseId", "course-1");
+        message.put("score", 27.0);
+        message.put("assessmentDate", ASSESSMENT_DATE);
+        message.put("notes", null);
+        return converter.toMessage(message, new MessageProperties());
+    }
+
+    @Benchmark
+    public void decodeTypedEvent(Blackhole blackhole) {
+        ExamGradeRegisteredEvent event = codec.read(gradeRegisteredBody, ExamGradeRegisteredEvent.class);
+        blackhole.consume(event.examId());
+        blackhole.consume(event.score());
+        blackhole.consume(event.maxScore());
+        blackhole.consume(event.gradeDate());
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void decodeMap(Blackhole blackhole) {
+        Map<String, Object> message = (Map<String, Object>) converter.fromMessage(gradeRegisteredMessage);
+        blackhole.consume(getStringValue(message, "examId"));
+        blackhole.consume(getIntegerValue(message, "score"));
+        blackhole.consume(getIntegerValue(message, "maxScore"));
+        blackhole.consume(getLongValue(message, "gradeDate"));
+    }
+
+    // Estrazione dei valori come nei vecchi helper di BaseEventConsumer
+    private static String getStringValue(Map<String, Object> message, String key) {
+        Object value = message.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    private static Integer getIntegerValue(Map<String, Object> message, String key) {
+        Object value = message.get(key);
+        if (value instanceof Integer integer) {
+            return integer;
+        } else if (value instanceof String string) {
+            return Integer.valueOf(string);
+        }
+        return null;
+    }
+
+    private static Long getLongValue(Map<String, Object> message, String key) {
+        Object value = message.get(key);
+        if (value instanceof Long longValue) {
+            return longValue;
+        } else if (value instanceof Integer integer) {
+            return integer.longValue();
+        } else if (value instanceof String string) {
+            return Long.valueOf(string);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,155 @@
+package it.unimol.microservice_assessment_feedback.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.unimol.microservice_assessment_feedback.messaging.outbox.OutboxRelay;
+import it.unimol.microservice_assessment_feedback.model.OutboxEvent;
+import it.unimol.microservice_assessment_feedback.repository.OutboxEventRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput del relay dell'outbox verso un broker simulato che conferma ogni messaggio in modo asincrono
+ * dopo una latenza fissa. Con maxInFlight = 1 ogni invio attende la propria conferma (pubblicazione
+ * messaggio per messaggio), con la finestra di default gli invii procedono in pipeline.
+ * Il risultato è espresso in eventi pubblicati al secondo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OutboxRelayBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final String[] ROUTING_KEYS = {"assessment.created", "assessment.updated", "feedback.created"};
+    private static final String PAYLOAD = "{\"eventType\":\"ASSESSMENT_CREATED\",\"version\":1," +
+            "\"serviceName\":\"assessment-feedback-service\",\"timestamp\":1760000000000," +
+            "\"assessmentId\":\"0199f1d2-7c4e-7a3b-9d2e-4f6a8b0c1d2e\",\"referenceId\":\"exam-1\"," +
+            "\"referenceType\":\"EXAM\",\"studentId\":\"student-1\",\"teacherId\":\"teacher-1\"," +
+            "\"courseId\":\"course-1\",\"score\":27.0,\"assessmentDate\":\"2025-10-18T10:00:00\",\"notes\":null}";
+
+    @Param({"1", "256"})
+    private int maxInFlight;
+
+    @Param({"200", "1000"})
+    private long confirmLatencyMicros;
+
+    private ScheduledExecutorService broker;
+    private OutboxRelay relay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        broker = Executors.newSingleThreadScheduledExecutor();
+
+        OutboxEventRepository repository = (OutboxEventRepository) Proxy.newProxyInstance(
+                OutboxEventRepository.class.getClassLoader(), new Class<?>[]{OutboxEventRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findPendingForUpdate" -> pendingBatch();
+                    case "countByPublishedAtIsNullAndFailedAtIsNull", "countByFailedAtIsNotNull" -> 0L;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        relay = new OutboxRelay(repository, new BrokerStandIn(broker, confirmLatencyMicros),
+                new TransactionTemplate(new NoOpTransactionManager()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(relay, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(relay, "maxBatchesPerRun", 1);
+        ReflectionTestUtils.setField(relay, "maxInFlight", maxInFlight);
+        ReflectionTestUtils.setField(relay, "confirmTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(relay, "maxBackoffSeconds", 300L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        broker.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void relayBatch() {
+        relay.relay();
+    }
+
+    private static List<OutboxEvent> pendingBatch() {
+        List<OutboxEvent> events = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            OutboxEvent event = new OutboxEvent("assessment.exchange", ROUTING_KEYS[i % ROUTING_KEYS.length],
+                    "ASSESSMENT_CREATED", "ASSESSMENT", "assessment-" + i, "java.util.HashMap", PAYLOAD);
+            event.setId(UUID.randomUUID().toString());
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * RabbitTemplate che al posto del broker conferma ogni messaggio dopo confirmLatencyMicros,
+     * nell'ordine di invio, come farebbe un canale con publisher confirm.
+     */
+    private static final class BrokerStandIn extends RabbitTemplate {
+
+        private final ScheduledExecutorService broker;
+        private final long confirmLatencyMicros;
+
+        private BrokerStandIn(ScheduledExecutorService broker, long confirmLatencyMicros) {
+            this.broker = broker;
+            this.confirmLatencyMicros = confirmLatencyMicros;
+        }
+
+        @Override
+        public <T> T invoke(OperationsCallback<T> action) {
+            return action.doInRabbit(this);
+        }
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            broker.schedule(() -> correlationData.getFuture().complete(new CorrelationData.Confirm(true, null)),
+                    confirmLatencyMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package it.unimol.microservice_assessment_feedback.benchmark;
+
+import it.unimol.microservice_assessment_feedback.dto.SurveyStatisticsDTO;
+import it.unimol.microservice_assessment_feedback.model.TeacherSurvey;
+import it.unimol.microservice_assessment_feedback.repository.SurveyResponseRepository;
+import it.unimol.microservice_assessment_feedback.repository.TeacherSurveyRepository;
+import it.unimol.microservice_assessment_feedback.service.SurveyResultAggregateService;
+import it.unimol.microservice_assessment_feedback.service.SurveyStatisticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistiche di un questionario con 100k risposte (20k studenti, 5 domande di valutazione,
+ * uno studente su dieci senza l'ultima risposta): calcolo completo dal servizio e, separatamente,
+ * la sola query dei conteggi di completamento, che è l'unica parte proporzionale al numero di risposte.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SurveyStatisticsBenchmark {
+
+    private static final int STUDENTS = 20_000;
+    private static final int QUESTIONS = 5;
+    private static final int ENROLLED_STUDENTS = 25_000;
+
+    private BenchmarkApplication application;
+    private SurveyStatisticsService statisticsService;
+    private TeacherSurveyRepository surveyRepository;
+    private SurveyResponseRepository responseRepository;
+    private String surveyId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        application = BenchmarkApplication.start(true);
+        statisticsService = application.getBean(SurveyStatisticsService.class);
+        surveyRepository = application.getBean(TeacherSurveyRepository.class);
+        responseRepository = application.getBean(SurveyResponseRepository.class);
+        JdbcTemplate jdbcTemplate = application.getBean(JdbcTemplate.class);
+
+        surveyId = UUID.randomUUID().toString();
+        StringBuilder questions = new StringBuilder("[");
+        for (int q = 1; q <= QUESTIONS; q++) {
+            questions.append(q > 1 ? "," : "")
+                    .append("{\"id\":\"q").append(q).append("\",\"questionText\":\"Domanda ").append(q)
+                    .append("\",\"questionType\":\"RATING\"}");
+        }
+        questions.append("]");
+        jdbcTemplate.update("INSERT INTO teacher_surveys (id, course_id, teacher_id, academic_year, semester, status, " +
+                        "creation_date, title, questions) VALUES (?, 'course-1', 'teacher-1', '2025/2026', 1, 'ACTIVE', " +
+                        "now(), 'Questionario', CAST(? AS jsonb))",
+                surveyId, questions.toString());
+
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int s = 0; s < STUDENTS; s++) {
+            int answered = s % 10 == 0 ? QUESTIONS - 1 : QUESTIONS;
+            for (int q = 1; q <= answered; q++) {
+                rows.add(new Object[]{UUID.randomUUID().toString(), surveyId, "student-" + s, "q" + q,
+                        1 + random.nextInt(5)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO survey_responses (id, survey_id, student_id, question_id, " +
+                "numeric_rating, submission_date) VALUES (?, ?, ?, ?, ?, now())", rows);
+        jdbcTemplate.execute("VACUUM ANALYZE survey_responses");
+
+        application.getBean(SurveyResultAggregateService.class).rebuildAggregates(surveyId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    @Benchmark
+    public SurveyStatisticsDTO computeStatistics() {
+        TeacherSurvey survey = surveyRepository.findById(surveyId).orElseThrow();
+        return statisticsService.computeStatistics(survey, ENROLLED_STUDENTS);
+    }
+
+    @Benchmark
+    public SurveyResponseRepository.CompletionCounts completionCounts() {
+        return responseRepository.countCompletion(surveyId, QUESTIONS);
+    }
+}
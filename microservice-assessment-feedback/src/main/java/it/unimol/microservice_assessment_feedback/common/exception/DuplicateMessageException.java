@@ -0,0 +1,7 @@
+package it.unimol.microservice_assessment_feedback.common.exception;
+
+public class DuplicateMessageException extends RuntimeException {
+    public DuplicateMessageException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package it.unimol.microservice_assessment_feedback.common.exception;
+
+public class ExportLimitExceededException extends RuntimeException {
+
+    public ExportLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package it.unimol.microservice_assessment_feedback.common.util;
+
+import java.util.function.Function;
+
+/**
+ * Colonna di un export CSV: intestazione e funzione che estrae il valore dalla riga.
+ */
+public record ExportColumn<T>(String header, Function<T, Object> value) {
+}
@@ -0,0 +1,166 @@
+package it.unimol.microservice_assessment_feedback.common.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import it.unimol.microservice_assessment_feedback.common.exception.ExportLimitExceededException;
+import it.unimol.microservice_assessment_feedback.enums.ExportFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Scrive un export CSV o NDJSON, eventualmente compresso gzip, direttamente sulla risposta HTTP
+ * mentre le righe arrivano dal cursore, così la memoria usata non dipende dal numero di righe.
+ * Gli export contemporanei sono limitati: ognuno occupa un thread e una connessione per tutta
+ * la durata del download, e senza limite un export lento sottrarrebbe risorse alle altre richieste.
+ */
+@Component
+public class ExportResponseWriter {
+
+    private static final int FLUSH_INTERVAL = 500;
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final ObjectWriter writer;
+    private final Semaphore permits;
+
+    public ExportResponseWriter(ObjectMapper objectMapper,
+                                @Value("${export.max-concurrent:4}") int maxConcurrentExports) {
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.permits = new Semaphore(maxConcurrentExports);
+    }
+
+    /**
+     * @param response La risposta HTTP su cui scrivere
+     * @param fileName Nome del file proposto al client, senza estensione
+     * @param format Formato delle righe
+     * @param gzip Se true il contenuto viene compresso e il file ha estensione .gz
+     * @param columns Colonne del CSV, ignorate per NDJSON
+     * @param producer Funzione che invia ogni elemento al consumer ricevuto
+     * @return Il numero di righe scritte, intestazione CSV esclusa
+     * @throws ExportLimitExceededException se è già in corso il numero massimo di export
+     */
+    public <T> long write(HttpServletResponse response, String fileName, ExportFormat format, boolean gzip,
+                          List<ExportColumn<T>> columns, Consumer<Consumer<T>> producer) throws IOException {
+        if (!permits.tryAcquire()) {
+            throw new ExportLimitExceededException("Troppi export in corso, riprovare più tardi");
+        }
+
+        try {
+            String extension = format.getExtension() + (gzip ? ".gz" : "");
+            if (gzip) {
+                response.setContentType("application/gzip");
+            } else {
+                response.setContentType(format.getContentType());
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            }
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"" + fileName.replaceAll("[^A-Za-z0-9._-]", "_") + "." + extension + "\"");
+
+            OutputStream out = response.getOutputStream();
+            if (gzip) {
+                // syncFlush: ogni flush periodico invia al client anche i dati già compressi
+                out = new GZIPOutputStream(out, GZIP_BUFFER_SIZE, true);
+            }
+
+            long lines;
+            try {
+                lines = writeRows(out, format, columns, producer);
+            } catch (RuntimeException e) {
+                // Errore prima dell'invio dei dati (es. risorsa inesistente): si scarta il contenuto
+                // parziale così il gestore delle eccezioni può rispondere con il normale errore JSON
+                if (!response.isCommitted()) {
+                    response.reset();
+                }
+                throw e;
+            }
+            if (out instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+            out.flush();
+            return lines;
+        } finally {
+            permits.release();
+        }
+    }
+
+    private <T> long writeRows(OutputStream out, ExportFormat format, List<ExportColumn<T>> columns,
+                               Consumer<Consumer<T>> producer) throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.write(csvHeader(columns));
+        }
+
+        long[] lines = {0};
+        try {
+            producer.accept(item -> {
+                try {
+                    if (format == ExportFormat.CSV) {
+                        out.write(csvRow(columns, item));
+                    } else {
+                        out.write(writer.writeValueAsBytes(item));
+                        out.write('\n');
+                    }
+                    if (++lines[0] % FLUSH_INTERVAL == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return lines[0];
+    }
+
+    private static <T> byte[] csvHeader(List<ExportColumn<T>> columns) {
+        StringBuilder line = new StringBuilder();
+        for (ExportColumn<T> column : columns) {
+            if (!line.isEmpty()) {
+                line.append(',');
+            }
+            appendCsvValue(line, column.header());
+        }
+        return line.append("\r\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static <T> byte[] csvRow(List<ExportColumn<T>> columns, T item) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendCsvValue(line, columns.get(i).value().apply(item));
+        }
+        return line.append("\r\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Quoting RFC 4180. I testi che iniziano con =, +, -, @, tabulazione o ritorno a capo vengono
+     * prefissati con un apice, così i fogli di calcolo non li interpretano come formule.
+     */
+    private static void appendCsvValue(StringBuilder line, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            line.append('"').append(text.replace("\"", "\"\"")).append('"');
+        } else {
+            line.append(text);
+        }
+    }
+}
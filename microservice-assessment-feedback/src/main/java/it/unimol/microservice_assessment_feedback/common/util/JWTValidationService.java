@@ -1,28 +1,85 @@
 package it.unimol.microservice_assessment_feedback.common.util;
 
+import java.nio.charset.StandardCharsets;
 import java.security.KeyFactory;
-import java.security.PrivateKey;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class JWTValidationService {
 
+    /**
+     * Attributo di request in cui il filtro di sicurezza salva le informazioni utente già validate,
+     * così l'interceptor non deve rianalizzare il token.
+     */
+    public static final String USER_INFO_ATTRIBUTE = "jwtUserInfo";
+
     @Value("${jwt.public-key}")
     private String publicKeyString;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    @Value("${jwt.claims-cache.max-ttl-seconds:3600}")
+    private long claimsCacheMaxTtlSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private PublicKey publicKey;
 
+    private JwtParser jwtParser;
+
+    private Cache<String, Claims> claimsCache;
+
+    private Timer verificationTimer;
+
+    /**
+     * Inizializza parser, cache dei claims verificati e metriche.
+     * Il parser è thread-safe e viene costruito una sola volta.
+     */
+    @PostConstruct
+    void init() {
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(getPublicKey())
+                .build();
+
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new ClaimsExpiry(TimeUnit.SECONDS.toNanos(claimsCacheMaxTtlSeconds)))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt.claims");
+        this.verificationTimer = Timer.builder("jwt.verification")
+                .description("Tempo di verifica della firma dei token JWT")
+                .register(meterRegistry);
+    }
+
     /**
      * Decifra e restituisce la chiave pubblica per la verifica dei token JWT.
      */
@@ -52,18 +109,43 @@ public class JWTValidationService {
 
     /**
      * Estrae tutti i claims dal token JWT.
+     * I claims già verificati vengono serviti dalla cache (chiave: digest SHA-256 del token),
+     * quindi la firma RSA viene verificata una sola volta per token.
      */
     private Claims extractAllClaims(String token) {
+        String key = digest(token);
+        Claims cached = claimsCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = verify(token);
+        claimsCache.put(key, claims);
+        return claims;
+    }
+
+    /**
+     * Verifica firma e scadenza del token, registrando il tempo impiegato.
+     */
+    private Claims verify(String token) {
+        long start = System.nanoTime();
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getPublicKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (JwtException e) {
             throw new RuntimeException("Token JWT non valido: " + e.getMessage(), e);
         } catch (Exception e) {
             throw new RuntimeException("Errore durante l'analisi del token: " + e.getMessage(), e);
+        } finally {
+            verificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponibile", e);
         }
     }
 
@@ -99,7 +181,12 @@ public class JWTValidationService {
      * Verifica se il token JWT è scaduto.
      */
     public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return isExpired(extractAllClaims(token));
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
     }
 
     /**
@@ -108,9 +195,7 @@ public class JWTValidationService {
      */
     public boolean isTokenValid(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-
-            return !isTokenExpired(token);
+            return !isExpired(extractAllClaims(token));
         } catch (Exception e) {
             System.err.println("Token validation failed: " + e.getMessage());
             return false;
@@ -122,15 +207,21 @@ public class JWTValidationService {
      * Utile per i controller.
      */
     public UserInfo validateTokenAndGetUserInfo(String token) {
-        if (!isTokenValid(token)) {
-            throw new RuntimeException("Token non valido o scaduto");
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (Exception e) {
+            throw new RuntimeException("Token non valido o scaduto", e);
         }
 
-        String userId = extractUserId(token);
-        String username = extractUsername(token);
-        String role = extractRole(token);
+        if (isExpired(claims)) {
+            throw new RuntimeException("Token non valido o scaduto");
+        }
 
-        return new UserInfo(userId, username, role);
+        return new UserInfo(
+                claims.getSubject(),
+                claims.get("username", String.class),
+                claims.get("role", String.class));
     }
 
     /**
@@ -222,4 +313,37 @@ public class JWTValidationService {
             throw new RuntimeException("Errore nell'estrazione del teacherId dal token JWT", e);
         }
     }
+
+    /**
+     * Fa scadere le voci della cache insieme al token (claim exp),
+     * con un limite massimo configurabile per i token senza scadenza.
+     */
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        private final long maxTtlNanos;
+
+        ClaimsExpiry(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long remaining = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(remaining, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
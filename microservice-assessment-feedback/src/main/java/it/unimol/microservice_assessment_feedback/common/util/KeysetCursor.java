@@ -0,0 +1,53 @@
+package it.unimol.microservice_assessment_feedback.common.util;
+
+import it.unimol.microservice_assessment_feedback.common.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Cursore opaco per la paginazione keyset su (data, id).
+ * Il client lo riceve come stringa Base64 URL-safe e lo rimanda invariato per la pagina successiva.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final String id;
+
+    public KeysetCursor(LocalDateTime timestamp, String id) {
+        this.timestamp = Objects.requireNonNull(timestamp);
+        this.id = Objects.requireNonNull(id);
+    }
+
+    public String encode() {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursore ricevuto dal client.
+     *
+     * @throws InvalidCursorException se il cursore non è stato generato da {@link #encode()}
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new InvalidCursorException("Cursore di paginazione non valido");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Cursore di paginazione non valido", e);
+        }
+    }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+
+    public String getId() { return id; }
+}
@@ -1,32 +1,22 @@
 package it.unimol.microservice_assessment_feedback.common.util;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.util.List;
 
+/**
+ * Converte le domande del questionario nel JSON salvato nella colonna questions (jsonb su PostgreSQL).
+ * Usa reader e writer condivisi di {@link SurveyQuestionsJson} invece di un ObjectMapper per istanza.
+ */
 @Converter
 public class ListToJsonConverter implements AttributeConverter<List<TeacherSurveyDTO.SurveyQuestionDTO>, String> {
 
     private static final Logger logger = LoggerFactory.getLogger(ListToJsonConverter.class);
-    private final ObjectMapper objectMapper;
-
-    /**
-     * Costruttore. Inizializza ObjectMapper con il modulo per la gestione delle date
-     */
-    public ListToJsonConverter() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
-    }
 
     /**
      * Converte una lista di oggetti SurveyQuestionDTO in una stringa JSON per il database.
@@ -40,7 +30,7 @@ public class ListToJsonConverter implements AttributeConverter<List<TeacherSurve
             return null;
         }
         try {
-            return objectMapper.writeValueAsString(attribute);
+            return SurveyQuestionsJson.write(attribute);
         } catch (JsonProcessingException e) {
             logger.error("Errore durante la serializzazione della lista di domande in JSON: {}", e.getMessage(), e);
             return null;
@@ -59,8 +49,8 @@ public class ListToJsonConverter implements AttributeConverter<List<TeacherSurve
             return null;
         }
         try {
-            return objectMapper.readValue(dbData, objectMapper.getTypeFactory().constructCollectionType(List.class, TeacherSurveyDTO.SurveyQuestionDTO.class));
-        } catch (IOException e) {
+            return SurveyQuestionsJson.readList(dbData);
+        } catch (JsonProcessingException e) {
             logger.error("Errore durante la deserializzazione della stringa JSON in lista di domande: {}", e.getMessage(), e);
             return null;
         }
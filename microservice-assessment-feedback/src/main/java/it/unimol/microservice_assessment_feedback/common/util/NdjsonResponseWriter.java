@@ -0,0 +1,68 @@
+package it.unimol.microservice_assessment_feedback.common.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Scrive una sequenza di oggetti come NDJSON (un documento JSON per riga) direttamente
+ * sulla risposta HTTP, senza accumulare la collezione in memoria.
+ */
+@Component
+public class NdjsonResponseWriter {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final ObjectWriter writer;
+
+    public NdjsonResponseWriter(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * @param response La risposta HTTP su cui scrivere
+     * @param producer Funzione che invia ogni elemento al consumer ricevuto
+     * @return Il numero di righe scritte
+     */
+    public <T> long write(HttpServletResponse response, Consumer<Consumer<T>> producer) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ServletOutputStream out = response.getOutputStream();
+
+        long[] lines = {0};
+        try {
+            producer.accept(item -> {
+                try {
+                    out.write(writer.writeValueAsBytes(item));
+                    out.write('\n');
+                    if (++lines[0] % FLUSH_INTERVAL == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            // Errore prima dell'invio dei dati (es. accesso negato): si scartano content type e righe
+            // parziali così il gestore delle eccezioni può rispondere con il normale errore JSON
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+
+        out.flush();
+        return lines[0];
+    }
+}
@@ -0,0 +1,59 @@
+package it.unimol.microservice_assessment_feedback.common.util;
+
+import it.unimol.microservice_assessment_feedback.common.exception.InvalidCursorException;
+import it.unimol.microservice_assessment_feedback.dto.CursorPageDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Cursore opaco per i risultati ordinati per rilevanza, dove non esiste una chiave keyset stabile:
+ * codifica la posizione del primo elemento della pagina successiva.
+ */
+public final class OffsetCursor {
+
+    private static final String PREFIX = "o:";
+
+    private OffsetCursor() {}
+
+    public static String encode(int offset) {
+        String raw = PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursore ricevuto dal client; null o vuoto indica la prima pagina.
+     *
+     * @throws InvalidCursorException se il cursore non è stato generato da {@link #encode(int)}
+     */
+    public static int decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Cursore di paginazione non valido");
+            }
+            int offset = Integer.parseInt(raw.substring(PREFIX.length()));
+            if (offset < 0) {
+                throw new InvalidCursorException("Cursore di paginazione non valido");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursore di paginazione non valido", e);
+        }
+    }
+
+    /**
+     * Costruisce la pagina a partire da una lettura di pageSize + 1 elementi:
+     * l'elemento in più indica solo che esiste una pagina successiva.
+     */
+    public static <T> CursorPageDTO<T> page(List<T> fetched, int offset, int pageSize) {
+        if (fetched.size() <= pageSize) {
+            return new CursorPageDTO<>(fetched, null, false);
+        }
+        return new CursorPageDTO<>(List.copyOf(fetched.subList(0, pageSize)), encode(offset + pageSize), true);
+    }
+}
@@ -0,0 +1,44 @@
+package it.unimol.microservice_assessment_feedback.common.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
+
+import java.util.List;
+
+/**
+ * Reader e writer Jackson per le domande dei questionari, configurati una sola volta e condivisi:
+ * ObjectReader e ObjectWriter sono immutabili e thread-safe.
+ */
+public final class SurveyQuestionsJson {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    private static final ObjectReader LIST_READER = MAPPER.readerFor(
+            MAPPER.getTypeFactory().constructCollectionType(List.class, TeacherSurveyDTO.SurveyQuestionDTO.class));
+
+    private static final ObjectReader QUESTION_READER = MAPPER.readerFor(TeacherSurveyDTO.SurveyQuestionDTO.class);
+
+    private static final ObjectWriter LIST_WRITER = MAPPER.writerFor(
+            MAPPER.getTypeFactory().constructCollectionType(List.class, TeacherSurveyDTO.SurveyQuestionDTO.class));
+
+    private SurveyQuestionsJson() {}
+
+    public static String write(List<TeacherSurveyDTO.SurveyQuestionDTO> questions) throws JsonProcessingException {
+        return LIST_WRITER.writeValueAsString(questions);
+    }
+
+    public static List<TeacherSurveyDTO.SurveyQuestionDTO> readList(String json) throws JsonProcessingException {
+        return LIST_READER.readValue(json);
+    }
+
+    public static TeacherSurveyDTO.SurveyQuestionDTO readQuestion(String json) throws JsonProcessingException {
+        return QUESTION_READER.readValue(json);
+    }
+}
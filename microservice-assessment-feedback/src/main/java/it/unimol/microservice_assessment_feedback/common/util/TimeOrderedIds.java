@@ -0,0 +1,34 @@
+package it.unimol.microservice_assessment_feedback.common.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generatore di identificativi UUID versione 7 (RFC 9562): i primi 48 bit sono il timestamp in millisecondi,
+ * quindi gli id crescono nel tempo e gli insert sull'indice della chiave primaria avvengono in coda.
+ * I 12 bit successivi sono un contatore che mantiene l'ordine anche tra id generati nello stesso millisecondo.
+ */
+public final class TimeOrderedIds {
+
+    private static final int COUNTER_BITS = 12;
+
+    /**
+     * Ultimo valore emesso: timestamp in millisecondi seguito dai bit del contatore.
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedIds() {}
+
+    public static String next() {
+        long candidate = System.currentTimeMillis() << COUNTER_BITS;
+        long value = LAST.updateAndGet(previous -> Math.max(candidate, previous + 1));
+
+        long timestamp = value >>> COUNTER_BITS;
+        long counter = value & ((1L << COUNTER_BITS) - 1);
+        long mostSignificant = (timestamp << 16) | 0x7000L | counter;
+        long leastSignificant = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return new UUID(mostSignificant, leastSignificant).toString();
+    }
+}
@@ -36,8 +36,12 @@ public class JWTInterceptor implements HandlerInterceptor {
         }
 
         try {
-            String token = jwtValidationService.extractTokenFromHeader(authHeader);
-            JWTValidationService.UserInfo userInfo = jwtValidationService.validateTokenAndGetUserInfo(token);
+            JWTValidationService.UserInfo userInfo =
+                    (JWTValidationService.UserInfo) request.getAttribute(JWTValidationService.USER_INFO_ATTRIBUTE);
+            if (userInfo == null) {
+                String token = jwtValidationService.extractTokenFromHeader(authHeader);
+                userInfo = jwtValidationService.validateTokenAndGetUserInfo(token);
+            }
 
             request.setAttribute("userId", userInfo.userId());
             request.setAttribute("username", userInfo.username());
@@ -0,0 +1,59 @@
+package it.unimol.microservice_assessment_feedback.config.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Stato del routing lettura/scrittura legato al thread corrente.
+ * Durante una richiesta HTTP, dopo la prima transazione di scrittura, le letture successive
+ * restano sul primario (read-your-writes) fino alla fine della richiesta.
+ */
+public final class ReadWriteRoutingContext {
+
+    private static final ThreadLocal<RequestState> REQUEST = new ThreadLocal<>();
+
+    private static final ThreadLocal<Integer> PRIMARY_FORCED = ThreadLocal.withInitial(() -> 0);
+
+    private enum RequestState { OPEN, PINNED }
+
+    private ReadWriteRoutingContext() {}
+
+    static void beginRequest() {
+        REQUEST.set(RequestState.OPEN);
+    }
+
+    static void endRequest() {
+        REQUEST.remove();
+    }
+
+    /**
+     * Registra una scrittura: se il thread sta servendo una richiesta, questa resta sul primario.
+     */
+    static void markWrite() {
+        if (REQUEST.get() != null) {
+            REQUEST.set(RequestState.PINNED);
+        }
+    }
+
+    static boolean isPinnedToPrimary() {
+        return REQUEST.get() == RequestState.PINNED || PRIMARY_FORCED.get() > 0;
+    }
+
+    /**
+     * Esegue l'operazione leggendo dal primario anche se la transazione corrente è in sola lettura.
+     * Va usato per i caricamenti che alimentano cache locali, che altrimenti potrebbero memorizzare
+     * un dato non ancora replicato subito dopo un'invalidazione.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        PRIMARY_FORCED.set(PRIMARY_FORCED.get() + 1);
+        try {
+            return action.get();
+        } finally {
+            int depth = PRIMARY_FORCED.get() - 1;
+            if (depth == 0) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(depth);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package it.unimol.microservice_assessment_feedback.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource che instrada le transazioni in sola lettura verso la replica e tutto il resto verso il primario.
+ * Va avvolto in un LazyConnectionDataSourceProxy, così la scelta avviene al primo statement,
+ * quando il flag readOnly della transazione è già impostato.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadWriteRoutingContext.markWrite();
+            }
+            return Route.PRIMARY;
+        }
+        return ReadWriteRoutingContext.isPinnedToPrimary() ? Route.PRIMARY : Route.REPLICA;
+    }
+}
@@ -0,0 +1,26 @@
+package it.unimol.microservice_assessment_feedback.config.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Delimita la richiesta HTTP entro cui vale la stickiness sul primario dopo una scrittura.
+ */
+public class ReadWriteRoutingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReadWriteRoutingContext.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingContext.endRequest();
+        }
+    }
+}
@@ -378,6 +378,22 @@ public class RabbitMQInfrastructureConfig {
         return createDurableQueueWithDLX(properties.getQueue().getRoleAssigned());
     }
 
+    // ===================================================================
+    //  CACHE INVALIDATION - coda anonima per istanza (fanout sul topic exchange)
+    // ===================================================================
+    @Bean
+    public Queue surveyCacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("assessment-feedback.survey-cache."));
+    }
+
+    @Bean
+    public Binding surveyCacheInvalidationBinding() {
+        return BindingBuilder
+                .bind(surveyCacheInvalidationQueue())
+                .to(assessmentsExchange())
+                .with(SURVEY_CACHE_INVALIDATED);
+    }
+
     // ===================================================================
     //  UTILITY METHODS
     // ===================================================================
@@ -0,0 +1,134 @@
+package it.unimol.microservice_assessment_feedback.config.rabbitmq;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.Map;
+
+/**
+ * Container factory dedicate per famiglia di code consumate (assignment, exam, course, user, cache),
+ * ciascuna con concorrenza, prefetch ed executor configurabili tramite rabbitmq.listener.*.
+ * I container espongono il timer Micrometer spring.rabbitmq.listener con tag per coda e famiglia.
+ * Per le code ad alto volume (consegne ed esami completati) sono disponibili anche factory in
+ * modalità batch, attive con rabbitmq.listener.batch.enabled.
+ * Con spring.threads.virtual.enabled su Java 21 il configurer di Spring Boot assegna a tutte le factory
+ * un executor a thread virtuali; rabbitmq.listener.*.virtual-threads lo abilita per la singola famiglia.
+ */
+@Configuration
+public class RabbitMQListenerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RabbitMQListenerConfig.class);
+
+    private final RabbitMQProperties properties;
+    private final ConnectionFactory connectionFactory;
+    private final Jackson2JsonMessageConverter messageConverter;
+    private final ObjectProvider<SimpleRabbitListenerContainerFactoryConfigurer> configurer;
+
+    public RabbitMQListenerConfig(RabbitMQProperties properties,
+                                  ConnectionFactory connectionFactory,
+                                  Jackson2JsonMessageConverter messageConverter,
+                                  ObjectProvider<SimpleRabbitListenerContainerFactoryConfigurer> configurer) {
+        this.properties = properties;
+        this.connectionFactory = connectionFactory;
+        this.messageConverter = messageConverter;
+        this.configurer = configurer;
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory assignmentListenerContainerFactory() {
+        return createFactory("assignment", properties.getListener().getAssignment());
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory examListenerContainerFactory() {
+        return createFactory("exam", properties.getListener().getExam());
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory courseListenerContainerFactory() {
+        return createFactory("course", properties.getListener().getCourse());
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory userListenerContainerFactory() {
+        return createFactory("user", properties.getListener().getUser());
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory cacheListenerContainerFactory() {
+        return createFactory("cache", properties.getListener().getCache());
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory assignmentBatchListenerContainerFactory() {
+        return createBatchFactory("assignment", properties.getListener().getAssignment());
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory examBatchListenerContainerFactory() {
+        return createBatchFactory("exam", properties.getListener().getExam());
+    }
+
+    /**
+     * Consegna al listener fino a batch.size messaggi, o quelli arrivati entro batch.receive-timeout-ms.
+     * L'ack è manuale: il listener conferma il blocco e rifiuta singolarmente i messaggi non elaborabili.
+     */
+    private SimpleRabbitListenerContainerFactory createBatchFactory(String family, RabbitMQProperties.Listener.Family settings) {
+        RabbitMQProperties.Listener.Batch batch = properties.getListener().getBatch();
+        SimpleRabbitListenerContainerFactory factory = createFactory(family, settings);
+
+        int batchSize = Math.max(1, batch.getSize());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setDeBatchingEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batch.getReceiveTimeoutMs());
+        factory.setPrefetchCount(Math.max(batchSize, settings.getPrefetch()));
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+
+        return factory;
+    }
+
+    private SimpleRabbitListenerContainerFactory createFactory(String family, RabbitMQProperties.Listener.Family settings) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+
+        // Applica prima spring.rabbitmq.listener.simple.* (retry, acknowledge mode, ...) se disponibile
+        SimpleRabbitListenerContainerFactoryConfigurer bootConfigurer = configurer.getIfAvailable();
+        if (bootConfigurer != null) {
+            bootConfigurer.configure(factory, connectionFactory);
+        } else {
+            factory.setConnectionFactory(connectionFactory);
+        }
+        factory.setMessageConverter(messageConverter);
+
+        int concurrency = Math.max(1, settings.getConcurrency());
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, settings.getMaxConcurrency()));
+        factory.setPrefetchCount(Math.max(1, settings.getPrefetch()));
+
+        if (settings.isVirtualThreads()) {
+            if (JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(family + "-consumer-");
+                executor.setVirtualThreads(true);
+                factory.setTaskExecutor(executor);
+            } else {
+                logger.warn("rabbitmq.listener.{}.virtual-threads ignored: virtual threads require Java 21", family);
+            }
+        }
+
+        factory.setMicrometerEnabled(true);
+        factory.setContainerCustomizer(container -> container.setMicrometerTags(Map.of("family", family)));
+
+        return factory;
+    }
+}
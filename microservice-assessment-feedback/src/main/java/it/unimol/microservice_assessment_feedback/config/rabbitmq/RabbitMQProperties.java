@@ -10,6 +10,7 @@ public class RabbitMQProperties {
     private Exchange exchange = new Exchange();
     private Queue queue = new Queue();
     private Message message = new Message();
+    private Listener listener = new Listener();
 
     // ===================================================================
     //  EXCHANGE CONFIGURATION
@@ -311,6 +312,79 @@ public class RabbitMQProperties {
         public void setTtl(int ttl) { this.ttl = ttl; }
     }
 
+    // ===================================================================
+    //  LISTENER CONFIGURATION (per famiglia di code)
+    // ===================================================================
+    public static class Listener {
+        private Family assignment = new Family(2, 8, 20);
+        private Family exam = new Family(4, 16, 50);
+        private Family course = new Family(1, 2, 10);
+        private Family user = new Family(1, 4, 20);
+        private Family cache = new Family(1, 1, 10);
+        private Batch batch = new Batch();
+
+        public static class Batch {
+            private boolean enabled = false;
+            private int size = 100;
+            private long receiveTimeoutMs = 200;
+
+            public boolean isEnabled() { return enabled; }
+            public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+            public int getSize() { return size; }
+            public void setSize(int size) { this.size = size; }
+
+            public long getReceiveTimeoutMs() { return receiveTimeoutMs; }
+            public void setReceiveTimeoutMs(long receiveTimeoutMs) { this.receiveTimeoutMs = receiveTimeoutMs; }
+        }
+
+        public static class Family {
+            private int concurrency;
+            private int maxConcurrency;
+            private int prefetch;
+            private boolean virtualThreads = false;
+
+            public Family() {
+            }
+
+            public Family(int concurrency, int maxConcurrency, int prefetch) {
+                this.concurrency = concurrency;
+                this.maxConcurrency = maxConcurrency;
+                this.prefetch = prefetch;
+            }
+
+            public int getConcurrency() { return concurrency; }
+            public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+
+            public int getMaxConcurrency() { return maxConcurrency; }
+            public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+
+            public int getPrefetch() { return prefetch; }
+            public void setPrefetch(int prefetch) { this.prefetch = prefetch; }
+
+            public boolean isVirtualThreads() { return virtualThreads; }
+            public void setVirtualThreads(boolean virtualThreads) { this.virtualThreads = virtualThreads; }
+        }
+
+        public Family getAssignment() { return assignment; }
+        public void setAssignment(Family assignment) { this.assignment = assignment; }
+
+        public Family getExam() { return exam; }
+        public void setExam(Family exam) { this.exam = exam; }
+
+        public Family getCourse() { return course; }
+        public void setCourse(Family course) { this.course = course; }
+
+        public Family getUser() { return user; }
+        public void setUser(Family user) { this.user = user; }
+
+        public Family getCache() { return cache; }
+        public void setCache(Family cache) { this.cache = cache; }
+
+        public Batch getBatch() { return batch; }
+        public void setBatch(Batch batch) { this.batch = batch; }
+    }
+
     // Getters e Setters
     public Exchange getExchange() { return exchange; }
     public void setExchange(Exchange exchange) { this.exchange = exchange; }
@@ -320,4 +394,7 @@ public class RabbitMQProperties {
 
     public Message getMessage() { return message; }
     public void setMessage(Message message) { this.message = message; }
+
+    public Listener getListener() { return listener; }
+    public void setListener(Listener listener) { this.listener = listener; }
 }
\ No newline at end of file
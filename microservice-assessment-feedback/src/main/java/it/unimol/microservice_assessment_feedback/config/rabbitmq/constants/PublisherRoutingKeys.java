@@ -26,4 +26,9 @@ public final class PublisherRoutingKeys {
     public static final String SURVEY_RESPONSES_BULK_SUBMITTED = "survey.responses.bulk.submitted";
     public static final String SURVEY_RESULTS_REQUESTED = "survey.results.requested";
     public static final String SURVEY_COMMENTS_REQUESTED = "survey.comments.requested";
+
+    // ===================================================================
+    //  CACHE INVALIDATION ROUTING KEYS
+    // ===================================================================
+    public static final String SURVEY_CACHE_INVALIDATED = "survey.cache.invalidated";
 }
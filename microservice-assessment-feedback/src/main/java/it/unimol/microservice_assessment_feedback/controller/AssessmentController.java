@@ -8,22 +8,33 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import it.unimol.microservice_assessment_feedback.dto.AssessmentDTO;
+import it.unimol.microservice_assessment_feedback.dto.CursorPageDTO;
+import it.unimol.microservice_assessment_feedback.dto.ScoreStatisticsDTO;
+import it.unimol.microservice_assessment_feedback.enums.ExportFormat;
+import it.unimol.microservice_assessment_feedback.enums.ScoreAggregateScope;
 import it.unimol.microservice_assessment_feedback.service.AssessmentService;
 import it.unimol.microservice_assessment_feedback.common.exception.ErrorResponse;
 import it.unimol.microservice_assessment_feedback.enums.RoleType;
 import it.unimol.microservice_assessment_feedback.common.util.JWTRequestHelper;
+import it.unimol.microservice_assessment_feedback.common.util.ExportColumn;
+import it.unimol.microservice_assessment_feedback.common.util.ExportResponseWriter;
+import it.unimol.microservice_assessment_feedback.common.util.NdjsonResponseWriter;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/assessments")
@@ -32,6 +43,18 @@ import java.util.List;
 public class AssessmentController {
 
     private static final Logger logger = LoggerFactory.getLogger(AssessmentController.class);
+
+    private static final List<ExportColumn<AssessmentDTO>> EXPORT_COLUMNS = List.of(
+            new ExportColumn<>("id", AssessmentDTO::getId),
+            new ExportColumn<>("referenceId", AssessmentDTO::getReferenceId),
+            new ExportColumn<>("referenceType", AssessmentDTO::getReferenceType),
+            new ExportColumn<>("studentId", AssessmentDTO::getStudentId),
+            new ExportColumn<>("teacherId", AssessmentDTO::getTeacherId),
+            new ExportColumn<>("courseId", AssessmentDTO::getCourseId),
+            new ExportColumn<>("score", AssessmentDTO::getScore),
+            new ExportColumn<>("assessmentDate", AssessmentDTO::getAssessmentDate),
+            new ExportColumn<>("notes", AssessmentDTO::getNotes));
+
     private final AssessmentService assessmentService;
 
     @Autowired
@@ -42,6 +65,12 @@ public class AssessmentController {
     @Autowired
     private JWTRequestHelper jwtRequestHelper;
 
+    @Autowired
+    private NdjsonResponseWriter ndjsonResponseWriter;
+
+    @Autowired
+    private ExportResponseWriter exportResponseWriter;
+
     /**
      * @apiNote GET - getAllAssessments - TEACHER/ADMIN/SUPER_ADMIN
      * TRACCIA: Implicito per gestione valutazioni da parte docenti
@@ -213,6 +242,433 @@ public class AssessmentController {
         return ResponseEntity.ok(assessmentService.getAssessmentsByCourse(id));
     }
 
+    /**
+     * @apiNote GET - getAllAssessmentsPage - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: variante paginata a cursore (keyset su assessmentDate, id) di getAllAssessments
+     * @param cursor Cursore opaco restituito dalla pagina precedente, assente per la prima pagina.
+     * @param limit Numero massimo di elementi per pagina (default 50, massimo 500).
+     * @return Un {@link it.unimol.microservice_assessment_feedback.dto.CursorPageDTO} di valutazioni ordinate per data e ID.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#getAssessmentsPage
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Ottieni tutte le valutazioni (paginate)",
+            description = "Ottiene tutte le valutazioni con paginazione a cursore")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pagina di valutazioni recuperata con successo",
+                    content = @Content(schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursore non valido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - ruolo TEACHER o ADMIN richiesto"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CursorPageDTO<AssessmentDTO>> getAllAssessmentsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("Richiesta pagina di tutte le valutazioni");
+        return ResponseEntity.ok(assessmentService.getAssessmentsPage(cursor, limit));
+    }
+
+    /**
+     * @apiNote GET - streamAllAssessments - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: variante in streaming NDJSON di getAllAssessments, a memoria costante anche per export completi
+     * @param response La risposta HTTP su cui vengono scritte le valutazioni, una per riga.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#streamAllAssessments
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Esporta tutte le valutazioni (NDJSON)",
+            description = "Restituisce tutte le valutazioni in streaming, un oggetto JSON per riga")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streaming avviato con successo",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = AssessmentDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - ruolo TEACHER o ADMIN richiesto"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public void streamAllAssessments(HttpServletResponse response) throws IOException {
+        logger.info("Richiesta streaming NDJSON di tutte le valutazioni");
+        long written = ndjsonResponseWriter.<AssessmentDTO>write(response,
+                consumer -> assessmentService.streamAllAssessments(consumer));
+        logger.debug("Streaming completato: {} valutazioni inviate", written);
+    }
+
+    /**
+     * @apiNote GET - getAssessmentsByAssignmentPage - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: variante paginata a cursore (keyset su assessmentDate, id) di getAssessmentsByAssignment
+     * @param id L'ID univoco del compito.
+     * @param cursor Cursore opaco restituito dalla pagina precedente, assente per la prima pagina.
+     * @param limit Numero massimo di elementi per pagina (default 50, massimo 500).
+     * @return Un {@link it.unimol.microservice_assessment_feedback.dto.CursorPageDTO} di valutazioni ordinate per data e ID.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#getAssessmentsPageByAssignment
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping("/assignment/{id}/page")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Ottieni le valutazioni per uno specifico compito (paginate)",
+            description = "Ottiene le valutazioni per uno specifico compito con paginazione a cursore")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pagina di valutazioni recuperata con successo",
+                    content = @Content(schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursore non valido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - ruolo TEACHER o ADMIN richiesto"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CursorPageDTO<AssessmentDTO>> getAssessmentsByAssignmentPage(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("Richiesta pagina delle valutazioni per uno specifico compito con ID: {}", id);
+        return ResponseEntity.ok(assessmentService.getAssessmentsPageByAssignment(id, cursor, limit));
+    }
+
+    /**
+     * @apiNote GET - streamAssessmentsByAssignment - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: variante in streaming NDJSON di getAssessmentsByAssignment, a memoria costante anche per export completi
+     * @param id L'ID univoco del compito.
+     * @param response La risposta HTTP su cui vengono scritte le valutazioni, una per riga.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#streamAssessmentsByAssignment
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping(value = "/assignment/{id}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Esporta le valutazioni per uno specifico compito (NDJSON)",
+            description = "Restituisce le valutazioni per uno specifico compito in streaming, un oggetto JSON per riga")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streaming avviato con successo",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = AssessmentDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - ruolo TEACHER o ADMIN richiesto"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public void streamAssessmentsByAssignment(@PathVariable String id, HttpServletResponse response) throws IOException {
+        logger.info("Richiesta streaming NDJSON delle valutazioni per uno specifico compito con ID: {}", id);
+        long written = ndjsonResponseWriter.<AssessmentDTO>write(response,
+                consumer -> assessmentService.streamAssessmentsByAssignment(id, consumer));
+        logger.debug("Streaming completato: {} valutazioni inviate", written);
+    }
+
+    /**
+     * @apiNote GET - getAssessmentsByExamPage - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: variante paginata a cursore (keyset su assessmentDate, id) di getAssessmentsByExam
+     * @param id L'ID univoco dell'esame.
+     * @param cursor Cursore opaco restituito dalla pagina precedente, assente per la prima pagina.
+     * @param limit Numero massimo di elementi per pagina (default 50, massimo 500).
+     * @return Un {@link it.unimol.microservice_assessment_feedback.dto.CursorPageDTO} di valutazioni ordinate per data e ID.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#getAssessmentsPageByExam
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping("/exam/{id}/page")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Ottieni le valutazioni per uno specifico esame (paginate)",
+            description = "Ottiene le valutazioni per uno specifico esame con paginazione a cursore")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pagina di valutazioni recuperata con successo",
+                    content = @Content(schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursore non valido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - ruolo TEACHER o ADMIN richiesto"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CursorPageDTO<AssessmentDTO>> getAssessmentsByExamPage(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("Richiesta pagina delle valutazioni per uno specifico esame con ID: {}", id);
+        return ResponseEntity.ok(assessmentService.getAssessmentsPageByExam(id, cursor, limit));
+    }
+
+    /**
+     * @apiNote GET - streamAssessmentsByExam - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: variante in streaming NDJSON di getAssessmentsByExam, a memoria costante anche per export completi
+     * @param id L'ID univoco dell'esame.
+     * @param response La risposta HTTP su cui vengono scritte le valutazioni, una per riga.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#streamAssessmentsByExam
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping(value = "/exam/{id}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Esporta le valutazioni per uno specifico esame (NDJSON)",
+            description = "Restituisce le valutazioni per uno specifico esame in streaming, un oggetto JSON per riga")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streaming avviato con successo",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = AssessmentDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - ruolo TEACHER o ADMIN richiesto"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public void streamAssessmentsByExam(@PathVariable String id, HttpServletResponse response) throws IOException {
+        logger.info("Richiesta streaming NDJSON delle valutazioni per uno specifico esame con ID: {}", id);
+        long written = ndjsonResponseWriter.<AssessmentDTO>write(response,
+                consumer -> assessmentService.streamAssessmentsByExam(id, consumer));
+        logger.debug("Streaming completato: {} valutazioni inviate", written);
+    }
+
+    /**
+     * @apiNote GET - getAssessmentsByStudentPage - TEACHER/ADMIN/SUPER_ADMIN o STUDENT (solo per se stesso)
+     * NOTA: variante paginata a cursore (keyset su assessmentDate, id) di getAssessmentsByStudent
+     * @param id L'ID univoco dello studente.
+     * @param cursor Cursore opaco restituito dalla pagina precedente, assente per la prima pagina.
+     * @param limit Numero massimo di elementi per pagina (default 50, massimo 500).
+     * @return Un {@link it.unimol.microservice_assessment_feedback.dto.CursorPageDTO} di valutazioni ordinate per data e ID.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#getAssessmentsPageByStudentId
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping("/student/{id}/page")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_STUDENT + "') " +
+            "or hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Ottieni le valutazioni per uno specifico studente (paginate)",
+            description = "Ottiene le valutazioni per uno specifico studente con paginazione a cursore")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pagina di valutazioni recuperata con successo",
+                    content = @Content(schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursore non valido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - autorizzazione insufficiente"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CursorPageDTO<AssessmentDTO>> getAssessmentsByStudentPage(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("Richiesta pagina delle valutazioni per uno specifico studente con ID: {}", id);
+        return ResponseEntity.ok(assessmentService.getAssessmentsPageByStudentId(id, cursor, limit));
+    }
+
+    /**
+     * @apiNote GET - streamAssessmentsByStudent - TEACHER/ADMIN/SUPER_ADMIN o STUDENT (solo per se stesso)
+     * NOTA: variante in streaming NDJSON di getAssessmentsByStudent, a memoria costante anche per export completi
+     * @param id L'ID univoco dello studente.
+     * @param response La risposta HTTP su cui vengono scritte le valutazioni, una per riga.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#streamAssessmentsByStudentId
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping(value = "/student/{id}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('" + RoleType.ROLE_STUDENT + "') " +
+            "or hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Esporta le valutazioni per uno specifico studente (NDJSON)",
+            description = "Restituisce le valutazioni per uno specifico studente in streaming, un oggetto JSON per riga")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streaming avviato con successo",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = AssessmentDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - autorizzazione insufficiente"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public void streamAssessmentsByStudent(@PathVariable String id, HttpServletResponse response) throws IOException {
+        logger.info("Richiesta streaming NDJSON delle valutazioni per uno specifico studente con ID: {}", id);
+        long written = ndjsonResponseWriter.<AssessmentDTO>write(response,
+                consumer -> assessmentService.streamAssessmentsByStudentId(id, consumer));
+        logger.debug("Streaming completato: {} valutazioni inviate", written);
+    }
+
+    /**
+     * @apiNote GET - getAssessmentsByCoursePage - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: variante paginata a cursore (keyset su assessmentDate, id) di getAssessmentsByCourse
+     * @param id L'ID univoco del corso.
+     * @param cursor Cursore opaco restituito dalla pagina precedente, assente per la prima pagina.
+     * @param limit Numero massimo di elementi per pagina (default 50, massimo 500).
+     * @return Un {@link it.unimol.microservice_assessment_feedback.dto.CursorPageDTO} di valutazioni ordinate per data e ID.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#getAssessmentsPageByCourse
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping("/course/{id}/page")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Ottieni le valutazioni per uno specifico corso (paginate)",
+            description = "Ottiene le valutazioni per uno specifico corso con paginazione a cursore")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pagina di valutazioni recuperata con successo",
+                    content = @Content(schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursore non valido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - autorizzazione insufficiente"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CursorPageDTO<AssessmentDTO>> getAssessmentsByCoursePage(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("Richiesta pagina delle valutazioni per uno specifico corso con ID: {}", id);
+        return ResponseEntity.ok(assessmentService.getAssessmentsPageByCourse(id, cursor, limit));
+    }
+
+    /**
+     * @apiNote GET - streamAssessmentsByCourse - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: variante in streaming NDJSON di getAssessmentsByCourse, a memoria costante anche per export completi
+     * @param id L'ID univoco del corso.
+     * @param response La risposta HTTP su cui vengono scritte le valutazioni, una per riga.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#streamAssessmentsByCourse
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping(value = "/course/{id}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Esporta le valutazioni per uno specifico corso (NDJSON)",
+            description = "Restituisce le valutazioni per uno specifico corso in streaming, un oggetto JSON per riga")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streaming avviato con successo",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = AssessmentDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - autorizzazione insufficiente"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public void streamAssessmentsByCourse(@PathVariable String id, HttpServletResponse response) throws IOException {
+        logger.info("Richiesta streaming NDJSON delle valutazioni per uno specifico corso con ID: {}", id);
+        long written = ndjsonResponseWriter.<AssessmentDTO>write(response,
+                consumer -> assessmentService.streamAssessmentsByCourse(id, consumer));
+        logger.debug("Streaming completato: {} valutazioni inviate", written);
+    }
+
+    /**
+     * @apiNote GET - exportAssessmentsByCourse - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: export in CSV o NDJSON, opzionalmente gzip, scritto in streaming dal cursore del database
+     * a memoria costante. Il numero di export contemporanei è limitato da export.max-concurrent
+     * @param id L'ID univoco del corso.
+     * @param format Il formato dell'export (CSV o NDJSON).
+     * @param gzip Se true il file viene compresso.
+     * @param response La risposta HTTP su cui viene scritto il file.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#streamAssessmentsByCourse
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping("/course/{id}/export")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Esporta le valutazioni di un corso (CSV o NDJSON)",
+            description = "Scarica le valutazioni di uno specifico corso come file CSV o NDJSON, opzionalmente compresso gzip")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export avviato con successo",
+                    content = {@Content(mediaType = "text/csv"),
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+                            @Content(mediaType = "application/gzip")}),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - autorizzazione insufficiente"),
+            @ApiResponse(responseCode = "503", description = "Troppi export in corso, riprovare più tardi",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public void exportAssessmentsByCourse(@PathVariable String id,
+                                          @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                          @RequestParam(defaultValue = "false") boolean gzip,
+                                          HttpServletResponse response) throws IOException {
+        logger.info("Richiesta export {} delle valutazioni per corso con ID: {} (gzip: {})", format, id, gzip);
+        long written = exportResponseWriter.<AssessmentDTO>write(response, "assessments-course-" + id, format, gzip,
+                EXPORT_COLUMNS, consumer -> assessmentService.streamAssessmentsByCourse(id, consumer));
+        logger.debug("Export completato: {} valutazioni inviate", written);
+    }
+
+    /**
+     * @apiNote GET - getScoreStatistics - TEACHER/ADMIN/SUPER_ADMIN o STUDENT (solo per le proprie)
+     * NOTA: Legge conteggio, media, deviazione standard, minimo, massimo e distribuzione per fasce
+     * da un aggregato mantenuto ad ogni scrittura, senza scansionare le valutazioni
+     * @param scope L'ambito delle statistiche (STUDENT, COURSE, TEACHER, ASSIGNMENT, EXAM).
+     * @param scopeId L'ID dello studente, corso, docente, compito o esame.
+     * @return Un oggetto {@link it.unimol.microservice_assessment_feedback.dto.ScoreStatisticsDTO} con le statistiche dei voti.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#getScoreStatistics(ScoreAggregateScope, String)
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping("/statistics/{scope}/{scopeId}")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_STUDENT + "') " +
+            "or hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Ottieni statistiche dei voti",
+            description = "Ottiene le statistiche aggregate dei voti per studente, corso, docente, compito o esame")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistiche trovate con successo",
+                    content = @Content(schema = @Schema(implementation = ScoreStatisticsDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - gli studenti possono leggere solo le proprie statistiche"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ScoreStatisticsDTO> getScoreStatistics(@PathVariable ScoreAggregateScope scope,
+                                                                 @PathVariable String scopeId) {
+        logger.info("Richiesta per ottenere statistiche voti per {} con ID: {}", scope, scopeId);
+        return ResponseEntity.ok(assessmentService.getScoreStatistics(scope, scopeId));
+    }
+
+    /**
+     * @apiNote POST - rebuildScoreStatistics - ADMIN/SUPER_ADMIN
+     * NOTA: Ricalcola l'aggregato dalle valutazioni salvate, da usare se risulta disallineato.
+     * Le scritture concorrenti non vengono bloccate oltre la durata del ricalcolo della singola chiave
+     * @param scope L'ambito dell'aggregato da ricostruire.
+     * @param scopeId L'ID dello studente, corso, docente, compito o esame.
+     * @return Un oggetto {@link it.unimol.microservice_assessment_feedback.dto.ScoreStatisticsDTO} con le statistiche ricalcolate.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#rebuildScoreStatistics(ScoreAggregateScope, String)
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @PostMapping("/statistics/{scope}/{scopeId}/rebuild")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Ricostruisci statistiche dei voti",
+            description = "Ricalcola l'aggregato dei voti di un ambito a partire dalle valutazioni salvate (solo amministratori)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistiche ricostruite con successo",
+                    content = @Content(schema = @Schema(implementation = ScoreStatisticsDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - Ruolo ADMIN richiesto"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ScoreStatisticsDTO> rebuildScoreStatistics(@PathVariable ScoreAggregateScope scope,
+                                                                     @PathVariable String scopeId) {
+        logger.info("Richiesta di ricostruzione statistiche voti per {} con ID: {}", scope, scopeId);
+        return ResponseEntity.ok(assessmentService.rebuildScoreStatistics(scope, scopeId));
+    }
+
+    /**
+     * @apiNote POST - rebuildAllScoreStatistics - SUPER_ADMIN
+     * NOTA: Ricalcola tutti gli aggregati dei voti, una chiave per transazione
+     * @return Il numero di aggregati elaborati.
+     * @see it.unimol.microservice_assessment_feedback.service.AssessmentService#rebuildAllScoreStatistics()
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @PostMapping("/statistics/rebuild")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Ricostruisci tutte le statistiche dei voti",
+            description = "Ricalcola gli aggregati dei voti di tutti gli ambiti (solo super amministratori)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistiche ricostruite con successo"),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - Ruolo SUPER_ADMIN richiesto"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Map<String, Integer>> rebuildAllScoreStatistics() {
+        logger.info("Richiesta di ricostruzione di tutte le statistiche voti");
+        return ResponseEntity.ok(Map.of("rebuiltAggregates", assessmentService.rebuildAllScoreStatistics()));
+    }
+
     /**
      * @apiNote GET - getPersonalAssessments - STUDENT/ADMIN/SUPER_ADMIN
      * TRACCIA: "Studenti - Visualizzazione del feedback ricevuto"
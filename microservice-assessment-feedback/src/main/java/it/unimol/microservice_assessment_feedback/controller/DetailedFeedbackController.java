@@ -9,7 +9,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import it.unimol.microservice_assessment_feedback.common.exception.ResourceNotFoundException;
+import it.unimol.microservice_assessment_feedback.dto.CursorPageDTO;
 import it.unimol.microservice_assessment_feedback.dto.DetailedFeedbackDTO;
+import it.unimol.microservice_assessment_feedback.enums.FeedbackCategory;
 import it.unimol.microservice_assessment_feedback.enums.RoleType;
 import it.unimol.microservice_assessment_feedback.service.DetailedFeedbackService;
 import it.unimol.microservice_assessment_feedback.common.exception.ErrorResponse;
@@ -176,6 +178,46 @@ public class DetailedFeedbackController {
         return ResponseEntity.ok(feedbacks);
     }
 
+    /**
+     * @apiNote GET - searchFeedback - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: ricerca testuale su testo, punti di forza e aree di miglioramento, ordinata per rilevanza
+     * @param q Testo da cercare (sintassi web: parole, "frasi tra virgolette", -esclusioni).
+     * @param courseId Filtro opzionale sul corso della valutazione.
+     * @param teacherId Filtro opzionale sul docente della valutazione.
+     * @param category Filtro opzionale sulla categoria del feedback.
+     * @param cursor Cursore opaco restituito dalla pagina precedente, assente per la prima pagina.
+     * @param limit Numero massimo di elementi per pagina (default 20, massimo 100).
+     * @return Un {@link it.unimol.microservice_assessment_feedback.dto.CursorPageDTO} di feedback dal più rilevante.
+     * @see it.unimol.microservice_assessment_feedback.service.DetailedFeedbackService#searchFeedback
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Cerca nei feedback",
+            description = "Ricerca testuale nei feedback con filtri per corso, docente e categoria e paginazione a cursore")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Risultati della ricerca recuperati con successo",
+                    content = @Content(schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursore non valido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - ruolo TEACHER o ADMIN richiesto"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CursorPageDTO<DetailedFeedbackDTO>> searchFeedback(
+            @Parameter(description = "Testo da cercare", required = true, example = "algoritmi ricorsione")
+            @RequestParam String q,
+            @RequestParam(required = false) String courseId,
+            @RequestParam(required = false) String teacherId,
+            @RequestParam(required = false) FeedbackCategory category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("Richiesta di ricerca nei feedback: '{}'", q);
+        return ResponseEntity.ok(feedbackService.searchFeedback(q, courseId, teacherId, category, cursor, limit));
+    }
+
     /**
      * @apiNote POST - createFeedback - TEACHER/ADMIN/SUPER_ADMIN
      * TRACCIA: "Docenti - Fornitura di feedback dettagliato sui compiti e sugli esami"
@@ -11,22 +11,30 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import it.unimol.microservice_assessment_feedback.common.exception.DuplicateResponseException;
 import it.unimol.microservice_assessment_feedback.common.exception.ResourceNotFoundException;
 import it.unimol.microservice_assessment_feedback.common.exception.SurveyClosedException;
+import it.unimol.microservice_assessment_feedback.dto.CursorPageDTO;
 import it.unimol.microservice_assessment_feedback.dto.SurveyResponseDTO;
 import it.unimol.microservice_assessment_feedback.service.SurveyResponseService;
+import it.unimol.microservice_assessment_feedback.service.SurveyResultAggregateService;
 import it.unimol.microservice_assessment_feedback.common.exception.ErrorResponse;
+import it.unimol.microservice_assessment_feedback.enums.ExportFormat;
 import it.unimol.microservice_assessment_feedback.enums.RoleType;
+import it.unimol.microservice_assessment_feedback.common.util.ExportColumn;
+import it.unimol.microservice_assessment_feedback.common.util.ExportResponseWriter;
 import it.unimol.microservice_assessment_feedback.common.util.JWTRequestHelper;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -37,6 +45,16 @@ import java.util.Map;
 public class SurveyResponseController {
 
     private static final Logger logger = LoggerFactory.getLogger(SurveyResponseController.class);
+
+    private static final List<ExportColumn<SurveyResponseDTO>> EXPORT_COLUMNS = List.of(
+            new ExportColumn<>("id", SurveyResponseDTO::getId),
+            new ExportColumn<>("surveyId", SurveyResponseDTO::getSurveyId),
+            new ExportColumn<>("studentId", SurveyResponseDTO::getStudentId),
+            new ExportColumn<>("questionId", SurveyResponseDTO::getQuestionId),
+            new ExportColumn<>("numericRating", SurveyResponseDTO::getNumericRating),
+            new ExportColumn<>("textComment", SurveyResponseDTO::getTextComment),
+            new ExportColumn<>("submissionDate", SurveyResponseDTO::getSubmissionDate));
+
     private final SurveyResponseService responseService;
 
     @Autowired
@@ -47,6 +65,9 @@ public class SurveyResponseController {
     @Autowired
     private JWTRequestHelper jwtRequestHelper;
 
+    @Autowired
+    private ExportResponseWriter exportResponseWriter;
+
     /**
      * @apiNote GET - getResponsesBySurveyId - TEACHER/ADMIN/SUPER_ADMIN
      * TRACCIA: Implicito per gestione questionari feedback docenti da parte amministrativa
@@ -82,6 +103,53 @@ public class SurveyResponseController {
         return ResponseEntity.ok(responseService.getResponsesBySurveyId(id, userId));
     }
 
+    /**
+     * @apiNote GET - exportResponsesBySurveyId - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: export in CSV o NDJSON, opzionalmente gzip, scritto in streaming dal cursore del database
+     * a memoria costante. Il numero di export contemporanei è limitato da export.max-concurrent
+     * @param id L'ID univoco del questionario di cui esportare le risposte.
+     * @param format Il formato dell'export (CSV o NDJSON).
+     * @param gzip Se true il file viene compresso.
+     * @param response La risposta HTTP su cui viene scritto il file.
+     * @see it.unimol.microservice_assessment_feedback.service.SurveyResponseService#streamResponsesBySurveyId
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping("/{id}/responses/export")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Esporta le risposte del questionario (CSV o NDJSON)",
+            description = "Scarica le risposte di un questionario come file CSV o NDJSON, opzionalmente compresso gzip")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export avviato con successo",
+                    content = {@Content(mediaType = "text/csv"),
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+                            @Content(mediaType = "application/gzip")}),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - JWT token richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - Ruolo TEACHER/ADMIN richiesto"),
+            @ApiResponse(responseCode = "404", description = "Questionario non trovato",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Troppi export in corso, riprovare più tardi",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public void exportResponsesBySurveyId(
+            @Parameter(description = "ID Questionario", required = true, example = "uuid-questionario-1")
+            @PathVariable String id,
+            @Parameter(description = "Formato dell'export", example = "CSV")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @Parameter(description = "Comprimi il file con gzip", example = "false")
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        String userId = jwtRequestHelper.getUserIdFromRequest(request);
+        logger.info("Richiesta export {} delle risposte questionario con ID: {} da utente: {} (gzip: {})",
+                format, id, userId, gzip);
+        long written = exportResponseWriter.<SurveyResponseDTO>write(response, "survey-responses-" + id, format, gzip,
+                EXPORT_COLUMNS, consumer -> responseService.streamResponsesBySurveyId(id, consumer));
+        logger.debug("Export completato: {} risposte inviate", written);
+    }
+
     /**
      * @apiNote GET - getSurveyComments - TEACHER/ADMIN/SUPER_ADMIN
      * TRACCIA: Implicito per gestione feedback dettagliato da parte docenti e amministrativi
@@ -117,6 +185,46 @@ public class SurveyResponseController {
         return ResponseEntity.ok(responseService.getSurveyComments(id, userId));
     }
 
+    /**
+     * @apiNote GET - searchSurveyComments - TEACHER/ADMIN/SUPER_ADMIN
+     * NOTA: ricerca testuale nei commenti di tutti i questionari, ordinata per rilevanza
+     * @param q Testo da cercare (sintassi web: parole, "frasi tra virgolette", -esclusioni).
+     * @param surveyId Filtro opzionale sul questionario.
+     * @param courseId Filtro opzionale sul corso del questionario.
+     * @param teacherId Filtro opzionale sul docente del questionario.
+     * @param cursor Cursore opaco restituito dalla pagina precedente, assente per la prima pagina.
+     * @param limit Numero massimo di elementi per pagina (default 20, massimo 100).
+     * @return Un {@link it.unimol.microservice_assessment_feedback.dto.CursorPageDTO} di risposte con commento dalla più rilevante.
+     * @see it.unimol.microservice_assessment_feedback.service.SurveyResponseService#searchComments
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @GetMapping("/comments/search")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_TEACHER + "') " +
+            "or hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Cerca nei commenti dei questionari",
+            description = "Ricerca testuale nei commenti con filtri per questionario, corso e docente e paginazione a cursore")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Risultati della ricerca recuperati con successo",
+                    content = @Content(schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursore non valido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - JWT token richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - Ruolo TEACHER/ADMIN richiesto"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CursorPageDTO<SurveyResponseDTO>> searchSurveyComments(
+            @Parameter(description = "Testo da cercare", required = true, example = "esercitazioni")
+            @RequestParam String q,
+            @RequestParam(required = false) String surveyId,
+            @RequestParam(required = false) String courseId,
+            @RequestParam(required = false) String teacherId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("Richiesta di ricerca nei commenti dei questionari: '{}'", q);
+        return ResponseEntity.ok(responseService.searchComments(q, surveyId, courseId, teacherId, cursor, limit));
+    }
+
     /**
      * @apiNote GET - getSurveyResults - TEACHER/ADMIN/SUPER_ADMIN
      * TRACCIA: Implicito per gestione e analisi feedback sui docenti da parte amministrativa
@@ -152,6 +260,67 @@ public class SurveyResponseController {
         return ResponseEntity.ok(responseService.getSurveyResults(id, userId));
     }
 
+    /**
+     * @apiNote POST - rebuildSurveyResults - ADMIN/SUPER_ADMIN
+     * NOTA: Ricalcola gli aggregati del questionario dalle risposte salvate, da usare se risultano disallineati
+     * @param id L'ID univoco del questionario di cui ricostruire i risultati aggregati.
+     * @return Una mappa contenente i risultati aggregati ricalcolati.
+     * @see it.unimol.microservice_assessment_feedback.service.SurveyResponseService#rebuildSurveyResults(String)
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @PostMapping("/{id}/results/rebuild")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_ADMIN + "') " +
+            "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Ricostruisci risultati aggregati del questionario",
+            description = "Ricalcola gli aggregati per domanda a partire dalle risposte salvate (solo amministratori)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Risultati ricostruiti con successo",
+                    content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - JWT token richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - Ruolo ADMIN richiesto"),
+            @ApiResponse(responseCode = "404", description = "Questionario non trovato",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Map<String, Double>> rebuildSurveyResults(
+            @Parameter(description = "ID Questionario", required = true, example = "uuid-questionario-1")
+            @PathVariable String id,
+            HttpServletRequest request) {
+        String userId = jwtRequestHelper.getUserIdFromRequest(request);
+        logger.info("Richiesta di ricostruzione risultati questionario con ID: {} da utente: {}", id, userId);
+        return ResponseEntity.ok(responseService.rebuildSurveyResults(id));
+    }
+
+    /**
+     * @apiNote POST - rebuildAllSurveyResults - SUPER_ADMIN
+     * NOTA: Ricalcola gli aggregati di tutti i questionari
+     * @return Il numero di questionari ricostruiti e gli ID di quelli la cui ricostruzione è fallita.
+     * @see it.unimol.microservice_assessment_feedback.service.SurveyResponseService#rebuildAllSurveyResults()
+     * @see it.unimol.microservice_assessment_feedback.enums.RoleType
+     */
+    @PostMapping("/results/rebuild")
+    @PreAuthorize("hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Ricostruisci risultati aggregati di tutti i questionari",
+            description = "Ricalcola gli aggregati per domanda di tutti i questionari (solo super amministratori)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Risultati ricostruiti con successo"),
+            @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - JWT token richiesto"),
+            @ApiResponse(responseCode = "403", description = "Accesso vietato - Ruolo SUPER_ADMIN richiesto"),
+            @ApiResponse(responseCode = "500", description = "Ricostruzione fallita per almeno un questionario")
+    })
+    public ResponseEntity<Map<String, Object>> rebuildAllSurveyResults(HttpServletRequest request) {
+        String userId = jwtRequestHelper.getUserIdFromRequest(request);
+        logger.info("Richiesta di ricostruzione risultati di tutti i questionari da utente: {}", userId);
+        SurveyResultAggregateService.RebuildOutcome outcome = responseService.rebuildAllSurveyResults();
+        Map<String, Object> body = Map.of(
+                "rebuiltSurveys", outcome.rebuilt(),
+                "failedSurveys", outcome.failedSurveyIds());
+        if (!outcome.failedSurveyIds().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
+        }
+        return ResponseEntity.ok(body);
+    }
+
     /**
      * @apiNote POST - submitSurveyResponses - STUDENT/ADMIN/SUPER_ADMIN
      * TRACCIA: "Studenti - Compilazione del questionario di feedback sui docenti"
@@ -243,9 +412,10 @@ public class SurveyResponseController {
      * @apiNote GET - getAvailableSurveys - STUDENT/ADMIN/SUPER_ADMIN
      * TRACCIA: "Studenti - Compilazione del questionario di feedback sui docenti" (prerequisito: visualizzazione questionari disponibili)
      * NOTA: SUPER_ADMIN per supervisione amministrativa
+     * @param courseId ID opzionale del corso su cui filtrare i questionari.
      * @param request L'oggetto {@link jakarta.servlet.http.HttpServletRequest} utilizzato per estrarre l'ID dello studente autenticato.
-     * @return Una lista di questionari disponibili per lo studente autenticato.
-     * @see it.unimol.microservice_assessment_feedback.service.SurveyResponseService#getAvailableSurveysForStudent(String)
+     * @return Una lista di questionari attivi non ancora compilati dallo studente autenticato.
+     * @see it.unimol.microservice_assessment_feedback.service.SurveyResponseService#getAvailableSurveysForStudent(String, String)
      * @see JWTRequestHelper#getUserIdFromRequest(HttpServletRequest)
      * @see JWTRequestHelper#getUsernameFromRequest(HttpServletRequest)
      * @see it.unimol.microservice_assessment_feedback.enums.RoleType
@@ -255,18 +425,23 @@ public class SurveyResponseController {
             "or hasRole('" + RoleType.ROLE_ADMIN + "')" +
             "or hasRole('" + RoleType.ROLE_SUPER_ADMIN + "')")
     @Operation(summary = "Ottieni questionari disponibili",
-            description = "Recupera tutti i questionari attivi per i corsi a cui lo studente è iscritto")
+            description = "Recupera i questionari attivi non ancora compilati dallo studente, eventualmente filtrati per corso")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Questionari disponibili trovati con successo"),
             @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - JWT token richiesto"),
             @ApiResponse(responseCode = "403", description = "Accesso vietato - Ruolo STUDENT richiesto"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<?> getAvailableSurveys(HttpServletRequest request) {
+    public ResponseEntity<byte[]> getAvailableSurveys(
+            @Parameter(description = "ID del corso su cui filtrare (opzionale)", example = "uuid-course-456")
+            @RequestParam(required = false) String courseId,
+            HttpServletRequest request) {
         String userId = jwtRequestHelper.getUserIdFromRequest(request);
         String username = jwtRequestHelper.getUsernameFromRequest(request);
         logger.info("Richiesta per ottenere questionari disponibili da utente: {}", username);
 
-        return ResponseEntity.ok(responseService.getAvailableSurveysForStudent(userId));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(responseService.getAvailableSurveysForStudent(userId, courseId));
     }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import it.unimol.microservice_assessment_feedback.dto.SurveyStatisticsDTO;
 import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
 import it.unimol.microservice_assessment_feedback.enums.RoleType;
 import it.unimol.microservice_assessment_feedback.enums.SurveyStatus;
@@ -21,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.access.AccessDeniedException;
@@ -191,7 +193,7 @@ public class TeacherSurveyController {
      * TRACCIA: "Studenti - Compilazione del questionario di feedback sui docenti"
      * NOTA: STUDENT per visualizzare questionari disponibili per compilazione, ADMIN/SUPER_ADMIN per supervisione
      * @return Una lista di oggetti {@link it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO} che rappresentano i questionari attivi.
-     * @see it.unimol.microservice_assessment_feedback.service.TeacherSurveyService#getActiveSurveys()
+     * @see it.unimol.microservice_assessment_feedback.service.TeacherSurveyService#getActiveSurveysJson()
      * @see it.unimol.microservice_assessment_feedback.enums.RoleType
      */
     @GetMapping("/active")
@@ -207,11 +209,11 @@ public class TeacherSurveyController {
             @ApiResponse(responseCode = "403", description = "Accesso vietato - ruolo STUDENT, ADMIN o SUPER_ADMIN richiesto"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<TeacherSurveyDTO>> getActiveSurveys() {
+    public ResponseEntity<byte[]> getActiveSurveys() {
         logger.info("Richiesta questionari attivi per compilazione studenti");
-        List<TeacherSurveyDTO> activeSurveys = surveyService.getActiveSurveys();
-        logger.info("Trovati {} questionari attivi", activeSurveys.size());
-        return ResponseEntity.ok(activeSurveys);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(surveyService.getActiveSurveysJson());
     }
 
     /**
@@ -219,9 +221,11 @@ public class TeacherSurveyController {
      * TRACCIA: [NON SPECIFICATO/RICHIESTO NELLA TRACCIA]
      * NOTA: TEACHER per i risultati dei propri questionari, ADMIN/SUPER_ADMIN per supervisione completa
      * @param id L'ID univoco del questionario di cui recuperare i risultati.
+     * @param enrolledStudents Numero opzionale di studenti iscritti al corso, usato come base per i tassi di risposta.
      * @param request La richiesta HTTP per estrarre informazioni dell'utente autenticato.
-     * @return Un oggetto contenente le statistiche e i risultati del questionario completato.
-     * @see it.unimol.microservice_assessment_feedback.service.TeacherSurveyService#getSurveyStatistics(String)
+     * @return Un {@link it.unimol.microservice_assessment_feedback.dto.SurveyStatisticsDTO} con le statistiche per domanda
+     * (media, mediana, deviazione standard, distribuzione, tasso di risposta) e i conteggi di completamento.
+     * @see it.unimol.microservice_assessment_feedback.service.TeacherSurveyService#getSurveyStatistics(String, Integer)
      * @see JWTRequestHelper#getUserRoleFromRequest(HttpServletRequest)
      * @see JWTRequestHelper#extractTeacherIdFromRequest(HttpServletRequest)
      * @see it.unimol.microservice_assessment_feedback.enums.RoleType
@@ -234,16 +238,18 @@ public class TeacherSurveyController {
             description = "Recupera i risultati statistici di un questionario completato")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Risultati recuperati con successo",
-                    content = @Content(schema = @Schema(implementation = Object.class))),
+                    content = @Content(schema = @Schema(implementation = SurveyStatisticsDTO.class))),
             @ApiResponse(responseCode = "401", description = "Accesso non autorizzato - Token JWT richiesto"),
             @ApiResponse(responseCode = "403", description = "Accesso vietato - Solo docente proprietario o amministratori"),
             @ApiResponse(responseCode = "404", description = "Questionario non trovato",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<Object> getSurveyResults(
+    public ResponseEntity<SurveyStatisticsDTO> getSurveyResults(
             @Parameter(description = "ID Questionario", required = true, example = "uuid-survey-123")
             @PathVariable String id,
+            @Parameter(description = "Numero di studenti iscritti al corso (base per i tassi di risposta)", example = "150")
+            @RequestParam(required = false) Integer enrolledStudents,
             HttpServletRequest request) {
 
         String userRole = jwtRequestHelper.getUserRoleFromRequest(request);
@@ -259,7 +265,7 @@ public class TeacherSurveyController {
         }
 
         logger.info("Richiesta per ottenere risultati per questionario con ID: {}", id);
-        Object results = surveyService.getSurveyStatistics(id);
+        SurveyStatisticsDTO results = surveyService.getSurveyStatistics(id, enrolledStudents);
         return ResponseEntity.ok(results);
     }
 
@@ -0,0 +1,76 @@
+package it.unimol.microservice_assessment_feedback.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Objects;
+
+@Schema(description = "Pagina di risultati con paginazione a cursore")
+public class CursorPageDTO<T> {
+
+    @Schema(description = "Elementi della pagina")
+    private List<T> items;
+
+    @Schema(description = "Cursore opaco da passare per ottenere la pagina successiva, null se non ci sono altre pagine",
+            example = "MjAyNC0wMy0xNVQxMDozMDp8dXVpZC0xMjM")
+    private String nextCursor;
+
+    @Schema(description = "Indica se esistono altre pagine", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Numero di elementi nella pagina", example = "50")
+    private int size;
+
+    // Costruttore
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> items, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.size = items != null ? items.size() : 0;
+    }
+
+    // Getter e Setter
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    // Equals
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CursorPageDTO<?> that = (CursorPageDTO<?>) o;
+        return hasNext == that.hasNext &&
+                size == that.size &&
+                Objects.equals(items, that.items) &&
+                Objects.equals(nextCursor, that.nextCursor);
+    }
+
+    // HashCode
+    @Override
+    public int hashCode() {
+        return Objects.hash(items, nextCursor, hasNext, size);
+    }
+
+    // ToString
+    @Override
+    public String toString() {
+        return "CursorPageDTO{" +
+                "items=" + items +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", hasNext=" + hasNext +
+                ", size=" + size +
+                '}';
+    }
+}
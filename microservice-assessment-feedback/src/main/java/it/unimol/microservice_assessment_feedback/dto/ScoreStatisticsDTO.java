@@ -0,0 +1,192 @@
+package it.unimol.microservice_assessment_feedback.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import it.unimol.microservice_assessment_feedback.enums.ScoreAggregateScope;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+
+@Schema(description = "DTO per le Statistiche dei voti di uno studente, corso, docente, compito o esame")
+public class ScoreStatisticsDTO {
+
+    @Schema(description = "Ambito delle statistiche", example = "COURSE")
+    private ScoreAggregateScope scope;
+
+    @Schema(description = "ID dello studente, corso, docente, compito o esame", example = "uuid-corso-123")
+    private String scopeId;
+
+    @Schema(description = "Numero di valutazioni", example = "120")
+    private long assessmentCount;
+
+    @Schema(description = "Voto medio", example = "25.4")
+    private Double averageScore;
+
+    @Schema(description = "Deviazione standard campionaria dei voti", example = "3.2")
+    private Double standardDeviation;
+
+    @Schema(description = "Voto minimo", example = "12.0")
+    private Double minScore;
+
+    @Schema(description = "Voto massimo", example = "30.0")
+    private Double maxScore;
+
+    @Schema(description = "Numero di valutazioni per fascia di voto", example = "{\"<18\": 10, \"18-20\": 15, \"21-23\": 25, \"24-26\": 30, \"27-29\": 28, \"30\": 12}")
+    private Map<String, Long> distribution;
+
+    @Schema(description = "Data dell'ultimo aggiornamento dell'aggregato", example = "2024-04-01T10:00:00")
+    private LocalDateTime updatedAt;
+
+    // Costruttore
+    public ScoreStatisticsDTO() {
+    }
+
+    public ScoreStatisticsDTO(ScoreAggregateScope scope, String scopeId, long assessmentCount, Double averageScore,
+                              Double standardDeviation, Double minScore, Double maxScore,
+                              Map<String, Long> distribution, LocalDateTime updatedAt) {
+        this.scope = scope;
+        this.scopeId = scopeId;
+        this.assessmentCount = assessmentCount;
+        this.averageScore = averageScore;
+        this.standardDeviation = standardDeviation;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.distribution = distribution;
+        this.updatedAt = updatedAt;
+    }
+
+    // Builder pattern
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private ScoreAggregateScope scope;
+        private String scopeId;
+        private long assessmentCount;
+        private Double averageScore;
+        private Double standardDeviation;
+        private Double minScore;
+        private Double maxScore;
+        private Map<String, Long> distribution;
+        private LocalDateTime updatedAt;
+
+        public Builder scope(ScoreAggregateScope scope) {
+            this.scope = scope;
+            return this;
+        }
+
+        public Builder scopeId(String scopeId) {
+            this.scopeId = scopeId;
+            return this;
+        }
+
+        public Builder assessmentCount(long assessmentCount) {
+            this.assessmentCount = assessmentCount;
+            return this;
+        }
+
+        public Builder averageScore(Double averageScore) {
+            this.averageScore = averageScore;
+            return this;
+        }
+
+        public Builder standardDeviation(Double standardDeviation) {
+            this.standardDeviation = standardDeviation;
+            return this;
+        }
+
+        public Builder minScore(Double minScore) {
+            this.minScore = minScore;
+            return this;
+        }
+
+        public Builder maxScore(Double maxScore) {
+            this.maxScore = maxScore;
+            return this;
+        }
+
+        public Builder distribution(Map<String, Long> distribution) {
+            this.distribution = distribution;
+            return this;
+        }
+
+        public Builder updatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+            return this;
+        }
+
+        public ScoreStatisticsDTO build() {
+            return new ScoreStatisticsDTO(scope, scopeId, assessmentCount, averageScore, standardDeviation,
+                    minScore, maxScore, distribution, updatedAt);
+        }
+    }
+
+    // Getter e Setter
+    public ScoreAggregateScope getScope() { return scope; }
+    public void setScope(ScoreAggregateScope scope) { this.scope = scope; }
+
+    public String getScopeId() { return scopeId; }
+    public void setScopeId(String scopeId) { this.scopeId = scopeId; }
+
+    public long getAssessmentCount() { return assessmentCount; }
+    public void setAssessmentCount(long assessmentCount) { this.assessmentCount = assessmentCount; }
+
+    public Double getAverageScore() { return averageScore; }
+    public void setAverageScore(Double averageScore) { this.averageScore = averageScore; }
+
+    public Double getStandardDeviation() { return standardDeviation; }
+    public void setStandardDeviation(Double standardDeviation) { this.standardDeviation = standardDeviation; }
+
+    public Double getMinScore() { return minScore; }
+    public void setMinScore(Double minScore) { this.minScore = minScore; }
+
+    public Double getMaxScore() { return maxScore; }
+    public void setMaxScore(Double maxScore) { this.maxScore = maxScore; }
+
+    public Map<String, Long> getDistribution() { return distribution; }
+    public void setDistribution(Map<String, Long> distribution) { this.distribution = distribution; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    // Equals
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ScoreStatisticsDTO that = (ScoreStatisticsDTO) o;
+        return assessmentCount == that.assessmentCount &&
+                scope == that.scope &&
+                Objects.equals(scopeId, that.scopeId) &&
+                Objects.equals(averageScore, that.averageScore) &&
+                Objects.equals(standardDeviation, that.standardDeviation) &&
+                Objects.equals(minScore, that.minScore) &&
+                Objects.equals(maxScore, that.maxScore) &&
+                Objects.equals(distribution, that.distribution) &&
+                Objects.equals(updatedAt, that.updatedAt);
+    }
+
+    // HashCode
+    @Override
+    public int hashCode() {
+        return Objects.hash(scope, scopeId, assessmentCount, averageScore, standardDeviation,
+                minScore, maxScore, distribution, updatedAt);
+    }
+
+    // ToString
+    @Override
+    public String toString() {
+        return "ScoreStatisticsDTO{" +
+                "scope=" + scope +
+                ", scopeId='" + scopeId + '\'' +
+                ", assessmentCount=" + assessmentCount +
+                ", averageScore=" + averageScore +
+                ", standardDeviation=" + standardDeviation +
+                ", minScore=" + minScore +
+                ", maxScore=" + maxScore +
+                ", distribution=" + distribution +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
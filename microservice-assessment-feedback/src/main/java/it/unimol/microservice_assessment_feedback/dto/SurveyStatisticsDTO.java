@@ -0,0 +1,350 @@
+package it.unimol.microservice_assessment_feedback.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import it.unimol.microservice_assessment_feedback.enums.QuestionType;
+import it.unimol.microservice_assessment_feedback.enums.SurveyStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Schema(description = "DTO per le Statistiche di un Questionario")
+public class SurveyStatisticsDTO {
+
+    @Schema(description = "ID Questionario", example = "uuid-questionario-123")
+    private String surveyId;
+
+    @Schema(description = "Titolo del questionario", example = "Questionario Valutazione Insegnamento Matematica I")
+    private String title;
+
+    @Schema(description = "Stato del questionario", example = "CLOSED")
+    private SurveyStatus status;
+
+    @Schema(description = "Numero di domande del questionario", example = "10")
+    private int questionCount;
+
+    @Schema(description = "Numero di studenti che hanno risposto ad almeno una domanda", example = "120")
+    private long respondentCount;
+
+    @Schema(description = "Numero di studenti che hanno risposto a tutte le domande", example = "112")
+    private long completedCount;
+
+    @Schema(description = "Numero di studenti che hanno risposto solo ad alcune domande", example = "8")
+    private long partialCount;
+
+    @Schema(description = "Popolazione di riferimento per i tassi di risposta (iscritti al corso se indicati, altrimenti rispondenti)", example = "150")
+    private long populationSize;
+
+    @Schema(description = "Tasso di completamento rispetto alla popolazione di riferimento (0..1)", example = "0.7467")
+    private Double completionRate;
+
+    @Schema(description = "Statistiche per singola domanda")
+    private List<QuestionStatisticsDTO> questions;
+
+    @Schema(description = "Data di generazione delle statistiche", example = "2024-04-01T10:00:00")
+    private LocalDateTime generatedAt;
+
+    // Costruttore
+    public SurveyStatisticsDTO() {
+    }
+
+    public SurveyStatisticsDTO(String surveyId, String title, SurveyStatus status, int questionCount,
+                               long respondentCount, long completedCount, long partialCount, long populationSize,
+                               Double completionRate, List<QuestionStatisticsDTO> questions, LocalDateTime generatedAt) {
+        this.surveyId = surveyId;
+        this.title = title;
+        this.status = status;
+        this.questionCount = questionCount;
+        this.respondentCount = respondentCount;
+        this.completedCount = completedCount;
+        this.partialCount = partialCount;
+        this.populationSize = populationSize;
+        this.completionRate = completionRate;
+        this.questions = questions;
+        this.generatedAt = generatedAt;
+    }
+
+    // Builder pattern
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String surveyId;
+        private String title;
+        private SurveyStatus status;
+        private int questionCount;
+        private long respondentCount;
+        private long completedCount;
+        private long partialCount;
+        private long populationSize;
+        private Double completionRate;
+        private List<QuestionStatisticsDTO> questions;
+        private LocalDateTime generatedAt;
+
+        public Builder surveyId(String surveyId) {
+            this.surveyId = surveyId;
+            return this;
+        }
+
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder status(SurveyStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder questionCount(int questionCount) {
+            this.questionCount = questionCount;
+            return this;
+        }
+
+        public Builder respondentCount(long respondentCount) {
+            this.respondentCount = respondentCount;
+            return this;
+        }
+
+        public Builder completedCount(long completedCount) {
+            this.completedCount = completedCount;
+            return this;
+        }
+
+        public Builder partialCount(long partialCount) {
+            this.partialCount = partialCount;
+            return this;
+        }
+
+        public Builder populationSize(long populationSize) {
+            this.populationSize = populationSize;
+            return this;
+        }
+
+        public Builder completionRate(Double completionRate) {
+            this.completionRate = completionRate;
+            return this;
+        }
+
+        public Builder questions(List<QuestionStatisticsDTO> questions) {
+            this.questions = questions;
+            return this;
+        }
+
+        public Builder generatedAt(LocalDateTime generatedAt) {
+            this.generatedAt = generatedAt;
+            return this;
+        }
+
+        public SurveyStatisticsDTO build() {
+            return new SurveyStatisticsDTO(surveyId, title, status, questionCount, respondentCount,
+                    completedCount, partialCount, populationSize, completionRate, questions, generatedAt);
+        }
+    }
+
+    // Getter e Setter
+    public String getSurveyId() { return surveyId; }
+    public void setSurveyId(String surveyId) { this.surveyId = surveyId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public SurveyStatus getStatus() { return status; }
+    public void setStatus(SurveyStatus status) { this.status = status; }
+
+    public int getQuestionCount() { return questionCount; }
+    public void setQuestionCount(int questionCount) { this.questionCount = questionCount; }
+
+    public long getRespondentCount() { return respondentCount; }
+    public void setRespondentCount(long respondentCount) { this.respondentCount = respondentCount; }
+
+    public long getCompletedCount() { return completedCount; }
+    public void setCompletedCount(long completedCount) { this.completedCount = completedCount; }
+
+    public long getPartialCount() { return partialCount; }
+    public void setPartialCount(long partialCount) { this.partialCount = partialCount; }
+
+    public long getPopulationSize() { return populationSize; }
+    public void setPopulationSize(long populationSize) { this.populationSize = populationSize; }
+
+    public Double getCompletionRate() { return completionRate; }
+    public void setCompletionRate(Double completionRate) { this.completionRate = completionRate; }
+
+    public List<QuestionStatisticsDTO> getQuestions() { return questions; }
+    public void setQuestions(List<QuestionStatisticsDTO> questions) { this.questions = questions; }
+
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+
+    // Equals
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SurveyStatisticsDTO that = (SurveyStatisticsDTO) o;
+        return questionCount == that.questionCount &&
+                respondentCount == that.respondentCount &&
+                completedCount == that.completedCount &&
+                partialCount == that.partialCount &&
+                populationSize == that.populationSize &&
+                Objects.equals(surveyId, that.surveyId) &&
+                Objects.equals(title, that.title) &&
+                status == that.status &&
+                Objects.equals(completionRate, that.completionRate) &&
+                Objects.equals(questions, that.questions) &&
+                Objects.equals(generatedAt, that.generatedAt);
+    }
+
+    // HashCode
+    @Override
+    public int hashCode() {
+        return Objects.hash(surveyId, title, status, questionCount, respondentCount, completedCount,
+                partialCount, populationSize, completionRate, questions, generatedAt);
+    }
+
+    // ToString
+    @Override
+    public String toString() {
+        return "SurveyStatisticsDTO{" +
+                "surveyId='" + surveyId + '\'' +
+                ", title='" + title + '\'' +
+                ", status=" + status +
+                ", questionCount=" + questionCount +
+                ", respondentCount=" + respondentCount +
+                ", completedCount=" + completedCount +
+                ", partialCount=" + partialCount +
+                ", populationSize=" + populationSize +
+                ", completionRate=" + completionRate +
+                ", questions=" + questions +
+                ", generatedAt=" + generatedAt +
+                '}';
+    }
+
+    @Schema(description = "Statistiche di una singola domanda del questionario")
+    public static class QuestionStatisticsDTO {
+
+        @Schema(description = "ID della domanda", example = "uuid-domanda-abc")
+        private String questionId;
+
+        @Schema(description = "Testo della domanda", example = "Quanto è stata chiara la spiegazione del docente?")
+        private String questionText;
+
+        @Schema(description = "Tipo di domanda", example = "RATING")
+        private QuestionType questionType;
+
+        @Schema(description = "Numero di risposte ricevute (valutazioni e commenti)", example = "118")
+        private long responseCount;
+
+        @Schema(description = "Numero di valutazioni numeriche ricevute", example = "115")
+        private long ratingCount;
+
+        @Schema(description = "Media delle valutazioni", example = "4.12")
+        private Double mean;
+
+        @Schema(description = "Mediana delle valutazioni", example = "4.0")
+        private Double median;
+
+        @Schema(description = "Deviazione standard campionaria delle valutazioni", example = "0.87")
+        private Double standardDeviation;
+
+        @Schema(description = "Distribuzione delle valutazioni (rating -> numero di risposte)")
+        private Map<Integer, Long> ratingDistribution;
+
+        @Schema(description = "Tasso di risposta rispetto alla popolazione di riferimento (0..1)", example = "0.7867")
+        private Double responseRate;
+
+        // Costruttore
+        public QuestionStatisticsDTO() {
+        }
+
+        public QuestionStatisticsDTO(String questionId, String questionText, QuestionType questionType,
+                                     long responseCount, long ratingCount, Double mean, Double median,
+                                     Double standardDeviation, Map<Integer, Long> ratingDistribution, Double responseRate) {
+            this.questionId = questionId;
+            this.questionText = questionText;
+            this.questionType = questionType;
+            this.responseCount = responseCount;
+            this.ratingCount = ratingCount;
+            this.mean = mean;
+            this.median = median;
+            this.standardDeviation = standardDeviation;
+            this.ratingDistribution = ratingDistribution;
+            this.responseRate = responseRate;
+        }
+
+        // Getter e Setter
+        public String getQuestionId() { return questionId; }
+        public void setQuestionId(String questionId) { this.questionId = questionId; }
+
+        public String getQuestionText() { return questionText; }
+        public void setQuestionText(String questionText) { this.questionText = questionText; }
+
+        public QuestionType getQuestionType() { return questionType; }
+        public void setQuestionType(QuestionType questionType) { this.questionType = questionType; }
+
+        public long getResponseCount() { return responseCount; }
+        public void setResponseCount(long responseCount) { this.responseCount = responseCount; }
+
+        public long getRatingCount() { return ratingCount; }
+        public void setRatingCount(long ratingCount) { this.ratingCount = ratingCount; }
+
+        public Double getMean() { return mean; }
+        public void setMean(Double mean) { this.mean = mean; }
+
+        public Double getMedian() { return median; }
+        public void setMedian(Double median) { this.median = median; }
+
+        public Double getStandardDeviation() { return standardDeviation; }
+        public void setStandardDeviation(Double standardDeviation) { this.standardDeviation = standardDeviation; }
+
+        public Map<Integer, Long> getRatingDistribution() { return ratingDistribution; }
+        public void setRatingDistribution(Map<Integer, Long> ratingDistribution) { this.ratingDistribution = ratingDistribution; }
+
+        public Double getResponseRate() { return responseRate; }
+        public void setResponseRate(Double responseRate) { this.responseRate = responseRate; }
+
+        // Equals
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            QuestionStatisticsDTO that = (QuestionStatisticsDTO) o;
+            return responseCount == that.responseCount &&
+                    ratingCount == that.ratingCount &&
+                    Objects.equals(questionId, that.questionId) &&
+                    Objects.equals(questionText, that.questionText) &&
+                    questionType == that.questionType &&
+                    Objects.equals(mean, that.mean) &&
+                    Objects.equals(median, that.median) &&
+                    Objects.equals(standardDeviation, that.standardDeviation) &&
+                    Objects.equals(ratingDistribution, that.ratingDistribution) &&
+                    Objects.equals(responseRate, that.responseRate);
+        }
+
+        // HashCode
+        @Override
+        public int hashCode() {
+            return Objects.hash(questionId, questionText, questionType, responseCount, ratingCount,
+                    mean, median, standardDeviation, ratingDistribution, responseRate);
+        }
+
+        // ToString
+        @Override
+        public String toString() {
+            return "QuestionStatisticsDTO{" +
+                    "questionId='" + questionId + '\'' +
+                    ", questionText='" + questionText + '\'' +
+                    ", questionType=" + questionType +
+                    ", responseCount=" + responseCount +
+                    ", ratingCount=" + ratingCount +
+                    ", mean=" + mean +
+                    ", median=" + median +
+                    ", standardDeviation=" + standardDeviation +
+                    ", ratingDistribution=" + ratingDistribution +
+                    ", responseRate=" + responseRate +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package it.unimol.microservice_assessment_feedback.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Formato di esportazione (e.g., CSV, NDJSON)")
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
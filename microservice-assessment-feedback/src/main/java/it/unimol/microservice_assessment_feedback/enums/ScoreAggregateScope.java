@@ -0,0 +1,33 @@
+package it.unimol.microservice_assessment_feedback.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Ambito su cui vengono mantenuti gli aggregati dei voti delle valutazioni.
+ * Ogni ambito indica la proprietà di {@code Assessment} usata come chiave e,
+ * per compiti ed esami, il tipo di riferimento su cui filtrare.
+ */
+@Schema(description = "Ambito di aggregazione dei voti (e.g., STUDENT, COURSE, TEACHER, ASSIGNMENT, EXAM)")
+public enum ScoreAggregateScope {
+    STUDENT("studentId", null),
+    COURSE("courseId", null),
+    TEACHER("teacherId", null),
+    ASSIGNMENT("referenceId", ReferenceType.ASSIGNMENT),
+    EXAM("referenceId", ReferenceType.EXAM);
+
+    private final String property;
+    private final ReferenceType referenceType;
+
+    ScoreAggregateScope(String property, ReferenceType referenceType) {
+        this.property = property;
+        this.referenceType = referenceType;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public ReferenceType getReferenceType() {
+        return referenceType;
+    }
+}
@@ -1,16 +1,24 @@
 package it.unimol.microservice_assessment_feedback.messaging.consumers;
 
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.AssignmentCreatedEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.AssignmentSubmittedEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.AssignmentUpdatedEvent;
 import it.unimol.microservice_assessment_feedback.dto.AssessmentDTO;
 import it.unimol.microservice_assessment_feedback.enums.ReferenceType;
 import it.unimol.microservice_assessment_feedback.service.AssessmentService;
 import it.unimol.microservice_assessment_feedback.service.events.NotificationService;
+import com.rabbitmq.client.Channel;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.Instant;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class AssignmentConsumerService extends BaseEventConsumer {
@@ -21,47 +29,55 @@ public class AssignmentConsumerService extends BaseEventConsumer {
     @Autowired
     private NotificationService notificationService;
 
-    @RabbitListener(queues = "${rabbitmq.queue.assignmentSubmitted}")
-    public void handleAssignmentSubmitted(Map<String, Object> message) {
-        processMessage(message, "ASSIGNMENT_SUBMITTED");
+    private final EventBinding<AssignmentSubmittedEvent> assignmentSubmitted =
+            bind("ASSIGNMENT_SUBMITTED", AssignmentSubmittedEvent.class, this::processAssignmentSubmitted);
+
+    private final EventBinding<AssignmentCreatedEvent> assignmentCreated =
+            bind("ASSIGNMENT_CREATED", AssignmentCreatedEvent.class, this::processAssignmentCreated);
+
+    private final EventBinding<AssignmentUpdatedEvent> assignmentUpdated =
+            bind("ASSIGNMENT_UPDATED", AssignmentUpdatedEvent.class, this::processAssignmentUpdated);
+
+    @RabbitListener(queues = "${rabbitmq.queue.assignmentSubmitted}", containerFactory = "assignmentListenerContainerFactory",
+            autoStartup = "#{!${rabbitmq.listener.batch.enabled:false}}")
+    public void handleAssignmentSubmitted(Message message) {
+        processMessage(message, assignmentSubmitted);
     }
 
-    @RabbitListener(queues = "${rabbitmq.queue.assignmentCreated}")
-    public void handleAssignmentCreated(Map<String, Object> message) {
-        processMessage(message, "ASSIGNMENT_CREATED");
+    @RabbitListener(queues = "${rabbitmq.queue.assignmentSubmitted}", containerFactory = "assignmentBatchListenerContainerFactory",
+            autoStartup = "${rabbitmq.listener.batch.enabled:false}")
+    public void handleAssignmentSubmittedBatch(List<Message> messages, Channel channel) throws IOException {
+        processBatch(messages, channel, assignmentSubmitted, this::processAssignmentSubmittedBatch);
     }
 
-    @RabbitListener(queues = "${rabbitmq.queue.assignmentUpdated}")
-    public void handleAssignmentUpdated(Map<String, Object> message) {
-        processMessage(message, "ASSIGNMENT_UPDATED");
+    @RabbitListener(queues = "${rabbitmq.queue.assignmentCreated}", containerFactory = "assignmentListenerContainerFactory")
+    public void handleAssignmentCreated(Message message) {
+        processMessage(message, assignmentCreated);
+    }
+
+    @RabbitListener(queues = "${rabbitmq.queue.assignmentUpdated}", containerFactory = "assignmentListenerContainerFactory")
+    public void handleAssignmentUpdated(Message message) {
+        processMessage(message, assignmentUpdated);
     }
 
     @Override
-    protected void handleMessage(Map<String, Object> message, String messageType) {
-        switch (messageType) {
-            case "ASSIGNMENT_SUBMITTED":
-                processAssignmentSubmitted(message);
-                break;
-            case "ASSIGNMENT_CREATED":
-                processAssignmentCreated(message);
-                break;
-            case "ASSIGNMENT_UPDATED":
-                processAssignmentUpdated(message);
-                break;
-            default:
-                logger.warn("Unknown message type: {}", messageType);
+    protected void onDuplicate(DomainEvent event, String messageType) {
+        if (event instanceof AssignmentSubmittedEvent submission) {
+            handleDuplicateSubmission(submission.assignmentId(), submission.studentId());
+        } else {
+            super.onDuplicate(event, messageType);
         }
     }
 
-    private void processAssignmentSubmitted(Map<String, Object> message) {
-        String assignmentId = getStringValue(message, "assignmentId");
-        String studentId = getStringValue(message, "studentId");
-        String courseId = getStringValue(message, "courseId");
-        String teacherId = getStringValue(message, "teacherId");
-        Long submissionTime = getLongValue(message, "submissionTime");
-        String submissionContent = getStringValue(message, "submissionContent");
-        String fileName = getStringValue(message, "fileName");
-        String fileUrl = getStringValue(message, "fileUrl");
+    private void processAssignmentSubmitted(AssignmentSubmittedEvent event) {
+        String assignmentId = event.assignmentId();
+        String studentId = event.studentId();
+        String courseId = event.courseId();
+        String teacherId = event.teacherId();
+        Long submissionTime = event.submissionTime();
+        String submissionContent = event.submissionContent();
+        String fileName = event.fileName();
+        String fileUrl = event.fileUrl();
 
         logger.info("Processing assignment submission - Assignment ID: {}, Student ID: {}, Course ID: {}",
                 assignmentId, studentId, courseId);
@@ -97,15 +113,57 @@ public class AssignmentConsumerService extends BaseEventConsumer {
         }
     }
 
-    private void processAssignmentCreated(Map<String, Object> message) {
-        String assignmentId = getStringValue(message, "assignmentId");
-        String courseId = getStringValue(message, "courseId");
-        String teacherId = getStringValue(message, "teacherId");
-        String title = getStringValue(message, "title");
-        String description = getStringValue(message, "description");
-        Long dueDate = getLongValue(message, "dueDate");
-        Integer maxScore = getIntegerValue(message, "maxScore");
-        String assignmentType = getStringValue(message, "assignmentType");
+    /**
+     * Versione a blocchi di processAssignmentSubmitted: i dettagli della consegna vengono inclusi
+     * subito nelle note, così ogni assessment richiede un solo insert nel batch.
+     */
+    private void processAssignmentSubmittedBatch(List<AssignmentSubmittedEvent> events) {
+        List<AssessmentDTO> assessments = new ArrayList<>(events.size());
+        for (AssignmentSubmittedEvent event : events) {
+            AssessmentDTO assessment = createAssessmentFromAssignment(
+                    event.assignmentId(),
+                    event.studentId(),
+                    event.courseId(),
+                    event.teacherId(),
+                    event.submissionTime(),
+                    event.fileName());
+            String submissionContent = event.submissionContent();
+            if (submissionContent != null && !submissionContent.trim().isEmpty()) {
+                assessment.setNotes(appendSubmissionDetails(assessment.getNotes(), submissionContent,
+                        event.fileUrl()));
+            }
+            assessments.add(assessment);
+        }
+
+        List<AssessmentDTO> createdAssessments = assessmentService.createAssessments(assessments);
+        logger.info("Created {} assessments for submitted assignments", createdAssessments.size());
+
+        // Gli assessment sono già salvati: un errore qui non deve far rielaborare il blocco
+        for (int i = 0; i < events.size(); i++) {
+            AssignmentSubmittedEvent event = events.get(i);
+            String assignmentId = event.assignmentId();
+            String studentId = event.studentId();
+            String teacherId = event.teacherId();
+            try {
+                notificationService.notifyTeacherOfSubmission(teacherId, assignmentId, studentId);
+                scheduleAssessmentReminder(teacherId, assignmentId, createdAssessments.get(i).getId());
+                updateCourseStatistics(event.courseId(), "assignment_submitted", studentId);
+            } catch (Exception e) {
+                logger.warn("Post-processing failed for assignment: {} | Student: {}: {}",
+                        assignmentId, studentId, e.getMessage());
+            }
+        }
+    }
+
+    private void processAssignmentCreated(AssignmentCreatedEvent event) {
+        String assignmentId = event.assignmentId();
+        String courseId = event.courseId();
+        String teacherId = event.teacherId();
+        String title = event.title();
+        String description = event.description();
+        Long dueDate = event.dueDate();
+        Integer maxScore = event.maxScore();
+        String assignmentType = event.assignmentType();
 
         logger.info("Processing assignment creation - Assignment ID: {}, Course ID: {}, Title: {}",
                 assignmentId, courseId, title);
@@ -136,15 +194,15 @@ public class AssignmentConsumerService extends BaseEventConsumer {
         }
     }
 
-    private void processAssignmentUpdated(Map<String, Object> message) {
-        String assignmentId = getStringValue(message, "assignmentId");
-        String courseId = getStringValue(message, "courseId");
-        String teacherId = getStringValue(message, "teacherId");
-        String title = getStringValue(message, "title");
-        String description = getStringValue(message, "description");
-        Long dueDate = getLongValue(message, "dueDate");
-        Integer maxScore = getIntegerValue(message, "maxScore");
-        String updateType = getStringValue(message, "updateType");
+    private void processAssignmentUpdated(AssignmentUpdatedEvent event) {
+        String assignmentId = event.assignmentId();
+        String courseId = event.courseId();
+        String teacherId = event.teacherId();
+        String title = event.title();
+        String description = event.description();
+        Long dueDate = event.dueDate();
+        Integer maxScore = event.maxScore();
+        String updateType = event.updateType();
 
         logger.info("Processing assignment update - Assignment ID: {}, Course ID: {}, Update Type: {}",
                 assignmentId, courseId, updateType);
@@ -244,30 +302,36 @@ public class AssignmentConsumerService extends BaseEventConsumer {
     private void updateAssessmentWithSubmissionDetails(String assessmentId, String submissionContent, String fileUrl) {
         try {
             // Aggiorna l'assessment con dettagli aggiuntivi della submission
-            AssessmentDTO assessment = assessmentService.getAssessmentById(assessmentId);
+            AssessmentDTO assessment = assessmentService.findAssessmentForEvent(assessmentId).orElse(null);
             if (assessment != null) {
-                String updatedNotes = assessment.getNotes();
-
-                if (submissionContent != null && submissionContent.length() > 50) {
-                    updatedNotes += " | Content preview: " + submissionContent.substring(0, 50) + "...";
-                } else if (submissionContent != null) {
-                    updatedNotes += " | Content: " + submissionContent;
-                }
-
-                if (fileUrl != null) {
-                    updatedNotes += " | File URL: " + fileUrl;
-                }
-
-                assessment.setNotes(updatedNotes);
+                assessment.setNotes(appendSubmissionDetails(assessment.getNotes(), submissionContent, fileUrl));
                 assessmentService.updateAssessment(assessmentId, assessment);
 
                 logger.info("Updated assessment {} with submission details", assessmentId);
+            } else {
+                logger.warn("Assessment {} not found, submission details not applied", assessmentId);
             }
         } catch (Exception e) {
             logger.warn("Could not update assessment {} with submission details: {}", assessmentId, e.getMessage());
         }
     }
 
+    private String appendSubmissionDetails(String notes, String submissionContent, String fileUrl) {
+        String updatedNotes = notes;
+
+        if (submissionContent != null && submissionContent.length() > 50) {
+            updatedNotes += " | Content preview: " + submissionContent.substring(0, 50) + "...";
+        } else if (submissionContent != null) {
+            updatedNotes += " | Content: " + submissionContent;
+        }
+
+        if (fileUrl != null) {
+            updatedNotes += " | File URL: " + fileUrl;
+        }
+
+        return updatedNotes;
+    }
+
     private void setupAssignmentAssessmentCriteria(String assignmentId, String courseId, String teacherId,
                                                    Integer maxScore, String assignmentType) {
         logger.info("🎯 SETUP ASSESSMENT CRITERIA - Assignment: {} | Type: {} | Max Score: {}",
@@ -1,93 +1,321 @@
 package it.unimol.microservice_assessment_feedback.messaging.consumers;
 
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.unimol.microservice_assessment_feedback.common.exception.DuplicateMessageException;
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.EventCodec;
+import it.unimol.microservice_assessment_feedback.messaging.idempotency.ProcessedMessageStore;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import jakarta.persistence.QueryTimeoutException;
+import org.hibernate.exception.JDBCConnectionException;
+import org.hibernate.exception.LockAcquisitionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.annotation.RabbitHandler;
+import org.springframework.amqp.core.Message;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Map;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public abstract class BaseEventConsumer {
 
+    // Classi SQLSTATE: 08 connessione, 40 rollback (serializzazione, deadlock), 53 risorse, 57 intervento dell'operatore
+    private static final Set<String> TRANSIENT_SQL_STATE_CLASSES = Set.of("08", "40", "53", "57");
+
     protected final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Value("${spring.application.name:microservice-assessment-feedback}")
     protected String serviceName;
 
-    protected void processMessage(Map<String, Object> message, String messageType) {
-        if (message == null || message.isEmpty()) {
-            logger.warn("Received empty message for type: {}", messageType);
+    @Autowired
+    protected MeterRegistry meterRegistry;
+
+    @Autowired
+    private EventCodec eventCodec;
+
+    @Autowired
+    private ProcessedMessageStore processedMessageStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    protected <T extends DomainEvent> EventBinding<T> bind(String messageType, Class<T> eventClass, Consumer<T> handler) {
+        return new EventBinding<>(messageType, eventClass, handler);
+    }
+
+    /**
+     * Deserializza il messaggio nel record previsto dal binding ed esegue l'handler associato.
+     * Un payload non valido solleva una MessageConversionException, che il container tratta come
+     * errore non recuperabile instradando il messaggio in DLQ.
+     */
+    protected <T extends DomainEvent> void processMessage(Message message, EventBinding<T> binding) {
+        if (message.getBody() == null || message.getBody().length == 0) {
+            logger.warn("Received empty message for type: {}", binding.messageType());
+            return;
+        }
+        T event = eventCodec.read(message.getBody(), binding.eventClass());
+        if (event == null) {
+            logger.warn("Received empty message for type: {}", binding.messageType());
             return;
         }
+        processEvent(event, binding, message.getMessageProperties().getMessageId());
+    }
 
+    /**
+     * Elabora un evento una sola volta: i duplicati già noti vengono scartati senza elaborazione,
+     * altrimenti l'evento viene registrato come elaborato nella stessa transazione dell'handler.
+     */
+    private <T extends DomainEvent> void processEvent(T event, EventBinding<T> binding, String messageId) {
+        String messageType = binding.messageType();
+        long start = System.nanoTime();
+        String result = "success";
         try {
-            String eventType = (String) message.get("eventType");
-            String sourceService = (String) message.get("serviceName");
-            Long timestamp = (Long) message.get("timestamp");
+            recordLag(messageType, event.timestamp());
 
-            logger.info("Processing {} event from service: {} at timestamp: {}",
-                    eventType, sourceService, timestamp);
+            String idempotencyKey = resolveIdempotencyKey(event, messageType, messageId);
+            if (processedMessageStore.isProcessed(idempotencyKey)) {
+                result = "duplicate";
+                onDuplicate(event, messageType);
+                return;
+            }
 
-            handleMessage(message, messageType);
+            logger.info("Processing {} event (v{}) from service: {} at timestamp: {}",
+                    event.eventType(), versionOf(event), event.serviceName(), event.timestamp());
 
-            logger.info("{} event processed successfully", eventType);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    processedMessageStore.claim(idempotencyKey, messageType);
+                    binding.handler().accept(event);
+                });
+            } catch (DuplicateMessageException e) {
+                // Elaborato in parallelo da un altro consumer
+                result = "duplicate";
+                processedMessageStore.remember(idempotencyKey);
+                onDuplicate(event, messageType);
+                return;
+            }
+            processedMessageStore.remember(idempotencyKey);
+
+            logger.info("{} event processed successfully", event.eventType());
 
         } catch (Exception e) {
+            result = "failure";
             logger.error("Error processing {} message: {}", messageType, e.getMessage(), e);
             throw e;
+        } finally {
+            Timer.builder("rabbitmq.consumer.processing")
+                    .description("Tempo di elaborazione dei messaggi consumati")
+                    .tag("messageType", messageType)
+                    .tag("result", result)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
-    protected abstract void handleMessage(Map<String, Object> message, String messageType);
+    /**
+     * Invocato quando un messaggio viene scartato perché già elaborato.
+     */
+    protected void onDuplicate(DomainEvent event, String messageType) {
+        logger.info("Skipping duplicate {} event", messageType);
+    }
 
+    /**
+     * La chiave di dominio dell'evento ha la precedenza, così vengono riconosciuti anche i duplicati
+     * ripubblicati dal producer con un nuovo message ID; in mancanza si usa il message ID AMQP o il contenuto.
+     */
+    private String resolveIdempotencyKey(DomainEvent event, String messageType, String messageId) {
+        String entityKey = event.entityKey();
+        if (entityKey != null) {
+            return ProcessedMessageStore.key(messageType, "entity:" + entityKey);
+        }
+        if (messageId != null) {
+            return ProcessedMessageStore.key(messageType, "id:" + messageId);
+        }
+        return ProcessedMessageStore.key(messageType, "payload:" + event);
+    }
 
-    // ===================================================================
-    //  UTILITY METHODS
-    // ===================================================================
-    protected String getStringValue(Map<String, Object> message, String key) {
-        Object value = message.get(key);
-        return value != null ? value.toString() : null;
+    private int versionOf(DomainEvent event) {
+        return event.version() != null ? event.version() : 1;
     }
 
-    protected Integer getIntegerValue(Map<String, Object> message, String key) {
-        Object value = message.get(key);
-        if (value instanceof Integer) {
-            return (Integer) value;
-        } else if (value instanceof String) {
+    // Ritardo tra la pubblicazione dell'evento (timestamp del producer) e l'inizio dell'elaborazione
+    private void recordLag(String messageType, Long timestamp) {
+        if (timestamp == null) {
+            return;
+        }
+        long lagMillis = System.currentTimeMillis() - timestamp;
+        if (lagMillis < 0) {
+            lagMillis = 0;
+        }
+        Timer.builder("rabbitmq.consumer.lag")
+                .description("Ritardo tra pubblicazione ed elaborazione del messaggio")
+                .tag("messageType", messageType)
+                .register(meterRegistry)
+                .record(Duration.ofMillis(lagMillis));
+    }
+
+    /**
+     * Elabora un blocco di messaggi ricevuti da un batch listener in ack manuale.
+     * I messaggi non convertibili vengono rifiutati singolarmente (e instradati in DLQ dalla coda),
+     * i duplicati vengono scartati; i restanti sono registrati con un solo flush e passati insieme al batchHandler.
+     * Se il blocco fallisce per un errore di infrastruttura (database non raggiungibile, timeout sui lock, ...)
+     * i messaggi vengono rimessi in coda senza tentativi singoli; altrimenti ogni messaggio viene rielaborato
+     * singolarmente e solo quelli che falliscono di nuovo per un errore proprio finiscono in DLQ.
+     * Al termine i messaggi elaborati vengono confermati con un unico ack cumulativo.
+     */
+    protected <T extends DomainEvent> void processBatch(List<Message> messages, Channel channel, EventBinding<T> binding,
+                                                        BatchHandler<T> batchHandler) throws IOException {
+        String messageType = binding.messageType();
+        long start = System.nanoTime();
+        List<T> events = new ArrayList<>(messages.size());
+        List<String> messageIds = new ArrayList<>(messages.size());
+        List<String> idempotencyKeys = new ArrayList<>(messages.size());
+        List<Long> deliveryTags = new ArrayList<>(messages.size());
+        Set<String> batchKeys = new HashSet<>();
+        // Messaggi già regolati singolarmente (reject o nack), esclusi dall'ack cumulativo
+        Set<Long> settledTags = new HashSet<>();
+
+        for (Message amqpMessage : messages) {
+            long deliveryTag = amqpMessage.getMessageProperties().getDeliveryTag();
+            try {
+                T event = eventCodec.read(amqpMessage.getBody(), binding.eventClass());
+                if (event == null) {
+                    throw new IllegalArgumentException("Empty payload");
+                }
+                recordLag(messageType, event.timestamp());
+
+                String messageId = amqpMessage.getMessageProperties().getMessageId();
+                String idempotencyKey = resolveIdempotencyKey(event, messageType, messageId);
+                if (!batchKeys.add(idempotencyKey) || processedMessageStore.isProcessed(idempotencyKey)) {
+                    onDuplicate(event, messageType);
+                    continue;
+                }
+                events.add(event);
+                messageIds.add(messageId);
+                idempotencyKeys.add(idempotencyKey);
+                deliveryTags.add(deliveryTag);
+            } catch (Exception e) {
+                logger.error("Rejecting unreadable {} message (delivery tag {}): {}", messageType, deliveryTag, e.getMessage());
+                channel.basicReject(deliveryTag, false);
+                settledTags.add(deliveryTag);
+            }
+        }
+
+        if (!events.isEmpty()) {
             try {
-                return Integer.valueOf((String) value);
-            } catch (NumberFormatException e) {
-                logger.warn("Cannot parse {} as Integer: {}", key, value);
-                return null;
+                transactionTemplate.executeWithoutResult(status -> {
+                    processedMessageStore.claimAll(idempotencyKeys, messageType);
+                    batchHandler.handleBatch(events);
+                });
+                idempotencyKeys.forEach(processedMessageStore::remember);
+                logger.info("Processed batch of {} {} messages", events.size(), messageType);
+            } catch (Exception e) {
+                if (isInfrastructureFailure(e)) {
+                    logger.warn("Batch of {} {} messages failed on infrastructure error, requeueing: {}",
+                            events.size(), messageType, e.getMessage());
+                    requeue(channel, deliveryTags, 0, settledTags);
+                } else {
+                    logger.warn("Batch of {} {} messages failed, falling back to single processing: {}",
+                            events.size(), messageType, e.getMessage());
+                    processSingly(channel, binding, events, messageIds, deliveryTags, settledTags);
+                }
+            }
+        }
+
+        // I messaggi regolati singolarmente sono esclusi, l'ack cumulativo copre tutti gli altri
+        long lastAckTag = -1;
+        for (Message amqpMessage : messages) {
+            long deliveryTag = amqpMessage.getMessageProperties().getDeliveryTag();
+            if (!settledTags.contains(deliveryTag)) {
+                lastAckTag = Math.max(lastAckTag, deliveryTag);
             }
         }
-        return null;
+        if (lastAckTag >= 0) {
+            channel.basicAck(lastAckTag, true);
+        }
+
+        Timer.builder("rabbitmq.consumer.batch")
+                .description("Tempo di elaborazione dei blocchi di messaggi consumati")
+                .tag("messageType", messageType)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
     }
 
-    protected Long getLongValue(Map<String, Object> message, String key) {
-        Object value = message.get(key);
-        if (value instanceof Long) {
-            return (Long) value;
-        } else if (value instanceof Integer) {
-            return ((Integer) value).longValue();
-        } else if (value instanceof String) {
+    // Rielabora i messaggi di un blocco fallito uno alla volta
+    private <T extends DomainEvent> void processSingly(Channel channel, EventBinding<T> binding, List<T> events,
+                                                       List<String> messageIds, List<Long> deliveryTags,
+                                                       Set<Long> settledTags) throws IOException {
+        for (int i = 0; i < events.size(); i++) {
             try {
-                return Long.valueOf((String) value);
-            } catch (NumberFormatException e) {
-                logger.warn("Cannot parse {} as Long: {}", key, value);
-                return null;
+                processEvent(events.get(i), binding, messageIds.get(i));
+            } catch (Exception singleError) {
+                if (isInfrastructureFailure(singleError)) {
+                    // Anche i successivi fallirebbero: tornano in coda senza passare dalla DLQ
+                    requeue(channel, deliveryTags, i, settledTags);
+                    return;
+                }
+                channel.basicReject(deliveryTags.get(i), false);
+                settledTags.add(deliveryTags.get(i));
             }
         }
-        return null;
     }
 
-    protected Boolean getBooleanValue(Map<String, Object> message, String key) {
-        Object value = message.get(key);
-        if (value instanceof Boolean) {
-            return (Boolean) value;
-        } else if (value instanceof String) {
-            return Boolean.valueOf((String) value);
+    private void requeue(Channel channel, List<Long> deliveryTags, int from, Set<Long> settledTags) throws IOException {
+        for (int i = from; i < deliveryTags.size(); i++) {
+            channel.basicNack(deliveryTags.get(i), false, true);
+            settledTags.add(deliveryTags.get(i));
+        }
+    }
+
+    /**
+     * Errori che non dipendono dal contenuto del messaggio: connessione al database persa, timeout sui lock,
+     * deadlock, transazione non avviabile. Il messaggio va rimesso in coda e non instradato in DLQ.
+     */
+    static boolean isInfrastructureFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof JDBCConnectionException
+                    || cause instanceof LockAcquisitionException
+                    || cause instanceof PessimisticLockException
+                    || cause instanceof LockTimeoutException
+                    || cause instanceof QueryTimeoutException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                String sqlState = sqlException.getSQLState();
+                if (sqlState.length() >= 2 && TRANSIENT_SQL_STATE_CLASSES.contains(sqlState.substring(0, 2))) {
+                    return true;
+                }
+            }
         }
-        return null;
+        return false;
+    }
+
+    @FunctionalInterface
+    protected interface BatchHandler<T extends DomainEvent> {
+        void handleBatch(List<T> events);
     }
 }
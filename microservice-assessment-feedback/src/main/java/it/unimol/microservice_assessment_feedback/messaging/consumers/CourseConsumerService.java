@@ -1,12 +1,14 @@
 package it.unimol.microservice_assessment_feedback.messaging.consumers;
 
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.CourseCreatedEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.CourseDeletedEvent;
 import it.unimol.microservice_assessment_feedback.service.events.NotificationService;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 
 @Service
 public class CourseConsumerService extends BaseEventConsumer {
@@ -14,41 +16,33 @@ public class CourseConsumerService extends BaseEventConsumer {
     @Autowired
     private NotificationService notificationService;
 
-    @RabbitListener(queues = "${rabbitmq.queue.courseCreated}")
-    public void handleCourseCreated(Map<String, Object> message) {
-        processMessage(message, "COURSE_CREATED");
-    }
+    private final EventBinding<CourseCreatedEvent> courseCreated =
+            bind("COURSE_CREATED", CourseCreatedEvent.class, this::processCourseCreated);
+
+    private final EventBinding<CourseDeletedEvent> courseDeleted =
+            bind("COURSE_DELETED", CourseDeletedEvent.class, this::processCourseDeleted);
 
-    @RabbitListener(queues = "${rabbitmq.queue.courseDeleted}")
-    public void handleCourseDeleted(Map<String, Object> message) {
-        processMessage(message, "COURSE_DELETED");
+    @RabbitListener(queues = "${rabbitmq.queue.courseCreated}", containerFactory = "courseListenerContainerFactory")
+    public void handleCourseCreated(Message message) {
+        processMessage(message, courseCreated);
     }
 
-    @Override
-    protected void handleMessage(Map<String, Object> message, String messageType) {
-        switch (messageType) {
-            case "COURSE_CREATED":
-                processCourseCreated(message);
-                break;
-            case "COURSE_DELETED":
-                processCourseDeleted(message);
-                break;
-            default:
-                logger.warn("Unknown message type: {}", messageType);
-        }
+    @RabbitListener(queues = "${rabbitmq.queue.courseDeleted}", containerFactory = "courseListenerContainerFactory")
+    public void handleCourseDeleted(Message message) {
+        processMessage(message, courseDeleted);
     }
 
-    private void processCourseCreated(Map<String, Object> message) {
-        String courseId = getStringValue(message, "courseId");
-        String courseName = getStringValue(message, "courseName");
-        String courseCode = getStringValue(message, "courseCode");
-        String teacherId = getStringValue(message, "teacherId");
-        String teacherName = getStringValue(message, "teacherName");
-        String department = getStringValue(message, "department");
-        String academicYear = getStringValue(message, "academicYear");
-        String semester = getStringValue(message, "semester");
-        Integer credits = getIntegerValue(message, "credits");
-        String description = getStringValue(message, "description");
+    private void processCourseCreated(CourseCreatedEvent event) {
+        String courseId = event.courseId();
+        String courseName = event.courseName();
+        String courseCode = event.courseCode();
+        String teacherId = event.teacherId();
+        String teacherName = event.teacherName();
+        String department = event.department();
+        String academicYear = event.academicYear();
+        String semester = event.semester();
+        Integer credits = event.credits();
+        String description = event.description();
 
         logger.info("Processing course creation - Course ID: {}, Course Name: {}, Teacher ID: {}",
                 courseId, courseName, teacherId);
@@ -74,12 +68,12 @@ public class CourseConsumerService extends BaseEventConsumer {
         }
     }
 
-    private void processCourseDeleted(Map<String, Object> message) {
-        String courseId = getStringValue(message, "courseId");
-        String courseName = getStringValue(message, "courseName");
-        String teacherId = getStringValue(message, "teacherId");
-        String reason = getStringValue(message, "reason");
-        Long deletionDate = getLongValue(message, "deletionDate");
+    private void processCourseDeleted(CourseDeletedEvent event) {
+        String courseId = event.courseId();
+        String courseName = event.courseName();
+        String teacherId = event.teacherId();
+        String reason = event.reason();
+        Long deletionDate = event.deletionDate();
 
         logger.info("Processing course deletion - Course ID: {}, Course Name: {}, Reason: {}",
                 courseId, courseName, reason);
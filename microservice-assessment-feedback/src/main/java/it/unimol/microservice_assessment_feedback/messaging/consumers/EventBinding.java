@@ -0,0 +1,11 @@
+package it.unimol.microservice_assessment_feedback.messaging.consumers;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Associa un tipo di messaggio al record in cui viene deserializzato e al relativo handler.
+ */
+public record EventBinding<T extends DomainEvent>(String messageType, Class<T> eventClass, Consumer<T> handler) {
+}
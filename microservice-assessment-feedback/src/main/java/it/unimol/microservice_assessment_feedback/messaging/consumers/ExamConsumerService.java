@@ -1,16 +1,22 @@
 package it.unimol.microservice_assessment_feedback.messaging.consumers;
 
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.ExamCompletedEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.ExamGradeRegisteredEvent;
 import it.unimol.microservice_assessment_feedback.dto.AssessmentDTO;
 import it.unimol.microservice_assessment_feedback.enums.ReferenceType;
 import it.unimol.microservice_assessment_feedback.service.AssessmentService;
 import it.unimol.microservice_assessment_feedback.service.events.NotificationService;
+import com.rabbitmq.client.Channel;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.Instant;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class ExamConsumerService extends BaseEventConsumer {
@@ -21,38 +27,37 @@ public class ExamConsumerService extends BaseEventConsumer {
     @Autowired
     private NotificationService notificationService;
 
-    @RabbitListener(queues = "${rabbitmq.queue.examCompleted}")
-    public void handleExamCompleted(Map<String, Object> message) {
-        processMessage(message, "EXAM_COMPLETED");
+    private final EventBinding<ExamCompletedEvent> examCompleted =
+            bind("EXAM_COMPLETED", ExamCompletedEvent.class, this::processExamCompleted);
+
+    private final EventBinding<ExamGradeRegisteredEvent> examGradeRegistered =
+            bind("EXAM_GRADE_REGISTERED", ExamGradeRegisteredEvent.class, this::processExamGradeRegistered);
+
+    @RabbitListener(queues = "${rabbitmq.queue.examCompleted}", containerFactory = "examListenerContainerFactory",
+            autoStartup = "#{!${rabbitmq.listener.batch.enabled:false}}")
+    public void handleExamCompleted(Message message) {
+        processMessage(message, examCompleted);
     }
 
-    @RabbitListener(queues = "${rabbitmq.queue.examGradeRegistered}")
-    public void handleExamGradeRegistered(Map<String, Object> message) {
-        processMessage(message, "EXAM_GRADE_REGISTERED");
+    @RabbitListener(queues = "${rabbitmq.queue.examCompleted}", containerFactory = "examBatchListenerContainerFactory",
+            autoStartup = "${rabbitmq.listener.batch.enabled:false}")
+    public void handleExamCompletedBatch(List<Message> messages, Channel channel) throws IOException {
+        processBatch(messages, channel, examCompleted, this::processExamCompletedBatch);
     }
 
-    @Override
-    protected void handleMessage(Map<String, Object> message, String messageType) {
-        switch (messageType) {
-            case "EXAM_COMPLETED":
-                processExamCompleted(message);
-                break;
-            case "EXAM_GRADE_REGISTERED":
-                processExamGradeRegistered(message);
-                break;
-            default:
-                logger.warn("Unknown message type: {}", messageType);
-        }
+    @RabbitListener(queues = "${rabbitmq.queue.examGradeRegistered}", containerFactory = "examListenerContainerFactory")
+    public void handleExamGradeRegistered(Message message) {
+        processMessage(message, examGradeRegistered);
     }
 
-    private void processExamCompleted(Map<String, Object> message) {
-        String examId = getStringValue(message, "examId");
-        String studentId = getStringValue(message, "studentId");
-        String courseId = getStringValue(message, "courseId");
-        String teacherId = getStringValue(message, "teacherId");
-        Long completionTime = getLongValue(message, "completionTime");
-        Integer duration = getIntegerValue(message, "duration");
-        String examType = getStringValue(message, "examType");
+    private void processExamCompleted(ExamCompletedEvent event) {
+        String examId = event.examId();
+        String studentId = event.studentId();
+        String courseId = event.courseId();
+        String teacherId = event.teacherId();
+        Long completionTime = event.completionTime();
+        Integer duration = event.duration();
+        String examType = event.examType();
 
         logger.info("Processing exam completion - Exam ID: {}, Student ID: {}, Course ID: {}, Type: {}",
                 examId, studentId, courseId, examType);
@@ -66,14 +71,8 @@ public class ExamConsumerService extends BaseEventConsumer {
             logger.info("Created pending assessment with ID: {} for exam: {}",
                     createdAssessment.getId(), examId);
 
-            // 2. Notificare il docente che l'esame è stato completato e richiede correzione
-            notificationService.notifyTeacherOfExamCompletion(teacherId, examId, studentId);
-
-            // 3. Programmare il survey di feedback per l'esame (attivazione automatica)
-            scheduleFeedbackSurvey(studentId, examId, courseId);
-
-            // 4. Aggiornare statistiche del corso
-            updateExamStatistics(courseId, examType, studentId, duration);
+            // 2-4. Notifiche, survey e statistiche
+            afterExamCompleted(event);
 
             logger.info("Exam completion processed successfully for exam: {} | Student: {}", examId, studentId);
 
@@ -83,17 +82,64 @@ public class ExamConsumerService extends BaseEventConsumer {
         }
     }
 
-    private void processExamGradeRegistered(Map<String, Object> message) {
-        String examId = getStringValue(message, "examId");
-        String assessmentId = getStringValue(message, "assessmentId");
-        String studentId = getStringValue(message, "studentId");
-        String courseId = getStringValue(message, "courseId");
-        String teacherId = getStringValue(message, "teacherId");
-        Integer score = getIntegerValue(message, "score");
-        Integer maxScore = getIntegerValue(message, "maxScore");
-        String grade = getStringValue(message, "grade");
-        String feedback = getStringValue(message, "feedback");
-        Long gradeDate = getLongValue(message, "gradeDate");
+    /**
+     * Versione a blocchi di processExamCompleted: tutti gli assessment vengono creati in un'unica
+     * transazione, poi si eseguono notifiche e statistiche per ciascun esame.
+     */
+    private void processExamCompletedBatch(List<ExamCompletedEvent> events) {
+        List<AssessmentDTO> pendingAssessments = new ArrayList<>(events.size());
+        for (ExamCompletedEvent event : events) {
+            pendingAssessments.add(createPendingAssessmentFromExam(
+                    event.examId(),
+                    event.studentId(),
+                    event.courseId(),
+                    event.teacherId(),
+                    event.completionTime(),
+                    event.examType(),
+                    event.duration()));
+        }
+
+        List<AssessmentDTO> createdAssessments = assessmentService.createAssessments(pendingAssessments);
+        logger.info("Created {} pending assessments for completed exams", createdAssessments.size());
+
+        // Gli assessment sono già salvati: un errore qui non deve far rielaborare il blocco
+        for (ExamCompletedEvent event : events) {
+            try {
+                afterExamCompleted(event);
+            } catch (Exception e) {
+                logger.warn("Post-processing failed for exam: {} | Student: {}: {}",
+                        event.examId(), event.studentId(), e.getMessage());
+            }
+        }
+    }
+
+    private void afterExamCompleted(ExamCompletedEvent event) {
+        String examId = event.examId();
+        String studentId = event.studentId();
+        String courseId = event.courseId();
+        String teacherId = event.teacherId();
+
+        // 2. Notificare il docente che l'esame è stato completato e richiede correzione
+        notificationService.notifyTeacherOfExamCompletion(teacherId, examId, studentId);
+
+        // 3. Programmare il survey di feedback per l'esame (attivazione automatica)
+        scheduleFeedbackSurvey(studentId, examId, courseId);
+
+        // 4. Aggiornare statistiche del corso
+        updateExamStatistics(courseId, event.examType(), studentId, event.duration());
+    }
+
+    private void processExamGradeRegistered(ExamGradeRegisteredEvent event) {
+        String examId = event.examId();
+        String assessmentId = event.assessmentId();
+        String studentId = event.studentId();
+        String courseId = event.courseId();
+        String teacherId = event.teacherId();
+        Integer score = event.score();
+        Integer maxScore = event.maxScore();
+        String grade = event.grade();
+        String feedback = event.feedback();
+        Long gradeDate = event.gradeDate();
 
         logger.info("Processing exam grade registration - Exam ID: {}, Student ID: {}, Score: {}/{}, Grade: {}",
                 examId, studentId, score, maxScore, grade);
@@ -162,7 +208,7 @@ public class ExamConsumerService extends BaseEventConsumer {
 
     private void updateAssessmentWithGrade(String assessmentId, Integer score, String grade, String feedback, Long gradeDate) {
         try {
-            AssessmentDTO assessment = assessmentService.getAssessmentById(assessmentId);
+            AssessmentDTO assessment = assessmentService.findAssessmentForEvent(assessmentId).orElse(null);
             if (assessment != null) {
                 // Aggiorna con il voto finale
                 assessment.setScore(score != null ? score.doubleValue() : 0.0);
@@ -189,6 +235,8 @@ public class ExamConsumerService extends BaseEventConsumer {
 
                 assessmentService.updateAssessment(assessmentId, assessment);
                 logger.info("Updated assessment {} with grade: {} and score: {}", assessmentId, grade, score);
+            } else {
+                logger.warn("Assessment {} not found, grade not applied", assessmentId);
             }
         } catch (Exception e) {
             logger.error("Could not update assessment {} with grade: {}", assessmentId, e.getMessage());
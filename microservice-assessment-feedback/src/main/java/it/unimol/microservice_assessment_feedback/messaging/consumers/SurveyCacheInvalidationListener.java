@@ -0,0 +1,54 @@
+package it.unimol.microservice_assessment_feedback.messaging.consumers;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.EventCodec;
+import it.unimol.microservice_assessment_feedback.messaging.events.outbound.SurveyCacheInvalidatedEvent;
+import it.unimol.microservice_assessment_feedback.service.cache.ActiveSurveyIndex;
+import it.unimol.microservice_assessment_feedback.service.cache.SurveySnapshot;
+import it.unimol.microservice_assessment_feedback.service.cache.TeacherSurveyCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Riceve le invalidazioni della cache dei questionari sulla coda anonima di questa istanza
+ * e ricostruisce l'indice dei questionari attivi se la modifica lo riguarda.
+ * Non estende {@link BaseEventConsumer}: ogni istanza deve elaborare ogni messaggio,
+ * quindi il registro di idempotenza condiviso non si applica.
+ */
+@Service
+public class SurveyCacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveyCacheInvalidationListener.class);
+
+    private final TeacherSurveyCache surveyCache;
+    private final ActiveSurveyIndex activeSurveyIndex;
+    private final EventCodec eventCodec;
+
+    public SurveyCacheInvalidationListener(TeacherSurveyCache surveyCache,
+                                           ActiveSurveyIndex activeSurveyIndex,
+                                           EventCodec eventCodec) {
+        this.surveyCache = surveyCache;
+        this.activeSurveyIndex = activeSurveyIndex;
+        this.eventCodec = eventCodec;
+    }
+
+    @RabbitListener(queues = "#{surveyCacheInvalidationQueue.name}", containerFactory = "cacheListenerContainerFactory")
+    public void handleSurveyCacheInvalidated(Message message) {
+        try {
+            SurveyCacheInvalidatedEvent event = eventCodec.read(message.getBody(), SurveyCacheInvalidatedEvent.class);
+            if (event.surveyId() != null) {
+                surveyCache.evict(event.surveyId());
+                logger.debug("Survey cache entry invalidated: {}", event.surveyId());
+
+                if (activeSurveyIndex.contains(event.surveyId())
+                        || surveyCache.find(event.surveyId()).map(SurveySnapshot::isActive).orElse(false)) {
+                    activeSurveyIndex.refresh();
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Discarding invalid survey cache invalidation message: {}", e.getMessage());
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package it.unimol.microservice_assessment_feedback.messaging.consumers;
 
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.StudentCreatedEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.TeacherCreatedEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.UserDeletedEvent;
 import it.unimol.microservice_assessment_feedback.service.events.NotificationService;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 
 @Service
 public class UserConsumerService extends BaseEventConsumer {
@@ -14,48 +17,40 @@ public class UserConsumerService extends BaseEventConsumer {
     @Autowired
     private NotificationService notificationService;
 
-    @RabbitListener(queues = "${rabbitmq.queue.teacherCreated}")
-    public void handleTeacherCreated(Map<String, Object> message) {
-        processMessage(message, "TEACHER_CREATED");
-    }
+    private final EventBinding<TeacherCreatedEvent> teacherCreated =
+            bind("TEACHER_CREATED", TeacherCreatedEvent.class, this::processTeacherCreated);
+
+    private final EventBinding<StudentCreatedEvent> studentCreated =
+            bind("STUDENT_CREATED", StudentCreatedEvent.class, this::processStudentCreated);
 
-    @RabbitListener(queues = "${rabbitmq.queue.studentCreated}")
-    public void handleStudentCreated(Map<String, Object> message) {
-        processMessage(message, "STUDENT_CREATED");
+    private final EventBinding<UserDeletedEvent> userDeleted =
+            bind("USER_DELETED", UserDeletedEvent.class, this::processUserDeleted);
+
+    @RabbitListener(queues = "${rabbitmq.queue.teacherCreated}", containerFactory = "userListenerContainerFactory")
+    public void handleTeacherCreated(Message message) {
+        processMessage(message, teacherCreated);
     }
 
-    @RabbitListener(queues = "${rabbitmq.queue.userDeleted}")
-    public void handleUserDeleted(Map<String, Object> message) {
-        processMessage(message, "USER_DELETED");
+    @RabbitListener(queues = "${rabbitmq.queue.studentCreated}", containerFactory = "userListenerContainerFactory")
+    public void handleStudentCreated(Message message) {
+        processMessage(message, studentCreated);
     }
 
-    @Override
-    protected void handleMessage(Map<String, Object> message, String messageType) {
-        switch (messageType) {
-            case "TEACHER_CREATED":
-                processTeacherCreated(message);
-                break;
-            case "STUDENT_CREATED":
-                processStudentCreated(message);
-                break;
-            case "USER_DELETED":
-                processUserDeleted(message);
-                break;
-            default:
-                logger.warn("Unknown message type: {}", messageType);
-        }
+    @RabbitListener(queues = "${rabbitmq.queue.userDeleted}", containerFactory = "userListenerContainerFactory")
+    public void handleUserDeleted(Message message) {
+        processMessage(message, userDeleted);
     }
 
-    private void processTeacherCreated(Map<String, Object> message) {
-        String teacherId = getStringValue(message, "teacherId");
-        String firstName = getStringValue(message, "firstName");
-        String lastName = getStringValue(message, "lastName");
-        String email = getStringValue(message, "email");
-        String department = getStringValue(message, "department");
-        String academicTitle = getStringValue(message, "academicTitle");
-        String specialization = getStringValue(message, "specialization");
-        String phoneNumber = getStringValue(message, "phoneNumber");
-        String officeLocation = getStringValue(message, "officeLocation");
+    private void processTeacherCreated(TeacherCreatedEvent event) {
+        String teacherId = event.teacherId();
+        String firstName = event.firstName();
+        String lastName = event.lastName();
+        String email = event.email();
+        String department = event.department();
+        String academicTitle = event.academicTitle();
+        String specialization = event.specialization();
+        String phoneNumber = event.phoneNumber();
+        String officeLocation = event.officeLocation();
 
         logger.info("Processing teacher creation - Teacher ID: {}, Name: {} {}, Department: {}",
                 teacherId, firstName, lastName, department);
@@ -85,16 +80,16 @@ public class UserConsumerService extends BaseEventConsumer {
         }
     }
 
-    private void processStudentCreated(Map<String, Object> message) {
-        String studentId = getStringValue(message, "studentId");
-        String firstName = getStringValue(message, "firstName");
-        String lastName = getStringValue(message, "lastName");
-        String email = getStringValue(message, "email");
-        String matriculationNumber = getStringValue(message, "matriculationNumber");
-        String degreeProgram = getStringValue(message, "degreeProgram");
-        String academicYear = getStringValue(message, "academicYear");
-        Integer yearOfStudy = getIntegerValue(message, "yearOfStudy");
-        String department = getStringValue(message, "department");
+    private void processStudentCreated(StudentCreatedEvent event) {
+        String studentId = event.studentId();
+        String firstName = event.firstName();
+        String lastName = event.lastName();
+        String email = event.email();
+        String matriculationNumber = event.matriculationNumber();
+        String degreeProgram = event.degreeProgram();
+        String academicYear = event.academicYear();
+        Integer yearOfStudy = event.yearOfStudy();
+        String department = event.department();
 
         logger.info("Processing student creation - Student ID: {}, Name: {} {}, Matriculation: {}, Program: {}",
                 studentId, firstName, lastName, matriculationNumber, degreeProgram);
@@ -127,11 +122,11 @@ public class UserConsumerService extends BaseEventConsumer {
         }
     }
 
-    private void processUserDeleted(Map<String, Object> message) {
-        String userId = getStringValue(message, "userId");
-        String userType = getStringValue(message, "userType");
-        String reason = getStringValue(message, "reason");
-        Long deletionDate = getLongValue(message, "deletionDate");
+    private void processUserDeleted(UserDeletedEvent event) {
+        String userId = event.userId();
+        String userType = event.userType();
+        String reason = event.reason();
+        Long deletionDate = event.deletionDate();
 
         logger.info("Processing user deletion - User ID: {}, Type: {}, Reason: {}", userId, userType, reason);
 
@@ -0,0 +1,24 @@
+package it.unimol.microservice_assessment_feedback.messaging.events;
+
+/**
+ * Campi comuni a tutti gli eventi scambiati su RabbitMQ.
+ * La versione identifica lo schema del payload; i producer che non la inviano sono trattati come versione 1.
+ */
+public interface DomainEvent {
+
+    String eventType();
+
+    Integer version();
+
+    String serviceName();
+
+    Long timestamp();
+
+    /**
+     * Chiave di dominio dell'evento, usata per riconoscere i duplicati anche quando il producer
+     * ripubblica lo stesso evento con un nuovo message ID. Null se l'evento non ne ha una.
+     */
+    default String entityKey() {
+        return null;
+    }
+}
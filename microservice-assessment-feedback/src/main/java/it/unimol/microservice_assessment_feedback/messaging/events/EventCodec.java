@@ -0,0 +1,42 @@
+package it.unimol.microservice_assessment_feedback.messaging.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.JacksonUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializza e deserializza gli eventi tipizzati con reader e writer Jackson costruiti una sola volta per tipo.
+ * Usa la stessa configurazione dell'ObjectMapper del Jackson2JsonMessageConverter,
+ * quindi il JSON prodotto è identico a quello dei messaggi pubblicati in precedenza come mappe.
+ */
+@Component
+public class EventCodec {
+
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public String writeAsString(DomainEvent event) {
+        try {
+            return writers.computeIfAbsent(event.getClass(), objectMapper::writerFor).writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Impossibile serializzare l'evento " + event.eventType(), e);
+        }
+    }
+
+    public <T extends DomainEvent> T read(byte[] body, Class<T> type) {
+        try {
+            return readers.computeIfAbsent(type, objectMapper::readerFor).readValue(body);
+        } catch (IOException e) {
+            throw new MessageConversionException("Payload non valido per " + type.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.inbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Creazione di un compito (assignment.created).
+ */
+public record AssignmentCreatedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String assignmentId,
+        String courseId,
+        String teacherId,
+        String title,
+        String description,
+        Long dueDate,
+        Integer maxScore,
+        String assignmentType
+) implements DomainEvent {
+}
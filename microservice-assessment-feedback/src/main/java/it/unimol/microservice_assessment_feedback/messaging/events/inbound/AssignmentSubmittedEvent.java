@@ -0,0 +1,33 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.inbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Consegna di un compito da parte di uno studente (assignment.submitted).
+ */
+public record AssignmentSubmittedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String assignmentId,
+        String studentId,
+        String courseId,
+        String teacherId,
+        Long submissionTime,
+        String submissionContent,
+        String fileName,
+        String fileUrl
+) implements DomainEvent {
+
+    /**
+     * Una nuova consegna dello stesso studente ha un submissionTime diverso e non viene scartata.
+     */
+    @Override
+    public String entityKey() {
+        if (assignmentId == null || studentId == null || submissionTime == null) {
+            return null;
+        }
+        return assignmentId + ":" + studentId + ":" + submissionTime;
+    }
+}
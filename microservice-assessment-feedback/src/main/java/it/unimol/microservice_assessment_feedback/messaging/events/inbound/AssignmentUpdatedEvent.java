@@ -0,0 +1,22 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.inbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Modifica di un compito (assignment.updated).
+ */
+public record AssignmentUpdatedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String assignmentId,
+        String courseId,
+        String teacherId,
+        String title,
+        String description,
+        Long dueDate,
+        Integer maxScore,
+        String updateType
+) implements DomainEvent {
+}
@@ -0,0 +1,24 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.inbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Creazione di un corso (course.created).
+ */
+public record CourseCreatedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String courseId,
+        String courseName,
+        String courseCode,
+        String teacherId,
+        String teacherName,
+        String department,
+        String academicYear,
+        String semester,
+        Integer credits,
+        String description
+) implements DomainEvent {
+}
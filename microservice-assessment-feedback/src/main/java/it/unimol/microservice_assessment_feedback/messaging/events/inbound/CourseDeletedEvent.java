@@ -0,0 +1,19 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.inbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Cancellazione di un corso (course.deleted).
+ */
+public record CourseDeletedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String courseId,
+        String courseName,
+        String teacherId,
+        String reason,
+        Long deletionDate
+) implements DomainEvent {
+}
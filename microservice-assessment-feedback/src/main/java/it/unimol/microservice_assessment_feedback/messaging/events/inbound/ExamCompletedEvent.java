@@ -0,0 +1,29 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.inbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Esame completato da uno studente (exam.completed).
+ */
+public record ExamCompletedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String examId,
+        String studentId,
+        String courseId,
+        String teacherId,
+        Long completionTime,
+        Integer duration,
+        String examType
+) implements DomainEvent {
+
+    @Override
+    public String entityKey() {
+        if (examId == null || studentId == null) {
+            return null;
+        }
+        return examId + ":" + studentId;
+    }
+}
@@ -0,0 +1,24 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.inbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Voto registrato per un esame (exam.grade.registered).
+ */
+public record ExamGradeRegisteredEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String examId,
+        String assessmentId,
+        String studentId,
+        String courseId,
+        String teacherId,
+        Integer score,
+        Integer maxScore,
+        String grade,
+        String feedback,
+        Long gradeDate
+) implements DomainEvent {
+}
@@ -0,0 +1,23 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.inbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Registrazione di uno studente (student.created).
+ */
+public record StudentCreatedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String studentId,
+        String firstName,
+        String lastName,
+        String email,
+        String matriculationNumber,
+        String degreeProgram,
+        String academicYear,
+        Integer yearOfStudy,
+        String department
+) implements DomainEvent {
+}
@@ -0,0 +1,23 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.inbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Registrazione di un docente (teacher.created).
+ */
+public record TeacherCreatedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String teacherId,
+        String firstName,
+        String lastName,
+        String email,
+        String department,
+        String academicTitle,
+        String specialization,
+        String phoneNumber,
+        String officeLocation
+) implements DomainEvent {
+}
@@ -0,0 +1,18 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.inbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Cancellazione di un utente (user.deleted).
+ */
+public record UserDeletedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String userId,
+        String userType,
+        String reason,
+        Long deletionDate
+) implements DomainEvent {
+}
@@ -0,0 +1,17 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.outbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Cancellazione di una valutazione (assessment.deleted).
+ */
+public record AssessmentDeletedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String assessmentId
+) implements DomainEvent {
+
+    public static final int VERSION = 1;
+}
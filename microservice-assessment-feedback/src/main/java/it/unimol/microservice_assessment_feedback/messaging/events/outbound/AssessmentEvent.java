@@ -0,0 +1,27 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.outbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Creazione o modifica di una valutazione (assessment.created, assessment.updated).
+ */
+public record AssessmentEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String assessmentId,
+        String referenceId,
+        String referenceType,
+        String studentId,
+        String teacherId,
+        String courseId,
+        Double score,
+        LocalDateTime assessmentDate,
+        String notes
+) implements DomainEvent {
+
+    public static final int VERSION = 1;
+}
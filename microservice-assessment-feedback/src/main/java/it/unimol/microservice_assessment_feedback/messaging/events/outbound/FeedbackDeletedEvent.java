@@ -0,0 +1,17 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.outbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Cancellazione di un feedback (feedback.deleted).
+ */
+public record FeedbackDeletedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String feedbackId
+) implements DomainEvent {
+
+    public static final int VERSION = 1;
+}
@@ -0,0 +1,22 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.outbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Creazione o modifica di un feedback (feedback.created, feedback.updated).
+ */
+public record FeedbackEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String feedbackId,
+        String assessmentId,
+        String feedbackText,
+        String category,
+        String strengths,
+        String improvementAreas
+) implements DomainEvent {
+
+    public static final int VERSION = 1;
+}
@@ -0,0 +1,17 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.outbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Invalidazione della cache dei questionari (survey.cache.invalidated), ricevuta da tutte le istanze del servizio.
+ */
+public record SurveyCacheInvalidatedEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String surveyId
+) implements DomainEvent {
+
+    public static final int VERSION = 1;
+}
@@ -0,0 +1,26 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.outbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio di stato di un questionario (survey.completed).
+ */
+public record SurveyEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String surveyId,
+        String courseId,
+        String teacherId,
+        String academicYear,
+        Integer semester,
+        String status,
+        LocalDateTime creationDate,
+        LocalDateTime closingDate
+) implements DomainEvent {
+
+    public static final int VERSION = 1;
+}
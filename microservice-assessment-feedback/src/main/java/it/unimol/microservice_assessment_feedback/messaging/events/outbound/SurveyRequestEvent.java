@@ -0,0 +1,18 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.outbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+/**
+ * Richiesta di risultati o commenti di un questionario (survey.results.requested, survey.comments.requested).
+ */
+public record SurveyRequestEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String surveyId,
+        String requestedBy
+) implements DomainEvent {
+
+    public static final int VERSION = 1;
+}
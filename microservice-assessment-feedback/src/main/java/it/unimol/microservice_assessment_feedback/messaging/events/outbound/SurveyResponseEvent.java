@@ -0,0 +1,25 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.outbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Risposta a una domanda di un questionario (survey.response.submitted).
+ */
+public record SurveyResponseEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String responseId,
+        String surveyId,
+        String studentId,
+        String questionId,
+        Integer numericRating,
+        String textComment,
+        LocalDateTime submissionDate
+) implements DomainEvent {
+
+    public static final int VERSION = 1;
+}
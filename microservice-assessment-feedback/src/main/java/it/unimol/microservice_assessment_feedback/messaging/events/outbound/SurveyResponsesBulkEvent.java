@@ -0,0 +1,32 @@
+package it.unimol.microservice_assessment_feedback.messaging.events.outbound;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Invio in blocco delle risposte di uno studente a un questionario (survey.responses.bulk.submitted).
+ */
+public record SurveyResponsesBulkEvent(
+        String eventType,
+        Integer version,
+        String serviceName,
+        Long timestamp,
+        String surveyId,
+        Integer responseCount,
+        List<Response> responses
+) implements DomainEvent {
+
+    public static final int VERSION = 1;
+
+    public record Response(
+            String responseId,
+            String studentId,
+            String questionId,
+            Integer numericRating,
+            String textComment,
+            LocalDateTime submissionDate
+    ) {
+    }
+}
@@ -0,0 +1,174 @@
+package it.unimol.microservice_assessment_feedback.messaging.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import it.unimol.microservice_assessment_feedback.common.exception.DuplicateMessageException;
+import it.unimol.microservice_assessment_feedback.model.ProcessedMessage;
+import it.unimol.microservice_assessment_feedback.repository.ProcessedMessageRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Registro dei messaggi già elaborati dai consumer.
+ * Una cache LRU in memoria risponde per i duplicati recenti senza accedere al database;
+ * la tabella processed_messages resta la fonte di verità: un duplicato non più in memoria viene
+ * riconosciuto dalla violazione della chiave primaria in fase di registrazione.
+ * La tabella è ripulita oltre il periodo di retention.
+ */
+@Component
+public class ProcessedMessageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedMessageStore.class);
+
+    // SQLSTATE standard per la violazione di un vincolo di unicità (PostgreSQL, H2)
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final ProcessedMessageRepository processedMessageRepository;
+    private final Cache<String, Boolean> recentKeys;
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final long retentionHours;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProcessedMessageStore(ProcessedMessageRepository processedMessageRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${idempotency.cache.max-size:100000}") long cacheMaxSize,
+                                 @Value("${idempotency.retention-hours:168}") long retentionHours) {
+        this.processedMessageRepository = processedMessageRepository;
+        this.retentionHours = retentionHours;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofHours(retentionHours))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recentKeys, "idempotency.keys");
+        this.memoryHits = meterRegistry.counter("idempotency.duplicates", "source", "memory");
+        this.databaseHits = meterRegistry.counter("idempotency.duplicates", "source", "database");
+    }
+
+    /**
+     * Calcola la chiave di idempotenza (SHA-256 esadecimale) a partire dal tipo di messaggio e da un identificativo.
+     */
+    public static String key(String messageType, String identifier) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((messageType + '|' + identifier).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponibile", e);
+        }
+    }
+
+    /**
+     * Verifica in memoria se il messaggio è già stato elaborato, senza accedere al database.
+     * Un esito negativo non esclude il duplicato: la verifica definitiva è fatta da {@link #claim}.
+     */
+    public boolean isProcessed(String key) {
+        if (recentKeys.getIfPresent(key) != null) {
+            memoryHits.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Registra il messaggio nella transazione del chiamante, insieme alle modifiche prodotte dall'elaborazione:
+     * se l'elaborazione fallisce la registrazione viene annullata e il messaggio potrà essere rielaborato.
+     * Gli altri errori di persistenza (timeout sui lock, connessione persa, ...) vengono propagati invariati,
+     * così il messaggio non viene confermato e potrà essere riconsegnato.
+     *
+     * @throws DuplicateMessageException se un'altra elaborazione dello stesso messaggio è già stata registrata
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claim(String key, String messageType) {
+        claimAll(List.of(key), messageType);
+    }
+
+    /**
+     * Registra un blocco di messaggi con un solo flush, così gli insert partono insieme nel batch JDBC.
+     * Se anche uno solo è già registrato l'intero blocco viene rifiutato: il chiamante deve
+     * ripetere la registrazione messaggio per messaggio per sapere quale sia il duplicato.
+     *
+     * @throws DuplicateMessageException se almeno un messaggio del blocco è già stato registrato
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claimAll(List<String> keys, String messageType) {
+        try {
+            for (String key : keys) {
+                entityManager.persist(new ProcessedMessage(key, messageType));
+            }
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            databaseHits.increment();
+            if (keys.size() == 1) {
+                recentKeys.put(keys.get(0), Boolean.TRUE);
+                throw new DuplicateMessageException("Messaggio " + messageType + " già elaborato: " + keys.get(0));
+            }
+            throw new DuplicateMessageException("Il blocco di " + keys.size() + " messaggi " + messageType
+                    + " contiene messaggi già elaborati");
+        }
+    }
+
+    /**
+     * Da invocare dopo il commit della transazione che ha registrato il messaggio.
+     */
+    public void remember(String key) {
+        recentKeys.put(key, Boolean.TRUE);
+    }
+
+    // L'unico vincolo di unicità di processed_messages è la chiave primaria
+    private static boolean isDuplicateKey(PersistenceException e) {
+        if (e instanceof EntityExistsException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                        || UNIQUE_VIOLATION.equals(violation.getSQLState());
+            }
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rimuove le registrazioni più vecchie del periodo di retention.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = processedMessageRepository.deleteProcessedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            logger.info("Rimosse {} registrazioni di messaggi elaborati", deleted);
+        }
+    }
+}
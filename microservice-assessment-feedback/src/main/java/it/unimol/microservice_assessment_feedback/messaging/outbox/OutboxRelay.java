@@ -0,0 +1,215 @@
+package it.unimol.microservice_assessment_feedback.messaging.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.unimol.microservice_assessment_feedback.model.OutboxEvent;
+import it.unimol.microservice_assessment_feedback.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Svuota periodicamente la tabella outbox pubblicando gli eventi su RabbitMQ a blocchi.
+ * Gli invii sono in pipeline e le publisher confirm vengono raccolte in modo asincrono tramite
+ * correlation ID: solo gli eventi confermati dal broker vengono marcati come pubblicati
+ * (consegna at-least-once), quelli rifiutati vengono ritentati con backoff fino a max-attempts
+ * tentativi, dopodiché restano in tabella come falliti (failed_at) per l'analisi manuale.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final Timer batchTimer;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${outbox.relay.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${outbox.relay.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Value("${outbox.relay.max-backoff-seconds:300}")
+    private long maxBackoffSeconds;
+
+    @Value("${outbox.relay.max-attempts:20}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.retention-hours:24}")
+    private long retentionHours;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.publishedCounter = meterRegistry.counter("outbox.relay.published");
+        this.failedCounter = meterRegistry.counter("outbox.relay.failed");
+        this.deadCounter = meterRegistry.counter("outbox.relay.dead");
+        this.batchTimer = meterRegistry.timer("outbox.relay.batch");
+        Gauge.builder("outbox.pending", outboxEventRepository, OutboxEventRepository::countByPublishedAtIsNullAndFailedAtIsNull)
+                .register(meterRegistry);
+        Gauge.builder("outbox.dead", outboxEventRepository, OutboxEventRepository::countByFailedAtIsNotNull)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer processed = transactionTemplate.execute(status -> relayBatch());
+            if (processed == null || processed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Invia un blocco di eventi raggruppati per routing key su un unico canale dedicato,
+     * senza attendere ogni conferma: al più maxInFlight messaggi restano in attesa di confirm,
+     * oltre questa soglia si attende la conferma più vecchia prima di inviare il successivo.
+     * I lock sulle righe restano attivi fino al commit, quindi un'altra istanza del relay salta gli stessi eventi.
+     *
+     * @return Il numero di eventi elaborati
+     */
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findPendingForUpdate(LocalDateTime.now(), Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<OutboxEvent>> byRoutingKey = batch.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getRoutingKey, LinkedHashMap::new, Collectors.toList()));
+
+        batchTimer.record(() -> rabbitTemplate.invoke(operations -> {
+            Deque<PendingConfirm> inFlight = new ArrayDeque<>();
+            for (List<OutboxEvent> events : byRoutingKey.values()) {
+                for (OutboxEvent event : events) {
+                    if (inFlight.size() >= maxInFlight) {
+                        awaitConfirm(inFlight.poll());
+                    }
+                    CorrelationData correlationData = new CorrelationData(event.getId());
+                    try {
+                        operations.send(event.getExchange(), event.getRoutingKey(), toMessage(event), correlationData);
+                        inFlight.add(new PendingConfirm(event, correlationData,
+                                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs)));
+                    } catch (AmqpException e) {
+                        markFailed(event, e.getMessage());
+                    }
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                awaitConfirm(inFlight.poll());
+            }
+            return null;
+        }));
+
+        logger.debug("Relay outbox: elaborati {} eventi su {} routing key", batch.size(), byRoutingKey.size());
+        return batch.size();
+    }
+
+    private void awaitConfirm(PendingConfirm pending) {
+        OutboxEvent event = pending.event();
+        CorrelationData correlationData = pending.correlationData();
+        try {
+            long remaining = Math.max(0, pending.deadline() - System.nanoTime());
+            CorrelationData.Confirm confirm = correlationData.getFuture().get(remaining, TimeUnit.NANOSECONDS);
+            if (!confirm.isAck()) {
+                markFailed(event, "Nack dal broker: " + confirm.getReason());
+                return;
+            }
+            if (correlationData.getReturned() != null) {
+                logger.warn("Evento {} ({}) non instradato a nessuna coda: {}",
+                        event.getId(), event.getRoutingKey(), correlationData.getReturned().getReplyText());
+            }
+            event.markPublished();
+            publishedCounter.increment();
+        } catch (TimeoutException e) {
+            markFailed(event, "Timeout in attesa della conferma del broker");
+        } catch (ExecutionException e) {
+            markFailed(event, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markFailed(event, "Relay interrotto");
+        }
+    }
+
+    private void markFailed(OutboxEvent event, String error) {
+        failedCounter.increment();
+        if (event.markFailed(error, maxBackoffSeconds, maxAttempts)) {
+            deadCounter.increment();
+            logger.error("Evento {} {} per {} ID: {} scartato dopo {} tentativi: {}",
+                    event.getEventType(), event.getId(), event.getEntityType(), event.getEntityId(),
+                    event.getAttempts(), error);
+            return;
+        }
+        logger.warn("Invio evento {} {} per {} ID: {} fallito (tentativo {}): {}",
+                event.getEventType(), event.getId(), event.getEntityType(), event.getEntityId(),
+                event.getAttempts(), error);
+    }
+
+    private record PendingConfirm(OutboxEvent event, CorrelationData correlationData, long deadline) {
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setMessageId(event.getId());
+        if (event.getTypeId() != null) {
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getTypeId());
+        }
+        return new Message(event.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    /**
+     * Rimuove gli eventi già pubblicati più vecchi del periodo di retention.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgePublished() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            logger.info("Rimossi {} eventi outbox già pubblicati", deleted);
+        }
+    }
+}
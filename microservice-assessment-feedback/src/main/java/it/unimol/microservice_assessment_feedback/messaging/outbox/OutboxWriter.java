@@ -0,0 +1,48 @@
+package it.unimol.microservice_assessment_feedback.messaging.outbox;
+
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.EventCodec;
+import it.unimol.microservice_assessment_feedback.model.OutboxEvent;
+import it.unimol.microservice_assessment_feedback.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+
+/**
+ * Scrive gli eventi nella tabella outbox, nella transazione del chiamante se presente.
+ * Il payload viene serializzato dall'{@link EventCodec} con la stessa configurazione Jackson
+ * del RabbitTemplate, così il messaggio inviato dal relay è identico a quello pubblicato direttamente.
+ */
+@Component
+public class OutboxWriter {
+
+    /**
+     * I consumer degli altri servizi deserializzano i nostri eventi in una mappa tramite l'header __TypeId__.
+     */
+    static final String MAP_TYPE_ID = HashMap.class.getName();
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventCodec eventCodec;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository,
+                        EventCodec eventCodec) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventCodec = eventCodec;
+    }
+
+    @Transactional
+    public OutboxEvent enqueue(String exchange, String routingKey, DomainEvent event,
+                               String entityType, String entityId) {
+        OutboxEvent outboxEvent = new OutboxEvent(
+                exchange,
+                routingKey,
+                event.eventType(),
+                entityType,
+                entityId,
+                MAP_TYPE_ID,
+                eventCodec.writeAsString(event));
+
+        return outboxEventRepository.save(outboxEvent);
+    }
+}
@@ -1,22 +1,19 @@
 package it.unimol.microservice_assessment_feedback.messaging.publishers;
 
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+import it.unimol.microservice_assessment_feedback.messaging.outbox.OutboxRelay;
+import it.unimol.microservice_assessment_feedback.messaging.outbox.OutboxWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.AmqpException;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
-
-import java.util.Map;
 
 public abstract class BaseEventPublisher {
 
     protected static final Logger logger = LoggerFactory.getLogger(BaseEventPublisher.class);
 
     @Autowired
-    protected RabbitTemplate rabbitTemplate;
+    protected OutboxWriter outboxWriter;
 
     @Value("${rabbitmq.exchange.assessments}")
     protected String assessmentsExchange;
@@ -25,27 +22,21 @@ public abstract class BaseEventPublisher {
     protected String serviceName;
 
     /**
-     * Pubblica un messaggio su RabbitMQ con retry automatico
+     * Accoda un messaggio nella tabella outbox, all'interno della transazione del chiamante.
+     * L'invio a RabbitMQ (con retry e publisher confirm) è a carico di {@link OutboxRelay}.
+     * Un errore di scrittura si propaga al chiamante e annulla anche la modifica di dominio:
+     * non va intercettato, perché la transazione condivisa è ormai marcata rollback-only.
      */
-    @Retryable(value = {AmqpException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
-    protected void publishMessage(String routingKey, Map<String, Object> message, String entityType, String entityId) {
-        try {
-            rabbitTemplate.convertAndSend(assessmentsExchange, routingKey, message);
-            logger.info("{} event published successfully for {} ID: {}",
-                    message.get("eventType"), entityType, entityId);
-        } catch (Exception e) {
-            logger.error("Error publishing {} event for {} ID: {}",
-                    message.get("eventType"), entityType, entityId, e);
-            throw e;
-        }
+    protected void publishMessage(String routingKey, DomainEvent event, String entityType, String entityId) {
+        outboxWriter.enqueue(assessmentsExchange, routingKey, event, entityType, entityId);
+        logger.info("{} event queued for {} ID: {}",
+                event.eventType(), entityType, entityId);
     }
 
     /**
-     * Crea i campi base comuni a tutti i messaggi
+     * Timestamp di pubblicazione comune a tutti gli eventi
      */
-    protected void addBaseMessageFields(Map<String, Object> message, String eventType) {
-        message.put("eventType", eventType);
-        message.put("serviceName", serviceName);
-        message.put("timestamp", System.currentTimeMillis());
+    protected long now() {
+        return System.currentTimeMillis();
     }
 }
\ No newline at end of file
@@ -1,46 +1,43 @@
 package it.unimol.microservice_assessment_feedback.messaging.publishers;
 
 import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
+import it.unimol.microservice_assessment_feedback.messaging.events.outbound.SurveyEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.outbound.SurveyRequestEvent;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @Service
 public class TeacherSurveyMessageService extends BaseEventPublisher {
 
     public void publishSurveyCompleted(TeacherSurveyDTO survey) {
-        Map<String, Object> message = createSurveyMessage(survey, "SURVEY_COMPLETED");
-        publishMessage("survey.completed", message, "survey", survey.getId());
+        SurveyEvent event = createSurveyEvent(survey, "SURVEY_COMPLETED");
+        publishMessage("survey.completed", event, "survey", survey.getId());
     }
 
     public void publishSurveyResultsRequested(String surveyId, String requestedBy) {
-        Map<String, Object> message = new HashMap<>();
-        addBaseMessageFields(message, "SURVEY_RESULTS_REQUESTED");
-        message.put("surveyId", surveyId);
-        message.put("requestedBy", requestedBy);
-        publishMessage("survey.results.requested", message, "survey", surveyId);
+        SurveyRequestEvent event = new SurveyRequestEvent(
+                "SURVEY_RESULTS_REQUESTED", SurveyRequestEvent.VERSION, serviceName, now(), surveyId, requestedBy);
+        publishMessage("survey.results.requested", event, "survey", surveyId);
     }
 
     public void publishSurveyCommentsRequested(String surveyId, String requestedBy) {
-        Map<String, Object> message = new HashMap<>();
-        addBaseMessageFields(message, "SURVEY_COMMENTS_REQUESTED");
-        message.put("surveyId", surveyId);
-        message.put("requestedBy", requestedBy);
-        publishMessage("survey.comments.requested", message, "survey", surveyId);
+        SurveyRequestEvent event = new SurveyRequestEvent(
+                "SURVEY_COMMENTS_REQUESTED", SurveyRequestEvent.VERSION, serviceName, now(), surveyId, requestedBy);
+        publishMessage("survey.comments.requested", event, "survey", surveyId);
     }
 
-    private Map<String, Object> createSurveyMessage(TeacherSurveyDTO survey, String eventType) {
-        Map<String, Object> message = new HashMap<>();
-        addBaseMessageFields(message, eventType);
-        message.put("surveyId", survey.getId());
-        message.put("courseId", survey.getCourseId());
-        message.put("teacherId", survey.getTeacherId());
-        message.put("academicYear", survey.getAcademicYear());
-        message.put("semester", survey.getSemester());
-        message.put("status", survey.getStatus().toString());
-        message.put("creationDate", survey.getCreationDate());
-        message.put("closingDate", survey.getClosingDate());
-        return message;
+    private SurveyEvent createSurveyEvent(TeacherSurveyDTO survey, String eventType) {
+        return new SurveyEvent(
+                eventType,
+                SurveyEvent.VERSION,
+                serviceName,
+                now(),
+                survey.getId(),
+                survey.getCourseId(),
+                survey.getTeacherId(),
+                survey.getAcademicYear(),
+                survey.getSemester(),
+                survey.getStatus().toString(),
+                survey.getCreationDate(),
+                survey.getClosingDate());
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,20 @@
 package it.unimol.microservice_assessment_feedback.model;
 
 import it.unimol.microservice_assessment_feedback.enums.ReferenceType;
+import it.unimol.microservice_assessment_feedback.common.util.TimeOrderedIds;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.UUID;
 
 @Entity
-@Table(name = "assessments")
+@Table(name = "assessments", indexes = {
+        @Index(name = "idx_assessments_date_id", columnList = "assessment_date, id"),
+        @Index(name = "idx_assessments_student_date", columnList = "student_id, assessment_date, id"),
+        @Index(name = "idx_assessments_course_date", columnList = "course_id, assessment_date, id"),
+        @Index(name = "idx_assessments_reference_date", columnList = "reference_id, reference_type, assessment_date, id"),
+        @Index(name = "idx_assessments_teacher", columnList = "teacher_id")
+})
 public class Assessment {
 
     @Id
@@ -226,7 +232,7 @@ public class Assessment {
     @PrePersist
     protected void onCreate() {
         if (id == null || id.isEmpty()) {
-            id = UUID.randomUUID().toString();
+            id = TimeOrderedIds.next();
         }
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
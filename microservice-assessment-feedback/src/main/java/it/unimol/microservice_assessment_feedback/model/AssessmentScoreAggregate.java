@@ -0,0 +1,287 @@
+package it.unimol.microservice_assessment_feedback.model;
+
+import it.unimol.microservice_assessment_feedback.common.util.TimeOrderedIds;
+import it.unimol.microservice_assessment_feedback.enums.ScoreAggregateScope;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Aggregato incrementale dei voti per studente, corso, docente, compito o esame.
+ * Viene aggiornato nella stessa transazione in cui le valutazioni vengono create,
+ * modificate o eliminate, così le statistiche si leggono senza scansionare la tabella assessments.
+ * L'istogramma segue le fasce di voto in trentesimi: insufficiente, 18-20, 21-23, 24-26, 27-29, 30.
+ */
+@Entity
+@Table(name = "assessment_score_aggregates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_assessment_score_aggregate",
+                columnNames = {"scope", "scope_id"}))
+public class AssessmentScoreAggregate {
+
+    /** Limite inferiore (incluso) di ciascuna fascia dell'istogramma, in ordine crescente. */
+    public static final double[] BUCKET_LOWER_BOUNDS = {Double.NEGATIVE_INFINITY, 18, 21, 24, 27, 30};
+    public static final String[] BUCKET_LABELS = {"<18", "18-20", "21-23", "24-26", "27-29", "30"};
+
+    @Id
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 20)
+    private ScoreAggregateScope scope;
+
+    @Column(name = "scope_id", nullable = false)
+    private String scopeId;
+
+    @Column(name = "assessment_count", nullable = false)
+    private long assessmentCount;
+
+    @Column(name = "score_sum", nullable = false)
+    private double scoreSum;
+
+    @Column(name = "score_sum_of_squares", nullable = false)
+    private double scoreSumOfSquares;
+
+    @Column(name = "min_score")
+    private Double minScore;
+
+    @Column(name = "max_score")
+    private Double maxScore;
+
+    @Column(name = "bucket_fail_count", nullable = false)
+    private long bucketFailCount;
+
+    @Column(name = "bucket_18_20_count", nullable = false)
+    private long bucket18To20Count;
+
+    @Column(name = "bucket_21_23_count", nullable = false)
+    private long bucket21To23Count;
+
+    @Column(name = "bucket_24_26_count", nullable = false)
+    private long bucket24To26Count;
+
+    @Column(name = "bucket_27_29_count", nullable = false)
+    private long bucket27To29Count;
+
+    @Column(name = "bucket_30_count", nullable = false)
+    private long bucket30Count;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Costruttore
+    public AssessmentScoreAggregate() {
+    }
+
+    public AssessmentScoreAggregate(ScoreAggregateScope scope, String scopeId) {
+        this.scope = scope;
+        this.scopeId = scopeId;
+    }
+
+    /**
+     * Registra un voto nell'aggregato.
+     */
+    public void recordScore(double score) {
+        assessmentCount++;
+        scoreSum += score;
+        scoreSumOfSquares += score * score;
+        minScore = minScore == null ? score : Math.min(minScore, score);
+        maxScore = maxScore == null ? score : Math.max(maxScore, score);
+        addToBucket(score, 1);
+    }
+
+    /**
+     * Rimuove un voto dall'aggregato.
+     *
+     * Su un aggregato vuoto non ha effetto: contatori e fasce non scendono mai sotto zero.
+     *
+     * @return true se il voto rimosso coincideva con il minimo o il massimo,
+     * che vanno quindi ricalcolati dalle valutazioni salvate
+     */
+    public boolean removeScore(double score) {
+        if (assessmentCount == 0) {
+            return false;
+        }
+        assessmentCount--;
+        addToBucket(score, -1);
+        if (assessmentCount == 0) {
+            // Azzeramento esplicito per non accumulare errori di arrotondamento
+            scoreSum = 0;
+            scoreSumOfSquares = 0;
+            minScore = null;
+            maxScore = null;
+            return false;
+        }
+        scoreSum -= score;
+        scoreSumOfSquares -= score * score;
+        return (minScore != null && score <= minScore) || (maxScore != null && score >= maxScore);
+    }
+
+    /**
+     * Sostituisce i contatori con quelli di un altro aggregato della stessa chiave (usato dalla ricostruzione).
+     */
+    public void copyCountersFrom(AssessmentScoreAggregate other) {
+        assessmentCount = other.assessmentCount;
+        scoreSum = other.scoreSum;
+        scoreSumOfSquares = other.scoreSumOfSquares;
+        minScore = other.minScore;
+        maxScore = other.maxScore;
+        setBucketCounts(other.getBucketCounts());
+    }
+
+    public Double getAverageScore() {
+        return assessmentCount > 0 ? scoreSum / assessmentCount : null;
+    }
+
+    /**
+     * Deviazione standard campionaria dei voti, null con meno di due valutazioni.
+     */
+    public Double getStandardDeviation() {
+        if (assessmentCount < 2) {
+            return null;
+        }
+        double variance = (scoreSumOfSquares - scoreSum * scoreSum / assessmentCount) / (assessmentCount - 1);
+        return Math.sqrt(Math.max(0, variance));
+    }
+
+    /**
+     * Conteggi dell'istogramma nello stesso ordine di {@link #BUCKET_LABELS}.
+     */
+    public long[] getBucketCounts() {
+        return new long[]{bucketFailCount, bucket18To20Count, bucket21To23Count,
+                bucket24To26Count, bucket27To29Count, bucket30Count};
+    }
+
+    public void setBucketCounts(long[] counts) {
+        bucketFailCount = counts[0];
+        bucket18To20Count = counts[1];
+        bucket21To23Count = counts[2];
+        bucket24To26Count = counts[3];
+        bucket27To29Count = counts[4];
+        bucket30Count = counts[5];
+    }
+
+    public static int bucketOf(double score) {
+        for (int i = BUCKET_LOWER_BOUNDS.length - 1; i > 0; i--) {
+            if (score >= BUCKET_LOWER_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private void addToBucket(double score, long delta) {
+        switch (bucketOf(score)) {
+            case 0 -> bucketFailCount = Math.max(0, bucketFailCount + delta);
+            case 1 -> bucket18To20Count = Math.max(0, bucket18To20Count + delta);
+            case 2 -> bucket21To23Count = Math.max(0, bucket21To23Count + delta);
+            case 3 -> bucket24To26Count = Math.max(0, bucket24To26Count + delta);
+            case 4 -> bucket27To29Count = Math.max(0, bucket27To29Count + delta);
+            default -> bucket30Count = Math.max(0, bucket30Count + delta);
+        }
+    }
+
+    // Getter e Setter
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public ScoreAggregateScope getScope() { return scope; }
+    public void setScope(ScoreAggregateScope scope) { this.scope = scope; }
+
+    public String getScopeId() { return scopeId; }
+    public void setScopeId(String scopeId) { this.scopeId = scopeId; }
+
+    public long getAssessmentCount() { return assessmentCount; }
+    public void setAssessmentCount(long assessmentCount) { this.assessmentCount = assessmentCount; }
+
+    public double getScoreSum() { return scoreSum; }
+    public void setScoreSum(double scoreSum) { this.scoreSum = scoreSum; }
+
+    public double getScoreSumOfSquares() { return scoreSumOfSquares; }
+    public void setScoreSumOfSquares(double scoreSumOfSquares) { this.scoreSumOfSquares = scoreSumOfSquares; }
+
+    public Double getMinScore() { return minScore; }
+    public void setMinScore(Double minScore) { this.minScore = minScore; }
+
+    public Double getMaxScore() { return maxScore; }
+    public void setMaxScore(Double maxScore) { this.maxScore = maxScore; }
+
+    public long getBucketFailCount() { return bucketFailCount; }
+    public void setBucketFailCount(long bucketFailCount) { this.bucketFailCount = bucketFailCount; }
+
+    public long getBucket18To20Count() { return bucket18To20Count; }
+    public void setBucket18To20Count(long bucket18To20Count) { this.bucket18To20Count = bucket18To20Count; }
+
+    public long getBucket21To23Count() { return bucket21To23Count; }
+    public void setBucket21To23Count(long bucket21To23Count) { this.bucket21To23Count = bucket21To23Count; }
+
+    public long getBucket24To26Count() { return bucket24To26Count; }
+    public void setBucket24To26Count(long bucket24To26Count) { this.bucket24To26Count = bucket24To26Count; }
+
+    public long getBucket27To29Count() { return bucket27To29Count; }
+    public void setBucket27To29Count(long bucket27To29Count) { this.bucket27To29Count = bucket27To29Count; }
+
+    public long getBucket30Count() { return bucket30Count; }
+    public void setBucket30Count(long bucket30Count) { this.bucket30Count = bucket30Count; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    // JPA
+    @PrePersist
+    protected void onCreate() {
+        if (id == null || id.isEmpty()) {
+            id = TimeOrderedIds.next();
+        }
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Equals
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AssessmentScoreAggregate that = (AssessmentScoreAggregate) o;
+        return scope == that.scope &&
+                Objects.equals(scopeId, that.scopeId);
+    }
+
+    // HashCode
+    @Override
+    public int hashCode() {
+        return Objects.hash(scope, scopeId);
+    }
+
+    // ToString
+    @Override
+    public String toString() {
+        return "AssessmentScoreAggregate{" +
+                "id='" + id + '\'' +
+                ", scope=" + scope +
+                ", scopeId='" + scopeId + '\'' +
+                ", assessmentCount=" + assessmentCount +
+                ", scoreSum=" + scoreSum +
+                ", scoreSumOfSquares=" + scoreSumOfSquares +
+                ", minScore=" + minScore +
+                ", maxScore=" + maxScore +
+                ", bucketFailCount=" + bucketFailCount +
+                ", bucket18To20Count=" + bucket18To20Count +
+                ", bucket21To23Count=" + bucket21To23Count +
+                ", bucket24To26Count=" + bucket24To26Count +
+                ", bucket27To29Count=" + bucket27To29Count +
+                ", bucket30Count=" + bucket30Count +
+                '}';
+    }
+}
@@ -0,0 +1,187 @@
+package it.unimol.microservice_assessment_feedback.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Evento in attesa di pubblicazione su RabbitMQ (transactional outbox).
+ * Viene scritto nella stessa transazione della modifica di dominio e inviato in seguito dal relay.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_pending", columnList = "published_at, failed_at, next_attempt_at, created_at")
+})
+public class OutboxEvent {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String exchange;
+
+    @Column(name = "routing_key", nullable = false)
+    private String routingKey;
+
+    @Column(name = "event_type")
+    private String eventType;
+
+    @Column(name = "entity_type")
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private String entityId;
+
+    @Column(name = "type_id")
+    private String typeId;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // Valorizzato quando l'evento ha esaurito i tentativi: il relay non lo riprende più
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Costruttore
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(String exchange, String routingKey, String eventType, String entityType,
+                       String entityId, String typeId, String payload) {
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+        this.eventType = eventType;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.typeId = typeId;
+        this.payload = payload;
+    }
+
+    /**
+     * Registra un tentativo di invio fallito, con backoff esponenziale fino a maxBackoffSeconds.
+     * Raggiunti maxAttempts tentativi l'evento passa nello stato fallito definitivo.
+     *
+     * @return true se l'evento non verrà più ritentato
+     */
+    public boolean markFailed(String error, long maxBackoffSeconds, int maxAttempts) {
+        attempts++;
+        lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        if (attempts >= maxAttempts) {
+            failedAt = LocalDateTime.now();
+            return true;
+        }
+        long backoffSeconds = Math.min(maxBackoffSeconds, 1L << Math.min(attempts, 20));
+        nextAttemptAt = LocalDateTime.now().plusSeconds(backoffSeconds);
+        return false;
+    }
+
+    public void markPublished() {
+        publishedAt = LocalDateTime.now();
+        lastError = null;
+    }
+
+    // Getter e Setter
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getExchange() { return exchange; }
+    public void setExchange(String exchange) { this.exchange = exchange; }
+
+    public String getRoutingKey() { return routingKey; }
+    public void setRoutingKey(String routingKey) { this.routingKey = routingKey; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public String getEntityType() { return entityType; }
+    public void setEntityType(String entityType) { this.entityType = entityType; }
+
+    public String getEntityId() { return entityId; }
+    public void setEntityId(String entityId) { this.entityId = entityId; }
+
+    public String getTypeId() { return typeId; }
+    public void setTypeId(String typeId) { this.typeId = typeId; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+    public void setPublishedAt(LocalDateTime publishedAt) { this.publishedAt = publishedAt; }
+
+    public LocalDateTime getFailedAt() { return failedAt; }
+    public void setFailedAt(LocalDateTime failedAt) { this.failedAt = failedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    // JPA
+    @PrePersist
+    protected void onCreate() {
+        if (id == null || id.isEmpty()) {
+            id = UUID.randomUUID().toString();
+        }
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    // Equals
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OutboxEvent that = (OutboxEvent) o;
+        return Objects.equals(id, that.id);
+    }
+
+    // HashCode
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    // ToString
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id='" + id + '\'' +
+                ", exchange='" + exchange + '\'' +
+                ", routingKey='" + routingKey + '\'' +
+                ", eventType='" + eventType + '\'' +
+                ", entityType='" + entityType + '\'' +
+                ", entityId='" + entityId + '\'' +
+                ", attempts=" + attempts +
+                ", nextAttemptAt=" + nextAttemptAt +
+                ", publishedAt=" + publishedAt +
+                ", failedAt=" + failedAt +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
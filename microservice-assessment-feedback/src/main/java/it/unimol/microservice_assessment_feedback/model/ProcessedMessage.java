@@ -0,0 +1,77 @@
+package it.unimol.microservice_assessment_feedback.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Messaggio consumato già elaborato, usato per scartare le riconsegne e i duplicati.
+ * La chiave è l'hash SHA-256 del message ID o della chiave di dominio dell'evento.
+ */
+@Entity
+@Table(name = "processed_messages", indexes = {
+        @Index(name = "idx_processed_messages_processed_at", columnList = "processed_at")
+})
+public class ProcessedMessage {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(name = "message_type", nullable = false)
+    private String messageType;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    // Costruttore
+    public ProcessedMessage() {
+    }
+
+    public ProcessedMessage(String id, String messageType) {
+        this.id = id;
+        this.messageType = messageType;
+    }
+
+    // Getter e Setter
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getMessageType() { return messageType; }
+    public void setMessageType(String messageType) { this.messageType = messageType; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+
+    // JPA
+    @PrePersist
+    protected void onCreate() {
+        processedAt = LocalDateTime.now();
+    }
+
+    // Equals
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProcessedMessage that = (ProcessedMessage) o;
+        return Objects.equals(id, that.id);
+    }
+
+    // HashCode
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    // ToString
+    @Override
+    public String toString() {
+        return "ProcessedMessage{" +
+                "id='" + id + '\'' +
+                ", messageType='" + messageType + '\'' +
+                ", processedAt=" + processedAt +
+                '}';
+    }
+}
@@ -0,0 +1,222 @@
+package it.unimol.microservice_assessment_feedback.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Aggregato incrementale delle risposte per singola domanda di un questionario.
+ * Viene aggiornato nella stessa transazione in cui vengono salvate le risposte,
+ * così i risultati si leggono senza scansionare la tabella survey_responses.
+ */
+@Entity
+@Table(name = "survey_question_aggregates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_survey_question_aggregate",
+                columnNames = {"survey_id", "question_id"}))
+public class SurveyQuestionAggregate {
+
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 5;
+
+    @Id
+    private String id;
+
+    @Column(name = "survey_id", nullable = false)
+    private String surveyId;
+
+    @Column(name = "question_id", nullable = false)
+    private String questionId;
+
+    @Column(name = "response_count", nullable = false)
+    private long responseCount;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_sum_of_squares", nullable = false)
+    private long ratingSumOfSquares;
+
+    @Column(name = "rating_1_count", nullable = false)
+    private long rating1Count;
+
+    @Column(name = "rating_2_count", nullable = false)
+    private long rating2Count;
+
+    @Column(name = "rating_3_count", nullable = false)
+    private long rating3Count;
+
+    @Column(name = "rating_4_count", nullable = false)
+    private long rating4Count;
+
+    @Column(name = "rating_5_count", nullable = false)
+    private long rating5Count;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Costruttore
+    public SurveyQuestionAggregate() {
+    }
+
+    public SurveyQuestionAggregate(String surveyId, String questionId) {
+        this.surveyId = surveyId;
+        this.questionId = questionId;
+    }
+
+    /**
+     * Registra una singola risposta nell'aggregato.
+     *
+     * @param numericRating La valutazione numerica (1..5), oppure null per risposte solo testuali
+     */
+    public void recordResponse(Integer numericRating) {
+        if (numericRating != null && (numericRating < MIN_RATING || numericRating > MAX_RATING)) {
+            throw new IllegalArgumentException("La valutazione numerica deve essere tra 1 e 5");
+        }
+        responseCount++;
+        if (numericRating == null) {
+            return;
+        }
+
+        ratingCount++;
+        ratingSum += numericRating;
+        ratingSumOfSquares += (long) numericRating * numericRating;
+
+        switch (numericRating) {
+            case 1 -> rating1Count++;
+            case 2 -> rating2Count++;
+            case 3 -> rating3Count++;
+            case 4 -> rating4Count++;
+            default -> rating5Count++;
+        }
+    }
+
+    /**
+     * Sostituisce i contatori con quelli di un altro aggregato della stessa domanda (usato dalla ricostruzione).
+     */
+    public void copyCountersFrom(SurveyQuestionAggregate other) {
+        responseCount = other.responseCount;
+        ratingCount = other.ratingCount;
+        ratingSum = other.ratingSum;
+        ratingSumOfSquares = other.ratingSumOfSquares;
+        rating1Count = other.rating1Count;
+        rating2Count = other.rating2Count;
+        rating3Count = other.rating3Count;
+        rating4Count = other.rating4Count;
+        rating5Count = other.rating5Count;
+    }
+
+    /**
+     * Media delle valutazioni numeriche, o null se non ci sono valutazioni.
+     */
+    public Double getAverageRating() {
+        return ratingCount == 0 ? null : (double) ratingSum / ratingCount;
+    }
+
+    /**
+     * Istogramma delle valutazioni: l'indice 0 corrisponde al rating 1.
+     */
+    public long[] getRatingHistogram() {
+        return new long[]{rating1Count, rating2Count, rating3Count, rating4Count, rating5Count};
+    }
+
+    // Getter e Setter
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getSurveyId() { return surveyId; }
+    public void setSurveyId(String surveyId) { this.surveyId = surveyId; }
+
+    public String getQuestionId() { return questionId; }
+    public void setQuestionId(String questionId) { this.questionId = questionId; }
+
+    public long getResponseCount() { return responseCount; }
+    public void setResponseCount(long responseCount) { this.responseCount = responseCount; }
+
+    public long getRatingCount() { return ratingCount; }
+    public void setRatingCount(long ratingCount) { this.ratingCount = ratingCount; }
+
+    public long getRatingSum() { return ratingSum; }
+    public void setRatingSum(long ratingSum) { this.ratingSum = ratingSum; }
+
+    public long getRatingSumOfSquares() { return ratingSumOfSquares; }
+    public void setRatingSumOfSquares(long ratingSumOfSquares) { this.ratingSumOfSquares = ratingSumOfSquares; }
+
+    public long getRating1Count() { return rating1Count; }
+    public void setRating1Count(long rating1Count) { this.rating1Count = rating1Count; }
+
+    public long getRating2Count() { return rating2Count; }
+    public void setRating2Count(long rating2Count) { this.rating2Count = rating2Count; }
+
+    public long getRating3Count() { return rating3Count; }
+    public void setRating3Count(long rating3Count) { this.rating3Count = rating3Count; }
+
+    public long getRating4Count() { return rating4Count; }
+    public void setRating4Count(long rating4Count) { this.rating4Count = rating4Count; }
+
+    public long getRating5Count() { return rating5Count; }
+    public void setRating5Count(long rating5Count) { this.rating5Count = rating5Count; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    // JPA
+    @PrePersist
+    protected void onCreate() {
+        if (id == null || id.isEmpty()) {
+            id = UUID.randomUUID().toString();
+        }
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Equals
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SurveyQuestionAggregate that = (SurveyQuestionAggregate) o;
+        return Objects.equals(surveyId, that.surveyId) &&
+                Objects.equals(questionId, that.questionId);
+    }
+
+    // HashCode
+    @Override
+    public int hashCode() {
+        return Objects.hash(surveyId, questionId);
+    }
+
+    // ToString
+    @Override
+    public String toString() {
+        return "SurveyQuestionAggregate{" +
+                "id='" + id + '\'' +
+                ", surveyId='" + surveyId + '\'' +
+                ", questionId='" + questionId + '\'' +
+                ", responseCount=" + responseCount +
+                ", ratingCount=" + ratingCount +
+                ", ratingSum=" + ratingSum +
+                ", ratingSumOfSquares=" + ratingSumOfSquares +
+                ", rating1Count=" + rating1Count +
+                ", rating2Count=" + rating2Count +
+                ", rating3Count=" + rating3Count +
+                ", rating4Count=" + rating4Count +
+                ", rating5Count=" + rating5Count +
+                '}';
+    }
+}
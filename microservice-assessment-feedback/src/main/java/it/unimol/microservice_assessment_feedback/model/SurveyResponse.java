@@ -1,13 +1,16 @@
 package it.unimol.microservice_assessment_feedback.model;
 
+import it.unimol.microservice_assessment_feedback.common.util.TimeOrderedIds;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.UUID;
 
 @Entity
-@Table(name = "survey_responses")
+@Table(name = "survey_responses",
+        uniqueConstraints = @UniqueConstraint(name = "uk_survey_responses_survey_student_question",
+                columnNames = {"survey_id", "student_id", "question_id"}),
+        indexes = @Index(name = "idx_survey_responses_student", columnList = "student_id"))
 public class SurveyResponse {
 
     @Id
@@ -191,7 +194,7 @@ public class SurveyResponse {
     @PrePersist
     protected void onCreate() {
         if (id == null || id.isEmpty()) {
-            id = UUID.randomUUID().toString();
+            id = TimeOrderedIds.next();
         }
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
@@ -4,6 +4,8 @@ import it.unimol.microservice_assessment_feedback.enums.SurveyStatus;
 import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
 import it.unimol.microservice_assessment_feedback.common.util.ListToJsonConverter;
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,7 +13,11 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "teacher_surveys")
+@Table(name = "teacher_surveys", indexes = {
+        @Index(name = "idx_teacher_surveys_status", columnList = "status"),
+        @Index(name = "idx_teacher_surveys_teacher_course_period",
+                columnList = "teacher_id, course_id, academic_year, semester")
+})
 public class TeacherSurvey {
 
     @Id
@@ -51,8 +57,10 @@ public class TeacherSurvey {
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    @Column(name = "questions", columnDefinition = "TEXT")
+    // jsonb su PostgreSQL, json su H2
+    @Column(name = "questions")
     @Convert(converter = ListToJsonConverter.class)
+    @JdbcTypeCode(SqlTypes.JSON)
     private List<TeacherSurveyDTO.SurveyQuestionDTO> questions;
 
     // Costruttore
@@ -1,26 +1,80 @@
 package it.unimol.microservice_assessment_feedback.repository;
 
+import it.unimol.microservice_assessment_feedback.dto.AssessmentDTO;
 import it.unimol.microservice_assessment_feedback.enums.ReferenceType;
 import it.unimol.microservice_assessment_feedback.model.Assessment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AssessmentRepository extends JpaRepository<Assessment, String> {
+public interface AssessmentRepository extends JpaRepository<Assessment, String>, AssessmentScoreStatisticsRepository {
+
+    String STREAM_FETCH_SIZE = "500";
+
+    // Proiezione diretta nel DTO: le letture non idratano entità né creano snapshot per il dirty checking
+    String SELECT_DTO = "SELECT new it.unimol.microservice_assessment_feedback.dto.AssessmentDTO(" +
+            "a.id, a.referenceId, a.referenceType, a.studentId, a.teacherId, a.score, a.assessmentDate, a.notes, a.courseId) " +
+            "FROM Assessment a ";
+
+    String ORDER_BY_DATE_AND_ID = " ORDER BY a.assessmentDate ASC, a.id ASC";
+
+    @Query(SELECT_DTO)
+    List<AssessmentDTO> findAllProjected();
+
+    @Query(SELECT_DTO + "WHERE a.id = :id")
+    Optional<AssessmentDTO> findProjectedById(@Param("id") String id);
 
     // Find ID
-    List<Assessment> findByStudentId(String studentId);
+    @Query(SELECT_DTO + "WHERE a.studentId = :studentId")
+    List<AssessmentDTO> findProjectedByStudentId(@Param("studentId") String studentId);
+
+    @Query(SELECT_DTO + "WHERE a.courseId = :courseId")
+    List<AssessmentDTO> findProjectedByCourseId(@Param("courseId") String courseId);
+
     List<Assessment> findByTeacherId(String teacherId);
-    List<Assessment> findByCourseId(String courseId);
 
     // Find ReferenceType
-    List<Assessment> findByReferenceIdAndReferenceType(String referenceId, ReferenceType referenceType);
+    @Query(SELECT_DTO + "WHERE a.referenceId = :referenceId AND a.referenceType = :referenceType")
+    List<AssessmentDTO> findProjectedByReferenceIdAndReferenceType(@Param("referenceId") String referenceId,
+                                                                   @Param("referenceType") ReferenceType referenceType);
+
+    // Paginazione keyset su (assessmentDate, id)
+    Window<Assessment> findAllByOrderByAssessmentDateAscIdAsc(ScrollPosition position, Limit limit);
+    Window<Assessment> findByCourseIdOrderByAssessmentDateAscIdAsc(String courseId, ScrollPosition position, Limit limit);
+    Window<Assessment> findByStudentIdOrderByAssessmentDateAscIdAsc(String studentId, ScrollPosition position, Limit limit);
+    Window<Assessment> findByReferenceIdAndReferenceTypeOrderByAssessmentDateAscIdAsc(String referenceId, ReferenceType referenceType,
+                                                                                      ScrollPosition position, Limit limit);
+
+    // Streaming (da consumare all'interno di una transazione)
+    @Query(SELECT_DTO + ORDER_BY_DATE_AND_ID)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<AssessmentDTO> streamAllByOrderByAssessmentDateAscIdAsc();
+
+    @Query(SELECT_DTO + "WHERE a.courseId = :courseId" + ORDER_BY_DATE_AND_ID)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<AssessmentDTO> streamByCourseIdOrderByAssessmentDateAscIdAsc(@Param("courseId") String courseId);
+
+    @Query(SELECT_DTO + "WHERE a.studentId = :studentId" + ORDER_BY_DATE_AND_ID)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<AssessmentDTO> streamByStudentIdOrderByAssessmentDateAscIdAsc(@Param("studentId") String studentId);
+
+    @Query(SELECT_DTO + "WHERE a.referenceId = :referenceId AND a.referenceType = :referenceType" + ORDER_BY_DATE_AND_ID)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<AssessmentDTO> streamByReferenceIdAndReferenceTypeOrderByAssessmentDateAscIdAsc(@Param("referenceId") String referenceId,
+                                                                                        @Param("referenceType") ReferenceType referenceType);
 
     /*// Query Entità Singole
     List<Assessment> findByStudentId(String studentId);
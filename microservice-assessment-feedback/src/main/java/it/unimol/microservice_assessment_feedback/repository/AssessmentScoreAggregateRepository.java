@@ -0,0 +1,34 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import it.unimol.microservice_assessment_feedback.enums.ScoreAggregateScope;
+import it.unimol.microservice_assessment_feedback.model.AssessmentScoreAggregate;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AssessmentScoreAggregateRepository extends JpaRepository<AssessmentScoreAggregate, String> {
+
+    // Find ID
+    Optional<AssessmentScoreAggregate> findByScopeAndScopeId(ScoreAggregateScope scope, String scopeId);
+
+    @Query("SELECT a.scopeId FROM AssessmentScoreAggregate a WHERE a.scope = :scope AND a.scopeId IN :scopeIds")
+    List<String> findExistingScopeIds(@Param("scope") ScoreAggregateScope scope,
+                                      @Param("scopeIds") Collection<String> scopeIds);
+
+    @Query("SELECT a.scopeId FROM AssessmentScoreAggregate a WHERE a.scope = :scope")
+    List<String> findScopeIdsByScope(@Param("scope") ScoreAggregateScope scope);
+
+    // Lock in ordine di scopeId per evitare deadlock tra scritture concorrenti
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AssessmentScoreAggregate a WHERE a.scope = :scope AND a.scopeId IN :scopeIds ORDER BY a.scopeId")
+    List<AssessmentScoreAggregate> findForUpdate(@Param("scope") ScoreAggregateScope scope,
+                                                 @Param("scopeIds") Collection<String> scopeIds);
+}
@@ -0,0 +1,29 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import it.unimol.microservice_assessment_feedback.enums.ScoreAggregateScope;
+
+import java.util.List;
+
+/**
+ * Query di aggregazione sui voti usate per ricalcolare gli aggregati per ambito.
+ */
+public interface AssessmentScoreStatisticsRepository {
+
+    /**
+     * Calcola lato database le statistiche dei voti di un ambito.
+     *
+     * @return Una riga con conteggio, somma, somma dei quadrati, minimo, massimo
+     * e i conteggi delle fasce di voto nell'ordine di {@code AssessmentScoreAggregate.BUCKET_LABELS}
+     */
+    Object[] computeScoreStatistics(ScoreAggregateScope scope, String scopeId);
+
+    /**
+     * Restituisce voto minimo e massimo di un ambito.
+     */
+    Object[] findScoreRange(ScoreAggregateScope scope, String scopeId);
+
+    /**
+     * Restituisce le chiavi distinte presenti nelle valutazioni per l'ambito indicato.
+     */
+    List<String> findScopeIds(ScoreAggregateScope scope);
+}
@@ -0,0 +1,89 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import it.unimol.microservice_assessment_feedback.enums.ScoreAggregateScope;
+import it.unimol.microservice_assessment_feedback.model.AssessmentScoreAggregate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+/**
+ * La proprietà su cui filtrare dipende dall'ambito, per cui le query JPQL vengono composte qui.
+ * I nomi di proprietà provengono dall'enum, mai dall'input dell'utente.
+ */
+public class AssessmentScoreStatisticsRepositoryImpl implements AssessmentScoreStatisticsRepository {
+
+    private static final String BUCKET_COLUMNS = bucketColumns();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Object[] computeScoreStatistics(ScoreAggregateScope scope, String scopeId) {
+        String jpql = "SELECT COUNT(a), COALESCE(SUM(a.score), 0), COALESCE(SUM(a.score * a.score), 0), " +
+                "MIN(a.score), MAX(a.score), " + BUCKET_COLUMNS + " FROM Assessment a " + where(scope);
+        return bind(entityManager.createQuery(jpql, Object[].class), scope, scopeId).getSingleResult();
+    }
+
+    @Override
+    public Object[] findScoreRange(ScoreAggregateScope scope, String scopeId) {
+        String jpql = "SELECT MIN(a.score), MAX(a.score) FROM Assessment a " + where(scope);
+        return bind(entityManager.createQuery(jpql, Object[].class), scope, scopeId).getSingleResult();
+    }
+
+    @Override
+    public List<String> findScopeIds(ScoreAggregateScope scope) {
+        StringBuilder jpql = new StringBuilder("SELECT DISTINCT a.").append(scope.getProperty())
+                .append(" FROM Assessment a WHERE a.").append(scope.getProperty()).append(" IS NOT NULL");
+        if (scope.getReferenceType() != null) {
+            jpql.append(" AND a.referenceType = :referenceType");
+        }
+        TypedQuery<String> query = entityManager.createQuery(jpql.toString(), String.class);
+        if (scope.getReferenceType() != null) {
+            query.setParameter("referenceType", scope.getReferenceType());
+        }
+        return query.getResultList();
+    }
+
+    private static String where(ScoreAggregateScope scope) {
+        String where = "WHERE a." + scope.getProperty() + " = :scopeId";
+        if (scope.getReferenceType() != null) {
+            where += " AND a.referenceType = :referenceType";
+        }
+        return where;
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, ScoreAggregateScope scope, String scopeId) {
+        query.setParameter("scopeId", scopeId);
+        if (scope.getReferenceType() != null) {
+            query.setParameter("referenceType", scope.getReferenceType());
+        }
+        return query;
+    }
+
+    /**
+     * Una colonna SUM(CASE ...) per fascia, con gli stessi limiti usati dall'aggiornamento incrementale.
+     */
+    private static String bucketColumns() {
+        double[] bounds = AssessmentScoreAggregate.BUCKET_LOWER_BOUNDS;
+        StringBuilder columns = new StringBuilder();
+        for (int i = 0; i < bounds.length; i++) {
+            StringBuilder condition = new StringBuilder();
+            if (i > 0) {
+                condition.append("a.score >= ").append(bounds[i]);
+            }
+            if (i < bounds.length - 1) {
+                if (i > 0) {
+                    condition.append(" AND ");
+                }
+                condition.append("a.score < ").append(bounds[i + 1]);
+            }
+            if (i > 0) {
+                columns.append(", ");
+            }
+            columns.append("SUM(CASE WHEN ").append(condition).append(" THEN 1 ELSE 0 END)");
+        }
+        return columns.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package it.unimol.microservice_assessment_feedback.repository;
 
+import it.unimol.microservice_assessment_feedback.dto.DetailedFeedbackDTO;
 import it.unimol.microservice_assessment_feedback.model.DetailedFeedback;
 import it.unimol.microservice_assessment_feedback.enums.FeedbackCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,13 +14,25 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DetailedFeedbackRepository extends JpaRepository<DetailedFeedback, String> {
+public interface DetailedFeedbackRepository extends JpaRepository<DetailedFeedback, String>, DetailedFeedbackSearchRepository {
+
+    // Proiezione diretta nel DTO: df.assessment.id usa la chiave esterna, senza proxy né join
+    String SELECT_DTO = "SELECT new it.unimol.microservice_assessment_feedback.dto.DetailedFeedbackDTO(" +
+            "df.id, df.assessment.id, df.feedbackText, df.category, df.strengths, df.improvementAreas) " +
+            "FROM DetailedFeedback df ";
+
+    @Query(SELECT_DTO)
+    List<DetailedFeedbackDTO> findAllProjected();
+
+    @Query(SELECT_DTO + "WHERE df.id = :id")
+    Optional<DetailedFeedbackDTO> findProjectedById(@Param("id") String id);
 
     // Find ID
-    List<DetailedFeedback> findByAssessmentId(String assessmentId);
+    @Query(SELECT_DTO + "WHERE df.assessment.id = :assessmentId")
+    List<DetailedFeedbackDTO> findProjectedByAssessmentId(@Param("assessmentId") String assessmentId);
 
-    @Query("SELECT df FROM DetailedFeedback df JOIN df.assessment a WHERE a.studentId = :studentId")
-    List<DetailedFeedback> findByStudentId(@Param("studentId") String studentId);
+    @Query(SELECT_DTO + "JOIN df.assessment a WHERE a.studentId = :studentId")
+    List<DetailedFeedbackDTO> findProjectedByStudentId(@Param("studentId") String studentId);
 
     /*
     // Query Entità Singole
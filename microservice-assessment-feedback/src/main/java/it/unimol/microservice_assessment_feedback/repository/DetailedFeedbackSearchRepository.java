@@ -0,0 +1,19 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import it.unimol.microservice_assessment_feedback.dto.DetailedFeedbackDTO;
+import it.unimol.microservice_assessment_feedback.enums.FeedbackCategory;
+
+import java.util.List;
+
+/**
+ * Ricerca testuale su testo, punti di forza e aree di miglioramento dei feedback.
+ */
+public interface DetailedFeedbackSearchRepository {
+
+    /**
+     * Restituisce i feedback che contengono i termini cercati, dal più rilevante.
+     * I filtri null non vengono applicati.
+     */
+    List<DetailedFeedbackDTO> searchFeedback(String query, String courseId, String teacherId,
+                                             FeedbackCategory category, int offset, int limit);
+}
@@ -0,0 +1,140 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import it.unimol.microservice_assessment_feedback.dto.DetailedFeedbackDTO;
+import it.unimol.microservice_assessment_feedback.enums.FeedbackCategory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+/**
+ * Su PostgreSQL la ricerca usa search_vector con ordinamento per ts_rank_cd.
+ * Su altri database (H2 nei test) ogni termine deve comparire in uno dei tre campi; l'ordine è per data.
+ */
+public class DetailedFeedbackSearchRepositoryImpl implements DetailedFeedbackSearchRepository {
+
+    private static final String SELECT_TSVECTOR =
+            "SELECT df.id, df.assessment_id, df.feedback_text, df.category, df.strengths, df.improvement_areas " +
+            "FROM detailed_feedback df ";
+
+    private static final String SELECT_DTO =
+            "SELECT new it.unimol.microservice_assessment_feedback.dto.DetailedFeedbackDTO(" +
+            "df.id, df.assessment.id, df.feedbackText, df.category, df.strengths, df.improvementAreas) " +
+            "FROM DetailedFeedback df ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public List<DetailedFeedbackDTO> searchFeedback(String query, String courseId, String teacherId,
+                                                    FeedbackCategory category, int offset, int limit) {
+        if (isPostgres()) {
+            return searchTsvector(query, courseId, teacherId, category, offset, limit);
+        }
+        return searchLike(query, courseId, teacherId, category, offset, limit);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DetailedFeedbackDTO> searchTsvector(String query, String courseId, String teacherId,
+                                                     FeedbackCategory category, int offset, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_TSVECTOR);
+        if (courseId != null || teacherId != null) {
+            sql.append("JOIN assessments a ON a.id = df.assessment_id ");
+        }
+        sql.append("CROSS JOIN websearch_to_tsquery('" + FullTextSearch.TEXT_CONFIG + "', :query) q ")
+                .append("WHERE df.search_vector @@ q ");
+        if (courseId != null) {
+            sql.append("AND a.course_id = :courseId ");
+        }
+        if (teacherId != null) {
+            sql.append("AND a.teacher_id = :teacherId ");
+        }
+        if (category != null) {
+            sql.append("AND df.category = :category ");
+        }
+        sql.append("ORDER BY ts_rank_cd(df.search_vector, q) DESC, df.id");
+
+        Query nativeQuery = entityManager.createNativeQuery(sql.toString())
+                .setParameter("query", query)
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        if (courseId != null) {
+            nativeQuery.setParameter("courseId", courseId);
+        }
+        if (teacherId != null) {
+            nativeQuery.setParameter("teacherId", teacherId);
+        }
+        if (category != null) {
+            nativeQuery.setParameter("category", category.name());
+        }
+
+        return ((List<Object[]>) nativeQuery.getResultList()).stream()
+                .map(row -> new DetailedFeedbackDTO(
+                        (String) row[0],
+                        (String) row[1],
+                        (String) row[2],
+                        FeedbackCategory.valueOf((String) row[3]),
+                        (String) row[4],
+                        (String) row[5]))
+                .toList();
+    }
+
+    private List<DetailedFeedbackDTO> searchLike(String query, String courseId, String teacherId,
+                                                 FeedbackCategory category, int offset, int limit) {
+        List<String> terms = FullTextSearch.fallbackTerms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        StringBuilder jpql = new StringBuilder(SELECT_DTO);
+        if (courseId != null || teacherId != null) {
+            jpql.append("JOIN df.assessment a ");
+        }
+        jpql.append("WHERE 1 = 1 ");
+        for (int i = 0; i < terms.size(); i++) {
+            jpql.append("AND (LOWER(df.feedbackText) LIKE :term").append(i)
+                    .append(" OR LOWER(df.strengths) LIKE :term").append(i)
+                    .append(" OR LOWER(df.improvementAreas) LIKE :term").append(i).append(") ");
+        }
+        if (courseId != null) {
+            jpql.append("AND a.courseId = :courseId ");
+        }
+        if (teacherId != null) {
+            jpql.append("AND a.teacherId = :teacherId ");
+        }
+        if (category != null) {
+            jpql.append("AND df.category = :category ");
+        }
+        jpql.append("ORDER BY df.createdAt DESC, df.id");
+
+        TypedQuery<DetailedFeedbackDTO> typedQuery = entityManager.createQuery(jpql.toString(), DetailedFeedbackDTO.class)
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        for (int i = 0; i < terms.size(); i++) {
+            typedQuery.setParameter("term" + i, "%" + terms.get(i) + "%");
+        }
+        if (courseId != null) {
+            typedQuery.setParameter("courseId", courseId);
+        }
+        if (teacherId != null) {
+            typedQuery.setParameter("teacherId", teacherId);
+        }
+        if (category != null) {
+            typedQuery.setParameter("category", category);
+        }
+        return typedQuery.getResultList();
+    }
+
+    private boolean isPostgres() {
+        Boolean current = postgres;
+        if (current == null) {
+            current = FullTextSearch.isPostgres(entityManager);
+            postgres = current;
+        }
+        return current;
+    }
+}
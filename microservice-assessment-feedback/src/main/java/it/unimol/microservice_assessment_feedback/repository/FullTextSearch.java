@@ -0,0 +1,52 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Elementi comuni alla ricerca testuale su feedback e commenti dei questionari.
+ * Su PostgreSQL si usa la colonna search_vector (tsvector generato, indice GIN) creata dalla
+ * migrazione V5__full_text_search; sugli altri database si ripiega su LIKE per ciascun termine.
+ */
+final class FullTextSearch {
+
+    /**
+     * Configurazione testuale delle colonne search_vector. È fissata nella migrazione V5 perché le colonne
+     * generate la memorizzano alla creazione: cambiarla richiede una migrazione che ricrei colonne e indici.
+     */
+    static final String TEXT_CONFIG = "italian";
+
+    private static final int MAX_FALLBACK_TERMS = 8;
+
+    private FullTextSearch() {}
+
+    static boolean isPostgres(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    /**
+     * Termini per la ricerca LIKE: solo lettere e cifre, in minuscolo, così non servono escape.
+     */
+    static List<String> fallbackTerms(String query) {
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .limit(MAX_FALLBACK_TERMS)
+                .toList();
+    }
+
+    static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,38 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import it.unimol.microservice_assessment_feedback.model.SurveyQuestionAggregate;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SurveyQuestionAggregateRepository extends JpaRepository<SurveyQuestionAggregate, String> {
+
+    // Find ID
+    List<SurveyQuestionAggregate> findBySurveyId(String surveyId);
+
+    @Query("SELECT a.questionId FROM SurveyQuestionAggregate a WHERE a.surveyId = :surveyId AND a.questionId IN :questionIds")
+    List<String> findExistingQuestionIds(@Param("surveyId") String surveyId,
+                                         @Param("questionIds") Collection<String> questionIds);
+
+    @Query("SELECT a.questionId FROM SurveyQuestionAggregate a WHERE a.surveyId = :surveyId")
+    List<String> findQuestionIdsBySurveyId(@Param("surveyId") String surveyId);
+
+    // Lock in ordine di questionId per evitare deadlock tra sottomissioni concorrenti
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM SurveyQuestionAggregate a WHERE a.surveyId = :surveyId AND a.questionId IN :questionIds ORDER BY a.questionId")
+    List<SurveyQuestionAggregate> findForUpdate(@Param("surveyId") String surveyId,
+                                                @Param("questionIds") Collection<String> questionIds);
+
+    // Delete
+    @Modifying
+    @Query("DELETE FROM SurveyQuestionAggregate a WHERE a.surveyId = :surveyId")
+    int deleteBySurveyId(@Param("surveyId") String surveyId);
+}
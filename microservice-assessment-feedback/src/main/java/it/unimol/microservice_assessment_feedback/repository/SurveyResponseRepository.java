@@ -1,32 +1,93 @@
 package it.unimol.microservice_assessment_feedback.repository;
 
+import it.unimol.microservice_assessment_feedback.dto.SurveyResponseDTO;
+import it.unimol.microservice_assessment_feedback.enums.SurveyStatus;
 import it.unimol.microservice_assessment_feedback.model.SurveyResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SurveyResponseRepository extends JpaRepository<SurveyResponse, String> {
+public interface SurveyResponseRepository extends JpaRepository<SurveyResponse, String>, SurveyResponseSearchRepository {
+
+    // Proiezione diretta nel DTO: sr.survey.id usa la chiave esterna, senza proxy del questionario
+    String SELECT_DTO = "SELECT new it.unimol.microservice_assessment_feedback.dto.SurveyResponseDTO(" +
+            "sr.id, sr.survey.id, sr.studentId, sr.questionId, sr.numericRating, sr.textComment, sr.submissionDate) " +
+            "FROM SurveyResponse sr ";
 
     // Find ID
-    List<SurveyResponse> findBySurveyId(String surveyId);
-    List<SurveyResponse> findByStudentId(String studentId);
+    @Query(SELECT_DTO + "WHERE sr.survey.id = :surveyId")
+    List<SurveyResponseDTO> findProjectedBySurveyId(@Param("surveyId") String surveyId);
+
+    @Query(SELECT_DTO + "WHERE sr.studentId = :studentId")
+    List<SurveyResponseDTO> findProjectedByStudentId(@Param("studentId") String studentId);
+
+    @Query(SELECT_DTO + "WHERE sr.survey.id = :surveyId AND sr.textComment IS NOT NULL AND TRIM(sr.textComment) <> ''")
+    List<SurveyResponseDTO> findProjectedCommentsBySurveyId(@Param("surveyId") String surveyId);
+
     List<SurveyResponse> findByQuestionId(String questionId);
 
+    // Streaming per l'export (da consumare all'interno di una transazione)
+    @Query(SELECT_DTO + "WHERE sr.survey.id = :surveyId ORDER BY sr.submissionDate ASC, sr.id ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<SurveyResponseDTO> streamProjectedBySurveyId(@Param("surveyId") String surveyId);
+
     // Bool
     boolean existsBySurveyIdAndStudentId(String surveyId, String studentId);
 
+    // Questionari compilati dallo studente (indice dei questionari disponibili)
+    @Query("SELECT DISTINCT s.id FROM SurveyResponse sr JOIN sr.survey s WHERE sr.studentId = :studentId AND s.status = :status")
+    List<String> findAnsweredSurveyIdsByStudentId(@Param("studentId") String studentId,
+                                                  @Param("status") SurveyStatus status);
+
     // Questionari con ommenti
     @Query("SELECT sr FROM SurveyResponse sr WHERE sr.survey.id = :surveyId AND sr.textComment IS NOT NULL AND sr.textComment != ''")
     List<SurveyResponse> findAllWithCommentsForSurvey(@Param("surveyId") String surveyId);
 
+    // Aggregati per domanda calcolati lato database (usati per la ricostruzione degli aggregati)
+    String SELECT_AGGREGATES = "SELECT sr.questionId, COUNT(sr), COUNT(sr.numericRating), " +
+            "COALESCE(SUM(sr.numericRating), 0), COALESCE(SUM(sr.numericRating * sr.numericRating), 0), " +
+            "SUM(CASE WHEN sr.numericRating = 1 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN sr.numericRating = 2 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN sr.numericRating = 3 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN sr.numericRating = 4 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN sr.numericRating = 5 THEN 1 ELSE 0 END) " +
+            "FROM SurveyResponse sr ";
+
+    @Query(SELECT_AGGREGATES + "WHERE sr.survey.id = :surveyId GROUP BY sr.questionId")
+    List<Object[]> aggregateBySurveyIdGroupByQuestion(@Param("surveyId") String surveyId);
+
+    @Query(SELECT_AGGREGATES + "WHERE sr.survey.id = :surveyId AND sr.questionId = :questionId GROUP BY sr.questionId")
+    List<Object[]> aggregateBySurveyIdAndQuestionId(@Param("surveyId") String surveyId,
+                                                    @Param("questionId") String questionId);
+
+    // Conteggi di completamento per le statistiche, in un solo passaggio sulle risposte del questionario:
+    // il vincolo unico (survey_id, student_id, question_id) rende COUNT(*) pari al numero di domande distinte
+    @Query(value = "SELECT COUNT(*) AS respondents, " +
+            "COUNT(*) FILTER (WHERE per_student.answers >= :questionCount) AS completed " +
+            "FROM (SELECT sr.student_id, COUNT(*) AS answers FROM survey_responses sr " +
+            "WHERE sr.survey_id = :surveyId AND sr.student_id IS NOT NULL GROUP BY sr.student_id) per_student",
+            nativeQuery = true)
+    CompletionCounts countCompletion(@Param("surveyId") String surveyId,
+                                     @Param("questionCount") int questionCount);
+
+    interface CompletionCounts {
+        long getRespondents();
+
+        long getCompleted();
+    }
+
    /* // Query Entità Singole
     List<SurveyResponse> findBySurveyId(String surveyId);
     List<SurveyResponse> findByStudentId(String studentId);
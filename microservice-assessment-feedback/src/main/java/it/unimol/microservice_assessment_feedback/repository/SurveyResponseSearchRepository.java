@@ -0,0 +1,18 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import it.unimol.microservice_assessment_feedback.dto.SurveyResponseDTO;
+
+import java.util.List;
+
+/**
+ * Ricerca testuale sui commenti liberi delle risposte ai questionari.
+ */
+public interface SurveyResponseSearchRepository {
+
+    /**
+     * Restituisce le risposte il cui commento contiene i termini cercati, dalla più rilevante.
+     * I filtri null non vengono applicati.
+     */
+    List<SurveyResponseDTO> searchComments(String query, String surveyId, String courseId, String teacherId,
+                                           int offset, int limit);
+}
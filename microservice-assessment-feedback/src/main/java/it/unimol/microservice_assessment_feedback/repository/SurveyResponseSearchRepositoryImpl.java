@@ -0,0 +1,138 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import it.unimol.microservice_assessment_feedback.dto.SurveyResponseDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+/**
+ * Su PostgreSQL la ricerca usa search_vector con ordinamento per ts_rank_cd.
+ * Su altri database (H2 nei test) ogni termine deve comparire nel commento; l'ordine è per data di invio.
+ */
+public class SurveyResponseSearchRepositoryImpl implements SurveyResponseSearchRepository {
+
+    private static final String SELECT_TSVECTOR =
+            "SELECT sr.id, sr.survey_id, sr.student_id, sr.question_id, sr.numeric_rating, sr.text_comment, sr.submission_date " +
+            "FROM survey_responses sr ";
+
+    private static final String SELECT_DTO =
+            "SELECT new it.unimol.microservice_assessment_feedback.dto.SurveyResponseDTO(" +
+            "sr.id, sr.survey.id, sr.studentId, sr.questionId, sr.numericRating, sr.textComment, sr.submissionDate) " +
+            "FROM SurveyResponse sr ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public List<SurveyResponseDTO> searchComments(String query, String surveyId, String courseId, String teacherId,
+                                                  int offset, int limit) {
+        if (isPostgres()) {
+            return searchTsvector(query, surveyId, courseId, teacherId, offset, limit);
+        }
+        return searchLike(query, surveyId, courseId, teacherId, offset, limit);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SurveyResponseDTO> searchTsvector(String query, String surveyId, String courseId, String teacherId,
+                                                   int offset, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_TSVECTOR);
+        if (courseId != null || teacherId != null) {
+            sql.append("JOIN teacher_surveys s ON s.id = sr.survey_id ");
+        }
+        sql.append("CROSS JOIN websearch_to_tsquery('" + FullTextSearch.TEXT_CONFIG + "', :query) q ")
+                .append("WHERE sr.search_vector @@ q ");
+        if (surveyId != null) {
+            sql.append("AND sr.survey_id = :surveyId ");
+        }
+        if (courseId != null) {
+            sql.append("AND s.course_id = :courseId ");
+        }
+        if (teacherId != null) {
+            sql.append("AND s.teacher_id = :teacherId ");
+        }
+        sql.append("ORDER BY ts_rank_cd(sr.search_vector, q) DESC, sr.id");
+
+        Query nativeQuery = entityManager.createNativeQuery(sql.toString())
+                .setParameter("query", query)
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        if (surveyId != null) {
+            nativeQuery.setParameter("surveyId", surveyId);
+        }
+        if (courseId != null) {
+            nativeQuery.setParameter("courseId", courseId);
+        }
+        if (teacherId != null) {
+            nativeQuery.setParameter("teacherId", teacherId);
+        }
+
+        return ((List<Object[]>) nativeQuery.getResultList()).stream()
+                .map(row -> new SurveyResponseDTO(
+                        (String) row[0],
+                        (String) row[1],
+                        (String) row[2],
+                        (String) row[3],
+                        row[4] != null ? ((Number) row[4]).intValue() : null,
+                        (String) row[5],
+                        FullTextSearch.toLocalDateTime(row[6])))
+                .toList();
+    }
+
+    private List<SurveyResponseDTO> searchLike(String query, String surveyId, String courseId, String teacherId,
+                                               int offset, int limit) {
+        List<String> terms = FullTextSearch.fallbackTerms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        StringBuilder jpql = new StringBuilder(SELECT_DTO);
+        if (courseId != null || teacherId != null) {
+            jpql.append("JOIN sr.survey s ");
+        }
+        jpql.append("WHERE sr.textComment IS NOT NULL ");
+        for (int i = 0; i < terms.size(); i++) {
+            jpql.append("AND LOWER(sr.textComment) LIKE :term").append(i).append(' ');
+        }
+        if (surveyId != null) {
+            jpql.append("AND sr.survey.id = :surveyId ");
+        }
+        if (courseId != null) {
+            jpql.append("AND s.courseId = :courseId ");
+        }
+        if (teacherId != null) {
+            jpql.append("AND s.teacherId = :teacherId ");
+        }
+        jpql.append("ORDER BY sr.submissionDate DESC, sr.id");
+
+        TypedQuery<SurveyResponseDTO> typedQuery = entityManager.createQuery(jpql.toString(), SurveyResponseDTO.class)
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        for (int i = 0; i < terms.size(); i++) {
+            typedQuery.setParameter("term" + i, "%" + terms.get(i) + "%");
+        }
+        if (surveyId != null) {
+            typedQuery.setParameter("surveyId", surveyId);
+        }
+        if (courseId != null) {
+            typedQuery.setParameter("courseId", courseId);
+        }
+        if (teacherId != null) {
+            typedQuery.setParameter("teacherId", teacherId);
+        }
+        return typedQuery.getResultList();
+    }
+
+    private boolean isPostgres() {
+        Boolean current = postgres;
+        if (current == null) {
+            current = FullTextSearch.isPostgres(entityManager);
+            postgres = current;
+        }
+        return current;
+    }
+}
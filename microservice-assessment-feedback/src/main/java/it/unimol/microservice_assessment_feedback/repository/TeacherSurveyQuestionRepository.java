@@ -0,0 +1,18 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
+
+import java.util.Optional;
+
+/**
+ * Letture sulle singole domande di un questionario, senza caricare l'entità né deserializzare l'intera lista.
+ */
+public interface TeacherSurveyQuestionRepository {
+
+    /**
+     * @return Il numero di domande del questionario, 0 se il questionario non esiste o non ha domande
+     */
+    int countQuestions(String surveyId);
+
+    Optional<TeacherSurveyDTO.SurveyQuestionDTO> findQuestion(String surveyId, String questionId);
+}
@@ -0,0 +1,101 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import it.unimol.microservice_assessment_feedback.common.util.SurveyQuestionsJson;
+import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Su PostgreSQL le domande sono lette con le funzioni jsonb direttamente nel database.
+ * La colonna è jsonb dalla migrazione V4; il CAST esplicito (nullo se già jsonb) mantiene le query valide
+ * anche su un database non ancora migrato, dove questions è ancora TEXT.
+ * Su altri database (H2 nei test) si legge la sola colonna questions e la si analizza in memoria.
+ */
+public class TeacherSurveyQuestionRepositoryImpl implements TeacherSurveyQuestionRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeacherSurveyQuestionRepositoryImpl.class);
+
+    private static final String COUNT_QUESTIONS_JSONB =
+            "SELECT COALESCE(jsonb_array_length(CAST(s.questions AS jsonb)), 0) FROM teacher_surveys s WHERE s.id = :surveyId";
+
+    private static final String FIND_QUESTION_JSONB =
+            "SELECT CAST(q.question AS text) FROM teacher_surveys s " +
+            "CROSS JOIN LATERAL jsonb_array_elements(CAST(s.questions AS jsonb)) AS q(question) " +
+            "WHERE s.id = :surveyId AND q.question ->> 'id' = :questionId";
+
+    private static final String SELECT_QUESTIONS =
+            "SELECT CAST(s.questions AS varchar) FROM teacher_surveys s WHERE s.id = :surveyId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean jsonb;
+
+    @Override
+    public int countQuestions(String surveyId) {
+        if (isJsonb()) {
+            List<?> result = entityManager.createNativeQuery(COUNT_QUESTIONS_JSONB)
+                    .setParameter("surveyId", surveyId)
+                    .getResultList();
+            return result.isEmpty() ? 0 : ((Number) result.get(0)).intValue();
+        }
+        return loadQuestions(surveyId).size();
+    }
+
+    @Override
+    public Optional<TeacherSurveyDTO.SurveyQuestionDTO> findQuestion(String surveyId, String questionId) {
+        if (isJsonb()) {
+            List<?> result = entityManager.createNativeQuery(FIND_QUESTION_JSONB)
+                    .setParameter("surveyId", surveyId)
+                    .setParameter("questionId", questionId)
+                    .setMaxResults(1)
+                    .getResultList();
+            if (result.isEmpty()) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(SurveyQuestionsJson.readQuestion((String) result.get(0)));
+            } catch (JsonProcessingException e) {
+                logger.error("Domanda {} non leggibile nel questionario {}: {}", questionId, surveyId, e.getMessage());
+                return Optional.empty();
+            }
+        }
+        return loadQuestions(surveyId).stream()
+                .filter(question -> Objects.equals(question.getId(), questionId))
+                .findFirst();
+    }
+
+    private List<TeacherSurveyDTO.SurveyQuestionDTO> loadQuestions(String surveyId) {
+        List<?> result = entityManager.createNativeQuery(SELECT_QUESTIONS)
+                .setParameter("surveyId", surveyId)
+                .getResultList();
+        if (result.isEmpty() || result.get(0) == null) {
+            return List.of();
+        }
+        try {
+            return SurveyQuestionsJson.readList((String) result.get(0));
+        } catch (JsonProcessingException e) {
+            logger.error("Domande non leggibili nel questionario {}: {}", surveyId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private boolean isJsonb() {
+        Boolean current = jsonb;
+        if (current == null) {
+            current = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            jsonb = current;
+        }
+        return current;
+    }
+}
@@ -13,7 +13,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TeacherSurveyRepository extends JpaRepository<TeacherSurvey, String> {
+public interface TeacherSurveyRepository extends JpaRepository<TeacherSurvey, String>, TeacherSurveyQuestionRepository {
 
     // Find ID
     List<TeacherSurvey> findByTeacherId(String teacherId);
@@ -26,6 +26,9 @@ public interface TeacherSurveyRepository extends JpaRepository<TeacherSurvey, St
     @Query("SELECT COUNT(ts) FROM TeacherSurvey ts WHERE ts.status = :status")
     Long countByStatus(@Param("status") SurveyStatus status);
 
+    @Query("SELECT ts.id FROM TeacherSurvey ts")
+    List<String> findAllIds();
+
     // Bool
     boolean existsByTeacherIdAndCourseIdAndAcademicYearAndSemester(
             String teacherId, String courseId, String academicYear, Integer semester);
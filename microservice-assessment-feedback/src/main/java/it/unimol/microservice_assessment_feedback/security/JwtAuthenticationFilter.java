@@ -50,6 +50,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             try {
                 String token = jwtValidationService.extractTokenFromHeader(authHeader);
                 JWTValidationService.UserInfo userInfo = jwtValidationService.validateTokenAndGetUserInfo(token);
+                request.setAttribute(JWTValidationService.USER_INFO_ATTRIBUTE, userInfo);
                 userId = userInfo.userId();
                 userRole = userInfo.role();
 
@@ -0,0 +1,264 @@
+package it.unimol.microservice_assessment_feedback.service;
+
+import it.unimol.microservice_assessment_feedback.dto.ScoreStatisticsDTO;
+import it.unimol.microservice_assessment_feedback.enums.ScoreAggregateScope;
+import it.unimol.microservice_assessment_feedback.model.Assessment;
+import it.unimol.microservice_assessment_feedback.model.AssessmentScoreAggregate;
+import it.unimol.microservice_assessment_feedback.repository.AssessmentRepository;
+import it.unimol.microservice_assessment_feedback.repository.AssessmentScoreAggregateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Gestisce gli aggregati incrementali (conteggio, somma, somma dei quadrati, minimo, massimo,
+ * istogramma per fasce) dei voti per studente, corso, docente, compito ed esame.
+ */
+@Service
+public class AssessmentScoreAggregateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssessmentScoreAggregateService.class);
+
+    private final AssessmentScoreAggregateRepository aggregateRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNewTemplate;
+
+    public AssessmentScoreAggregateService(AssessmentScoreAggregateRepository aggregateRepository,
+                                           AssessmentRepository assessmentRepository,
+                                           TransactionTemplate transactionTemplate) {
+        this.aggregateRepository = aggregateRepository;
+        this.assessmentRepository = assessmentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.requiresNewTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Aggiorna gli aggregati con le valutazioni appena create.
+     * Deve essere chiamato all'interno della transazione che salva le valutazioni.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<Assessment> assessments) {
+        Map<ScoreAggregateScope, TreeMap<String, List<ScoreChange>>> changes = new EnumMap<>(ScoreAggregateScope.class);
+        for (Assessment assessment : assessments) {
+            addChange(changes, assessment, new ScoreChange(null, assessment.getScore()));
+        }
+        apply(changes);
+    }
+
+    /**
+     * Sostituisce negli aggregati il voto precedente con quello attuale della valutazione.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordScoreChanged(Assessment assessment, Double previousScore) {
+        Map<ScoreAggregateScope, TreeMap<String, List<ScoreChange>>> changes = new EnumMap<>(ScoreAggregateScope.class);
+        addChange(changes, assessment, new ScoreChange(previousScore, assessment.getScore()));
+        apply(changes);
+    }
+
+    /**
+     * Rimuove dagli aggregati il voto della valutazione eliminata.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Assessment assessment) {
+        Map<ScoreAggregateScope, TreeMap<String, List<ScoreChange>>> changes = new EnumMap<>(ScoreAggregateScope.class);
+        addChange(changes, assessment, new ScoreChange(assessment.getScore(), null));
+        apply(changes);
+    }
+
+    /**
+     * Legge le statistiche dell'ambito da un'unica riga aggregata, senza scritture.
+     * Per le chiavi che non hanno ancora una riga (ad esempio con sole valutazioni precedenti
+     * agli aggregati) i valori vengono calcolati al volo dalle valutazioni salvate.
+     */
+    @Transactional(readOnly = true)
+    public ScoreStatisticsDTO getStatistics(ScoreAggregateScope scope, String scopeId) {
+        return aggregateRepository.findByScopeAndScopeId(scope, scopeId)
+                .map(this::toDTO)
+                .orElseGet(() -> toDTO(computeAggregate(scope, scopeId)));
+    }
+
+    /**
+     * Ricalcola l'aggregato di un ambito dalle valutazioni salvate, senza fermare le scritture.
+     * La riga viene bloccata prima del calcolo: le transazioni già confermate sono incluse nel ricalcolo,
+     * quelle in corso attendono il lock e applicano il proprio delta sul valore ricostruito.
+     */
+    @Transactional
+    public ScoreStatisticsDTO rebuild(ScoreAggregateScope scope, String scopeId) {
+        ensureAggregatesExist(scope, Set.of(scopeId));
+        AssessmentScoreAggregate aggregate = aggregateRepository.findForUpdate(scope, List.of(scopeId)).get(0);
+
+        // Calcolo dopo il lock, così include ogni scrittura confermata prima di esso
+        aggregate.copyCountersFrom(computeAggregate(scope, scopeId));
+
+        return toDTO(aggregateRepository.save(aggregate));
+    }
+
+    /**
+     * Ricalcola gli aggregati di tutti gli ambiti, una chiave per transazione.
+     * Vengono ricalcolate anche le chiavi che non hanno più valutazioni, che tornano a zero.
+     *
+     * @return Il numero di aggregati elaborati
+     */
+    public int rebuildAll() {
+        logger.info("Ricostruzione di tutti gli aggregati dei voti");
+        int rebuilt = 0;
+        for (ScoreAggregateScope scope : ScoreAggregateScope.values()) {
+            Set<String> scopeIds = new TreeSet<>(assessmentRepository.findScopeIds(scope));
+            scopeIds.addAll(aggregateRepository.findScopeIdsByScope(scope));
+            for (String scopeId : scopeIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> rebuild(scope, scopeId));
+                    rebuilt++;
+                } catch (Exception e) {
+                    logger.error("Errore nella ricostruzione aggregato voti {} {}", scope, scopeId, e);
+                }
+            }
+        }
+        logger.info("Ricostruiti {} aggregati dei voti", rebuilt);
+        return rebuilt;
+    }
+
+    /**
+     * Applica le variazioni ambito per ambito, bloccando le righe in ordine di ambito e di chiave
+     * per evitare deadlock tra transazioni concorrenti.
+     */
+    private void apply(Map<ScoreAggregateScope, TreeMap<String, List<ScoreChange>>> changes) {
+        for (Map.Entry<ScoreAggregateScope, TreeMap<String, List<ScoreChange>>> entry : changes.entrySet()) {
+            ScoreAggregateScope scope = entry.getKey();
+            TreeMap<String, List<ScoreChange>> changesByScopeId = entry.getValue();
+
+            ensureAggregatesExist(scope, changesByScopeId.keySet());
+            List<AssessmentScoreAggregate> aggregates = aggregateRepository.findForUpdate(scope, changesByScopeId.keySet());
+
+            for (AssessmentScoreAggregate aggregate : aggregates) {
+                boolean rangeStale = false;
+                for (ScoreChange change : changesByScopeId.get(aggregate.getScopeId())) {
+                    if (change.removed() != null) {
+                        rangeStale |= aggregate.removeScore(change.removed());
+                    }
+                    if (change.added() != null) {
+                        aggregate.recordScore(change.added());
+                    }
+                }
+                if (rangeStale && aggregate.getAssessmentCount() > 0) {
+                    Object[] range = assessmentRepository.findScoreRange(scope, aggregate.getScopeId());
+                    aggregate.setMinScore(range[0] != null ? toDouble(range[0]) : null);
+                    aggregate.setMaxScore(range[1] != null ? toDouble(range[1]) : null);
+                }
+            }
+
+            aggregateRepository.saveAll(aggregates);
+        }
+    }
+
+    /**
+     * Crea le righe mancanti in transazioni separate, così il lock successivo trova sempre una riga
+     * e due inserimenti concorrenti della stessa chiave non fanno fallire la transazione principale.
+     * Una riga nuova parte dalle valutazioni già confermate (ad esempio quelle precedenti agli aggregati):
+     * una scrittura confermata ha sempre trovato la riga esistente, quindi nessun voto viene contato due volte,
+     * mentre quelle della transazione chiamante, non ancora confermate, arrivano come variazione.
+     */
+    private void ensureAggregatesExist(ScoreAggregateScope scope, Collection<String> scopeIds) {
+        Set<String> missing = new TreeSet<>(scopeIds);
+        missing.removeAll(aggregateRepository.findExistingScopeIds(scope, scopeIds));
+
+        for (String scopeId : missing) {
+            try {
+                requiresNewTemplate.executeWithoutResult(status ->
+                        aggregateRepository.saveAndFlush(computeAggregate(scope, scopeId)));
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Aggregato voti {} {} già creato da un'altra transazione", scope, scopeId);
+            }
+        }
+    }
+
+    // Aggregato di una chiave calcolato lato database dalle valutazioni salvate, non persistito
+    private AssessmentScoreAggregate computeAggregate(ScoreAggregateScope scope, String scopeId) {
+        Object[] row = assessmentRepository.computeScoreStatistics(scope, scopeId);
+        AssessmentScoreAggregate aggregate = new AssessmentScoreAggregate(scope, scopeId);
+        aggregate.setAssessmentCount(toLong(row[0]));
+        aggregate.setScoreSum(toDouble(row[1]));
+        aggregate.setScoreSumOfSquares(toDouble(row[2]));
+        aggregate.setMinScore(row[3] != null ? toDouble(row[3]) : null);
+        aggregate.setMaxScore(row[4] != null ? toDouble(row[4]) : null);
+        long[] buckets = new long[AssessmentScoreAggregate.BUCKET_LABELS.length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = toLong(row[5 + i]);
+        }
+        aggregate.setBucketCounts(buckets);
+        return aggregate;
+    }
+
+    private static void addChange(Map<ScoreAggregateScope, TreeMap<String, List<ScoreChange>>> changes,
+                                  Assessment assessment, ScoreChange change) {
+        for (ScoreAggregateScope scope : ScoreAggregateScope.values()) {
+            String scopeId = scopeIdOf(scope, assessment);
+            if (scopeId != null) {
+                changes.computeIfAbsent(scope, key -> new TreeMap<>())
+                        .computeIfAbsent(scopeId, key -> new ArrayList<>())
+                        .add(change);
+            }
+        }
+    }
+
+    private static String scopeIdOf(ScoreAggregateScope scope, Assessment assessment) {
+        return switch (scope) {
+            case STUDENT -> assessment.getStudentId();
+            case COURSE -> assessment.getCourseId();
+            case TEACHER -> assessment.getTeacherId();
+            case ASSIGNMENT, EXAM -> scope.getReferenceType() == assessment.getReferenceType()
+                    ? assessment.getReferenceId() : null;
+        };
+    }
+
+    private ScoreStatisticsDTO toDTO(AssessmentScoreAggregate aggregate) {
+        long[] counts = aggregate.getBucketCounts();
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            distribution.put(AssessmentScoreAggregate.BUCKET_LABELS[i], counts[i]);
+        }
+
+        return ScoreStatisticsDTO.builder()
+                .scope(aggregate.getScope())
+                .scopeId(aggregate.getScopeId())
+                .assessmentCount(aggregate.getAssessmentCount())
+                .averageScore(aggregate.getAverageScore())
+                .standardDeviation(aggregate.getStandardDeviation())
+                .minScore(aggregate.getMinScore())
+                .maxScore(aggregate.getMaxScore())
+                .distribution(distribution)
+                .updatedAt(aggregate.getUpdatedAt())
+                .build();
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    /**
+     * Variazione di un voto: removed è null per una creazione, added è null per un'eliminazione.
+     */
+    private record ScoreChange(Double removed, Double added) {
+    }
+}
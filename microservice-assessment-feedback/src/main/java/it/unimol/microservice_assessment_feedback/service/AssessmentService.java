@@ -1,7 +1,11 @@
 package it.unimol.microservice_assessment_feedback.service;
 
+import it.unimol.microservice_assessment_feedback.common.util.KeysetCursor;
 import it.unimol.microservice_assessment_feedback.dto.AssessmentDTO;
+import it.unimol.microservice_assessment_feedback.dto.CursorPageDTO;
+import it.unimol.microservice_assessment_feedback.dto.ScoreStatisticsDTO;
 import it.unimol.microservice_assessment_feedback.enums.RoleType;
+import it.unimol.microservice_assessment_feedback.enums.ScoreAggregateScope;
 import it.unimol.microservice_assessment_feedback.messaging.publishers.AssessmentMessageService;
 import it.unimol.microservice_assessment_feedback.model.Assessment;
 import it.unimol.microservice_assessment_feedback.enums.ReferenceType;
@@ -9,6 +13,9 @@ import it.unimol.microservice_assessment_feedback.common.exception.ResourceNotFo
 import it.unimol.microservice_assessment_feedback.repository.AssessmentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,36 +24,49 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AssessmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(AssessmentService.class);
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
     private final AssessmentRepository assessmentRepository;
     private final AssessmentMessageService assessmentMessageService;
+    private final AssessmentScoreAggregateService scoreAggregateService;
 
-    public AssessmentService(AssessmentRepository assessmentRepository, AssessmentMessageService assessmentMessageService) {
+    public AssessmentService(AssessmentRepository assessmentRepository, AssessmentMessageService assessmentMessageService,
+                             AssessmentScoreAggregateService scoreAggregateService) {
         this.assessmentRepository = assessmentRepository;
         this.assessmentMessageService = assessmentMessageService;
+        this.scoreAggregateService = scoreAggregateService;
     }
 
+    @Transactional(readOnly = true)
     public List<AssessmentDTO> getAllAssessments() {
         logger.debug("Recupero di tutte le valutazioni");
-        List<Assessment> assessments = assessmentRepository.findAll();
+        List<AssessmentDTO> assessments = assessmentRepository.findAllProjected();
         logger.debug("Trovate {} valutazioni", assessments.size());
 
-        return assessments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return assessments;
     }
 
+    @Transactional(readOnly = true)
     public AssessmentDTO getAssessmentById(String id) {
         logger.debug("Recupero valutazione con ID: {}", id);
 
-        Assessment assessment = assessmentRepository.findById(id)
+        AssessmentDTO assessment = assessmentRepository.findProjectedById(id)
                 .orElseThrow(() -> {
                     logger.warn("Valutazione non trovata con ID: {}", id);
                     return new ResourceNotFoundException("Valutazione non trovata con id: " + id);
@@ -78,73 +98,129 @@ public class AssessmentService {
         }
 
         logger.debug("Valutazione trovata con ID: {}", id);
-        return convertToDTO(assessment);
+        return assessment;
+    }
+
+    /**
+     * Lettura interna per i consumer di eventi: nessun controllo sul SecurityContext, che nei thread
+     * dei listener non è valorizzato. Non apre una propria transazione, così un ID assente non marca
+     * come rollback-only la transazione del messaggio in cui viene chiamata.
+     */
+    public Optional<AssessmentDTO> findAssessmentForEvent(String id) {
+        return assessmentRepository.findProjectedById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<AssessmentDTO> getAssessmentsByStudentId(String studentId) {
         logger.debug("Recupero valutazioni per studente con ID: {}", studentId);
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new AccessDeniedException("Utente non autenticato");
-        }
+        checkStudentAccess(studentId);
 
-        String currentUsername = authentication.getName();
-
-        String userRole = null;
-        for (GrantedAuthority authority : authentication.getAuthorities()) {
-            if (authority.getAuthority().startsWith("ROLE_")) {
-                userRole = authority.getAuthority();
-                break;
-            }
-        }
-
-        if (RoleType.ROLE_STUDENT.equals(userRole)) {
-            if (!studentId.equals(currentUsername)) {
-                logger.warn("Studente {} ha tentato di accedere alle valutazioni dello studente {} non autorizzate",
-                        currentUsername, studentId);
-                throw new AccessDeniedException("Non autorizzato ad accedere alle valutazioni di questo studente");
-            }
-            logger.debug("Accesso autorizzato per studente {} alle proprie valutazioni", currentUsername);
-        }
-
-        List<Assessment> assessments = assessmentRepository.findByStudentId(studentId);
+        List<AssessmentDTO> assessments = assessmentRepository.findProjectedByStudentId(studentId);
         logger.debug("Trovate {} valutazioni per studente {}", assessments.size(), studentId);
 
-        return assessments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return assessments;
     }
 
+    @Transactional(readOnly = true)
     public List<AssessmentDTO> getAssessmentsByAssignment(String assignmentId) {
         logger.debug("Recupero valutazioni per assignment con ID: {}", assignmentId);
-        List<Assessment> assessments = assessmentRepository.findByReferenceIdAndReferenceType(assignmentId, ReferenceType.ASSIGNMENT);
+        List<AssessmentDTO> assessments = assessmentRepository.findProjectedByReferenceIdAndReferenceType(assignmentId, ReferenceType.ASSIGNMENT);
         logger.debug("Trovate {} valutazioni per assignment {}", assessments.size(), assignmentId);
 
-        return assessments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return assessments;
     }
 
+    @Transactional(readOnly = true)
     public List<AssessmentDTO> getAssessmentsByExam(String examId) {
         logger.debug("Recupero valutazioni per exam con ID: {}", examId);
-        List<Assessment> assessments = assessmentRepository.findByReferenceIdAndReferenceType(examId, ReferenceType.EXAM);
+        List<AssessmentDTO> assessments = assessmentRepository.findProjectedByReferenceIdAndReferenceType(examId, ReferenceType.EXAM);
         logger.debug("Trovate {} valutazioni per exam {}", assessments.size(), examId);
 
-        return assessments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return assessments;
     }
 
 
+    @Transactional(readOnly = true)
     public List<AssessmentDTO> getAssessmentsByCourse(String courseId) {
         logger.debug("Recupero valutazioni per corso con ID: {}", courseId);
-        List<Assessment> assessments = assessmentRepository.findByCourseId(courseId);
+        List<AssessmentDTO> assessments = assessmentRepository.findProjectedByCourseId(courseId);
         logger.debug("Trovate {} valutazioni per corso {}", assessments.size(), courseId);
 
-        return assessments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return assessments;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AssessmentDTO> getAssessmentsPage(String cursor, Integer limit) {
+        logger.debug("Recupero pagina di valutazioni");
+        return scroll(cursor, limit, assessmentRepository::findAllByOrderByAssessmentDateAscIdAsc);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AssessmentDTO> getAssessmentsPageByStudentId(String studentId, String cursor, Integer limit) {
+        logger.debug("Recupero pagina di valutazioni per studente con ID: {}", studentId);
+        checkStudentAccess(studentId);
+        return scroll(cursor, limit, (position, max) ->
+                assessmentRepository.findByStudentIdOrderByAssessmentDateAscIdAsc(studentId, position, max));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AssessmentDTO> getAssessmentsPageByAssignment(String assignmentId, String cursor, Integer limit) {
+        logger.debug("Recupero pagina di valutazioni per assignment con ID: {}", assignmentId);
+        return scroll(cursor, limit, (position, max) -> assessmentRepository
+                .findByReferenceIdAndReferenceTypeOrderByAssessmentDateAscIdAsc(assignmentId, ReferenceType.ASSIGNMENT, position, max));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AssessmentDTO> getAssessmentsPageByExam(String examId, String cursor, Integer limit) {
+        logger.debug("Recupero pagina di valutazioni per exam con ID: {}", examId);
+        return scroll(cursor, limit, (position, max) -> assessmentRepository
+                .findByReferenceIdAndReferenceTypeOrderByAssessmentDateAscIdAsc(examId, ReferenceType.EXAM, position, max));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AssessmentDTO> getAssessmentsPageByCourse(String courseId, String cursor, Integer limit) {
+        logger.debug("Recupero pagina di valutazioni per corso con ID: {}", courseId);
+        return scroll(cursor, limit, (position, max) ->
+                assessmentRepository.findByCourseIdOrderByAssessmentDateAscIdAsc(courseId, position, max));
+    }
+
+    /**
+     * Invia tutte le valutazioni al consumer, leggendole a blocchi da un cursore JDBC.
+     * Le righe sono proiettate direttamente nel DTO e non entrano nel contesto di persistenza,
+     * così la memoria resta costante anche su export completi.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllAssessments(Consumer<AssessmentDTO> consumer) {
+        logger.debug("Streaming di tutte le valutazioni");
+        streamTo(assessmentRepository.streamAllByOrderByAssessmentDateAscIdAsc(), consumer);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAssessmentsByStudentId(String studentId, Consumer<AssessmentDTO> consumer) {
+        logger.debug("Streaming valutazioni per studente con ID: {}", studentId);
+        checkStudentAccess(studentId);
+        streamTo(assessmentRepository.streamByStudentIdOrderByAssessmentDateAscIdAsc(studentId), consumer);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAssessmentsByAssignment(String assignmentId, Consumer<AssessmentDTO> consumer) {
+        logger.debug("Streaming valutazioni per assignment con ID: {}", assignmentId);
+        streamTo(assessmentRepository.streamByReferenceIdAndReferenceTypeOrderByAssessmentDateAscIdAsc(
+                assignmentId, ReferenceType.ASSIGNMENT), consumer);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAssessmentsByExam(String examId, Consumer<AssessmentDTO> consumer) {
+        logger.debug("Streaming valutazioni per exam con ID: {}", examId);
+        streamTo(assessmentRepository.streamByReferenceIdAndReferenceTypeOrderByAssessmentDateAscIdAsc(
+                examId, ReferenceType.EXAM), consumer);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAssessmentsByCourse(String courseId, Consumer<AssessmentDTO> consumer) {
+        logger.debug("Streaming valutazioni per corso con ID: {}", courseId);
+        streamTo(assessmentRepository.streamByCourseIdOrderByAssessmentDateAscIdAsc(courseId), consumer);
     }
 
     @Transactional
@@ -158,19 +234,46 @@ public class AssessmentService {
         assessment.setAssessmentDate(LocalDateTime.now());
 
         Assessment savedAssessment = assessmentRepository.save(assessment);
+        scoreAggregateService.recordCreated(List.of(savedAssessment));
         logger.info("Valutazione creata con successo con ID: {}", savedAssessment.getId());
 
         AssessmentDTO result = convertToDTO(savedAssessment);
-        try {
-            assessmentMessageService.publishAssessmentCreated(result);
-            logger.debug("Evento di creazione valutazione pubblicato per ID: {}", result.getId());
-        } catch (Exception e) {
-            logger.warn("Errore nella pubblicazione dell'evento di creazione valutazione: {}", e.getMessage());
-        }
+        assessmentMessageService.publishAssessmentCreated(result);
+        logger.debug("Evento di creazione valutazione pubblicato per ID: {}", result.getId());
 
         return result;
     }
 
+    /**
+     * Crea più valutazioni in un'unica transazione: gli insert vengono inviati in batch JDBC
+     * e gli eventi di creazione finiscono nell'outbox nella stessa transazione, pronti per
+     * essere pubblicati in pipeline dal relay. Se una valutazione non è valida fallisce l'intero blocco.
+     */
+    @Transactional
+    public List<AssessmentDTO> createAssessments(List<AssessmentDTO> assessmentDTOs) {
+        logger.info("Creazione batch di {} valutazioni", assessmentDTOs.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Assessment> assessments = new ArrayList<>(assessmentDTOs.size());
+        for (AssessmentDTO assessmentDTO : assessmentDTOs) {
+            validateAssessmentData(assessmentDTO);
+            Assessment assessment = convertToEntity(assessmentDTO);
+            assessment.setAssessmentDate(now);
+            assessments.add(assessment);
+        }
+
+        List<Assessment> savedAssessments = assessmentRepository.saveAll(assessments);
+        scoreAggregateService.recordCreated(savedAssessments);
+
+        List<AssessmentDTO> results = savedAssessments.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        results.forEach(assessmentMessageService::publishAssessmentCreated);
+
+        logger.info("Create con successo {} valutazioni", results.size());
+        return results;
+    }
+
     @Transactional
     public AssessmentDTO updateAssessment(String id, AssessmentDTO assessmentDTO) {
         logger.info("Aggiornamento valutazione con ID: {}", id);
@@ -181,6 +284,7 @@ public class AssessmentService {
                     return new ResourceNotFoundException("Valutazione non trovata con id: " + id);
                 });
 
+        Double previousScore = existingAssessment.getScore();
         if (assessmentDTO.getScore() != null) {
             existingAssessment.setScore(assessmentDTO.getScore());
         }
@@ -189,15 +293,14 @@ public class AssessmentService {
         }
 
         Assessment updatedAssessment = assessmentRepository.save(existingAssessment);
+        if (!Objects.equals(previousScore, updatedAssessment.getScore())) {
+            scoreAggregateService.recordScoreChanged(updatedAssessment, previousScore);
+        }
         logger.info("Valutazione aggiornata con successo con ID: {}", id);
 
         AssessmentDTO result = convertToDTO(updatedAssessment);
-        try {
-            assessmentMessageService.publishAssessmentUpdated(result);
-            logger.debug("Evento di aggiornamento valutazione pubblicato per ID: {}", result.getId());
-        } catch (Exception e) {
-            logger.warn("Errore nella pubblicazione dell'evento di aggiornamento valutazione: {}", e.getMessage());
-        }
+        assessmentMessageService.publishAssessmentUpdated(result);
+        logger.debug("Evento di aggiornamento valutazione pubblicato per ID: {}", result.getId());
 
         return result;
     }
@@ -206,19 +309,74 @@ public class AssessmentService {
     public void deleteAssessment(String id) {
         logger.info("Eliminazione valutazione con ID: {}", id);
 
-        if (!assessmentRepository.existsById(id)) {
-            logger.warn("Tentativo di eliminazione di valutazione inesistente con ID: {}", id);
-            throw new ResourceNotFoundException("Valutazione non trovata con id: " + id);
-        }
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.warn("Tentativo di eliminazione di valutazione inesistente con ID: {}", id);
+                    return new ResourceNotFoundException("Valutazione non trovata con id: " + id);
+                });
 
-        assessmentRepository.deleteById(id);
+        assessmentRepository.delete(assessment);
+        scoreAggregateService.recordDeleted(assessment);
         logger.info("Valutazione eliminata con successo con ID: {}", id);
 
-        try {
-            assessmentMessageService.publishAssessmentDeleted(id);
-            logger.debug("Evento di eliminazione valutazione pubblicato per ID: {}", id);
-        } catch (Exception e) {
-            logger.warn("Errore nella pubblicazione dell'evento di eliminazione valutazione: {}", e.getMessage());
+        assessmentMessageService.publishAssessmentDeleted(id);
+        logger.debug("Evento di eliminazione valutazione pubblicato per ID: {}", id);
+    }
+
+    /**
+     * Restituisce le statistiche dei voti dell'ambito leggendo la riga aggregata corrispondente.
+     * Uno studente può leggere solo le statistiche delle proprie valutazioni.
+     */
+    @Transactional(readOnly = true)
+    public ScoreStatisticsDTO getScoreStatistics(ScoreAggregateScope scope, String scopeId) {
+        logger.debug("Recupero statistiche voti per {} con ID: {}", scope, scopeId);
+
+        // Con un ambito diverso da STUDENT il controllo nega l'accesso a qualsiasi studente
+        checkStudentAccess(scope == ScoreAggregateScope.STUDENT ? scopeId : null);
+
+        return scoreAggregateService.getStatistics(scope, scopeId);
+    }
+
+    public ScoreStatisticsDTO rebuildScoreStatistics(ScoreAggregateScope scope, String scopeId) {
+        logger.info("Ricostruzione statistiche voti per {} con ID: {}", scope, scopeId);
+        return scoreAggregateService.rebuild(scope, scopeId);
+    }
+
+    /**
+     * Ricostruisce tutti gli aggregati dei voti.
+     *
+     * @return Il numero di aggregati elaborati
+     */
+    public int rebuildAllScoreStatistics() {
+        return scoreAggregateService.rebuildAll();
+    }
+
+    /**
+     * Uno studente può accedere solo alle proprie valutazioni.
+     */
+    private void checkStudentAccess(String studentId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new AccessDeniedException("Utente non autenticato");
+        }
+
+        String currentUsername = authentication.getName();
+
+        String userRole = null;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (authority.getAuthority().startsWith("ROLE_")) {
+                userRole = authority.getAuthority();
+                break;
+            }
+        }
+
+        if (RoleType.ROLE_STUDENT.equals(userRole)) {
+            if (!currentUsername.equals(studentId)) {
+                logger.warn("Studente {} ha tentato di accedere alle valutazioni dello studente {} non autorizzate",
+                        currentUsername, studentId);
+                throw new AccessDeniedException("Non autorizzato ad accedere alle valutazioni di questo studente");
+            }
+            logger.debug("Accesso autorizzato per studente {} alle proprie valutazioni", currentUsername);
         }
     }
 
@@ -247,6 +405,38 @@ public class AssessmentService {
     }
 
 
+    private CursorPageDTO<AssessmentDTO> scroll(String cursor, Integer limit,
+                                                BiFunction<ScrollPosition, Limit, Window<Assessment>> query) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        ScrollPosition position = ScrollPosition.keyset();
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor keyset = KeysetCursor.decode(cursor);
+            position = ScrollPosition.forward(Map.of(
+                    "assessmentDate", keyset.getTimestamp(),
+                    "id", keyset.getId()));
+        }
+
+        Window<Assessment> window = query.apply(position, Limit.of(pageSize));
+        List<AssessmentDTO> items = window.getContent().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (window.hasNext() && !items.isEmpty()) {
+            AssessmentDTO last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getAssessmentDate(), last.getId()).encode();
+        }
+
+        return new CursorPageDTO<>(items, nextCursor, nextCursor != null);
+    }
+
+    private void streamTo(Stream<AssessmentDTO> assessments, Consumer<AssessmentDTO> consumer) {
+        try (assessments) {
+            assessments.forEach(consumer);
+        }
+    }
+
     private AssessmentDTO convertToDTO(Assessment assessment) {
         AssessmentDTO dto = new AssessmentDTO();
         dto.setId(assessment.getId());
@@ -262,8 +452,8 @@ public class AssessmentService {
     }
 
     private Assessment convertToEntity(AssessmentDTO dto) {
+        // L'id è di sola lettura: viene generato al persist, così il salvataggio è sempre un insert
         Assessment assessment = new Assessment();
-        assessment.setId(dto.getId());
         assessment.setReferenceId(dto.getReferenceId());
         assessment.setReferenceType(dto.getReferenceType());
         assessment.setStudentId(dto.getStudentId());
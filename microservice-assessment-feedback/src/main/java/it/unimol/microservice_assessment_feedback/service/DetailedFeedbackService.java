@@ -1,6 +1,9 @@
 package it.unimol.microservice_assessment_feedback.service;
 
+import it.unimol.microservice_assessment_feedback.common.util.OffsetCursor;
+import it.unimol.microservice_assessment_feedback.dto.CursorPageDTO;
 import it.unimol.microservice_assessment_feedback.dto.DetailedFeedbackDTO;
+import it.unimol.microservice_assessment_feedback.enums.FeedbackCategory;
 import it.unimol.microservice_assessment_feedback.messaging.publishers.FeedbackMessageService;
 import it.unimol.microservice_assessment_feedback.model.Assessment;
 import it.unimol.microservice_assessment_feedback.model.DetailedFeedback;
@@ -13,13 +16,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class DetailedFeedbackService {
 
     private static final Logger logger = LoggerFactory.getLogger(DetailedFeedbackService.class);
 
+    static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final DetailedFeedbackRepository feedbackRepository;
     private final AssessmentRepository assessmentRepository;
     private final FeedbackMessageService feedbackMessageService;
@@ -33,34 +38,51 @@ public class DetailedFeedbackService {
         this.feedbackMessageService = feedbackMessageService;
     }
 
+    @Transactional(readOnly = true)
     public List<DetailedFeedbackDTO> getAllFeedback() {
         logger.debug("Recupero di tutti i feedback");
-        List<DetailedFeedback> feedbacks = feedbackRepository.findAll();
+        List<DetailedFeedbackDTO> feedbacks = feedbackRepository.findAllProjected();
         logger.debug("Trovati {} feedback totali", feedbacks.size());
-        return feedbacks.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return feedbacks;
     }
 
+    @Transactional(readOnly = true)
     public List<DetailedFeedbackDTO> getFeedbackByAssessmentId(String assessmentId) {
         logger.debug("Retrieving feedback for assessment ID: {}", assessmentId);
-        return feedbackRepository.findByAssessmentId(assessmentId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return feedbackRepository.findProjectedByAssessmentId(assessmentId);
     }
 
+    @Transactional(readOnly = true)
     public DetailedFeedbackDTO getFeedbackById(String id) {
         logger.debug("Retrieving feedback with ID: {}", id);
-        DetailedFeedback feedback = feedbackRepository.findById(id)
+        return feedbackRepository.findProjectedById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Feedback non trovato con id: " + id));
-        return convertToDTO(feedback);
     }
 
+    @Transactional(readOnly = true)
     public List<DetailedFeedbackDTO> getFeedbackByStudentId(String studentId) {
         logger.debug("Retrieving all feedback for student ID: {}", studentId);
-        return feedbackRepository.findByStudentId(studentId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return feedbackRepository.findProjectedByStudentId(studentId);
+    }
+
+    /**
+     * Ricerca testuale su testo, punti di forza e aree di miglioramento, con risultati ordinati per rilevanza.
+     *
+     * @param cursor Cursore restituito dalla pagina precedente, null per la prima pagina
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<DetailedFeedbackDTO> searchFeedback(String query, String courseId, String teacherId,
+                                                             FeedbackCategory category, String cursor, Integer limit) {
+        logger.debug("Ricerca feedback per testo: '{}'", query);
+        int pageSize = limit == null ? DEFAULT_SEARCH_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_SEARCH_PAGE_SIZE));
+        int offset = OffsetCursor.decode(cursor);
+        if (query == null || query.isBlank()) {
+            return new CursorPageDTO<>(List.of(), null, false);
+        }
+
+        List<DetailedFeedbackDTO> results = feedbackRepository.searchFeedback(
+                query.trim(), courseId, teacherId, category, offset, pageSize + 1);
+        return OffsetCursor.page(results, offset, pageSize);
     }
 
     @Transactional
@@ -76,12 +98,8 @@ public class DetailedFeedbackService {
         DetailedFeedback savedFeedback = feedbackRepository.save(feedback);
         DetailedFeedbackDTO resultDTO = convertToDTO(savedFeedback);
 
-        try {
-            feedbackMessageService.publishFeedbackCreated(resultDTO);
-            logger.info("Feedback created event published for feedback ID: {}", resultDTO.getId());
-        } catch (Exception e) {
-            logger.error("Failed to publish feedback created event for feedback ID: {}", resultDTO.getId(), e);
-        }
+        feedbackMessageService.publishFeedbackCreated(resultDTO);
+        logger.info("Feedback created event published for feedback ID: {}", resultDTO.getId());
 
         return resultDTO;
     }
@@ -129,12 +147,8 @@ public class DetailedFeedbackService {
 
             logger.info("Feedback updated successfully with ID: {}", feedbackId);
 
-            try {
-                feedbackMessageService.publishFeedbackUpdated(resultDTO);
-                logger.info("Feedback updated event published for feedback ID: {}", resultDTO.getId());
-            } catch (Exception e) {
-                logger.error("Failed to publish feedback updated event for feedback ID: {}", resultDTO.getId(), e);
-            }
+            feedbackMessageService.publishFeedbackUpdated(resultDTO);
+            logger.info("Feedback updated event published for feedback ID: {}", resultDTO.getId());
 
             return resultDTO;
 
@@ -155,12 +169,8 @@ public class DetailedFeedbackService {
         feedbackRepository.deleteById(id);
         logger.info("Feedback deleted successfully with ID: {}", id);
 
-        try {
-            feedbackMessageService.publishFeedbackDeleted(id);
-            logger.info("Feedback deleted event published for feedback ID: {}", id);
-        } catch (Exception e) {
-            logger.error("Failed to publish feedback deleted event for feedback ID: {}", id, e);
-        }
+        feedbackMessageService.publishFeedbackDeleted(id);
+        logger.info("Feedback deleted event published for feedback ID: {}", id);
     }
 
     private DetailedFeedbackDTO convertToDTO(DetailedFeedback feedback) {
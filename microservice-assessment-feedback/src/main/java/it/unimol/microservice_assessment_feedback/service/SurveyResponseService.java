@@ -1,18 +1,23 @@
 package it.unimol.microservice_assessment_feedback.service;
 
+import it.unimol.microservice_assessment_feedback.common.util.OffsetCursor;
+import it.unimol.microservice_assessment_feedback.dto.CursorPageDTO;
 import it.unimol.microservice_assessment_feedback.dto.SurveyResponseDTO;
 import it.unimol.microservice_assessment_feedback.messaging.publishers.SurveyResponseMessageService;
 import it.unimol.microservice_assessment_feedback.messaging.publishers.TeacherSurveyMessageService;
+import it.unimol.microservice_assessment_feedback.model.SurveyQuestionAggregate;
 import it.unimol.microservice_assessment_feedback.model.SurveyResponse;
 import it.unimol.microservice_assessment_feedback.model.TeacherSurvey;
-import it.unimol.microservice_assessment_feedback.enums.SurveyStatus;
-import it.unimol.microservice_assessment_feedback.common.exception.ResourceNotFoundException;
 import it.unimol.microservice_assessment_feedback.common.exception.SurveyClosedException;
 import it.unimol.microservice_assessment_feedback.common.exception.DuplicateResponseException;
 import it.unimol.microservice_assessment_feedback.repository.SurveyResponseRepository;
 import it.unimol.microservice_assessment_feedback.repository.TeacherSurveyRepository;
+import it.unimol.microservice_assessment_feedback.service.cache.ActiveSurveyIndex;
+import it.unimol.microservice_assessment_feedback.service.cache.SurveySnapshot;
+import it.unimol.microservice_assessment_feedback.service.cache.TeacherSurveyCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,62 +25,125 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class SurveyResponseService {
 
     private static final Logger logger = LoggerFactory.getLogger(DetailedFeedbackService.class);
 
+    static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final SurveyResponseRepository responseRepository;
     private final TeacherSurveyRepository surveyRepository;
     private final SurveyResponseMessageService surveyResponseMessageService;
     private final TeacherSurveyMessageService teacherSurveyMessageService;
+    private final SurveyResultAggregateService aggregateService;
+    private final TeacherSurveyCache surveyCache;
+    private final ActiveSurveyIndex activeSurveyIndex;
 
     public SurveyResponseService(SurveyResponseRepository responseRepository,
                                  TeacherSurveyRepository surveyRepository,
                                  SurveyResponseMessageService surveyResponseMessageService,
-                                 TeacherSurveyMessageService teacherSurveyMessageService) {
+                                 TeacherSurveyMessageService teacherSurveyMessageService,
+                                 SurveyResultAggregateService aggregateService,
+                                 TeacherSurveyCache surveyCache,
+                                 ActiveSurveyIndex activeSurveyIndex) {
         this.responseRepository = responseRepository;
         this.surveyRepository = surveyRepository;
         this.surveyResponseMessageService = surveyResponseMessageService;
         this.teacherSurveyMessageService = teacherSurveyMessageService;
+        this.aggregateService = aggregateService;
+        this.surveyCache = surveyCache;
+        this.activeSurveyIndex = activeSurveyIndex;
     }
 
+    @Transactional(readOnly = true)
     public List<SurveyResponseDTO> getResponsesBySurveyId(String surveyId, String userId) {
-        TeacherSurvey survey = surveyRepository.findById(surveyId)
-                .orElseThrow(() -> new ResourceNotFoundException("Questionario non trovato con id: " + surveyId));
+        surveyCache.get(surveyId);
 
-        return responseRepository.findBySurveyId(surveyId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return responseRepository.findProjectedBySurveyId(surveyId);
+    }
+
+    /**
+     * Invia le risposte del questionario al consumer leggendole da un cursore JDBC,
+     * senza caricarle tutte in memoria.
+     */
+    @Transactional(readOnly = true)
+    public void streamResponsesBySurveyId(String surveyId, Consumer<SurveyResponseDTO> consumer) {
+        surveyCache.get(surveyId);
+
+        try (Stream<SurveyResponseDTO> responses = responseRepository.streamProjectedBySurveyId(surveyId)) {
+            responses.forEach(consumer);
+        }
     }
 
     public List<SurveyResponseDTO> getSurveyComments(String surveyId, String userId) {
-        TeacherSurvey survey = surveyRepository.findById(surveyId)
-                .orElseThrow(() -> new ResourceNotFoundException("Questionario non trovato con id: " + surveyId));
+        surveyCache.get(surveyId);
 
         teacherSurveyMessageService.publishSurveyCommentsRequested(surveyId, userId);
 
-        return responseRepository.findBySurveyId(surveyId).stream()
-                .filter(response -> response.getTextComment() != null && !response.getTextComment().trim().isEmpty())
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return responseRepository.findProjectedCommentsBySurveyId(surveyId);
+    }
+
+    /**
+     * Ricerca testuale sui commenti delle risposte, con risultati ordinati per rilevanza.
+     *
+     * @param cursor Cursore restituito dalla pagina precedente, null per la prima pagina
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SurveyResponseDTO> searchComments(String query, String surveyId, String courseId,
+                                                           String teacherId, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_SEARCH_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_SEARCH_PAGE_SIZE));
+        int offset = OffsetCursor.decode(cursor);
+        if (query == null || query.isBlank()) {
+            return new CursorPageDTO<>(List.of(), null, false);
+        }
+
+        List<SurveyResponseDTO> results = responseRepository.searchComments(
+                query.trim(), surveyId, courseId, teacherId, offset, pageSize + 1);
+        return OffsetCursor.page(results, offset, pageSize);
     }
 
+    /**
+     * Restituisce la media delle valutazioni per domanda, letta dagli aggregati incrementali
+     * in O(domande) senza accedere alla tabella delle risposte.
+     */
     public Map<String, Double> getSurveyResults(String surveyId, String userId) {
-        TeacherSurvey survey = surveyRepository.findById(surveyId)
-                .orElseThrow(() -> new ResourceNotFoundException("Questionario non trovato con id: " + surveyId));
+        surveyCache.get(surveyId);
 
         teacherSurveyMessageService.publishSurveyResultsRequested(surveyId, userId);
 
-        List<SurveyResponse> responses = responseRepository.findBySurveyId(surveyId);
+        return toResults(aggregateService.getAggregates(surveyId));
+    }
+
+    /**
+     * Ricostruisce gli aggregati del questionario dalle risposte salvate e restituisce i risultati aggiornati.
+     */
+    public Map<String, Double> rebuildSurveyResults(String surveyId) {
+        surveyCache.get(surveyId);
+
+        return toResults(aggregateService.rebuildAggregates(surveyId));
+    }
+
+    /**
+     * Ricostruisce gli aggregati di tutti i questionari.
+     *
+     * @return Il numero di questionari ricostruiti e gli ID di quelli non ricostruiti
+     */
+    public SurveyResultAggregateService.RebuildOutcome rebuildAllSurveyResults() {
+        return aggregateService.rebuildAllAggregates();
+    }
 
-        return responses.stream()
-                .filter(response -> response.getNumericRating() != null)
-                .collect(Collectors.groupingBy(
-                        SurveyResponse::getQuestionId,
-                        Collectors.averagingDouble(SurveyResponse::getNumericRating)
+    private Map<String, Double> toResults(List<SurveyQuestionAggregate> aggregates) {
+        return aggregates.stream()
+                .filter(aggregate -> aggregate.getRatingCount() > 0)
+                .collect(Collectors.toMap(
+                        SurveyQuestionAggregate::getQuestionId,
+                        SurveyQuestionAggregate::getAverageRating
                 ));
     }
 
@@ -83,10 +151,9 @@ public class SurveyResponseService {
     @Transactional
     public List<SurveyResponseDTO> submitSurveyResponses(String surveyId, List<SurveyResponseDTO> responseDTOs, String authenticatedUserId) {
 
-        TeacherSurvey survey = surveyRepository.findById(surveyId)
-                .orElseThrow(() -> new ResourceNotFoundException("Questionario non trovato con id: " + surveyId));
+        SurveySnapshot snapshot = surveyCache.get(surveyId);
 
-        if (survey.getStatus() != SurveyStatus.ACTIVE) {
+        if (!snapshot.isActive()) {
             throw new SurveyClosedException("Non è possibile inviare risposte ad un Questionario chiuso");
         }
 
@@ -95,7 +162,7 @@ public class SurveyResponseService {
             throw new DuplicateResponseException("Hai già compilato questo questionario");
         }
 
-        validateSurveyResponses(responseDTOs, survey);
+        validateSurveyResponses(responseDTOs, snapshot);
 
         Set<String> questionIds = responseDTOs.stream()
                 .map(SurveyResponseDTO::getQuestionId)
@@ -105,6 +172,8 @@ public class SurveyResponseService {
             throw new IllegalArgumentException("Non è possibile inviare più risposte per la stessa domanda");
         }
 
+        // Riferimento senza caricamento: il questionario è già stato letto dalla cache
+        TeacherSurvey survey = surveyRepository.getReferenceById(surveyId);
         LocalDateTime submissionTime = LocalDateTime.now();
         List<SurveyResponse> responses = responseDTOs.stream()
                 .map(dto -> {
@@ -116,16 +185,20 @@ public class SurveyResponseService {
                 })
                 .collect(Collectors.toList());
 
-        List<SurveyResponse> savedResponses = responseRepository.saveAll(responses);
+        // Il vincolo univoco (survey_id, student_id, question_id) chiude la finestra tra il controllo e l'inserimento
+        List<SurveyResponse> savedResponses;
+        try {
+            savedResponses = responseRepository.saveAllAndFlush(responses);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateResponseException("Hai già compilato questo questionario");
+        }
+        aggregateService.recordResponses(surveyId, savedResponses);
+        activeSurveyIndex.markAnswered(authenticatedUserId, surveyId);
         List<SurveyResponseDTO> result = savedResponses.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
 
-        try {
-            surveyResponseMessageService.publishSurveyResponsesSubmitted(result, surveyId);
-        } catch (Exception e) {
-            logger.warn("Errore durante invio notifica per risposte questionario {}: {}", surveyId, e.getMessage());
-        }
+        surveyResponseMessageService.publishSurveyResponsesSubmitted(result, surveyId);
 
         return result;
     }
@@ -133,7 +206,7 @@ public class SurveyResponseService {
     /**
      * Valida le risposte del questionario
      */
-    private void validateSurveyResponses(List<SurveyResponseDTO> responseDTOs, TeacherSurvey survey) {
+    private void validateSurveyResponses(List<SurveyResponseDTO> responseDTOs, SurveySnapshot survey) {
         for (SurveyResponseDTO dto : responseDTOs) {
 
             if (dto.getQuestionId() == null || dto.getQuestionId().trim().isEmpty()) {
@@ -158,30 +231,41 @@ public class SurveyResponseService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<SurveyResponseDTO> getResponsesByStudentId(String studentId) {
-        return responseRepository.findByStudentId(studentId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return responseRepository.findProjectedByStudentId(studentId);
     }
 
-    public List<TeacherSurvey> getAvailableSurveysForStudent(String studentId) {
-        return surveyRepository.findByStatus(SurveyStatus.ACTIVE);
+    /**
+     * Restituisce i questionari attivi non ancora compilati dallo studente,
+     * come array JSON già serializzato dall'indice in memoria.
+     *
+     * @param courseId Corso su cui filtrare, o null per tutti i corsi
+     */
+    public byte[] getAvailableSurveysForStudent(String studentId, String courseId) {
+        return activeSurveyIndex.availableSurveysJson(studentId, courseId);
     }
 
     @Transactional
     public SurveyResponseDTO createResponse(SurveyResponseDTO responseDTO) {
-        TeacherSurvey survey = surveyRepository.findById(responseDTO.getSurveyId())
-                .orElseThrow(() -> new ResourceNotFoundException("Questionario non trovato con id: " + responseDTO.getSurveyId()));
+        SurveySnapshot snapshot = surveyCache.get(responseDTO.getSurveyId());
 
-        if (survey.getStatus() != SurveyStatus.ACTIVE) {
+        if (!snapshot.isActive()) {
             throw new SurveyClosedException("Non è possibile inviare risposte ad un Questionario chiuso");
         }
 
         SurveyResponse response = convertToEntity(responseDTO);
-        response.setSurvey(survey);
+        response.setSurvey(surveyRepository.getReferenceById(snapshot.id()));
         response.setSubmissionDate(LocalDateTime.now());
 
-        SurveyResponse savedResponse = responseRepository.save(response);
+        SurveyResponse savedResponse;
+        try {
+            savedResponse = responseRepository.saveAndFlush(response);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateResponseException("Risposta già presente per questa domanda");
+        }
+        aggregateService.recordResponses(snapshot.id(), List.of(savedResponse));
+        activeSurveyIndex.markAnswered(savedResponse.getStudentId(), snapshot.id());
         SurveyResponseDTO result = convertToDTO(savedResponse);
 
         surveyResponseMessageService.publishSurveyResponseSubmitted(result);
@@ -202,8 +286,8 @@ public class SurveyResponseService {
     }
 
     private SurveyResponse convertToEntity(SurveyResponseDTO dto) {
+        // L'id è di sola lettura: viene generato al persist, così il salvataggio è sempre un insert
         SurveyResponse response = new SurveyResponse();
-        response.setId(dto.getId());
         response.setStudentId(dto.getStudentId());
         response.setQuestionId(dto.getQuestionId());
         response.setNumericRating(dto.getNumericRating());
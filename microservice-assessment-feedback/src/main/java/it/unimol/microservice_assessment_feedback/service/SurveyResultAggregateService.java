@@ -0,0 +1,231 @@
+package it.unimol.microservice_assessment_feedback.service;
+
+import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
+import it.unimol.microservice_assessment_feedback.model.SurveyQuestionAggregate;
+import it.unimol.microservice_assessment_feedback.model.SurveyResponse;
+import it.unimol.microservice_assessment_feedback.model.TeacherSurvey;
+import it.unimol.microservice_assessment_feedback.repository.SurveyQuestionAggregateRepository;
+import it.unimol.microservice_assessment_feedback.repository.SurveyResponseRepository;
+import it.unimol.microservice_assessment_feedback.repository.TeacherSurveyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Gestisce gli aggregati incrementali (conteggio, somma, somma dei quadrati, istogramma 1..5)
+ * delle risposte ai questionari, per domanda.
+ */
+@Service
+public class SurveyResultAggregateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveyResultAggregateService.class);
+
+    private final SurveyQuestionAggregateRepository aggregateRepository;
+    private final SurveyResponseRepository responseRepository;
+    private final TeacherSurveyRepository surveyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNewTemplate;
+
+    public SurveyResultAggregateService(SurveyQuestionAggregateRepository aggregateRepository,
+                                        SurveyResponseRepository responseRepository,
+                                        TeacherSurveyRepository surveyRepository,
+                                        TransactionTemplate transactionTemplate) {
+        this.aggregateRepository = aggregateRepository;
+        this.responseRepository = responseRepository;
+        this.surveyRepository = surveyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.requiresNewTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Aggiorna gli aggregati con le risposte appena salvate.
+     * Deve essere chiamato all'interno della transazione che salva le risposte.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordResponses(String surveyId, Collection<SurveyResponse> responses) {
+        if (responses.isEmpty()) {
+            return;
+        }
+
+        Set<String> questionIds = responses.stream()
+                .map(SurveyResponse::getQuestionId)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        ensureAggregatesExist(surveyId, questionIds);
+        Map<String, SurveyQuestionAggregate> aggregates = aggregateRepository.findForUpdate(surveyId, questionIds).stream()
+                .collect(Collectors.toMap(SurveyQuestionAggregate::getQuestionId, Function.identity()));
+
+        for (SurveyResponse response : responses) {
+            aggregates.get(response.getQuestionId()).recordResponse(response.getNumericRating());
+        }
+
+        aggregateRepository.saveAll(aggregates.values());
+    }
+
+    /**
+     * Crea, se mancanti, gli aggregati vuoti per tutte le domande del questionario.
+     * Chiamato all'attivazione, così la prima risposta trova già le righe da aggiornare.
+     */
+    @Transactional
+    public void initializeAggregates(TeacherSurvey survey) {
+        if (survey.getQuestions() == null || survey.getQuestions().isEmpty()) {
+            return;
+        }
+
+        ensureAggregatesExist(survey.getId(), survey.getQuestions().stream()
+                .map(TeacherSurveyDTO.SurveyQuestionDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new)));
+    }
+
+    /**
+     * Restituisce gli aggregati del questionario senza scritture.
+     * Per i questionari precedenti all'introduzione degli aggregati, che non hanno righe,
+     * i valori vengono calcolati al volo dalle risposte; la ricostruzione persistente resta
+     * un'operazione amministrativa ({@link #rebuildAggregates(String)}).
+     */
+    @Transactional(readOnly = true)
+    public List<SurveyQuestionAggregate> getAggregates(String surveyId) {
+        List<SurveyQuestionAggregate> aggregates = aggregateRepository.findBySurveyId(surveyId);
+        if (aggregates.isEmpty()) {
+            return new ArrayList<>(computeAggregates(surveyId).values());
+        }
+        return aggregates;
+    }
+
+    /**
+     * Ricalcola gli aggregati di un questionario dalle risposte salvate, senza fermare le scritture.
+     * Le righe vengono bloccate prima del calcolo: le risposte già confermate sono incluse nel ricalcolo,
+     * le sottomissioni in corso attendono il lock e applicano il proprio incremento sul valore ricostruito.
+     * Le domande che non hanno più risposte tornano a zero.
+     */
+    @Transactional
+    public List<SurveyQuestionAggregate> rebuildAggregates(String surveyId) {
+        logger.info("Ricostruzione aggregati per questionario: {}", surveyId);
+
+        Set<String> questionIds = new TreeSet<>(aggregateRepository.findQuestionIdsBySurveyId(surveyId));
+        questionIds.addAll(computeAggregates(surveyId).keySet());
+        if (questionIds.isEmpty()) {
+            return List.of();
+        }
+
+        ensureAggregatesExist(surveyId, questionIds);
+        List<SurveyQuestionAggregate> aggregates = aggregateRepository.findForUpdate(surveyId, questionIds);
+
+        // Calcolo dopo il lock, così include ogni sottomissione confermata prima di esso
+        Map<String, SurveyQuestionAggregate> computed = computeAggregates(surveyId);
+        for (SurveyQuestionAggregate aggregate : aggregates) {
+            aggregate.copyCountersFrom(computed.getOrDefault(aggregate.getQuestionId(),
+                    new SurveyQuestionAggregate(surveyId, aggregate.getQuestionId())));
+        }
+
+        List<SurveyQuestionAggregate> saved = aggregateRepository.saveAll(aggregates);
+        logger.info("Ricostruiti {} aggregati per questionario: {}", saved.size(), surveyId);
+        return saved;
+    }
+
+    /**
+     * Ricalcola gli aggregati di tutti i questionari, uno per transazione.
+     * Un errore su un questionario non interrompe gli altri ed è riportato nell'esito.
+     */
+    public RebuildOutcome rebuildAllAggregates() {
+        List<String> surveyIds = surveyRepository.findAllIds();
+        List<String> failedSurveyIds = new ArrayList<>();
+        for (String surveyId : surveyIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebuildAggregates(surveyId));
+            } catch (Exception e) {
+                logger.error("Errore nella ricostruzione aggregati per questionario: {}", surveyId, e);
+                failedSurveyIds.add(surveyId);
+            }
+        }
+        if (!failedSurveyIds.isEmpty()) {
+            logger.error("Ricostruzione aggregati fallita per {} questionari su {}", failedSurveyIds.size(), surveyIds.size());
+        }
+        return new RebuildOutcome(surveyIds.size() - failedSurveyIds.size(), failedSurveyIds);
+    }
+
+    @Transactional
+    public void deleteAggregates(String surveyId) {
+        aggregateRepository.deleteBySurveyId(surveyId);
+    }
+
+    // Aggregati per domanda calcolati lato database con una GROUP BY su question_id, non persistiti
+    private Map<String, SurveyQuestionAggregate> computeAggregates(String surveyId) {
+        Map<String, SurveyQuestionAggregate> computed = new TreeMap<>();
+        for (Object[] row : responseRepository.aggregateBySurveyIdGroupByQuestion(surveyId)) {
+            SurveyQuestionAggregate aggregate = toAggregate(surveyId, row);
+            computed.put(aggregate.getQuestionId(), aggregate);
+        }
+        return computed;
+    }
+
+    /**
+     * Crea le righe mancanti in transazioni separate, così il lock successivo trova sempre una riga
+     * e due inserimenti concorrenti della stessa domanda non fanno fallire la transazione principale.
+     * Una riga nuova parte dalle risposte già confermate (ad esempio quelle dei questionari precedenti
+     * agli aggregati): una sottomissione confermata ha sempre trovato la riga esistente, quindi
+     * nessuna risposta viene contata due volte.
+     */
+    private void ensureAggregatesExist(String surveyId, Collection<String> questionIds) {
+        Set<String> missing = new TreeSet<>(questionIds);
+        missing.removeAll(aggregateRepository.findExistingQuestionIds(surveyId, questionIds));
+
+        for (String questionId : missing) {
+            try {
+                requiresNewTemplate.executeWithoutResult(status -> {
+                    List<Object[]> rows = responseRepository.aggregateBySurveyIdAndQuestionId(surveyId, questionId);
+                    aggregateRepository.saveAndFlush(rows.isEmpty()
+                            ? new SurveyQuestionAggregate(surveyId, questionId)
+                            : toAggregate(surveyId, rows.get(0)));
+                });
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Aggregato {} {} già creato da un'altra transazione", surveyId, questionId);
+            }
+        }
+    }
+
+    private static SurveyQuestionAggregate toAggregate(String surveyId, Object[] row) {
+        SurveyQuestionAggregate aggregate = new SurveyQuestionAggregate(surveyId, (String) row[0]);
+        aggregate.setResponseCount(toLong(row[1]));
+        aggregate.setRatingCount(toLong(row[2]));
+        aggregate.setRatingSum(toLong(row[3]));
+        aggregate.setRatingSumOfSquares(toLong(row[4]));
+        aggregate.setRating1Count(toLong(row[5]));
+        aggregate.setRating2Count(toLong(row[6]));
+        aggregate.setRating3Count(toLong(row[7]));
+        aggregate.setRating4Count(toLong(row[8]));
+        aggregate.setRating5Count(toLong(row[9]));
+        return aggregate;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    /**
+     * Esito della ricostruzione di tutti i questionari.
+     *
+     * @param rebuilt Il numero di questionari ricostruiti
+     * @param failedSurveyIds Gli ID dei questionari la cui ricostruzione è fallita
+     */
+    public record RebuildOutcome(int rebuilt, List<String> failedSurveyIds) {
+    }
+}
@@ -0,0 +1,177 @@
+package it.unimol.microservice_assessment_feedback.service;
+
+import it.unimol.microservice_assessment_feedback.dto.SurveyStatisticsDTO;
+import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
+import it.unimol.microservice_assessment_feedback.model.SurveyQuestionAggregate;
+import it.unimol.microservice_assessment_feedback.model.TeacherSurvey;
+import it.unimol.microservice_assessment_feedback.repository.SurveyResponseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Calcola le statistiche di un questionario a partire dagli aggregati per domanda
+ * e da conteggi eseguiti lato database, senza caricare le singole risposte.
+ */
+@Service
+public class SurveyStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveyStatisticsService.class);
+
+    private final SurveyResultAggregateService aggregateService;
+    private final SurveyResponseRepository responseRepository;
+
+    public SurveyStatisticsService(SurveyResultAggregateService aggregateService,
+                                   SurveyResponseRepository responseRepository) {
+        this.aggregateService = aggregateService;
+        this.responseRepository = responseRepository;
+    }
+
+    /**
+     * Calcola le statistiche del questionario.
+     *
+     * @param survey Il questionario
+     * @param enrolledStudents Numero di studenti iscritti al corso, se noto; altrimenti i tassi
+     *                         di risposta sono calcolati rispetto ai rispondenti
+     */
+    @Transactional(readOnly = true)
+    public SurveyStatisticsDTO computeStatistics(TeacherSurvey survey, Integer enrolledStudents) {
+        if (enrolledStudents != null && enrolledStudents < 0) {
+            throw new IllegalArgumentException("Il numero di studenti iscritti non può essere negativo");
+        }
+
+        String surveyId = survey.getId();
+        Map<String, SurveyQuestionAggregate> aggregates = aggregateService.getAggregates(surveyId).stream()
+                .collect(Collectors.toMap(SurveyQuestionAggregate::getQuestionId, Function.identity()));
+
+        Map<String, TeacherSurveyDTO.SurveyQuestionDTO> questionsById = new LinkedHashMap<>();
+        if (survey.getQuestions() != null) {
+            for (TeacherSurveyDTO.SurveyQuestionDTO question : survey.getQuestions()) {
+                if (question.getId() != null) {
+                    questionsById.putIfAbsent(question.getId(), question);
+                }
+            }
+        }
+
+        int questionCount = questionsById.size();
+        SurveyResponseRepository.CompletionCounts completion = responseRepository.countCompletion(surveyId, questionCount);
+        long respondentCount = completion.getRespondents();
+        long completedCount = questionCount == 0 ? 0 : completion.getCompleted();
+        long populationSize = enrolledStudents != null ? enrolledStudents : respondentCount;
+
+        // Domande del questionario nell'ordine definito, seguite da eventuali domande rimosse con risposte
+        Set<String> questionIds = new LinkedHashSet<>(questionsById.keySet());
+        questionIds.addAll(aggregates.keySet());
+
+        List<SurveyStatisticsDTO.QuestionStatisticsDTO> questionStatistics = new ArrayList<>(questionIds.size());
+        for (String questionId : questionIds) {
+            questionStatistics.add(toQuestionStatistics(questionId, questionsById.get(questionId),
+                    aggregates.get(questionId), populationSize));
+        }
+
+        logger.info("Statistiche calcolate per questionario: {} ({} domande, {} rispondenti)",
+                surveyId, questionStatistics.size(), respondentCount);
+
+        return SurveyStatisticsDTO.builder()
+                .surveyId(surveyId)
+                .title(survey.getTitle())
+                .status(survey.getStatus())
+                .questionCount(questionCount)
+                .respondentCount(respondentCount)
+                .completedCount(completedCount)
+                .partialCount(respondentCount - completedCount)
+                .populationSize(populationSize)
+                .completionRate(rate(completedCount, populationSize))
+                .questions(questionStatistics)
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private SurveyStatisticsDTO.QuestionStatisticsDTO toQuestionStatistics(String questionId,
+                                                                          TeacherSurveyDTO.SurveyQuestionDTO question,
+                                                                          SurveyQuestionAggregate aggregate,
+                                                                          long populationSize) {
+        SurveyStatisticsDTO.QuestionStatisticsDTO dto = new SurveyStatisticsDTO.QuestionStatisticsDTO();
+        dto.setQuestionId(questionId);
+        if (question != null) {
+            dto.setQuestionText(question.getQuestionText());
+            dto.setQuestionType(question.getQuestionType());
+        }
+
+        long[] histogram = aggregate != null ? aggregate.getRatingHistogram()
+                : new long[SurveyQuestionAggregate.MAX_RATING - SurveyQuestionAggregate.MIN_RATING + 1];
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < histogram.length; i++) {
+            distribution.put(SurveyQuestionAggregate.MIN_RATING + i, histogram[i]);
+        }
+        dto.setRatingDistribution(distribution);
+
+        if (aggregate == null) {
+            dto.setResponseRate(rate(0, populationSize));
+            return dto;
+        }
+
+        long n = aggregate.getRatingCount();
+        dto.setResponseCount(aggregate.getResponseCount());
+        dto.setRatingCount(n);
+        dto.setResponseRate(rate(aggregate.getResponseCount(), populationSize));
+
+        if (n > 0) {
+            double mean = (double) aggregate.getRatingSum() / n;
+            dto.setMean(mean);
+            dto.setMedian(median(histogram, n));
+            dto.setStandardDeviation(standardDeviation(aggregate.getRatingSum(), aggregate.getRatingSumOfSquares(), n));
+        }
+
+        return dto;
+    }
+
+    /**
+     * Mediana esatta ricavata dall'istogramma: per n pari è la media dei due valori centrali.
+     */
+    private static double median(long[] histogram, long n) {
+        long lowerRank = (n + 1) / 2;
+        long upperRank = n / 2 + 1;
+        int lower = ratingAtRank(histogram, lowerRank);
+        int upper = n % 2 == 1 ? lower : ratingAtRank(histogram, upperRank);
+        return (lower + upper) / 2.0;
+    }
+
+    private static int ratingAtRank(long[] histogram, long rank) {
+        long cumulative = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            cumulative += histogram[i];
+            if (cumulative >= rank) {
+                return SurveyQuestionAggregate.MIN_RATING + i;
+            }
+        }
+        return SurveyQuestionAggregate.MAX_RATING;
+    }
+
+    /**
+     * Deviazione standard campionaria da somma e somma dei quadrati (aritmetica intera
+     * per il numeratore, così non si perde precisione con molte risposte).
+     */
+    private static double standardDeviation(long sum, long sumOfSquares, long n) {
+        if (n < 2) {
+            return 0.0;
+        }
+        double numerator = (double) (n * sumOfSquares - sum * sum);
+        return Math.sqrt(Math.max(0.0, numerator / ((double) n * (n - 1))));
+    }
+
+    private static Double rate(long count, long population) {
+        return population > 0 ? (double) count / population : null;
+    }
+}
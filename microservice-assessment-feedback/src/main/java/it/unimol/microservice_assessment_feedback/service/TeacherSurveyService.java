@@ -1,5 +1,6 @@
 package it.unimol.microservice_assessment_feedback.service;
 
+import it.unimol.microservice_assessment_feedback.dto.SurveyStatisticsDTO;
 import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
 import it.unimol.microservice_assessment_feedback.enums.QuestionType;
 import it.unimol.microservice_assessment_feedback.messaging.publishers.TeacherSurveyMessageService;
@@ -7,6 +8,8 @@ import it.unimol.microservice_assessment_feedback.model.TeacherSurvey;
 import it.unimol.microservice_assessment_feedback.enums.SurveyStatus;
 import it.unimol.microservice_assessment_feedback.common.exception.ResourceNotFoundException;
 import it.unimol.microservice_assessment_feedback.repository.TeacherSurveyRepository;
+import it.unimol.microservice_assessment_feedback.service.cache.ActiveSurveyIndex;
+import it.unimol.microservice_assessment_feedback.service.cache.TeacherSurveyCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,13 +29,27 @@ public class TeacherSurveyService {
 
     private final TeacherSurveyRepository surveyRepository;
     private final TeacherSurveyMessageService teacherSurveyMessageService;
+    private final SurveyResultAggregateService aggregateService;
+    private final SurveyStatisticsService statisticsService;
+    private final TeacherSurveyCache surveyCache;
+    private final ActiveSurveyIndex activeSurveyIndex;
 
     @Autowired
-    public TeacherSurveyService(TeacherSurveyRepository surveyRepository, TeacherSurveyMessageService teacherSurveyMessageService) {
+    public TeacherSurveyService(TeacherSurveyRepository surveyRepository,
+                                TeacherSurveyMessageService teacherSurveyMessageService,
+                                SurveyResultAggregateService aggregateService,
+                                SurveyStatisticsService statisticsService,
+                                TeacherSurveyCache surveyCache,
+                                ActiveSurveyIndex activeSurveyIndex) {
         this.surveyRepository = surveyRepository;
         this.teacherSurveyMessageService = teacherSurveyMessageService;
+        this.aggregateService = aggregateService;
+        this.statisticsService = statisticsService;
+        this.surveyCache = surveyCache;
+        this.activeSurveyIndex = activeSurveyIndex;
     }
 
+    @Transactional(readOnly = true)
     public List<TeacherSurveyDTO> getAllSurveys() {
         logger.info("Recupero di tutti i questionari");
         return surveyRepository.findAll().stream()
@@ -42,11 +59,10 @@ public class TeacherSurveyService {
 
     public TeacherSurveyDTO getSurveyById(String id) {
         logger.info("Recupero questionario con id: {}", id);
-        TeacherSurvey survey = surveyRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Questionario non trovato con id: " + id));
-        return convertToDTO(survey);
+        return surveyCache.get(id).toDTO();
     }
 
+    @Transactional(readOnly = true)
     public List<TeacherSurveyDTO> getSurveysByCourse(String courseId) {
         logger.info("Recupero questionari per corso: {}", courseId);
         return surveyRepository.findByCourseId(courseId).stream()
@@ -54,6 +70,7 @@ public class TeacherSurveyService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<TeacherSurveyDTO> getSurveysByTeacher(String teacherId) {
         logger.info("Recupero questionari per docente: {}", teacherId);
         return surveyRepository.findByTeacherId(teacherId).stream()
@@ -61,14 +78,15 @@ public class TeacherSurveyService {
                 .collect(Collectors.toList());
     }
 
-    public List<TeacherSurveyDTO> getActiveSurveys() {
+    /**
+     * Restituisce i questionari attivi come array JSON già serializzato dall'indice in memoria.
+     */
+    public byte[] getActiveSurveysJson() {
         logger.info("Recupero questionari attivi");
-        return surveyRepository.findByStatus(SurveyStatus.ACTIVE).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return activeSurveyIndex.activeSurveysJson();
     }
 
-    public Object getSurveyStatistics(String surveyId) {
+    public SurveyStatisticsDTO getSurveyStatistics(String surveyId, Integer enrolledStudents) {
         logger.info("Richiesta statistiche per questionario: {}", surveyId);
         String requestedBy = getCurrentUser();
         teacherSurveyMessageService.publishSurveyResultsRequested(surveyId, requestedBy);
@@ -76,16 +94,10 @@ public class TeacherSurveyService {
         TeacherSurvey survey = surveyRepository.findById(surveyId)
                 .orElseThrow(() -> new ResourceNotFoundException("Questionario non trovato con id: " + surveyId));
 
-        return new Object() {
-            public final String surveyId = survey.getId();
-            public final String title = survey.getTitle();
-            public final String description = survey.getDescription();
-            public final List<TeacherSurveyDTO.SurveyQuestionDTO> questions = survey.getQuestions();
-            public final String status = survey.getStatus().toString();
-            public final String message = "Statistiche placeholder per questionario " + surveyId;
-        };
+        return statisticsService.computeStatistics(survey, enrolledStudents);
     }
 
+    @Transactional(readOnly = true)
     public Object getGeneralStatistics() {
         logger.info("Richiesta statistiche generali questionari");
 
@@ -144,12 +156,8 @@ public class TeacherSurveyService {
         TeacherSurvey savedSurvey = surveyRepository.save(survey);
         TeacherSurveyDTO result = convertToDTO(savedSurvey);
 
-        try {
-            teacherSurveyMessageService.publishSurveyCompleted(result);
-            logger.info("Evento di questionario creato pubblicato per id: {}", result.getId());
-        } catch (Exception e) {
-            logger.error("Errore nella pubblicazione dell'evento per questionario id: {}", result.getId(), e);
-        }
+        teacherSurveyMessageService.publishSurveyCompleted(result);
+        logger.info("Evento di questionario creato pubblicato per id: {}", result.getId());
 
         return result;
     }
@@ -182,6 +190,7 @@ public class TeacherSurveyService {
         }
 
         TeacherSurvey updatedSurvey = surveyRepository.save(existingSurvey);
+        surveyCache.invalidate(id);
         TeacherSurveyDTO result = convertToDTO(updatedSurvey);
 
         return result;
@@ -194,7 +203,8 @@ public class TeacherSurveyService {
         TeacherSurvey survey = surveyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Questionario non trovato con id: " + id));
 
-        validateStatusTransition(survey.getStatus(), newStatus);
+        SurveyStatus previousStatus = survey.getStatus();
+        validateStatusTransition(previousStatus, newStatus);
 
         survey.setStatus(newStatus);
 
@@ -205,15 +215,19 @@ public class TeacherSurveyService {
         }
 
         TeacherSurvey updatedSurvey = surveyRepository.save(survey);
+        surveyCache.invalidate(id);
+        if (previousStatus == SurveyStatus.ACTIVE || newStatus == SurveyStatus.ACTIVE) {
+            activeSurveyIndex.refreshAfterCommit();
+        }
         TeacherSurveyDTO result = convertToDTO(updatedSurvey);
 
+        if (newStatus == SurveyStatus.ACTIVE) {
+            aggregateService.initializeAggregates(updatedSurvey);
+        }
+
         if (newStatus == SurveyStatus.CLOSED) {
-            try {
-                teacherSurveyMessageService.publishSurveyCompleted(result);
-                logger.info("Evento di questionario completato pubblicato per id: {}", result.getId());
-            } catch (Exception e) {
-                logger.error("Errore nella pubblicazione dell'evento per questionario id: {}", result.getId(), e);
-            }
+            teacherSurveyMessageService.publishSurveyCompleted(result);
+            logger.info("Evento di questionario completato pubblicato per id: {}", result.getId());
         }
 
         return result;
@@ -228,6 +242,11 @@ public class TeacherSurveyService {
                 .orElseThrow(() -> new ResourceNotFoundException("Questionario non trovato con id: " + id));
 
         surveyRepository.deleteById(id);
+        aggregateService.deleteAggregates(id);
+        surveyCache.invalidate(id);
+        if (survey.getStatus() == SurveyStatus.ACTIVE) {
+            activeSurveyIndex.refreshAfterCommit();
+        }
         logger.info("Questionario eliminato con successo: {}", id);
     }
 
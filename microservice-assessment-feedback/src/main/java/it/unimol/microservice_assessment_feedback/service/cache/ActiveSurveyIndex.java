@@ -0,0 +1,249 @@
+package it.unimol.microservice_assessment_feedback.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import it.unimol.microservice_assessment_feedback.config.datasource.ReadWriteRoutingContext;
+import it.unimol.microservice_assessment_feedback.enums.SurveyStatus;
+import it.unimol.microservice_assessment_feedback.model.TeacherSurvey;
+import it.unimol.microservice_assessment_feedback.repository.SurveyResponseRepository;
+import it.unimol.microservice_assessment_feedback.repository.TeacherSurveyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Indice in memoria dei questionari attivi, usato dagli studenti per scoprire i questionari da compilare.
+ * L'indice è immutabile e viene sostituito per intero (copy-on-write) a ogni ricostruzione:
+ * le letture non prendono lock e vedono sempre una versione coerente.
+ * Ogni questionario è già serializzato in JSON, quindi le risposte si ottengono concatenando byte.
+ * I questionari già compilati da uno studente sono tenuti in una bitmap sulle posizioni dell'indice,
+ * ricalcolata quando l'indice cambia versione.
+ */
+@Component
+public class ActiveSurveyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveSurveyIndex.class);
+
+    private static final byte[] EMPTY_ARRAY = {'[', ']'};
+
+    private final TeacherSurveyRepository surveyRepository;
+    private final SurveyResponseRepository responseRepository;
+    private final ObjectWriter writer;
+    private final Cache<String, AnsweredSurveys> answeredByStudent;
+
+    // Lock esplicito invece di synchronized: la ricostruzione esegue query JDBC e con i thread
+    // virtuali un monitor tenuto durante l'I/O bloccherebbe il carrier thread (pinning)
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Index index = Index.EMPTY;
+
+    public ActiveSurveyIndex(TeacherSurveyRepository surveyRepository,
+                             SurveyResponseRepository responseRepository,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${active-surveys.students.max-size:50000}") long studentsMaxSize,
+                             @Value("${active-surveys.students.ttl-seconds:120}") long studentsTtlSeconds) {
+        this.surveyRepository = surveyRepository;
+        this.responseRepository = responseRepository;
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.answeredByStudent = Caffeine.newBuilder()
+                .maximumSize(studentsMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(studentsTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, answeredByStudent, "active.surveys.answered");
+        meterRegistry.gauge("active.surveys.indexed", this, indexRef -> indexRef.index.entries().size());
+    }
+
+    /**
+     * Questionari attivi in formato TeacherSurveyDTO, come array JSON già pronto.
+     */
+    public byte[] activeSurveysJson() {
+        return index.activeJson();
+    }
+
+    public boolean contains(String surveyId) {
+        return index.positions().containsKey(surveyId);
+    }
+
+    /**
+     * Questionari attivi non ancora compilati dallo studente, come array JSON già pronto.
+     *
+     * @param courseId Corso su cui restringere la ricerca, o null per tutti i corsi
+     */
+    public byte[] availableSurveysJson(String studentId, String courseId) {
+        Index current = index;
+        List<Entry> candidates = courseId != null
+                ? current.byCourse().getOrDefault(courseId, List.of())
+                : current.entries();
+        if (candidates.isEmpty()) {
+            return EMPTY_ARRAY;
+        }
+
+        BitSet answered = answeredSurveys(studentId, current);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 * candidates.size());
+        out.write('[');
+        boolean first = true;
+        for (Entry entry : candidates) {
+            if (answered.get(entry.position())) {
+                continue;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            out.writeBytes(entry.json());
+            first = false;
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    /**
+     * Segna il questionario come compilato dallo studente, a transazione confermata.
+     */
+    public void markAnswered(String studentId, String surveyId) {
+        if (studentId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyAnswered(studentId, surveyId);
+                }
+            });
+        } else {
+            applyAnswered(studentId, surveyId);
+        }
+    }
+
+    /**
+     * Ricostruisce l'indice dopo il commit della transazione corrente (o subito, se non c'è transazione).
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Ricarica i questionari attivi e sostituisce l'indice con uno nuovo.
+     * Invocato all'avvio, sulle transizioni di stato (anche di altre istanze) e periodicamente come rete di sicurezza.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${active-surveys.refresh-interval-ms:60000}",
+            fixedDelayString = "${active-surveys.refresh-interval-ms:60000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            List<TeacherSurvey> surveys = new ArrayList<>(
+                    ReadWriteRoutingContext.onPrimary(() -> surveyRepository.findByStatus(SurveyStatus.ACTIVE)));
+            surveys.sort(Comparator.comparing(TeacherSurvey::getCreationDate,
+                    Comparator.nullsLast(Comparator.reverseOrder())));
+
+            List<Entry> entries = new ArrayList<>(surveys.size());
+            Map<String, List<Entry>> byCourse = new HashMap<>();
+            Map<String, Integer> positions = new HashMap<>();
+            ByteArrayOutputStream activeJson = new ByteArrayOutputStream();
+            activeJson.write('[');
+
+            for (TeacherSurvey survey : surveys) {
+                SurveySnapshot snapshot = SurveySnapshot.from(survey);
+                Entry entry = new Entry(entries.size(), snapshot, writer.writeValueAsBytes(survey));
+                entries.add(entry);
+                byCourse.computeIfAbsent(snapshot.courseId(), k -> new ArrayList<>()).add(entry);
+                positions.put(snapshot.id(), entry.position());
+
+                if (entry.position() > 0) {
+                    activeJson.write(',');
+                }
+                activeJson.writeBytes(writer.writeValueAsBytes(snapshot.toDTO()));
+            }
+            activeJson.write(']');
+
+            byCourse.replaceAll((courseId, list) -> List.copyOf(list));
+            index = new Index(index.version() + 1, List.copyOf(entries), Map.copyOf(byCourse),
+                    Map.copyOf(positions), activeJson.toByteArray());
+            logger.debug("Indice questionari attivi ricostruito: {} questionari", entries.size());
+        } catch (JsonProcessingException e) {
+            logger.error("Errore durante la serializzazione dei questionari attivi: {}", e.getMessage(), e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private BitSet answeredSurveys(String studentId, Index current) {
+        AnsweredSurveys cached = answeredByStudent.getIfPresent(studentId);
+        if (cached != null && cached.version() == current.version()) {
+            return cached.bits();
+        }
+
+        BitSet bits = new BitSet(current.entries().size());
+        List<String> answered = ReadWriteRoutingContext.onPrimary(
+                () -> responseRepository.findAnsweredSurveyIdsByStudentId(studentId, SurveyStatus.ACTIVE));
+        for (String surveyId : answered) {
+            Integer position = current.positions().get(surveyId);
+            if (position != null) {
+                bits.set(position);
+            }
+        }
+        answeredByStudent.put(studentId, new AnsweredSurveys(current.version(), bits));
+        return bits;
+    }
+
+    private void applyAnswered(String studentId, String surveyId) {
+        Index current = index;
+        Integer position = current.positions().get(surveyId);
+        AnsweredSurveys cached = answeredByStudent.getIfPresent(studentId);
+        if (position == null || cached == null || cached.version() != current.version()) {
+            // Alla prossima lettura la bitmap viene ricalcolata dal database
+            answeredByStudent.invalidate(studentId);
+            return;
+        }
+        // Le bitmap pubblicate non vengono modificate: si sostituisce con una copia aggiornata
+        BitSet bits = (BitSet) cached.bits().clone();
+        bits.set(position);
+        answeredByStudent.put(studentId, new AnsweredSurveys(current.version(), bits));
+    }
+
+    private record Entry(int position, SurveySnapshot snapshot, byte[] json) {
+    }
+
+    private record Index(long version, List<Entry> entries, Map<String, List<Entry>> byCourse,
+                         Map<String, Integer> positions, byte[] activeJson) {
+
+        static final Index EMPTY = new Index(0, List.of(), Map.of(), Map.of(), EMPTY_ARRAY);
+    }
+
+    private record AnsweredSurveys(long version, BitSet bits) {
+    }
+}
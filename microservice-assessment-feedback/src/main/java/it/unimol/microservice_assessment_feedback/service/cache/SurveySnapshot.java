@@ -0,0 +1,67 @@
+package it.unimol.microservice_assessment_feedback.service.cache;
+
+import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
+import it.unimol.microservice_assessment_feedback.enums.SurveyStatus;
+import it.unimol.microservice_assessment_feedback.model.TeacherSurvey;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copia immutabile di un questionario (metadati e domande già deserializzate), condivisa tra le richieste.
+ * Le domande non vanno modificate: {@link #toDTO()} restituisce una lista nuova per i chiamanti.
+ */
+public record SurveySnapshot(
+        String id,
+        String courseId,
+        String teacherId,
+        String academicYear,
+        Integer semester,
+        SurveyStatus status,
+        LocalDateTime creationDate,
+        LocalDateTime closingDate,
+        String title,
+        String description,
+        List<TeacherSurveyDTO.SurveyQuestionDTO> questions
+) {
+
+    public SurveySnapshot {
+        questions = questions != null ? List.copyOf(questions) : List.of();
+    }
+
+    public static SurveySnapshot from(TeacherSurvey survey) {
+        return new SurveySnapshot(
+                survey.getId(),
+                survey.getCourseId(),
+                survey.getTeacherId(),
+                survey.getAcademicYear(),
+                survey.getSemester(),
+                survey.getStatus(),
+                survey.getCreationDate(),
+                survey.getClosingDate(),
+                survey.getTitle(),
+                survey.getDescription(),
+                survey.getQuestions());
+    }
+
+    public boolean isActive() {
+        return status == SurveyStatus.ACTIVE;
+    }
+
+    public TeacherSurveyDTO toDTO() {
+        return TeacherSurveyDTO.builder()
+                .id(id)
+                .courseId(courseId)
+                .teacherId(teacherId)
+                .academicYear(academicYear)
+                .semester(semester)
+                .status(status)
+                .creationDate(creationDate)
+                .closingDate(closingDate)
+                .title(title)
+                .description(description)
+                .questions(questions.isEmpty() ? null : new ArrayList<>(questions))
+                .build();
+    }
+}
@@ -0,0 +1,153 @@
+package it.unimol.microservice_assessment_feedback.service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import it.unimol.microservice_assessment_feedback.common.exception.ResourceNotFoundException;
+import it.unimol.microservice_assessment_feedback.config.datasource.ReadWriteRoutingContext;
+import it.unimol.microservice_assessment_feedback.messaging.events.EventCodec;
+import it.unimol.microservice_assessment_feedback.messaging.events.outbound.SurveyCacheInvalidatedEvent;
+import it.unimol.microservice_assessment_feedback.repository.TeacherSurveyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static it.unimol.microservice_assessment_feedback.config.rabbitmq.constants.PublisherRoutingKeys.SURVEY_CACHE_INVALIDATED;
+
+/**
+ * Cache in lettura dei questionari: evita di ricaricare l'entità e di deserializzare le domande a ogni richiesta.
+ * Le voci scadono dopo survey-cache.ttl-seconds; le modifiche locali invalidano subito la voce e,
+ * dopo il commit, inviano un messaggio survey.cache.invalidated ricevuto da tutte le istanze.
+ * Le metriche (hit ratio, dimensione, evizioni) sono esportate come cache.* con tag cache=teacher.surveys.
+ */
+@Component
+public class TeacherSurveyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeacherSurveyCache.class);
+
+    private final TeacherSurveyRepository surveyRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final EventCodec eventCodec;
+    private final AsyncCache<String, SurveySnapshot> snapshots;
+
+    @Value("${rabbitmq.exchange.assessments}")
+    private String assessmentsExchange;
+
+    @Value("${spring.application.name:microservice-assessment-feedback}")
+    private String serviceName;
+
+    public TeacherSurveyCache(TeacherSurveyRepository surveyRepository,
+                              RabbitTemplate rabbitTemplate,
+                              EventCodec eventCodec,
+                              MeterRegistry meterRegistry,
+                              @Value("${survey-cache.max-size:10000}") long maxSize,
+                              @Value("${survey-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.surveyRepository = surveyRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.eventCodec = eventCodec;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots.synchronous(), "teacher.surveys");
+    }
+
+    /**
+     * Restituisce il questionario dalla cache, caricandolo dal database se assente.
+     * Il caricamento legge sempre dal primario; i questionari inesistenti non vengono memorizzati.
+     * La query viene eseguita dal thread chiamante fuori dal lock interno della cache, così con i thread
+     * virtuali non blocca il carrier thread; le richieste concorrenti per lo stesso id attendono lo stesso caricamento.
+     */
+    public Optional<SurveySnapshot> find(String surveyId) {
+        CompletableFuture<SurveySnapshot> loading = new CompletableFuture<>();
+        CompletableFuture<SurveySnapshot> snapshot = snapshots.get(surveyId, (id, executor) -> loading);
+        if (snapshot == loading) {
+            try {
+                loading.complete(ReadWriteRoutingContext.onPrimary(() -> surveyRepository.findById(surveyId)
+                        .map(SurveySnapshot::from)
+                        .orElse(null)));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return Optional.ofNullable(snapshot.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public SurveySnapshot get(String surveyId) {
+        return find(surveyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Questionario non trovato con id: " + surveyId));
+    }
+
+    /**
+     * Invalida la voce del questionario su questa istanza e, a transazione confermata, su tutte le altre.
+     * L'invalidazione locale è ripetuta dopo il commit, per scartare un'eventuale copia
+     * ricaricata da un'altra richiesta prima che la modifica fosse visibile.
+     */
+    public void invalidate(String surveyId) {
+        snapshots.synchronous().invalidate(surveyId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshots.synchronous().invalidate(surveyId);
+                    broadcastInvalidation(surveyId);
+                }
+            });
+        } else {
+            broadcastInvalidation(surveyId);
+        }
+    }
+
+    /**
+     * Invalidazione ricevuta da un'altra istanza (o da questa stessa, senza effetti collaterali).
+     */
+    public void evict(String surveyId) {
+        snapshots.synchronous().invalidate(surveyId);
+    }
+
+    /**
+     * Il messaggio è best-effort: se il broker non è raggiungibile le altre istanze
+     * vedranno la modifica alla scadenza della voce.
+     */
+    private void broadcastInvalidation(String surveyId) {
+        SurveyCacheInvalidatedEvent event = new SurveyCacheInvalidatedEvent(
+                "SURVEY_CACHE_INVALIDATED",
+                SurveyCacheInvalidatedEvent.VERSION,
+                serviceName,
+                System.currentTimeMillis(),
+                surveyId);
+        try {
+            MessageProperties properties = new MessageProperties();
+            properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+            properties.setContentEncoding(StandardCharsets.UTF_8.name());
+            byte[] body = eventCodec.writeAsString(event).getBytes(StandardCharsets.UTF_8);
+            rabbitTemplate.send(assessmentsExchange, SURVEY_CACHE_INVALIDATED, new Message(body, properties));
+        } catch (Exception e) {
+            logger.warn("Invio invalidazione cache non riuscito per questionario {}: {}", surveyId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+-- Aggregati per domanda dei risultati dei questionari, aggiornati a ogni risposta.
+-- Sui database esistenti la tabella nasce vuota: le righe mancanti vengono create alla prima scrittura partendo
+-- dalle risposte già presenti, e fino ad allora le letture le calcolano al volo (SurveyResultAggregateService).
+
+CREATE TABLE IF NOT EXISTS survey_question_aggregates (
+    id                    VARCHAR(255) NOT NULL,
+    survey_id             VARCHAR(255) NOT NULL,
+    question_id           VARCHAR(255) NOT NULL,
+    response_count        BIGINT       NOT NULL,
+    rating_count          BIGINT       NOT NULL,
+    rating_sum            BIGINT       NOT NULL,
+    rating_sum_of_squares BIGINT       NOT NULL,
+    rating_1_count        BIGINT       NOT NULL,
+    rating_2_count        BIGINT       NOT NULL,
+    rating_3_count        BIGINT       NOT NULL,
+    rating_4_count        BIGINT       NOT NULL,
+    rating_5_count        BIGINT       NOT NULL,
+    created_at            TIMESTAMP(6),
+    updated_at            TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_survey_question_aggregate UNIQUE (survey_id, question_id)
+);
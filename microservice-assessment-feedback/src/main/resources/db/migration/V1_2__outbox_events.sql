@@ -0,0 +1,21 @@
+-- Transactional outbox: gli eventi di dominio vengono scritti nella stessa transazione della modifica
+-- e pubblicati su RabbitMQ dal relay.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id              VARCHAR(255)  NOT NULL,
+    exchange        VARCHAR(255)  NOT NULL,
+    routing_key     VARCHAR(255)  NOT NULL,
+    event_type      VARCHAR(255),
+    entity_type     VARCHAR(255),
+    entity_id       VARCHAR(255),
+    type_id         VARCHAR(255),
+    payload         TEXT          NOT NULL,
+    attempts        INTEGER       NOT NULL,
+    last_error      VARCHAR(1000),
+    next_attempt_at TIMESTAMP(6)  NOT NULL,
+    published_at    TIMESTAMP(6),
+    created_at      TIMESTAMP(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events (published_at, next_attempt_at, created_at);
@@ -0,0 +1,10 @@
+-- Registro dei messaggi già elaborati dai consumer, per l'idempotenza delle riconsegne.
+
+CREATE TABLE IF NOT EXISTS processed_messages (
+    id           VARCHAR(64)  NOT NULL,
+    message_type VARCHAR(255) NOT NULL,
+    processed_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_processed_messages_processed_at ON processed_messages (processed_at);
@@ -0,0 +1,27 @@
+-- Aggregati dei voti per studente, corso, docente, compito ed esame, aggiornati a ogni valutazione.
+-- Sui database esistenti la tabella nasce vuota: le righe mancanti vengono create alla prima scrittura partendo
+-- dalle valutazioni già presenti, e fino ad allora le letture le calcolano al volo (AssessmentScoreAggregateService).
+
+CREATE TABLE IF NOT EXISTS assessment_score_aggregates (
+    id                   VARCHAR(255) NOT NULL,
+    scope                VARCHAR(20)  NOT NULL CHECK (scope IN ('STUDENT', 'COURSE', 'TEACHER', 'ASSIGNMENT', 'EXAM')),
+    scope_id             VARCHAR(255) NOT NULL,
+    assessment_count     BIGINT       NOT NULL,
+    score_sum            FLOAT(53)    NOT NULL,
+    score_sum_of_squares FLOAT(53)    NOT NULL,
+    min_score            FLOAT(53),
+    max_score            FLOAT(53),
+    bucket_fail_count    BIGINT       NOT NULL,
+    bucket_18_20_count   BIGINT       NOT NULL,
+    bucket_21_23_count   BIGINT       NOT NULL,
+    bucket_24_26_count   BIGINT       NOT NULL,
+    bucket_27_29_count   BIGINT       NOT NULL,
+    bucket_30_count      BIGINT       NOT NULL,
+    created_at           TIMESTAMP(6),
+    updated_at           TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_assessment_score_aggregate UNIQUE (scope, scope_id)
+);
+
+-- Usato dal ricalcolo degli aggregati per docente
+CREATE INDEX IF NOT EXISTS idx_assessments_teacher ON assessments (teacher_id);
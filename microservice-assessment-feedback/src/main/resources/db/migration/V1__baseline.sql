@@ -0,0 +1,62 @@
+-- Schema di partenza, equivalente a quello generato finora da Hibernate (ddl-auto=update) per le quattro entità originali.
+-- I database esistenti vengono registrati a questa versione (baseline-on-migrate) e ricevono solo le migrazioni successive:
+-- tutto ciò che non esisteva prima delle migrazioni va quindi aggiunto in una versione successiva, mai qui.
+
+CREATE TABLE IF NOT EXISTS assessments (
+    id              VARCHAR(255)  NOT NULL,
+    reference_id    VARCHAR(255)  NOT NULL,
+    reference_type  VARCHAR(255)  NOT NULL CHECK (reference_type IN ('ASSIGNMENT', 'EXAM')),
+    student_id      VARCHAR(255)  NOT NULL,
+    teacher_id      VARCHAR(255)  NOT NULL,
+    course_id       VARCHAR(255),
+    score           FLOAT(53)     NOT NULL,
+    assessment_date TIMESTAMP(6)  NOT NULL,
+    notes           VARCHAR(1000),
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS detailed_feedback (
+    id                VARCHAR(255)  NOT NULL,
+    assessment_id     VARCHAR(255)  NOT NULL,
+    feedback_text     VARCHAR(2000) NOT NULL,
+    category          VARCHAR(255)  NOT NULL CHECK (category IN ('CONTENT', 'PRESENTATION', 'CORRECTNESS', 'OTHER')),
+    strengths         VARCHAR(1000),
+    improvement_areas VARCHAR(1000),
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_detailed_feedback_assessment FOREIGN KEY (assessment_id) REFERENCES assessments
+);
+
+CREATE TABLE IF NOT EXISTS teacher_surveys (
+    id            VARCHAR(255) NOT NULL,
+    course_id     VARCHAR(255) NOT NULL,
+    teacher_id    VARCHAR(255) NOT NULL,
+    academic_year VARCHAR(255) NOT NULL,
+    semester      INTEGER      NOT NULL,
+    status        VARCHAR(255) NOT NULL CHECK (status IN ('DRAFT', 'ACTIVE', 'CLOSED')),
+    creation_date TIMESTAMP(6) NOT NULL,
+    closing_date  TIMESTAMP(6),
+    title         VARCHAR(255) NOT NULL,
+    description   TEXT,
+    questions     TEXT,
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS survey_responses (
+    id              VARCHAR(255)  NOT NULL,
+    survey_id       VARCHAR(255)  NOT NULL,
+    student_id      VARCHAR(255),
+    question_id     VARCHAR(255)  NOT NULL,
+    numeric_rating  INTEGER,
+    text_comment    VARCHAR(1000),
+    submission_date TIMESTAMP(6)  NOT NULL,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_survey_responses_survey FOREIGN KEY (survey_id) REFERENCES teacher_surveys
+);
@@ -0,0 +1,34 @@
+-- Indici per le ricerche più frequenti su valutazioni, risposte e questionari.
+-- Gli indici delle valutazioni terminano con (assessment_date, id), l'ordinamento della paginazione a cursore.
+-- CREATE INDEX blocca le scritture sulla tabella durante la costruzione: la migrazione va eseguita al rilascio.
+
+CREATE INDEX IF NOT EXISTS idx_assessments_date_id ON assessments (assessment_date, id);
+CREATE INDEX IF NOT EXISTS idx_assessments_student_date ON assessments (student_id, assessment_date, id);
+CREATE INDEX IF NOT EXISTS idx_assessments_course_date ON assessments (course_id, assessment_date, id);
+CREATE INDEX IF NOT EXISTS idx_assessments_reference_date ON assessments (reference_id, reference_type, assessment_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_teacher_surveys_status ON teacher_surveys (status);
+CREATE INDEX IF NOT EXISTS idx_teacher_surveys_teacher_course_period
+    ON teacher_surveys (teacher_id, course_id, academic_year, semester);
+
+CREATE INDEX IF NOT EXISTS idx_survey_responses_student ON survey_responses (student_id);
+
+-- Una sola risposta per domanda e studente: si conserva la prima inviata prima di creare il vincolo.
+-- Il vincolo serve anche findBySurveyId ed existsBySurveyIdAndStudentId come prefisso.
+-- Dopo aver rimosso duplicati vanno ricalcolati gli aggregati (POST /api/v1/surveys/results/rebuild).
+DELETE FROM survey_responses r
+    USING survey_responses d
+    WHERE r.survey_id = d.survey_id
+      AND r.student_id = d.student_id
+      AND r.question_id = d.question_id
+      AND (r.submission_date, r.id) > (d.submission_date, d.id);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = CAST('survey_responses' AS regclass)
+                     AND conname = 'uk_survey_responses_survey_student_question') THEN
+        ALTER TABLE survey_responses
+            ADD CONSTRAINT uk_survey_responses_survey_student_question UNIQUE (survey_id, student_id, question_id);
+    END IF;
+END $$;
@@ -0,0 +1,6 @@
+-- Eventi outbox che hanno esaurito i tentativi: restano in tabella ma il relay non li riprende più.
+
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS failed_at TIMESTAMP(6);
+
+DROP INDEX IF EXISTS idx_outbox_events_pending;
+CREATE INDEX idx_outbox_events_pending ON outbox_events (published_at, failed_at, next_attempt_at, created_at);
@@ -0,0 +1,14 @@
+-- Domande dei questionari come jsonb: i database creati prima della mappatura JSON hanno ancora la colonna TEXT.
+-- La conversione riscrive la tabella teacher_surveys (ACCESS EXCLUSIVE), che resta comunque di dimensioni contenute.
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema()
+                 AND table_name = 'teacher_surveys'
+                 AND column_name = 'questions'
+                 AND data_type <> 'jsonb') THEN
+        ALTER TABLE teacher_surveys
+            ALTER COLUMN questions TYPE jsonb USING CAST(NULLIF(questions, '') AS jsonb);
+    END IF;
+END $$;
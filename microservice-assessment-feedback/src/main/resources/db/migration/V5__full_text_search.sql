@@ -0,0 +1,17 @@
+-- Ricerca testuale: colonne search_vector (tsvector generato e memorizzato) con indice GIN.
+-- La configurazione 'italian' viene memorizzata nelle colonne ed è la stessa di FullTextSearch.TEXT_CONFIG usata
+-- dalle query: cambiarla richiede una nuova migrazione che ricrei colonne e indici, insieme alla costante.
+-- ADD COLUMN ... STORED riscrive la tabella sotto lock ACCESS EXCLUSIVE: la migrazione va eseguita al rilascio.
+-- Tutto avviene in un'unica transazione, quindi un errore non lascia colonne o indici a metà.
+
+ALTER TABLE detailed_feedback ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('italian', coalesce(feedback_text, '')), 'A') ||
+    setweight(to_tsvector('italian', coalesce(strengths, '')), 'B') ||
+    setweight(to_tsvector('italian', coalesce(improvement_areas, '')), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_detailed_feedback_search ON detailed_feedback USING GIN (search_vector);
+
+ALTER TABLE survey_responses ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    to_tsvector('italian', coalesce(text_comment, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_survey_responses_search ON survey_responses USING GIN (search_vector);
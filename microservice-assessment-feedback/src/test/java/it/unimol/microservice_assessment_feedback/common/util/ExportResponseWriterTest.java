@@ -0,0 +1,141 @@
+package it.unimol.microservice_assessment_feedback.common.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unimol.microservice_assessment_feedback.common.exception.ExportLimitExceededException;
+import it.unimol.microservice_assessment_feedback.common.exception.ResourceNotFoundException;
+import it.unimol.microservice_assessment_feedback.enums.ExportFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExportResponseWriterTest {
+
+    private static final List<ExportColumn<String[]>> COLUMNS = List.of(
+            new ExportColumn<>("studente", row -> row[0]),
+            new ExportColumn<>("commento", row -> row[1]));
+
+    private final ExportResponseWriter writer = new ExportResponseWriter(new ObjectMapper(), 1);
+
+    @Test
+    void csvValuesAreQuotedAsInRfc4180() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        long lines = writer.write(response, "voti", ExportFormat.CSV, false, COLUMNS, sink -> {
+            sink.accept(new String[]{"s1", "semplice"});
+            sink.accept(new String[]{"s2", "con, virgola"});
+            sink.accept(new String[]{"s3", "con \"virgolette\""});
+            sink.accept(new String[]{"s4", "su\ndue righe"});
+            sink.accept(new String[]{"s5", null});
+        });
+
+        assertEquals(5, lines);
+        assertEquals("text/csv", response.getContentType().split(";")[0]);
+        assertEquals("attachment; filename=\"voti.csv\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("studente,commento\r\n" +
+                "s1,semplice\r\n" +
+                "s2,\"con, virgola\"\r\n" +
+                "s3,\"con \"\"virgolette\"\"\"\r\n" +
+                "s4,\"su\ndue righe\"\r\n" +
+                "s5,\r\n", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csvTextThatLooksLikeAFormulaIsEscaped() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(response, "voti", ExportFormat.CSV, false, COLUMNS, sink -> {
+            sink.accept(new String[]{"s1", "=SUM(A1:A2)"});
+            sink.accept(new String[]{"s2", "+39"});
+            sink.accept(new String[]{"s3", "-1"});
+            sink.accept(new String[]{"s4", "@cmd"});
+            sink.accept(new String[]{"s5", "\t=1+1"});
+            sink.accept(new String[]{"s6", "\r=1+1"});
+        });
+
+        assertEquals("studente,commento\r\n" +
+                "s1,'=SUM(A1:A2)\r\n" +
+                "s2,'+39\r\n" +
+                "s3,'-1\r\n" +
+                "s4,'@cmd\r\n" +
+                "s5,'\t=1+1\r\n" +
+                "s6,\"'\r=1+1\"\r\n", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void numbersAreNotTreatedAsFormulas() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<ExportColumn<Double>> columns = List.of(new ExportColumn<>("voto", score -> score));
+
+        writer.write(response, "voti", ExportFormat.CSV, false, columns, sink -> sink.accept(-1.5));
+
+        assertEquals("voto\r\n-1.5\r\n", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void gzipOutputIsACompleteArchive() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        long lines = writer.write(response, "voti", ExportFormat.NDJSON, true, List.of(),
+                (Consumer<Map<String, Integer>> sink) -> {
+                    for (int i = 0; i < 1200; i++) {
+                        sink.accept(Map.of("score", i));
+                    }
+                });
+
+        assertEquals(1200, lines);
+        assertEquals("application/gzip", response.getContentType());
+        assertEquals("attachment; filename=\"voti.ndjson.gz\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        // readAllBytes fallisce con EOFException se manca il trailer scritto da finish()
+        String content;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] documents = content.split("\n");
+        assertEquals(1200, documents.length);
+        assertEquals("{\"score\":0}", documents[0]);
+        assertEquals("{\"score\":1199}", documents[1199]);
+    }
+
+    @Test
+    void failureBeforeCommitResetsTheResponse() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(ResourceNotFoundException.class, () ->
+                writer.write(response, "voti", ExportFormat.CSV, false, COLUMNS, sink -> {
+                    sink.accept(new String[]{"s1", "parziale"});
+                    throw new ResourceNotFoundException("Corso non trovato");
+                }));
+
+        assertNull(response.getContentType());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("", response.getContentAsString());
+    }
+
+    @Test
+    void exportsBeyondTheConcurrencyLimitAreRejected() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Con export.max-concurrent=1 un secondo export durante il primo non trova permessi
+        writer.write(response, "voti", ExportFormat.CSV, false, COLUMNS, sink ->
+                assertThrows(ExportLimitExceededException.class, () -> writer.write(new MockHttpServletResponse(),
+                        "altro", ExportFormat.CSV, false, COLUMNS, other -> { })));
+
+        // Il permesso viene restituito anche quando l'export fallisce
+        assertThrows(ResourceNotFoundException.class, () -> writer.write(new MockHttpServletResponse(),
+                "voti", ExportFormat.CSV, false, COLUMNS, sink -> {
+                    throw new ResourceNotFoundException("Corso non trovato");
+                }));
+        assertEquals(0, writer.write(new MockHttpServletResponse(), "voti", ExportFormat.CSV, false, COLUMNS, sink -> { }));
+    }
+}
@@ -0,0 +1,46 @@
+package it.unimol.microservice_assessment_feedback.common.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unimol.microservice_assessment_feedback.common.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NdjsonResponseWriterTest {
+
+    private final NdjsonResponseWriter writer = new NdjsonResponseWriter(new ObjectMapper());
+
+    @Test
+    void writesOneDocumentPerLine() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        long lines = writer.write(response, (Consumer<Map<String, Integer>> sink) -> {
+            sink.accept(Map.of("score", 28));
+            sink.accept(Map.of("score", 30));
+        });
+
+        assertEquals(2, lines);
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType().split(";")[0]);
+        assertEquals("{\"score\":28}\n{\"score\":30}\n", response.getContentAsString());
+    }
+
+    @Test
+    void failureBeforeCommitResetsTheResponse() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(ResourceNotFoundException.class, () -> writer.write(response, (Consumer<Map<String, Integer>> sink) -> {
+            sink.accept(Map.of("score", 28));
+            throw new ResourceNotFoundException("Corso non trovato");
+        }));
+
+        assertNull(response.getContentType());
+        assertEquals("", response.getContentAsString().trim());
+    }
+}
@@ -0,0 +1,121 @@
+package it.unimol.microservice_assessment_feedback.config.datasource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import it.unimol.microservice_assessment_feedback.config.TestRabbitConfig;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing lettura/scrittura con due PostgreSQL embedded, uno come primario e uno come replica.
+ * Lo schema viene creato su entrambi dalle migrazioni; ogni lettura riconosce l'istanza dalla porta del server.
+ * Il contesto viene chiuso al termine della classe, i due server all'uscita della JVM.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.enabled=true",
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Import(TestRabbitConfig.class)
+@DirtiesContext
+class ReadWriteRoutingPostgresTest {
+
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres replica;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @DynamicPropertySource
+    static void datasources(DynamicPropertyRegistry registry) throws IOException {
+        primary = EmbeddedPostgres.builder().start();
+        replica = EmbeddedPostgres.builder().start();
+        // La replica riceve lo schema come farebbe la replica fisica del primario
+        Flyway.configure()
+                .dataSource(replica.getPostgresDatabase())
+                .load()
+                .migrate();
+
+        registry.add("spring.datasource.url", () -> primary.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("app.datasource.replica.jdbc-url", () -> replica.getJdbcUrl("postgres", "postgres"));
+        registry.add("app.datasource.replica.username", () -> "postgres");
+        registry.add("app.datasource.replica.password", () -> "");
+    }
+
+    @BeforeEach
+    void transactions() {
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionReadsFromReplica() {
+        assertEquals(replica.getPort(), serverPortIn(readOnlyTransaction));
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        assertEquals(primary.getPort(), serverPortIn(readWriteTransaction));
+    }
+
+    @Test
+    void readsAfterAWriteInTheSameRequestStayOnPrimary() throws Exception {
+        List<Integer> ports = new ArrayList<>();
+        new ReadWriteRoutingFilter().doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (request, response) -> {
+                    ports.add(serverPortIn(readOnlyTransaction));
+                    ports.add(serverPortIn(readWriteTransaction));
+                    ports.add(serverPortIn(readOnlyTransaction));
+                });
+
+        assertEquals(List.of(replica.getPort(), primary.getPort(), primary.getPort()), ports);
+        // Fuori dalla richiesta le letture tornano sulla replica
+        assertEquals(replica.getPort(), serverPortIn(readOnlyTransaction));
+    }
+
+    @Test
+    void onPrimaryReadsFromPrimaryInsideAReadOnlyTransaction() {
+        int port = readOnlyTransaction.execute(status -> ReadWriteRoutingContext.onPrimary(this::serverPort));
+
+        assertEquals(primary.getPort(), port);
+        assertEquals(replica.getPort(), serverPortIn(readOnlyTransaction));
+    }
+
+    private int serverPortIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> serverPort());
+    }
+
+    private Integer serverPort() {
+        return jdbcTemplate.queryForObject("SELECT inet_server_port()", Integer.class);
+    }
+}
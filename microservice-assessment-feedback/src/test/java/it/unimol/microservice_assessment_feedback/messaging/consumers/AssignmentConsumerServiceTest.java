@@ -0,0 +1,99 @@
+package it.unimol.microservice_assessment_feedback.messaging.consumers;
+
+import it.unimol.microservice_assessment_feedback.config.TestRabbitConfig;
+import it.unimol.microservice_assessment_feedback.dto.AssessmentDTO;
+import it.unimol.microservice_assessment_feedback.enums.ReferenceType;
+import it.unimol.microservice_assessment_feedback.messaging.events.EventCodec;
+import it.unimol.microservice_assessment_feedback.messaging.events.inbound.AssignmentSubmittedEvent;
+import it.unimol.microservice_assessment_feedback.messaging.idempotency.ProcessedMessageStore;
+import it.unimol.microservice_assessment_feedback.model.ProcessedMessage;
+import it.unimol.microservice_assessment_feedback.repository.AssessmentRepository;
+import it.unimol.microservice_assessment_feedback.repository.ProcessedMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestRabbitConfig.class)
+class AssignmentConsumerServiceTest {
+
+    @Autowired
+    private AssignmentConsumerService assignmentConsumerService;
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private ProcessedMessageRepository processedMessageRepository;
+
+    @Autowired
+    private EventCodec eventCodec;
+
+    @BeforeEach
+    void clearSecurityContext() {
+        // I thread dei listener non hanno un utente autenticato
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void submissionWithContentIsStoredWithoutSecurityContext() {
+        String assignmentId = "assignment-" + UUID.randomUUID();
+        assignmentConsumerService.handleAssignmentSubmitted(toMessage(submission(assignmentId)));
+
+        List<AssessmentDTO> assessments =
+                assessmentRepository.findProjectedByReferenceIdAndReferenceType(assignmentId, ReferenceType.ASSIGNMENT);
+        assertEquals(1, assessments.size());
+        assertTrue(assessments.get(0).getNotes().contains("Content: Testo della consegna"));
+    }
+
+    @Test
+    void duplicateKnownOnlyToTheDatabaseIsSkipped() {
+        String assignmentId = "assignment-" + UUID.randomUUID();
+        AssignmentSubmittedEvent event = submission(assignmentId);
+        // Registrato da un'altra istanza: non è nella cache in memoria di questa
+        processedMessageRepository.save(new ProcessedMessage(
+                ProcessedMessageStore.key("ASSIGNMENT_SUBMITTED", "entity:" + event.entityKey()), "ASSIGNMENT_SUBMITTED"));
+
+        assignmentConsumerService.handleAssignmentSubmitted(toMessage(event));
+        assignmentConsumerService.handleAssignmentSubmitted(toMessage(event));
+
+        assertTrue(assessmentRepository.findProjectedByReferenceIdAndReferenceType(assignmentId, ReferenceType.ASSIGNMENT)
+                .isEmpty());
+    }
+
+    @Test
+    void redeliveredSubmissionCreatesOneAssessment() {
+        String assignmentId = "assignment-" + UUID.randomUUID();
+        AssignmentSubmittedEvent event = submission(assignmentId);
+
+        assignmentConsumerService.handleAssignmentSubmitted(toMessage(event));
+        assignmentConsumerService.handleAssignmentSubmitted(toMessage(event));
+
+        assertEquals(1, assessmentRepository.findProjectedByReferenceIdAndReferenceType(assignmentId, ReferenceType.ASSIGNMENT)
+                .size());
+    }
+
+    private AssignmentSubmittedEvent submission(String assignmentId) {
+        return new AssignmentSubmittedEvent("ASSIGNMENT_SUBMITTED", 2, "assignment-service",
+                System.currentTimeMillis(), assignmentId, "student-1", "course-1", "teacher-1",
+                System.currentTimeMillis(), "Testo della consegna", "consegna.pdf", "http://files/consegna.pdf");
+    }
+
+    private Message toMessage(AssignmentSubmittedEvent event) {
+        return new Message(eventCodec.writeAsString(event).getBytes(StandardCharsets.UTF_8), new MessageProperties());
+    }
+}
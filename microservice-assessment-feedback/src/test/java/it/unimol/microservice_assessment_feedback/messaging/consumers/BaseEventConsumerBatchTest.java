@@ -0,0 +1,231 @@
+package it.unimol.microservice_assessment_feedback.messaging.consumers;
+
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.unimol.microservice_assessment_feedback.messaging.events.DomainEvent;
+import it.unimol.microservice_assessment_feedback.messaging.events.EventCodec;
+import it.unimol.microservice_assessment_feedback.messaging.idempotency.ProcessedMessageStore;
+import it.unimol.microservice_assessment_feedback.repository.ProcessedMessageRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.JDBCConnectionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class BaseEventConsumerBatchTest {
+
+    private final EventCodec eventCodec = new EventCodec();
+    private EntityManager entityManager;
+    private ProcessedMessageStore processedMessageStore;
+    private Channel channel;
+    private TestConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        processedMessageStore = new ProcessedMessageStore(mock(ProcessedMessageRepository.class),
+                new SimpleMeterRegistry(), 1000, 24);
+        ReflectionTestUtils.setField(processedMessageStore, "entityManager", entityManager);
+        channel = mock(Channel.class);
+
+        consumer = new TestConsumer();
+        ReflectionTestUtils.setField(consumer, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(consumer, "eventCodec", eventCodec);
+        ReflectionTestUtils.setField(consumer, "processedMessageStore", processedMessageStore);
+        ReflectionTestUtils.setField(consumer, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void batchIsClaimedWithOneFlushAndAckedOnce() throws Exception {
+        consumer.process(List.of(message(1, "a"), message(2, "b"), message(3, "c")), channel);
+
+        verify(entityManager, times(3)).persist(any());
+        verify(entityManager, times(1)).flush();
+        assertEquals(List.of(List.of("a", "b", "c")), consumer.batches);
+        verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+        assertTrue(processedMessageStore.isProcessed(key("b")));
+    }
+
+    @Test
+    void unreadableMessageIsRejectedAndTheRestAcked() throws Exception {
+        Message garbage = new Message("{not json".getBytes(StandardCharsets.UTF_8), properties(2));
+
+        consumer.process(List.of(message(1, "a"), garbage, message(3, "c")), channel);
+
+        assertEquals(List.of(List.of("a", "c")), consumer.batches);
+        verify(channel).basicReject(2, false);
+        verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void duplicatesAreSkippedAndAcked() throws Exception {
+        processedMessageStore.remember(key("a"));
+
+        consumer.process(List.of(message(1, "a"), message(2, "b"), message(3, "b")), channel);
+
+        assertEquals(List.of(List.of("b")), consumer.batches);
+        verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void messageSpecificFailureFallsBackAndRejectsOnlyThatMessage() throws Exception {
+        consumer.poison.add("b");
+
+        consumer.process(List.of(message(1, "a"), message(2, "b"), message(3, "c")), channel);
+
+        assertEquals(List.of("a", "c"), consumer.singles);
+        verify(channel).basicReject(2, false);
+        verify(channel).basicAck(3, true);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+        verifyNoMoreInteractions(channel);
+        assertFalse(processedMessageStore.isProcessed(key("b")));
+    }
+
+    @Test
+    void infrastructureFailureRequeuesTheWholeBatch() throws Exception {
+        doThrow(new JDBCConnectionException("connection lost", new SQLException("connection lost", "08006")))
+                .when(entityManager).flush();
+
+        consumer.process(List.of(message(1, "a"), message(2, "b"), message(3, "c")), channel);
+
+        assertTrue(consumer.batches.isEmpty());
+        assertTrue(consumer.singles.isEmpty());
+        verify(channel).basicNack(1, false, true);
+        verify(channel).basicNack(2, false, true);
+        verify(channel).basicNack(3, false, true);
+        verifyNoMoreInteractions(channel);
+        assertFalse(processedMessageStore.isProcessed(key("a")));
+    }
+
+    @Test
+    void infrastructureFailureDuringFallbackRequeuesTheRemainingMessages() throws Exception {
+        consumer.poison.add("a");
+        consumer.unavailableFrom = "b";
+
+        consumer.process(List.of(message(1, "a"), message(2, "b"), message(3, "c")), channel);
+
+        verify(channel).basicReject(1, false);
+        verify(channel).basicNack(2, false, true);
+        verify(channel).basicNack(3, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void duplicateInsideTheBlockFallsBackToSingleClaims() throws Exception {
+        ConstraintViolationException duplicate = new ConstraintViolationException("duplicate key",
+                new SQLException("duplicate key", "23505"), "insert into processed_messages",
+                ConstraintViolationException.ConstraintKind.UNIQUE, "processed_messages_pkey");
+        // Il blocco fallisce sul duplicato, poi il singolo "a" risulta già registrato
+        doThrow(duplicate).doThrow(duplicate).doNothing().when(entityManager).flush();
+
+        consumer.process(List.of(message(1, "a"), message(2, "b")), channel);
+
+        assertEquals(List.of("b"), consumer.singles);
+        verify(channel).basicAck(2, true);
+        verifyNoMoreInteractions(channel);
+        assertTrue(processedMessageStore.isProcessed(key("a")));
+        assertTrue(processedMessageStore.isProcessed(key("b")));
+    }
+
+    @Test
+    void infrastructureFailuresAreRecognisedThroughTheCauseChain() {
+        assertTrue(BaseEventConsumer.isInfrastructureFailure(
+                new IllegalStateException("wrapped", new SQLException("deadlock detected", "40P01"))));
+        assertTrue(BaseEventConsumer.isInfrastructureFailure(new DataAccessResourceFailureException("down")));
+        assertFalse(BaseEventConsumer.isInfrastructureFailure(new IllegalArgumentException("bad payload")));
+        assertFalse(BaseEventConsumer.isInfrastructureFailure(
+                new IllegalStateException("wrapped", new SQLException("null value", "23502"))));
+    }
+
+    private Message message(long deliveryTag, String id) {
+        TestEvent event = new TestEvent("TEST_EVENT", 1, "test-service", System.currentTimeMillis(), id);
+        return new Message(eventCodec.writeAsString(event).getBytes(StandardCharsets.UTF_8), properties(deliveryTag));
+    }
+
+    private MessageProperties properties(long deliveryTag) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        properties.setMessageId("message-" + deliveryTag);
+        return properties;
+    }
+
+    private static String key(String id) {
+        return ProcessedMessageStore.key("TEST_EVENT", "entity:" + id);
+    }
+
+    record TestEvent(String eventType, Integer version, String serviceName, Long timestamp, String id)
+            implements DomainEvent {
+
+        @Override
+        public String entityKey() {
+            return id;
+        }
+    }
+
+    static class TestConsumer extends BaseEventConsumer {
+
+        final List<List<String>> batches = new ArrayList<>();
+        final List<String> singles = new ArrayList<>();
+        final Set<String> poison = new HashSet<>();
+        String unavailableFrom;
+        private boolean unavailable;
+
+        private final EventBinding<TestEvent> binding = bind("TEST_EVENT", TestEvent.class, this::handle);
+
+        void process(List<Message> messages, Channel channel) throws Exception {
+            processBatch(messages, channel, binding, this::handleBatch);
+        }
+
+        private void handle(TestEvent event) {
+            if (event.id().equals(unavailableFrom)) {
+                unavailable = true;
+            }
+            if (unavailable) {
+                throw new DataAccessResourceFailureException("database unavailable");
+            }
+            if (poison.contains(event.id())) {
+                throw new IllegalArgumentException("invalid event " + event.id());
+            }
+            singles.add(event.id());
+        }
+
+        private void handleBatch(List<TestEvent> events) {
+            if (events.stream().anyMatch(event -> poison.contains(event.id()))) {
+                throw new IllegalArgumentException("invalid event in batch");
+            }
+            batches.add(events.stream().map(TestEvent::id).collect(Collectors.toList()));
+        }
+    }
+}
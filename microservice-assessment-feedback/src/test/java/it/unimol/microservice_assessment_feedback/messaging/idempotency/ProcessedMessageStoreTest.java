@@ -0,0 +1,90 @@
+package it.unimol.microservice_assessment_feedback.messaging.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.unimol.microservice_assessment_feedback.common.exception.DuplicateMessageException;
+import it.unimol.microservice_assessment_feedback.repository.ProcessedMessageRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PessimisticLockException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.JDBCConnectionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ProcessedMessageStoreTest {
+
+    private static final String KEY = ProcessedMessageStore.key("EXAM_COMPLETED", "id:42");
+
+    private ProcessedMessageRepository repository;
+    private EntityManager entityManager;
+    private ProcessedMessageStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProcessedMessageRepository.class);
+        entityManager = mock(EntityManager.class);
+        store = new ProcessedMessageStore(repository, new SimpleMeterRegistry(), 1000, 24);
+        ReflectionTestUtils.setField(store, "entityManager", entityManager);
+    }
+
+    @Test
+    void isProcessedAnswersFromMemoryOnly() {
+        assertFalse(store.isProcessed(KEY));
+
+        store.remember(KEY);
+
+        assertTrue(store.isProcessed(KEY));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void primaryKeyViolationIsReportedAsDuplicate() {
+        doThrow(new ConstraintViolationException("duplicate key", new SQLException("duplicate key", "23505"),
+                "insert into processed_messages", ConstraintViolationException.ConstraintKind.UNIQUE,
+                "processed_messages_pkey"))
+                .when(entityManager).flush();
+
+        assertThrows(DuplicateMessageException.class, () -> store.claim(KEY, "EXAM_COMPLETED"));
+        assertTrue(store.isProcessed(KEY));
+    }
+
+    @Test
+    void otherConstraintViolationsArePropagated() {
+        ConstraintViolationException notNull = new ConstraintViolationException("null value",
+                new SQLException("null value", "23502"), "insert into processed_messages",
+                ConstraintViolationException.ConstraintKind.OTHER, "message_type");
+        doThrow(notNull).when(entityManager).flush();
+
+        assertSame(notNull, assertThrows(ConstraintViolationException.class, () -> store.claim(KEY, null)));
+        assertFalse(store.isProcessed(KEY));
+    }
+
+    @Test
+    void lockTimeoutIsPropagated() {
+        PessimisticLockException lockTimeout = new PessimisticLockException("lock timeout");
+        doThrow(lockTimeout).when(entityManager).flush();
+
+        assertSame(lockTimeout, assertThrows(PessimisticLockException.class, () -> store.claim(KEY, "EXAM_COMPLETED")));
+        assertFalse(store.isProcessed(KEY));
+    }
+
+    @Test
+    void connectionLossIsPropagated() {
+        JDBCConnectionException connectionLost = new JDBCConnectionException("connection lost",
+                new SQLException("connection lost", "08006"));
+        doThrow(connectionLost).when(entityManager).flush();
+
+        assertThrows(JDBCConnectionException.class, () -> store.claim(KEY, "EXAM_COMPLETED"));
+        assertFalse(store.isProcessed(KEY));
+    }
+}
@@ -0,0 +1,115 @@
+package it.unimol.microservice_assessment_feedback.model;
+
+import it.unimol.microservice_assessment_feedback.enums.ScoreAggregateScope;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssessmentScoreAggregateTest {
+
+    @Test
+    void recordsCountSumSquaresRangeAndHistogram() {
+        AssessmentScoreAggregate aggregate = new AssessmentScoreAggregate(ScoreAggregateScope.COURSE, "course-1");
+        for (double score : new double[]{30, 18, 24, 27, 12}) {
+            aggregate.recordScore(score);
+        }
+
+        assertEquals(5, aggregate.getAssessmentCount());
+        assertEquals(111, aggregate.getScoreSum(), 1e-9);
+        assertEquals(900 + 324 + 576 + 729 + 144, aggregate.getScoreSumOfSquares(), 1e-9);
+        assertEquals(12, aggregate.getMinScore());
+        assertEquals(30, aggregate.getMaxScore());
+        assertArrayEquals(new long[]{1, 1, 0, 1, 1, 1}, aggregate.getBucketCounts());
+        assertEquals(22.2, aggregate.getAverageScore(), 1e-9);
+        assertEquals(Math.sqrt(52.2), aggregate.getStandardDeviation(), 1e-9);
+    }
+
+    @Test
+    void bucketBoundsFollowTheGradeBands() {
+        assertEquals(0, AssessmentScoreAggregate.bucketOf(17.99));
+        assertEquals(1, AssessmentScoreAggregate.bucketOf(18));
+        assertEquals(1, AssessmentScoreAggregate.bucketOf(20.5));
+        assertEquals(2, AssessmentScoreAggregate.bucketOf(21));
+        assertEquals(3, AssessmentScoreAggregate.bucketOf(26.9));
+        assertEquals(4, AssessmentScoreAggregate.bucketOf(29.99));
+        assertEquals(5, AssessmentScoreAggregate.bucketOf(30));
+    }
+
+    @Test
+    void removingAnInnerScoreKeepsTheRange() {
+        AssessmentScoreAggregate aggregate = aggregateOf(18, 24, 30);
+
+        assertFalse(aggregate.removeScore(24));
+
+        assertEquals(2, aggregate.getAssessmentCount());
+        assertEquals(48, aggregate.getScoreSum(), 1e-9);
+        assertEquals(18, aggregate.getMinScore());
+        assertEquals(30, aggregate.getMaxScore());
+        assertArrayEquals(new long[]{0, 1, 0, 0, 0, 1}, aggregate.getBucketCounts());
+    }
+
+    @Test
+    void removingTheMinimumOrMaximumMarksTheRangeStale() {
+        assertTrue(aggregateOf(18, 24, 30).removeScore(18));
+        assertTrue(aggregateOf(18, 24, 30).removeScore(30));
+    }
+
+    @Test
+    void removingTheLastScoreResetsEveryCounter() {
+        AssessmentScoreAggregate aggregate = aggregateOf(0.1 + 0.2);
+
+        assertFalse(aggregate.removeScore(0.1 + 0.2));
+
+        assertEquals(0, aggregate.getAssessmentCount());
+        assertEquals(0, aggregate.getScoreSum());
+        assertEquals(0, aggregate.getScoreSumOfSquares());
+        assertNull(aggregate.getMinScore());
+        assertNull(aggregate.getMaxScore());
+        assertNull(aggregate.getAverageScore());
+        assertArrayEquals(new long[6], aggregate.getBucketCounts());
+    }
+
+    @Test
+    void removingFromAnEmptyAggregateLeavesNoNegativeCounters() {
+        AssessmentScoreAggregate aggregate = new AssessmentScoreAggregate(ScoreAggregateScope.STUDENT, "student-1");
+
+        assertFalse(aggregate.removeScore(27));
+
+        assertEquals(0, aggregate.getAssessmentCount());
+        assertEquals(0, aggregate.getScoreSum());
+        assertArrayEquals(new long[6], aggregate.getBucketCounts());
+    }
+
+    @Test
+    void standardDeviationNeedsAtLeastTwoScores() {
+        assertNull(aggregateOf(27).getStandardDeviation());
+        assertEquals(0, aggregateOf(27, 27).getStandardDeviation(), 1e-9);
+    }
+
+    @Test
+    void copyCountersReplacesEveryCounter() {
+        AssessmentScoreAggregate source = aggregateOf(15, 28);
+        AssessmentScoreAggregate target = aggregateOf(30);
+
+        target.copyCountersFrom(source);
+
+        assertEquals(2, target.getAssessmentCount());
+        assertEquals(43, target.getScoreSum(), 1e-9);
+        assertEquals(225 + 784, target.getScoreSumOfSquares(), 1e-9);
+        assertEquals(15, target.getMinScore());
+        assertEquals(28, target.getMaxScore());
+        assertArrayEquals(new long[]{1, 0, 0, 0, 1, 0}, target.getBucketCounts());
+    }
+
+    private static AssessmentScoreAggregate aggregateOf(double... scores) {
+        AssessmentScoreAggregate aggregate = new AssessmentScoreAggregate(ScoreAggregateScope.COURSE, "course-1");
+        for (double score : scores) {
+            aggregate.recordScore(score);
+        }
+        return aggregate;
+    }
+}
@@ -0,0 +1,39 @@
+package it.unimol.microservice_assessment_feedback.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxEventTest {
+
+    @Test
+    void failedAttemptSchedulesRetryWithBackoff() {
+        OutboxEvent event = new OutboxEvent("exchange", "key", "TYPE", "Entity", "1", null, "{}");
+
+        LocalDateTime before = LocalDateTime.now();
+        assertFalse(event.markFailed("Nack dal broker", 300, 3));
+
+        assertEquals(1, event.getAttempts());
+        assertEquals("Nack dal broker", event.getLastError());
+        assertNull(event.getFailedAt());
+        assertTrue(event.getNextAttemptAt().isAfter(before));
+    }
+
+    @Test
+    void lastAllowedAttemptMarksEventAsFailed() {
+        OutboxEvent event = new OutboxEvent("exchange", "key", "TYPE", "Entity", "1", null, "{}");
+
+        assertFalse(event.markFailed("timeout", 300, 3));
+        assertFalse(event.markFailed("timeout", 300, 3));
+        assertTrue(event.markFailed("timeout", 300, 3));
+
+        assertEquals(3, event.getAttempts());
+        assertNotNull(event.getFailedAt());
+    }
+}
@@ -0,0 +1,69 @@
+package it.unimol.microservice_assessment_feedback.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SurveyQuestionAggregateTest {
+
+    @Test
+    void recordsCountSumSquaresAndHistogram() {
+        SurveyQuestionAggregate aggregate = new SurveyQuestionAggregate("survey-1", "q1");
+        for (int rating : new int[]{5, 4, 4, 1, 3}) {
+            aggregate.recordResponse(rating);
+        }
+
+        assertEquals(5, aggregate.getResponseCount());
+        assertEquals(5, aggregate.getRatingCount());
+        assertEquals(17, aggregate.getRatingSum());
+        assertEquals(25 + 16 + 16 + 1 + 9, aggregate.getRatingSumOfSquares());
+        assertArrayEquals(new long[]{1, 0, 1, 2, 1}, aggregate.getRatingHistogram());
+        assertEquals(3.4, aggregate.getAverageRating(), 1e-9);
+    }
+
+    @Test
+    void textOnlyResponsesAreCountedWithoutRating() {
+        SurveyQuestionAggregate aggregate = new SurveyQuestionAggregate("survey-1", "q1");
+        aggregate.recordResponse(null);
+        aggregate.recordResponse(null);
+
+        assertEquals(2, aggregate.getResponseCount());
+        assertEquals(0, aggregate.getRatingCount());
+        assertNull(aggregate.getAverageRating());
+    }
+
+    @Test
+    void ratingOutOfRangeIsRejectedWithoutChangingTheCounters() {
+        SurveyQuestionAggregate aggregate = new SurveyQuestionAggregate("survey-1", "q1");
+        aggregate.recordResponse(2);
+
+        assertThrows(IllegalArgumentException.class, () -> aggregate.recordResponse(6));
+        assertThrows(IllegalArgumentException.class, () -> aggregate.recordResponse(0));
+
+        assertEquals(1, aggregate.getResponseCount());
+        assertEquals(1, aggregate.getRatingCount());
+        assertEquals(2, aggregate.getRatingSum());
+        assertArrayEquals(new long[]{0, 1, 0, 0, 0}, aggregate.getRatingHistogram());
+    }
+
+    @Test
+    void copyCountersReplacesEveryCounter() {
+        SurveyQuestionAggregate source = new SurveyQuestionAggregate("survey-1", "q1");
+        source.recordResponse(1);
+        source.recordResponse(5);
+        source.recordResponse(null);
+        SurveyQuestionAggregate target = new SurveyQuestionAggregate("survey-1", "q1");
+        target.recordResponse(3);
+
+        target.copyCountersFrom(source);
+
+        assertEquals(3, target.getResponseCount());
+        assertEquals(2, target.getRatingCount());
+        assertEquals(6, target.getRatingSum());
+        assertEquals(26, target.getRatingSumOfSquares());
+        assertArrayEquals(new long[]{1, 0, 0, 0, 1}, target.getRatingHistogram());
+    }
+}
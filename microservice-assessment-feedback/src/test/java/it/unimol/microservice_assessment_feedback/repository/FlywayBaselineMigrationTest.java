@@ -0,0 +1,131 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import it.unimol.microservice_assessment_feedback.config.TestRabbitConfig;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Aggiornamento su PostgreSQL di un database creato prima di Flyway (schema generato da ddl-auto=update):
+ * con baseline-on-migrate viene registrato alla versione 1 e deve ricevere tutte le migrazioni successive,
+ * arrivando allo stesso schema creato da zero nello schema public all'avvio del contesto e validato da Hibernate.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Import(TestRabbitConfig.class)
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class FlywayBaselineMigrationTest {
+
+    private static final String EXISTING_SCHEMA = "existing";
+    private static final String FRESH_SCHEMA = "public";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Il database embedded è condiviso con gli altri test PostgreSQL, che leggono il catalogo senza filtrare per schema
+    @AfterEach
+    void dropExistingSchema() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + EXISTING_SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void preFlywayDatabaseIsBaselinedAndMigratedToTheFreshSchema() throws IOException {
+        String preFlywaySchema = new ClassPathResource("db/pre-flyway-schema.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE SCHEMA " + EXISTING_SCHEMA);
+            jdbcTemplate.execute("SET LOCAL search_path TO " + EXISTING_SCHEMA);
+            jdbcTemplate.execute(preFlywaySchema);
+            jdbcTemplate.update("INSERT INTO teacher_surveys (id, course_id, teacher_id, academic_year, semester, " +
+                    "status, creation_date, title, questions) VALUES ('survey-1', 'course-1', 'teacher-1', " +
+                    "'2025/2026', 1, 'ACTIVE', now(), 'Questionario', " +
+                    "'[{\"id\":\"q1\",\"questionType\":\"RATING\"},{\"id\":\"q2\",\"questionType\":\"TEXT\"}]')");
+            // Risposta inviata due volte: la migrazione V2 conserva la prima
+            jdbcTemplate.update("INSERT INTO survey_responses (id, survey_id, student_id, question_id, numeric_rating, " +
+                    "submission_date) VALUES ('response-1', 'survey-1', 'student-1', 'q1', 4, now() - interval '1 minute')");
+            jdbcTemplate.update("INSERT INTO survey_responses (id, survey_id, student_id, question_id, numeric_rating, " +
+                    "submission_date) VALUES ('response-2', 'survey-1', 'student-1', 'q1', 5, now())");
+        });
+
+        MigrateResult result = flyway(EXISTING_SCHEMA).migrate();
+
+        assertEquals("BASELINE", jdbcTemplate.queryForObject("SELECT type FROM " + EXISTING_SCHEMA +
+                ".flyway_schema_history WHERE version = '1'", String.class));
+        // Tutte le migrazioni dello schema creato da zero tranne la V1, sostituita dalla baseline
+        assertEquals(jdbcTemplate.queryForList("SELECT version FROM " + FRESH_SCHEMA +
+                        ".flyway_schema_history WHERE version <> '1' AND success ORDER BY installed_rank", String.class),
+                jdbcTemplate.queryForList("SELECT version FROM " + EXISTING_SCHEMA +
+                        ".flyway_schema_history WHERE type <> 'BASELINE' ORDER BY installed_rank", String.class));
+        assertEquals(result.migrationsExecuted, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + EXISTING_SCHEMA +
+                ".flyway_schema_history WHERE type <> 'BASELINE'", Integer.class));
+
+        assertEquals(columns(FRESH_SCHEMA), columns(EXISTING_SCHEMA));
+        assertEquals(indexes(FRESH_SCHEMA), indexes(EXISTING_SCHEMA));
+        assertEquals(constraints(FRESH_SCHEMA), constraints(EXISTING_SCHEMA));
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT jsonb_array_length(questions) FROM " + EXISTING_SCHEMA +
+                ".teacher_surveys WHERE id = 'survey-1'", Integer.class));
+        assertEquals(List.of("response-1"), jdbcTemplate.queryForList("SELECT id FROM " + EXISTING_SCHEMA +
+                ".survey_responses", String.class));
+    }
+
+    // Stessa configurazione di spring.flyway.* in application.properties
+    private Flyway flyway(String schema) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(schema)
+                .createSchemas(false)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+
+    private List<String> columns(String schema) {
+        return jdbcTemplate.queryForList("SELECT concat_ws(' ', table_name, column_name, data_type, " +
+                "character_maximum_length, is_nullable, generation_expression) FROM information_schema.columns " +
+                "WHERE table_schema = ? ORDER BY table_name, column_name", String.class, schema);
+    }
+
+    private List<String> indexes(String schema) {
+        return jdbcTemplate.queryForList("SELECT tablename || ' ' || indexname FROM pg_indexes " +
+                "WHERE schemaname = ? ORDER BY 1", String.class, schema);
+    }
+
+    // Le chiavi esterne create da Hibernate hanno nomi generati: si confrontano le tabelle collegate
+    private List<String> constraints(String schema) {
+        return jdbcTemplate.queryForList("SELECT t.relname || ' ' || CASE WHEN c.contype = 'f' " +
+                "THEN 'FK ' || r.relname ELSE c.conname END FROM pg_constraint c " +
+                "JOIN pg_class t ON t.oid = c.conrelid " +
+                "JOIN pg_namespace n ON n.oid = t.relnamespace " +
+                "LEFT JOIN pg_class r ON r.oid = c.confrelid " +
+                "WHERE n.nspname = ? ORDER BY 1", String.class, schema);
+    }
+}
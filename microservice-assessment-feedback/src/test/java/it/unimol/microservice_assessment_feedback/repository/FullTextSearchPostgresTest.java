@@ -0,0 +1,119 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import it.unimol.microservice_assessment_feedback.config.TestRabbitConfig;
+import it.unimol.microservice_assessment_feedback.dto.DetailedFeedbackDTO;
+import it.unimol.microservice_assessment_feedback.dto.SurveyResponseDTO;
+import it.unimol.microservice_assessment_feedback.enums.FeedbackCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ricerca testuale su PostgreSQL con le colonne search_vector e gli indici GIN creati dalla migrazione V5.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Import(TestRabbitConfig.class)
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class FullTextSearchPostgresTest {
+
+    @Autowired
+    private DetailedFeedbackRepository feedbackRepository;
+
+    @Autowired
+    private SurveyResponseRepository responseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String courseId;
+    private String surveyId;
+
+    @BeforeEach
+    void insertData() {
+        courseId = "course-" + UUID.randomUUID();
+        String assessmentId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO assessments (id, reference_id, reference_type, student_id, teacher_id, " +
+                        "course_id, score, assessment_date) VALUES (?, 'exam-1', 'EXAM', 'student-1', 'teacher-1', ?, 27, now())",
+                assessmentId, courseId);
+        insertFeedback(assessmentId, "Ottima esposizione degli algoritmi di ordinamento", "Chiarezza", null);
+        insertFeedback(assessmentId, "Analisi corretta", "Buona struttura", "Approfondire gli algoritmi ricorsivi");
+        insertFeedback(assessmentId, "Relazione incompleta", null, "Rivedere la bibliografia");
+
+        surveyId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO teacher_surveys (id, course_id, teacher_id, academic_year, semester, status, " +
+                "creation_date, title) VALUES (?, ?, 'teacher-1', '2025/2026', 1, 'ACTIVE', now(), 'Questionario')",
+                surveyId, courseId);
+        insertResponse("student-1", "Le esercitazioni sugli algoritmi sono state molto utili");
+        insertResponse("student-2", "Lezioni troppo veloci");
+    }
+
+    @Test
+    void feedbackSearchMatchesStemmedTermsAndRanksByRelevance() {
+        List<DetailedFeedbackDTO> results =
+                feedbackRepository.searchFeedback("algoritmo", courseId, null, null, 0, 10);
+
+        assertEquals(2, results.size());
+        // Il termine nel testo principale (peso A) precede quello nelle aree di miglioramento (peso B)
+        assertTrue(results.get(0).getFeedbackText().startsWith("Ottima esposizione"));
+        assertTrue(feedbackRepository.searchFeedback("algoritmo", courseId, null, FeedbackCategory.OTHER, 0, 10).isEmpty());
+    }
+
+    @Test
+    void commentSearchIsFilteredBySurvey() {
+        List<SurveyResponseDTO> results = responseRepository.searchComments("esercitazione", surveyId, null, null, 0, 10);
+
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).getTextComment().contains("esercitazioni"));
+        assertTrue(responseRepository.searchComments("esercitazione", UUID.randomUUID().toString(), null, null, 0, 10)
+                .isEmpty());
+    }
+
+    @Test
+    void searchIndexesAreValidAndUsed() {
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                "WHERE c.relnamespace = CAST(current_schema() AS regnamespace) " +
+                "AND c.relname IN ('idx_detailed_feedback_search', 'idx_survey_responses_search') AND i.indisvalid",
+                Integer.class));
+
+        List<String> plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return jdbcTemplate.queryForList("EXPLAIN SELECT id FROM detailed_feedback " +
+                    "WHERE search_vector @@ websearch_to_tsquery('italian', 'algoritmo')", String.class);
+        });
+        assertTrue(String.join("\n", plan).contains("idx_detailed_feedback_search"), () -> String.join("\n", plan));
+    }
+
+    private void insertFeedback(String assessmentId, String text, String strengths, String improvementAreas) {
+        jdbcTemplate.update("INSERT INTO detailed_feedback (id, assessment_id, feedback_text, category, strengths, " +
+                        "improvement_areas, created_at) VALUES (?, ?, ?, 'CONTENT', ?, ?, now())",
+                UUID.randomUUID().toString(), assessmentId, text, strengths, improvementAreas);
+    }
+
+    private void insertResponse(String studentId, String comment) {
+        jdbcTemplate.update("INSERT INTO survey_responses (id, survey_id, student_id, question_id, text_comment, " +
+                        "submission_date) VALUES (?, ?, ?, 'q1', ?, now())",
+                UUID.randomUUID().toString(), surveyId, studentId, comment);
+    }
+}
@@ -0,0 +1,98 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import it.unimol.microservice_assessment_feedback.config.TestRabbitConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica su PostgreSQL che le migrazioni Flyway producano lo schema atteso da Hibernate (ddl-auto=validate)
+ * e che le ricerche più frequenti usino gli indici creati dalle migrazioni.
+ * La scansione sequenziale viene disabilitata nella transazione, così il piano non dipende dal volume dei dati.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Import(TestRabbitConfig.class)
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class QueryPlanRegressionTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void analyze() {
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void assessmentsByStudentUseStudentIndex() {
+        assertPlanUses("idx_assessments_student_date",
+                "SELECT * FROM assessments WHERE student_id = 'student-1' ORDER BY assessment_date, id LIMIT 50");
+    }
+
+    @Test
+    void assessmentsByCourseUseCourseIndex() {
+        assertPlanUses("idx_assessments_course_date",
+                "SELECT * FROM assessments WHERE course_id = 'course-1' ORDER BY assessment_date, id LIMIT 50");
+    }
+
+    @Test
+    void assessmentsByReferenceUseReferenceIndex() {
+        assertPlanUses("idx_assessments_reference_date",
+                "SELECT * FROM assessments WHERE reference_id = 'exam-1' AND reference_type = 'EXAM' " +
+                        "ORDER BY assessment_date, id");
+    }
+
+    @Test
+    void responsesBySurveyUseUniqueConstraintIndex() {
+        assertPlanUses("uk_survey_responses_survey_student_question",
+                "SELECT * FROM survey_responses WHERE survey_id = 'survey-1'");
+    }
+
+    @Test
+    void responseExistenceCheckUsesUniqueConstraintIndex() {
+        assertPlanUses("uk_survey_responses_survey_student_question",
+                "SELECT 1 FROM survey_responses WHERE survey_id = 'survey-1' AND student_id = 'student-1' LIMIT 1");
+    }
+
+    @Test
+    void surveysByStatusUseStatusIndex() {
+        assertPlanUses("idx_teacher_surveys_status",
+                "SELECT * FROM teacher_surveys WHERE status = 'ACTIVE'");
+    }
+
+    @Test
+    void duplicateSurveyCheckUsesTeacherCoursePeriodIndex() {
+        assertPlanUses("idx_teacher_surveys_teacher_course_period",
+                "SELECT 1 FROM teacher_surveys WHERE teacher_id = 'teacher-1' AND course_id = 'course-1' " +
+                        "AND academic_year = '2025/2026' AND semester = 1 LIMIT 1");
+    }
+
+    private void assertPlanUses(String indexName, String query) {
+        List<String> plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return jdbcTemplate.queryForList("EXPLAIN " + query, String.class);
+        });
+        String planText = String.join("\n", plan);
+        assertTrue(planText.contains(indexName), () -> "Indice " + indexName + " non usato:\n" + planText);
+    }
+}
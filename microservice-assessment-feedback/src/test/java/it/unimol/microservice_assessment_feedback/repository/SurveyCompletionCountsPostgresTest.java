@@ -0,0 +1,81 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import it.unimol.microservice_assessment_feedback.config.TestRabbitConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Conteggi di rispondenti e questionari completati calcolati su PostgreSQL in una sola query.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Import(TestRabbitConfig.class)
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class SurveyCompletionCountsPostgresTest {
+
+    @Autowired
+    private SurveyResponseRepository responseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String surveyId;
+
+    @BeforeEach
+    void insertResponses() {
+        surveyId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO teacher_surveys (id, course_id, teacher_id, academic_year, semester, status, " +
+                "creation_date, title) VALUES (?, 'course-1', 'teacher-1', '2025/2026', 1, 'ACTIVE', now(), 'Questionario')",
+                surveyId);
+        insertResponse("student-1", "q1");
+        insertResponse("student-1", "q2");
+        insertResponse("student-1", "q3");
+        insertResponse("student-2", "q1");
+        insertResponse("student-2", "q3");
+        insertResponse("student-3", "q2");
+        // Le risposte senza studente non contano come rispondenti
+        insertResponse(null, "q1");
+        insertResponse(null, "q2");
+        insertResponse(null, "q3");
+    }
+
+    @Test
+    void countsRespondentsAndCompletedSurveys() {
+        SurveyResponseRepository.CompletionCounts counts = responseRepository.countCompletion(surveyId, 3);
+
+        assertEquals(3, counts.getRespondents());
+        assertEquals(1, counts.getCompleted());
+        assertEquals(2, responseRepository.countCompletion(surveyId, 2).getCompleted());
+    }
+
+    @Test
+    void surveyWithoutResponsesHasZeroCounts() {
+        SurveyResponseRepository.CompletionCounts counts =
+                responseRepository.countCompletion(UUID.randomUUID().toString(), 3);
+
+        assertEquals(0, counts.getRespondents());
+        assertEquals(0, counts.getCompleted());
+    }
+
+    private void insertResponse(String studentId, String questionId) {
+        jdbcTemplate.update("INSERT INTO survey_responses (id, survey_id, student_id, question_id, numeric_rating, " +
+                        "submission_date) VALUES (?, ?, ?, ?, 4, now())",
+                UUID.randomUUID().toString(), surveyId, studentId, questionId);
+    }
+}
@@ -0,0 +1,95 @@
+package it.unimol.microservice_assessment_feedback.repository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import it.unimol.microservice_assessment_feedback.config.TestRabbitConfig;
+import it.unimol.microservice_assessment_feedback.dto.TeacherSurveyDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Letture jsonb delle domande su PostgreSQL, sia con la colonna migrata sia con la colonna TEXT
+ * di un database non ancora migrato (convertita poi dalla migrazione V4).
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Import(TestRabbitConfig.class)
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class TeacherSurveyQuestionRepositoryPostgresTest {
+
+    private static final String QUESTIONS = "[" +
+            "{\"id\":\"q1\",\"questionText\":\"Chiarezza delle lezioni\",\"questionType\":\"RATING\"}," +
+            "{\"id\":\"q2\",\"questionText\":\"Suggerimenti\",\"questionType\":\"TEXT\"}]";
+
+    @Autowired
+    private TeacherSurveyRepository teacherSurveyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String surveyId;
+
+    @BeforeEach
+    void insertSurvey() {
+        surveyId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO teacher_surveys (id, course_id, teacher_id, academic_year, semester, status, " +
+                        "creation_date, title, questions) VALUES (?, 'course-1', 'teacher-1', '2025/2026', 1, 'ACTIVE', " +
+                        "now(), 'Questionario', CAST(? AS jsonb))",
+                surveyId, QUESTIONS);
+    }
+
+    @Test
+    void questionsAreReadFromJsonbColumn() {
+        assertQuestionsReadable();
+    }
+
+    @Test
+    void textColumnIsReadableAndConvertedByMigration() throws Exception {
+        String migration = new ClassPathResource("db/migration/V4__survey_questions_jsonb.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE teacher_surveys ALTER COLUMN questions TYPE text USING CAST(questions AS text)");
+            assertQuestionsReadable();
+
+            jdbcTemplate.execute(migration);
+            assertEquals("jsonb", jdbcTemplate.queryForObject(
+                    "SELECT data_type FROM information_schema.columns " +
+                            "WHERE table_name = 'teacher_surveys' AND column_name = 'questions'", String.class));
+            assertQuestionsReadable();
+
+            // Lo schema del contesto condiviso resta quello migrato
+            status.setRollbackOnly();
+        });
+    }
+
+    private void assertQuestionsReadable() {
+        assertEquals(2, teacherSurveyRepository.countQuestions(surveyId));
+        Optional<TeacherSurveyDTO.SurveyQuestionDTO> question = teacherSurveyRepository.findQuestion(surveyId, "q2");
+        assertTrue(question.isPresent());
+        assertEquals("Suggerimenti", question.get().getQuestionText());
+        assertTrue(teacherSurveyRepository.findQuestion(surveyId, "q3").isEmpty());
+    }
+}
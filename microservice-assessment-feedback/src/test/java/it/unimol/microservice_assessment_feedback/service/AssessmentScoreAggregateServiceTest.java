@@ -0,0 +1,170 @@
+package it.unimol.microservice_assessment_feedback.service;
+
+import it.unimol.microservice_assessment_feedback.config.TestRabbitConfig;
+import it.unimol.microservice_assessment_feedback.dto.ScoreStatisticsDTO;
+import it.unimol.microservice_assessment_feedback.enums.ReferenceType;
+import it.unimol.microservice_assessment_feedback.enums.ScoreAggregateScope;
+import it.unimol.microservice_assessment_feedback.model.Assessment;
+import it.unimol.microservice_assessment_feedback.model.AssessmentScoreAggregate;
+import it.unimol.microservice_assessment_feedback.repository.AssessmentRepository;
+import it.unimol.microservice_assessment_feedback.repository.AssessmentScoreAggregateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestRabbitConfig.class)
+class AssessmentScoreAggregateServiceTest {
+
+    @Autowired
+    private AssessmentScoreAggregateService aggregateService;
+
+    @Autowired
+    private AssessmentScoreAggregateRepository aggregateRepository;
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String courseId;
+
+    @BeforeEach
+    void newCourse() {
+        courseId = "course-" + UUID.randomUUID();
+    }
+
+    @Test
+    void concurrentFirstWritesAreAllCounted() throws Exception {
+        int writes = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writes);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < writes; i++) {
+                double score = 16 + 2 * i;
+                String studentId = "student-" + i;
+                Callable<Void> write = () -> {
+                    start.await();
+                    transactionTemplate.executeWithoutResult(status ->
+                            aggregateService.recordCreated(List.of(assessmentRepository.save(assessment(studentId, score)))));
+                    return null;
+                };
+                results.add(executor.submit(write));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        AssessmentScoreAggregate aggregate = courseAggregate();
+        assertEquals(writes, aggregate.getAssessmentCount());
+        assertEquals(16 + 18 + 20 + 22 + 24 + 26 + 28 + 30, aggregate.getScoreSum(), 1e-9);
+        assertEquals(16, aggregate.getMinScore());
+        assertEquals(30, aggregate.getMaxScore());
+        assertArrayEquals(new long[]{1, 2, 1, 2, 1, 1}, aggregate.getBucketCounts());
+    }
+
+    @Test
+    void readingStatisticsOfLegacyAssessmentsDoesNotWrite() {
+        assessmentRepository.saveAll(List.of(assessment("student-1", 24.0), assessment("student-2", 30.0)));
+
+        ScoreStatisticsDTO statistics = aggregateService.getStatistics(ScoreAggregateScope.COURSE, courseId);
+
+        assertEquals(2, statistics.getAssessmentCount());
+        assertEquals(27.0, statistics.getAverageScore(), 1e-9);
+        assertEquals(24.0, statistics.getMinScore());
+        assertEquals(1L, statistics.getDistribution().get("30"));
+        assertTrue(aggregateRepository.findByScopeAndScopeId(ScoreAggregateScope.COURSE, courseId).isEmpty());
+    }
+
+    @Test
+    void firstWriteOnLegacyAssessmentsStartsFromStoredScores() {
+        assessmentRepository.saveAll(List.of(assessment("student-1", 24.0), assessment("student-2", 30.0)));
+
+        transactionTemplate.executeWithoutResult(status ->
+                aggregateService.recordCreated(List.of(assessmentRepository.save(assessment("student-3", 18.0)))));
+
+        AssessmentScoreAggregate aggregate = courseAggregate();
+        assertEquals(3, aggregate.getAssessmentCount());
+        assertEquals(72, aggregate.getScoreSum(), 1e-9);
+        assertEquals(18, aggregate.getMinScore());
+        assertArrayEquals(new long[]{0, 1, 0, 1, 0, 1}, aggregate.getBucketCounts());
+    }
+
+    @Test
+    void deletingALegacyAssessmentStartsFromStoredScores() {
+        List<Assessment> legacy = assessmentRepository.saveAll(List.of(
+                assessment("student-1", 24.0), assessment("student-2", 30.0), assessment("student-3", 27.0)));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Assessment deleted = assessmentRepository.findById(legacy.get(1).getId()).orElseThrow();
+            assessmentRepository.delete(deleted);
+            aggregateService.recordDeleted(deleted);
+        });
+
+        AssessmentScoreAggregate aggregate = courseAggregate();
+        assertEquals(2, aggregate.getAssessmentCount());
+        assertEquals(51, aggregate.getScoreSum(), 1e-9);
+        assertEquals(24, aggregate.getMinScore());
+        assertEquals(27, aggregate.getMaxScore());
+        assertArrayEquals(new long[]{0, 0, 0, 1, 1, 0}, aggregate.getBucketCounts());
+    }
+
+    @Test
+    void rebuildRestoresCountersInPlace() {
+        transactionTemplate.executeWithoutResult(status -> aggregateService.recordCreated(assessmentRepository.saveAll(
+                List.of(assessment("student-1", 21.0), assessment("student-2", 25.0)))));
+        AssessmentScoreAggregate drifted = courseAggregate();
+        drifted.setAssessmentCount(7);
+        drifted.setBucketCounts(new long[]{3, 0, 0, 0, 0, 0});
+        aggregateRepository.save(drifted);
+
+        aggregateService.rebuild(ScoreAggregateScope.COURSE, courseId);
+
+        AssessmentScoreAggregate rebuilt = aggregateRepository.findById(drifted.getId()).orElseThrow();
+        assertEquals(2, rebuilt.getAssessmentCount());
+        assertEquals(46, rebuilt.getScoreSum(), 1e-9);
+        assertArrayEquals(new long[]{0, 0, 1, 1, 0, 0}, rebuilt.getBucketCounts());
+    }
+
+    private AssessmentScoreAggregate courseAggregate() {
+        return aggregateRepository.findByScopeAndScopeId(ScoreAggregateScope.COURSE, courseId).orElseThrow();
+    }
+
+    private Assessment assessment(String studentId, double score) {
+        return Assessment.builder()
+                .referenceId("assignment-" + UUID.randomUUID())
+                .referenceType(ReferenceType.ASSIGNMENT)
+                .studentId(studentId)
+                .teacherId("teacher-1")
+                .courseId(courseId)
+                .score(score)
+                .assessmentDate(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package it.unimol.microservice_assessment_feedback.service;
+
+import it.unimol.microservice_assessment_feedback.config.TestRabbitConfig;
+import it.unimol.microservice_assessment_feedback.dto.AssessmentDTO;
+import it.unimol.microservice_assessment_feedback.enums.ReferenceType;
+import it.unimol.microservice_assessment_feedback.messaging.outbox.OutboxWriter;
+import it.unimol.microservice_assessment_feedback.repository.AssessmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestRabbitConfig.class)
+class AssessmentServiceOutboxTest {
+
+    @Autowired
+    private AssessmentService assessmentService;
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @MockitoBean
+    private OutboxWriter outboxWriter;
+
+    @Test
+    void outboxFailureRollsBackTheAssessment() {
+        when(outboxWriter.enqueue(anyString(), anyString(), any(), anyString(), any()))
+                .thenThrow(new DataAccessResourceFailureException("outbox non disponibile"));
+
+        AssessmentDTO dto = new AssessmentDTO();
+        dto.setReferenceId("assignment-" + UUID.randomUUID());
+        dto.setReferenceType(ReferenceType.ASSIGNMENT);
+        dto.setStudentId("student-1");
+        dto.setTeacherId("teacher-1");
+        dto.setCourseId("course-1");
+        dto.setScore(27.0);
+
+        // L'errore originale arriva al chiamante, non un UnexpectedRollbackException
+        assertThrows(DataAccessResourceFailureException.class, () -> assessmentService.createAssessment(dto));
+
+        assertTrue(assessmentRepository
+                .findProjectedByReferenceIdAndReferenceType(dto.getReferenceId(), ReferenceType.ASSIGNMENT)
+                .isEmpty());
+    }
+}
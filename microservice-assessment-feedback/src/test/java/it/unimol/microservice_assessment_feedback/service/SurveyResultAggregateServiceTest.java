@@ -0,0 +1,180 @@
+package it.unimol.microservice_assessment_feedback.service;
+
+import it.unimol.microservice_assessment_feedback.config.TestRabbitConfig;
+import it.unimol.microservice_assessment_feedback.enums.SurveyStatus;
+import it.unimol.microservice_assessment_feedback.model.SurveyQuestionAggregate;
+import it.unimol.microservice_assessment_feedback.model.SurveyResponse;
+import it.unimol.microservice_assessment_feedback.model.TeacherSurvey;
+import it.unimol.microservice_assessment_feedback.repository.SurveyQuestionAggregateRepository;
+import it.unimol.microservice_assessment_feedback.repository.SurveyResponseRepository;
+import it.unimol.microservice_assessment_feedback.repository.TeacherSurveyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestRabbitConfig.class)
+class SurveyResultAggregateServiceTest {
+
+    @Autowired
+    private SurveyResultAggregateService aggregateService;
+
+    @Autowired
+    private SurveyQuestionAggregateRepository aggregateRepository;
+
+    @Autowired
+    private SurveyResponseRepository responseRepository;
+
+    @Autowired
+    private TeacherSurveyRepository surveyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private TeacherSurvey survey;
+
+    @BeforeEach
+    void createSurvey() {
+        survey = surveyRepository.save(TeacherSurvey.builder()
+                .courseId("course-" + UUID.randomUUID())
+                .teacherId("teacher-1")
+                .academicYear("2025/2026")
+                .semester(1)
+                .status(SurveyStatus.ACTIVE)
+                .creationDate(LocalDateTime.now())
+                .title("Questionario di test")
+                .build());
+    }
+
+    @Test
+    void concurrentFirstSubmissionsAreAllCounted() throws Exception {
+        int submissions = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(submissions);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < submissions; i++) {
+                int rating = i % 5 + 1;
+                String studentId = "student-" + i;
+                Callable<Void> submission = () -> {
+                    start.await();
+                    transactionTemplate.executeWithoutResult(status -> {
+                        SurveyResponse response = responseRepository.save(response(studentId, "q1", rating));
+                        aggregateService.recordResponses(survey.getId(), List.of(response));
+                    });
+                    return null;
+                };
+                results.add(executor.submit(submission));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<SurveyQuestionAggregate> aggregates = aggregateRepository.findBySurveyId(survey.getId());
+        assertEquals(1, aggregates.size());
+        SurveyQuestionAggregate aggregate = aggregates.get(0);
+        assertEquals(submissions, aggregate.getResponseCount());
+        assertEquals(1 + 2 + 3 + 4 + 5 + 1 + 2 + 3, aggregate.getRatingSum());
+        assertArrayEquals(new long[]{2, 2, 2, 1, 1}, aggregate.getRatingHistogram());
+    }
+
+    @Test
+    void readingAggregatesOfLegacySurveyDoesNotWrite() {
+        responseRepository.saveAll(List.of(response("student-1", "q1", 4), response("student-2", "q1", 2)));
+
+        List<SurveyQuestionAggregate> aggregates = aggregateService.getAggregates(survey.getId());
+
+        assertEquals(1, aggregates.size());
+        assertEquals(3.0, aggregates.get(0).getAverageRating(), 1e-9);
+        assertTrue(aggregateRepository.findBySurveyId(survey.getId()).isEmpty());
+    }
+
+    @Test
+    void firstSubmissionOnLegacySurveyStartsFromStoredResponses() {
+        responseRepository.saveAll(List.of(response("student-1", "q1", 4), response("student-2", "q1", 2)));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            SurveyResponse response = responseRepository.save(response("student-3", "q1", 5));
+            aggregateService.recordResponses(survey.getId(), List.of(response));
+        });
+
+        SurveyQuestionAggregate aggregate = aggregateRepository.findBySurveyId(survey.getId()).get(0);
+        assertEquals(3, aggregate.getResponseCount());
+        assertEquals(11, aggregate.getRatingSum());
+    }
+
+    @Test
+    void rebuildRestoresCountersInPlace() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<SurveyResponse> responses = responseRepository.saveAll(List.of(
+                    response("student-1", "q1", 4), response("student-1", "q2", 1)));
+            aggregateService.recordResponses(survey.getId(), responses);
+        });
+        SurveyQuestionAggregate drifted = aggregateRepository.findBySurveyId(survey.getId()).stream()
+                .filter(aggregate -> aggregate.getQuestionId().equals("q1"))
+                .findFirst().orElseThrow();
+        String id = drifted.getId();
+        drifted.setRatingSum(99);
+        aggregateRepository.save(drifted);
+
+        aggregateService.rebuildAggregates(survey.getId());
+
+        SurveyQuestionAggregate rebuilt = aggregateRepository.findById(id).orElseThrow();
+        assertEquals(1, rebuilt.getResponseCount());
+        assertEquals(4, rebuilt.getRatingSum());
+        assertEquals(2, aggregateRepository.findBySurveyId(survey.getId()).size());
+    }
+
+    @Test
+    void rebuildAllReportsFailedSurveys() {
+        SurveyQuestionAggregateRepository failingRepository = mock(SurveyQuestionAggregateRepository.class);
+        SurveyResponseRepository responses = mock(SurveyResponseRepository.class);
+        TeacherSurveyRepository surveys = mock(TeacherSurveyRepository.class);
+        when(surveys.findAllIds()).thenReturn(List.of("survey-ok", "survey-broken"));
+        when(failingRepository.findQuestionIdsBySurveyId("survey-broken")).thenThrow(new IllegalStateException("broken"));
+        SurveyResultAggregateService service = new SurveyResultAggregateService(failingRepository, responses, surveys,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        SurveyResultAggregateService.RebuildOutcome outcome = service.rebuildAllAggregates();
+
+        assertEquals(1, outcome.rebuilt());
+        assertEquals(List.of("survey-broken"), outcome.failedSurveyIds());
+    }
+
+    private SurveyResponse response(String studentId, String questionId, Integer rating) {
+        return SurveyResponse.builder()
+                .survey(survey)
+                .studentId(studentId)
+                .questionId(questionId)
+                .numericRating(rating)
+                .submissionDate(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+package it.unimol.microservice_assessment_feedback.service.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.unimol.microservice_assessment_feedback.enums.SurveyStatus;
+import it.unimol.microservice_assessment_feedback.model.TeacherSurvey;
+import it.unimol.microservice_assessment_feedback.repository.SurveyResponseRepository;
+import it.unimol.microservice_assessment_feedback.repository.TeacherSurveyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActiveSurveyIndexTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private TeacherSurveyRepository surveyRepository;
+    private SurveyResponseRepository responseRepository;
+    private ActiveSurveyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        surveyRepository = mock(TeacherSurveyRepository.class);
+        responseRepository = mock(SurveyResponseRepository.class);
+        index = new ActiveSurveyIndex(surveyRepository, responseRepository, objectMapper,
+                new SimpleMeterRegistry(), 1000, 120);
+
+        when(surveyRepository.findByStatus(SurveyStatus.ACTIVE)).thenReturn(List.of(
+                survey("s1", "course-a", 1),
+                survey("s2", "course-b", 3),
+                survey("s3", "course-a", 2)));
+        index.refresh();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void activeSurveysAreOrderedNewestFirst() throws Exception {
+        assertEquals(List.of("s2", "s3", "s1"), ids(index.activeSurveysJson()));
+        assertTrue(index.contains("s1"));
+        assertFalse(index.contains("missing"));
+    }
+
+    @Test
+    void answeredSurveysAreExcludedAndCourseFilterApplies() throws Exception {
+        when(responseRepository.findAnsweredSurveyIdsByStudentId("student-1", SurveyStatus.ACTIVE))
+                .thenReturn(List.of("s3", "closed-survey"));
+
+        assertEquals(List.of("s2", "s1"), ids(index.availableSurveysJson("student-1", null)));
+        assertEquals(List.of("s1"), ids(index.availableSurveysJson("student-1", "course-a")));
+        assertEquals(List.of(), ids(index.availableSurveysJson("student-1", "course-without-surveys")));
+    }
+
+    @Test
+    void bitmapIsLoadedOncePerIndexVersion() throws Exception {
+        when(responseRepository.findAnsweredSurveyIdsByStudentId("student-1", SurveyStatus.ACTIVE))
+                .thenReturn(List.of("s1"));
+
+        index.availableSurveysJson("student-1", null);
+        index.availableSurveysJson("student-1", "course-a");
+        verify(responseRepository, times(1)).findAnsweredSurveyIdsByStudentId("student-1", SurveyStatus.ACTIVE);
+
+        // Le posizioni cambiano con la nuova versione: la bitmap viene ricalcolata
+        when(surveyRepository.findByStatus(SurveyStatus.ACTIVE)).thenReturn(List.of(
+                survey("s4", "course-a", 4),
+                survey("s1", "course-a", 1)));
+        index.refresh();
+
+        assertEquals(List.of("s4"), ids(index.availableSurveysJson("student-1", null)));
+        verify(responseRepository, times(2)).findAnsweredSurveyIdsByStudentId("student-1", SurveyStatus.ACTIVE);
+    }
+
+    @Test
+    void markAnsweredUpdatesTheCachedBitmapWithoutQuerying() throws Exception {
+        when(responseRepository.findAnsweredSurveyIdsByStudentId("student-1", SurveyStatus.ACTIVE))
+                .thenReturn(new ArrayList<>());
+        index.availableSurveysJson("student-1", null);
+
+        index.markAnswered("student-1", "s2");
+
+        assertEquals(List.of("s3", "s1"), ids(index.availableSurveysJson("student-1", null)));
+        verify(responseRepository, times(1)).findAnsweredSurveyIdsByStudentId("student-1", SurveyStatus.ACTIVE);
+    }
+
+    @Test
+    void markAnsweredInsideATransactionAppliesAfterCommit() throws Exception {
+        when(responseRepository.findAnsweredSurveyIdsByStudentId("student-1", SurveyStatus.ACTIVE))
+                .thenReturn(new ArrayList<>());
+        index.availableSurveysJson("student-1", null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.markAnswered("student-1", "s2");
+        assertEquals(List.of("s2", "s3", "s1"), ids(index.availableSurveysJson("student-1", null)));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(List.of("s3", "s1"), ids(index.availableSurveysJson("student-1", null)));
+    }
+
+    @Test
+    void markAnsweredForUnindexedSurveyReloadsFromTheDatabase() throws Exception {
+        when(responseRepository.findAnsweredSurveyIdsByStudentId("student-1", SurveyStatus.ACTIVE))
+                .thenReturn(List.of());
+        index.availableSurveysJson("student-1", null);
+
+        index.markAnswered("student-1", "not-indexed");
+        index.availableSurveysJson("student-1", null);
+
+        verify(responseRepository, times(2)).findAnsweredSurveyIdsByStudentId("student-1", SurveyStatus.ACTIVE);
+    }
+
+    @Test
+    void closedSurveysLeaveTheIndexOnRefresh() throws Exception {
+        when(surveyRepository.findByStatus(SurveyStatus.ACTIVE)).thenReturn(List.of(survey("s1", "course-a", 1)));
+
+        index.refresh();
+
+        assertFalse(index.contains("s2"));
+        assertEquals(List.of("s1"), ids(index.activeSurveysJson()));
+    }
+
+    private List<String> ids(byte[] json) throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (JsonNode node : objectMapper.readTree(json)) {
+            ids.add(node.get("id").asText());
+        }
+        return ids;
+    }
+
+    private static TeacherSurvey survey(String id, String courseId, int day) {
+        return TeacherSurvey.builder()
+                .id(id)
+                .courseId(courseId)
+                .teacherId("teacher-1")
+                .academicYear("2025/2026")
+                .semester(1)
+                .status(SurveyStatus.ACTIVE)
+                .creationDate(LocalDateTime.of(2026, 3, day, 9, 0))
+                .title("Questionario " + id)
+                .build();
+    }
+}
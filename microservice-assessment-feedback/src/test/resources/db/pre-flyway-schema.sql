@@ -0,0 +1,69 @@
+-- Schema creato da Hibernate (ddl-auto=update, PostgreSQLDialect) con le entità precedenti alle migrazioni Flyway,
+-- così come si trova sui database già in esercizio: nomi e ordine delle colonne e dei vincoli sono quelli generati.
+
+create table assessments (
+    score float(53) not null,
+    assessment_date timestamp(6) not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    notes varchar(1000),
+    course_id varchar(255),
+    id varchar(255) not null,
+    reference_id varchar(255) not null,
+    reference_type varchar(255) not null check (reference_type in ('ASSIGNMENT','EXAM')),
+    student_id varchar(255) not null,
+    teacher_id varchar(255) not null,
+    primary key (id)
+);
+
+create table detailed_feedback (
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    improvement_areas varchar(1000),
+    strengths varchar(1000),
+    feedback_text varchar(2000) not null,
+    assessment_id varchar(255) not null,
+    category varchar(255) not null check (category in ('CONTENT','PRESENTATION','CORRECTNESS','OTHER')),
+    id varchar(255) not null,
+    primary key (id)
+);
+
+create table survey_responses (
+    numeric_rating integer,
+    created_at timestamp(6),
+    submission_date timestamp(6) not null,
+    updated_at timestamp(6),
+    text_comment varchar(1000),
+    id varchar(255) not null,
+    question_id varchar(255) not null,
+    student_id varchar(255),
+    survey_id varchar(255) not null,
+    primary key (id)
+);
+
+create table teacher_surveys (
+    semester integer not null,
+    closing_date timestamp(6),
+    created_at timestamp(6),
+    creation_date timestamp(6) not null,
+    updated_at timestamp(6),
+    academic_year varchar(255) not null,
+    course_id varchar(255) not null,
+    description TEXT,
+    id varchar(255) not null,
+    questions TEXT,
+    status varchar(255) not null check (status in ('DRAFT','ACTIVE','CLOSED')),
+    teacher_id varchar(255) not null,
+    title varchar(255) not null,
+    primary key (id)
+);
+
+alter table if exists detailed_feedback
+   add constraint FK8hro4b0fpvmpw6jhj14sa2pbl
+   foreign key (assessment_id)
+   references assessments;
+
+alter table if exists survey_responses
+   add constraint FKr4m5f05wmwqikd0qsr5lxn19l
+   foreign key (survey_id)
+   references teacher_surveys;
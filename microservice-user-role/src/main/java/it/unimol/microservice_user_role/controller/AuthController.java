@@ -2,6 +2,7 @@ package it.unimol.microservice_user_role.controller;
 
 import it.unimol.microservice_user_role.dto.auth.LoginDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +16,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import it.unimol.microservice_user_role.service.AuthService;
 import it.unimol.microservice_user_role.dto.auth.TokenDTO;
 import it.unimol.microservice_user_role.exceptions.AuthException;
+import it.unimol.microservice_user_role.exceptions.PasswordHashingBusyException;
 
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -45,6 +47,11 @@ public class AuthController {
             responseCode = "400",
             description = "Richiesta non valida",
             content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Servizio di autenticazione sovraccarico, riprovare dopo Retry-After",
+            content = @Content
         )
     })
     @PostMapping("/login")
@@ -54,6 +61,8 @@ public class AuthController {
             return ResponseEntity.ok(tokenDto);
         } catch (AuthException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (Exception e) {
             System.err.println("Eccezione catturata: " + e.getClass().getSimpleName() + " - " + e.getMessage());
             return ResponseEntity.badRequest().build();
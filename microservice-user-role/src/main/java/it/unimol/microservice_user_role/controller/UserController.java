@@ -8,6 +8,7 @@ import it.unimol.microservice_user_role.dto.user.UserProfileDTO;
 import it.unimol.microservice_user_role.dto.user.UpdateUserProfileDTO;
 import it.unimol.microservice_user_role.exceptions.InvalidIdException;
 import it.unimol.microservice_user_role.exceptions.InvalidRequestException;
+import it.unimol.microservice_user_role.exceptions.PasswordHashingBusyException;
 import it.unimol.microservice_user_role.exceptions.UnknownUserException;
 import it.unimol.microservice_user_role.service.RoleService;
 import it.unimol.microservice_user_role.service.TokenJWTService;
@@ -18,6 +19,7 @@ import java.util.Map;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -50,7 +52,8 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "SuperAdmin creato con successo"),
             @ApiResponse(responseCode = "409", description = "SuperAdmin già esistente"),
-            @ApiResponse(responseCode = "400", description = "Dati non validi")
+            @ApiResponse(responseCode = "400", description = "Dati non validi"),
+            @ApiResponse(responseCode = "503", description = "Servizio di hashing sovraccarico")
     })
     @PostMapping("/superadmin/init")
     public ResponseEntity<UserDTO> createSuperAdmin(@Valid @RequestBody CreateUserDTO request) {
@@ -59,6 +62,8 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.CREATED).body(superAdmin);
         } catch (InvalidRequestException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -71,7 +76,8 @@ public class UserController {
             @ApiResponse(responseCode = "201", description = "Utente creato con successo"),
             @ApiResponse(responseCode = "400", description = "Dati non validi"),
             @ApiResponse(responseCode = "403", description = "Privilegi insufficienti"),
-            @ApiResponse(responseCode = "409", description = "Username o email già esistente")
+            @ApiResponse(responseCode = "409", description = "Username o email già esistente"),
+            @ApiResponse(responseCode = "503", description = "Servizio di hashing sovraccarico")
     })
     @PostMapping
     public ResponseEntity<UserDTO> createUser(
@@ -87,6 +93,8 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         } catch (InvalidRequestException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -280,7 +288,8 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Password cambiata con successo"),
             @ApiResponse(responseCode = "400", description = "Password attuale errata o nuova password non valida"),
-            @ApiResponse(responseCode = "401", description = "Token non valido")
+            @ApiResponse(responseCode = "401", description = "Token non valido"),
+            @ApiResponse(responseCode = "503", description = "Servizio di hashing sovraccarico")
     })
     @PutMapping("/change-password")
     public ResponseEntity<Void> changePassword(
@@ -297,6 +306,8 @@ public class UserController {
             }
         } catch (UnknownUserException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -306,7 +317,8 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Password resettata con successo"),
             @ApiResponse(responseCode = "400", description = "Password attuale errata"),
-            @ApiResponse(responseCode = "401", description = "Token non valido")
+            @ApiResponse(responseCode = "401", description = "Token non valido"),
+            @ApiResponse(responseCode = "503", description = "Servizio di hashing sovraccarico")
     })
     @PostMapping("/reset-password")
     public ResponseEntity<String> resetPassword(
@@ -320,6 +332,8 @@ public class UserController {
             return ResponseEntity.badRequest().build();
         } catch (UnknownUserException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
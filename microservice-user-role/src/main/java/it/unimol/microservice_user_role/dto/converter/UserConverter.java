@@ -17,13 +17,16 @@ public class UserConverter {
     @Autowired
     private RoleConverter roleConverter;
 
+    @Autowired
+    private PasswordUtils passwordUtils;
+
 
     // Converte CreateUserDto in User entity
     public User toEntity(CreateUserDTO dto, Role role) {
         if (dto == null) return null;
 
         String userId = UUID.randomUUID().toString();
-        String hashedPassword = PasswordUtils.hashPassword(dto.password());
+        String hashedPassword = passwordUtils.hashPassword(dto.password());
 
         return new User(
                 userId,
@@ -0,0 +1,11 @@
+package it.unimol.microservice_user_role.exceptions;
+
+/**
+ * Sollevata quando l'executor Argon2 è saturo: la richiesta va rifiutata subito (503) invece di
+ * occupare un thread Tomcat in attesa.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
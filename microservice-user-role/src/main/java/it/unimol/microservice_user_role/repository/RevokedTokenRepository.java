@@ -0,0 +1,26 @@
+package it.unimol.microservice_user_role.repository;
+
+import it.unimol.microservice_user_role.model.RevokedToken;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    @Query("SELECT COUNT(r) > 0 FROM RevokedToken r WHERE r.tokenId = :tokenId AND r.expiresAt > :now")
+    boolean isRevoked(@Param("tokenId") String tokenId, @Param("now") Instant now);
+
+    @Query("SELECT r FROM RevokedToken r WHERE r.revokedAt > :since AND r.expiresAt > :now ORDER BY r.revokedAt")
+    List<RevokedToken> findRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -4,10 +4,12 @@ import it.unimol.microservice_user_role.dto.auth.TokenDTO;
 import it.unimol.microservice_user_role.dto.user.UserDTO;
 import it.unimol.microservice_user_role.dto.converter.UserConverter;
 import it.unimol.microservice_user_role.exceptions.AuthException;
+import it.unimol.microservice_user_role.exceptions.PasswordHashingBusyException;
 import it.unimol.microservice_user_role.exceptions.UnknownUserException;
 import it.unimol.microservice_user_role.model.User;
 import it.unimol.microservice_user_role.repository.UserRepository;
 import it.unimol.microservice_user_role.util.PasswordUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -24,6 +26,12 @@ public class AuthService {
     private UserConverter userConverter;
     @Autowired
     private MessageService messageService;
+    @Autowired
+    private PasswordUtils passwordUtils;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private LastLoginBuffer lastLoginBuffer;
 
     /**
      * Registra un nuovo utente nel sistema.
@@ -37,12 +45,14 @@ public class AuthService {
                 throw new AuthException("Ehh, volevi!");
             }
 
-            String password = PasswordUtils.hashPassword(user.getPassword());
+            String password = passwordUtils.hashPassword(user.getPassword());
             user.setPassword(password);
             userRepository.save(user);
 
             UserDTO userDto = userConverter.toDto(user);
             messageService.publishUserCreated(userDto);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             throw new AuthException(e.getMessage());
         }
@@ -56,21 +66,57 @@ public class AuthService {
      * @return Un oggetto TokenJWTDto contenente il token JWT generato.
      * @throws AuthException Se l'autenticazione fallisce a causa di credenziali non valide.
      * @throws UnknownUserException Se l'utente non esiste nel sistema.
+     * @throws PasswordHashingBusyException Se l'executor Argon2 è saturo.
      */
     public TokenDTO login(String username, String password) throws AuthException, UnknownUserException {
         Optional<User> existsUser = userRepository.findByUsername(username);
         if (existsUser.isPresent()) {
             User user = existsUser.get();
-            if (PasswordUtils.verificaPassword(user.getPassword(), password)) {
-                user.setLastLogin(LocalDateTime.now());
-
-                userRepository.save(user);
+            boolean valid;
+            try {
+                valid = passwordUtils.verificaPassword(user.getPassword(), password);
+            } catch (PasswordHashingBusyException e) {
+                recordLogin("rejected");
+                throw e;
+            }
+            if (valid) {
+                // Scrittura differita: l'UPDATE di last_login avviene in batch fuori dal percorso di login
+                lastLoginBuffer.record(user.getId(), LocalDateTime.now());
+                if (rehashIfNeeded(user, password)) {
+                    userRepository.save(user);
+                }
+                recordLogin("success");
                 return tokenService.generateToken(user.getId(), user.getUsername(), user.getRole().getId());
             }
         }
+        recordLogin("failure");
         throw new AuthException("Username o password non valida");
     }
 
+    /**
+     * Rigenera l'hash se i parametri Argon2 configurati sono cambiati. La password in chiaro è
+     * disponibile solo qui, quindi la migrazione avviene in modo trasparente al login.
+     * Con executor saturo la migrazione viene rimandata al login successivo.
+     *
+     * @return true se l'hash è stato aggiornato e l'utente va salvato.
+     */
+    private boolean rehashIfNeeded(User user, String password) {
+        if (!passwordUtils.needsRehash(user.getPassword())) {
+            return false;
+        }
+        try {
+            user.setPassword(passwordUtils.hashPassword(password));
+            return true;
+        } catch (PasswordHashingBusyException e) {
+            // Il login resta valido: l'hash verrà aggiornato alla prossima occasione
+            return false;
+        }
+    }
+
+    private void recordLogin(String outcome) {
+        meterRegistry.counter("auth.login", "outcome", outcome).increment();
+    }
+
     /**
      * Effettua il logout dell'utente invalidando il token.
      * 
@@ -95,9 +141,6 @@ public class AuthService {
      * Aggiorna ultimo login
      */
     public void updateLastLogin(String userId) {
-        userRepository.findById(userId).ifPresent(user -> {
-            user.updateLastLogin();
-            userRepository.save(user);
-        });
+        lastLoginBuffer.record(userId, LocalDateTime.now());
     }
 }
@@ -0,0 +1,89 @@
+package it.unimol.microservice_user_role.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffer in memoria degli ultimi accessi.
+ * Il login registra solo il timestamp in una mappa concorrente; i valori vengono scritti periodicamente
+ * con un unico UPDATE batch, per cui più login dello stesso utente nello stesso intervallo producono una sola
+ * scrittura. Il campo last_login letto dal database può quindi essere in ritardo al massimo di un intervallo.
+ * Alla chiusura del contesto il buffer viene svuotato.
+ */
+@Component
+public class LastLoginBuffer {
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginBuffer.class);
+
+    // La condizione evita di sovrascrivere un valore più recente (es. scritto da un'altra istanza)
+    private static final String UPDATE_LAST_LOGIN =
+            "UPDATE users SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public LastLoginBuffer(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        meterRegistry.gaugeMapSize("auth.last-login.pending", List.of(), pending);
+    }
+
+    /**
+     * Registra l'accesso dell'utente; a parità di utente resta il timestamp più recente.
+     */
+    public void record(String userId, LocalDateTime loginTime) {
+        pending.merge(userId, loginTime, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, LocalDateTime>> batch = new ArrayList<>(pending.size());
+        for (Map.Entry<String, LocalDateTime> entry : pending.entrySet()) {
+            String userId = entry.getKey();
+            LocalDateTime loginTime = entry.getValue();
+            // Rimuove solo se nel frattempo non è arrivato un login più recente
+            if (pending.remove(userId, loginTime)) {
+                batch.add(Map.entry(userId, loginTime));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, batch, batch.size(), (ps, entry) -> {
+                Timestamp loginTime = Timestamp.valueOf(entry.getValue());
+                ps.setTimestamp(1, loginTime);
+                ps.setString(2, entry.getKey());
+                ps.setTimestamp(3, loginTime);
+            });
+            logger.debug("Aggiornato last_login per {} utenti", batch.size());
+        } catch (RuntimeException e) {
+            // Rimette in coda i valori non scritti: verranno ritentati al prossimo intervallo
+            batch.forEach(entry -> record(entry.getKey(), entry.getValue()));
+            logger.error("Errore durante l'aggiornamento di last_login per {} utenti", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            logger.warn("{} aggiornamenti di last_login non scritti alla chiusura", pending.size());
+        }
+    }
+}
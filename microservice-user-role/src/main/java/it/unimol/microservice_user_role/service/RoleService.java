@@ -1,7 +1,6 @@
 package it.unimol.microservice_user_role.service;
 
 import it.unimol.microservice_user_role.dto.role.RoleDTO;
-import it.unimol.microservice_user_role.dto.converter.RoleConverter;
 import it.unimol.microservice_user_role.exceptions.InvalidRequestException;
 import it.unimol.microservice_user_role.exceptions.UnknownUserException;
 import it.unimol.microservice_user_role.model.Role;
@@ -9,13 +8,14 @@ import it.unimol.microservice_user_role.model.User;
 import it.unimol.microservice_user_role.repository.RoleRepository;
 import it.unimol.microservice_user_role.repository.UserRepository;
 import it.unimol.microservice_user_role.enums.RoleType;
+import it.unimol.microservice_user_role.service.cache.RoleCache;
+import it.unimol.microservice_user_role.service.cache.UserCache;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class RoleService {
@@ -23,9 +23,6 @@ public class RoleService {
     @Autowired
     private RoleRepository roleRepository;
 
-    @Autowired
-    private RoleConverter roleConverter;
-
     @Autowired
     private TokenJWTService tokenService;
 
@@ -35,16 +32,19 @@ public class RoleService {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private RoleCache roleCache;
+
+    @Autowired
+    private UserCache userCache;
+
     /**
      * Restituisce tutti i ruoli presenti nel sistema.
      *
      * @return Una lista di RoleDto che rappresentano i ruoli.
      */
     public List<RoleDTO> getAllRoles() {
-        List<Role> roles = roleRepository.findAll();
-        return roles.stream()
-                .map(roleConverter::toDto)
-                .collect(Collectors.toList());
+        return new ArrayList<>(roleCache.findAll());
     }
 
     /**
@@ -54,8 +54,7 @@ public class RoleService {
      * @return Un RoleDto se il role esiste, altrimenti null.
      */
     public RoleDTO findById(String roleId) {
-        Optional<Role> role = roleRepository.findById(roleId);
-        return role.map(roleConverter::toDto).orElse(null);
+        return roleCache.findById(roleId).orElse(null);
     }
 
     /**
@@ -65,8 +64,7 @@ public class RoleService {
      * @return Un RoleDTO se il ruolo esiste, altrimenti null.
      */
     public RoleDTO findByName(String roleName) {
-        Optional<Role> role = roleRepository.findByName(roleName);
-        return role.map(roleConverter::toDto).orElse(null);
+        return roleCache.findByName(roleName).orElse(null);
     }
 
     /**
@@ -99,6 +97,7 @@ public class RoleService {
 
             createRoleIfNotExists(roleType.getRoleId(), roleType.getRoleName(), description);
         }
+        roleCache.reload();
     }
 
     /**
@@ -142,15 +141,17 @@ public class RoleService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UnknownUserException("Utente con ID '" + userId + "' non trovato"));
 
-        Role role = roleRepository.findById(roleId)
-                .orElseThrow(() -> new InvalidRequestException("Ruolo con ID '" + roleId + "' non trovato"));
+        if (!roleCache.exists(roleId)) {
+            throw new InvalidRequestException("Ruolo con ID '" + roleId + "' non trovato");
+        }
 
         if (user.getRole() != null && user.getRole().getId().equals(roleId)) {
             return false;
         }
 
-        user.setRole(role);
+        user.setRole(roleRepository.getReferenceById(roleId));
         userRepository.save(user);
+        userCache.invalidate(userId);
 
         messageService.publishRoleAssigned(userId, roleId);
 
@@ -174,6 +175,7 @@ public class RoleService {
 
         user.setRole(null);
         userRepository.save(user);
+        userCache.invalidate(userId);
 
         return true;
     }
@@ -185,6 +187,6 @@ public class RoleService {
      * @return true se il ruolo esiste, false altrimenti.
      */
     public boolean roleExists(String roleId) {
-        return roleRepository.existsById(roleId);
+        return roleCache.exists(roleId);
     }
 }
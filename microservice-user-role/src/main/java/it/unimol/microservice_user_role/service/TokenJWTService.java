@@ -1,21 +1,26 @@
 package it.unimol.microservice_user_role.service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import it.unimol.microservice_user_role.dto.auth.TokenDTO;
+import it.unimol.microservice_user_role.service.revocation.TokenRevocationStore;
 
 @Service
 public class TokenJWTService {
@@ -32,7 +37,8 @@ public class TokenJWTService {
     private PrivateKey privateKey;
     private PublicKey publicKey;
 
-    private static final Set<String> invalidatedTokens = ConcurrentHashMap.newKeySet();
+    @Autowired
+    private TokenRevocationStore revocationStore;
 
     /**
      * Decifra e restituisce la chiave privata per la firma dei token JWT.
@@ -139,23 +145,30 @@ public class TokenJWTService {
     }
 
     /**
-     * Verifica se il token JWT è scaduto.
+     * Verifica se il token JWT è valido.
      *
      * @param token Il token JWT da verificare.
-     * @return true se il token è scaduto, false altrimenti.
+     * @return true se il token è valido, false altrimenti.
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token) {
+        Claims claims = extractAllClaims(token);
+        return !claims.getExpiration().before(new Date()) && !revocationStore.isRevoked(tokenId(claims, token));
     }
 
     /**
-     * Verifica se il token JWT è valido.
-     *
-     * @param token Il token JWT da verificare.
-     * @return true se il token è valido, false altrimenti.
+     * Identificativo del token per il registro delle revoche: il claim jti, oppure l'hash SHA-256
+     * per i token emessi prima dell'introduzione del jti.
      */
-    public boolean isTokenValid(String token) {
-        return !isTokenExpired(token) && !invalidatedTokens.contains(token);
+    private String tokenId(Claims claims, String token) {
+        if (claims.getId() != null) {
+            return claims.getId();
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponibile", e);
+        }
     }
 
     /**
@@ -174,6 +187,7 @@ public class TokenJWTService {
 
         String token = Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userId)
                 .setIssuedAt(new Date(now))
                 .setExpiration(new Date(expiration))
@@ -204,12 +218,23 @@ public class TokenJWTService {
     }
 
     /**
-     * Invalida un token aggiungendolo all'insieme di token invalidati.
+     * Invalida un token registrandolo tra le revoche fino alla sua scadenza.
+     * Un token già scaduto o non valido non viene registrato: è comunque rifiutato.
      *
      * @param token Il token da invalidare.
      */
     public void invalidateToken(String token) {
-        invalidatedTokens.add(token);
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (JwtException e) {
+            return;
+        }
+        revokeToken(claims, token);
+    }
+
+    private void revokeToken(Claims claims, String token) {
+        revocationStore.revoke(tokenId(claims, token), claims.getExpiration().toInstant());
     }
 
     /**
@@ -220,16 +245,16 @@ public class TokenJWTService {
      * @throws RuntimeException Se il token è già stato invalidato.
      */
     public TokenDTO refreshToken(String token) throws RuntimeException {
-        if (invalidatedTokens.contains(token)) {
+        Claims claims = extractAllClaims(token);
+        if (revocationStore.isRevoked(tokenId(claims, token))) {
             throw new RuntimeException("Token già invalidato, non è possibile effettuare il refresh");
         }
 
-        Claims claims = extractAllClaims(token);
         String userId = claims.getSubject();
         String username = claims.get("username", String.class);
         String role = claims.get("role", String.class);
 
-        invalidateToken(token);
+        revokeToken(claims, token);
 
         return generateToken(userId, username, role);
     }
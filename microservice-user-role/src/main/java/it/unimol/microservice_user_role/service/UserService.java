@@ -11,6 +11,7 @@ import it.unimol.microservice_user_role.model.Role;
 import it.unimol.microservice_user_role.model.User;
 import it.unimol.microservice_user_role.repository.RoleRepository;
 import it.unimol.microservice_user_role.repository.UserRepository;
+import it.unimol.microservice_user_role.service.cache.UserCache;
 import it.unimol.microservice_user_role.util.PasswordUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -39,6 +40,12 @@ public class UserService {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private PasswordUtils passwordUtils;
+
+    @Autowired
+    private UserCache userCache;
+
     /**
      * Crea un SuperAdmin se non esiste già.
      *
@@ -114,28 +121,17 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public UserDTO findById(String id) throws UnknownUserException {
-        System.out.println("=== UserService.findById ===");
-        System.out.println("ID ricevuto: " + id);
-
-        Optional<User> userOpt = userRepository.findById(id);
-        if (userOpt.isEmpty()) {
-            System.out.println("Utente NON trovato nel database");
-            throw new UnknownUserException("Utente non trovato");
+        Optional<UserDTO> cached = userCache.getUser(id);
+        if (cached.isPresent()) {
+            return cached.get();
         }
 
-        User user = userOpt.get();
-        System.out.println("Utente trovato: " + user.getUsername());
-        System.out.println("Role utente: " + (user.getRole() != null ? user.getRole().getName() : "NULL"));
-
-        try {
-            System.out.println("=== Conversione a DTO ===");
-            UserDTO dto = userConverter.toDto(user);
-            System.out.println("Conversione completata con successo");
-            return dto;
-        } catch (Exception e) {
-            System.out.println("ERRORE nella conversione DTO: " + e.getMessage());
-            throw e;
-        }
+        long generation = userCache.generation();
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UnknownUserException("Utente non trovato"));
+        UserDTO dto = userConverter.toDto(user);
+        userCache.putUser(dto, generation);
+        return dto;
     }
 
     /**
@@ -147,9 +143,17 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public UserDTO findByUsername(String username) throws UnknownUserException {
+        Optional<UserDTO> cached = userCache.getUserByUsername(username);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long generation = userCache.generation();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UnknownUserException("Username non trovato"));
-        return userConverter.toDto(user);
+        UserDTO dto = userConverter.toDto(user);
+        userCache.putUser(dto, generation);
+        return dto;
     }
 
     /**
@@ -177,6 +181,7 @@ public class UserService {
 
         userConverter.updateEntity(user, updateData);
         User savedUser = userRepository.save(user);
+        userCache.invalidate(userId);
         UserDTO userDto = userConverter.toDto(savedUser);
 
         messageService.publishUserUpdated(userDto);
@@ -193,6 +198,7 @@ public class UserService {
         Optional<User> user = userRepository.findById(userId);
         if (user.isPresent()) {
             userRepository.delete(user.get());
+            userCache.invalidate(userId);
             messageService.publishUserDeleted(userId);
             return true;
         }
@@ -209,10 +215,17 @@ public class UserService {
     @Transactional(readOnly = true)
     public UserProfileDTO getCurrentUserProfile(String token) throws UnknownUserException {
         String userId = tokenService.extractUserId(token);
+        Optional<UserProfileDTO> cached = userCache.getProfile(userId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long generation = userCache.generation();
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UnknownUserException("Utente non trovato"));
-
-        return userConverter.toProfileDto(user);
+        UserProfileDTO profile = userConverter.toProfileDto(user);
+        userCache.putProfile(profile, generation);
+        return profile;
     }
 
     /**
@@ -229,6 +242,7 @@ public class UserService {
 
         userConverter.updateEntity(user, updateData);
         User savedUser = userRepository.save(user);
+        userCache.invalidate(userId);
         UserProfileDTO profile = userConverter.toProfileDto(savedUser);
 
         messageService.publishProfileUpdated(profile);
@@ -249,11 +263,11 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UnknownUserException("Utente non trovato"));
 
-        if (!PasswordUtils.verificaPassword(user.getPassword(), currentPassword)) {
+        if (!passwordUtils.verificaPassword(user.getPassword(), currentPassword)) {
             return false;
         }
 
-        user.setPassword(PasswordUtils.hashPassword(newPassword));
+        user.setPassword(passwordUtils.hashPassword(newPassword));
         userRepository.save(user);
 
         return true;
@@ -272,12 +286,12 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UnknownUserException("Utente non trovato"));
 
-        if (!PasswordUtils.verificaPassword(user.getPassword(), currentPassword)) {
+        if (!passwordUtils.verificaPassword(user.getPassword(), currentPassword)) {
             throw new SecurityException("Password corrente errata");
         }
 
         String tempPassword = generateTemporaryPassword();
-        user.setPassword(PasswordUtils.hashPassword(tempPassword));
+        user.setPassword(passwordUtils.hashPassword(tempPassword));
         userRepository.save(user);
 
         return tempPassword;
@@ -0,0 +1,64 @@
+package it.unimol.microservice_user_role.service.cache;
+
+import it.unimol.microservice_user_role.dto.converter.RoleConverter;
+import it.unimol.microservice_user_role.dto.role.RoleDTO;
+import it.unimol.microservice_user_role.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Near-cache dei ruoli.
+ * La tabella roles contiene pochi record che cambiano solo all'inizializzazione: viene caricata
+ * interamente in memoria e ricaricata dopo ogni modifica, così le letture non accedono al database.
+ */
+@Component
+public class RoleCache {
+    private static final Logger logger = LoggerFactory.getLogger(RoleCache.class);
+
+    private final RoleRepository roleRepository;
+    private final RoleConverter roleConverter;
+
+    private volatile Map<String, RoleDTO> rolesById = Map.of();
+    private volatile Map<String, RoleDTO> rolesByName = Map.of();
+
+    public RoleCache(RoleRepository roleRepository, RoleConverter roleConverter) {
+        this.roleRepository = roleRepository;
+        this.roleConverter = roleConverter;
+    }
+
+    /**
+     * Ricarica tutti i ruoli dal database.
+     */
+    public synchronized void reload() {
+        List<RoleDTO> roles = roleRepository.findAll().stream()
+                .map(roleConverter::toDto)
+                .toList();
+        rolesById = roles.stream().collect(Collectors.toUnmodifiableMap(RoleDTO::id, Function.identity()));
+        rolesByName = roles.stream().collect(Collectors.toUnmodifiableMap(RoleDTO::name, Function.identity()));
+        logger.info("Cache dei ruoli caricata: {} ruoli", roles.size());
+    }
+
+    public Optional<RoleDTO> findById(String roleId) {
+        return Optional.ofNullable(rolesById.get(roleId));
+    }
+
+    public Optional<RoleDTO> findByName(String roleName) {
+        return Optional.ofNullable(rolesByName.get(roleName));
+    }
+
+    public Collection<RoleDTO> findAll() {
+        return rolesById.values();
+    }
+
+    public boolean exists(String roleId) {
+        return rolesById.containsKey(roleId);
+    }
+}
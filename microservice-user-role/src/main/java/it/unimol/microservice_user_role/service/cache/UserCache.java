@@ -0,0 +1,111 @@
+package it.unimol.microservice_user_role.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import it.unimol.microservice_user_role.dto.user.UserDTO;
+import it.unimol.microservice_user_role.dto.user.UserProfileDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache limitata di {@link UserDTO} e {@link UserProfileDTO} per ID utente, con un indice username -> ID.
+ * Viene invalidata dalle stesse operazioni che pubblicano user.updated, user.deleted e role.assigned.
+ * Il TTL limita la durata dei dati non invalidati esplicitamente (es. lastLogin, modifiche da altre istanze).
+ * <p>
+ * Chi legge dal database prende prima la {@link #generation()} e la passa all'inserimento: se nel frattempo
+ * c'è stata un'invalidazione, il dato letto può essere precedente alla modifica e non viene conservato.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<String, UserDTO> users;
+    private final Cache<String, UserProfileDTO> profiles;
+    private final Cache<String, String> idsByUsername;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserCache(MeterRegistry meterRegistry,
+                     @Value("${users.cache.max-size:10000}") long maxSize,
+                     @Value("${users.cache.ttl-seconds:300}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.users = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.profiles = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.idsByUsername = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users.dto");
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "users.profile");
+    }
+
+    public Optional<UserDTO> getUser(String userId) {
+        return Optional.ofNullable(users.getIfPresent(userId));
+    }
+
+    /**
+     * Cerca per username tramite l'indice; una voce dell'indice non più coerente (username cambiato) viene ignorata.
+     */
+    public Optional<UserDTO> getUserByUsername(String username) {
+        String userId = idsByUsername.getIfPresent(username);
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return getUser(userId).filter(user -> username.equals(user.username()));
+    }
+
+    public Optional<UserProfileDTO> getProfile(String userId) {
+        return Optional.ofNullable(profiles.getIfPresent(userId));
+    }
+
+    /**
+     * Generazione corrente della cache, da leggere prima di caricare l'utente dal database.
+     */
+    public long generation() {
+        return invalidations.get();
+    }
+
+    /**
+     * Inserisce l'utente letto dopo {@code generation}. Il controllo segue l'inserimento: un'invalidazione
+     * concorrente o ha già incrementato il contatore, o rimuove la voce dopo l'inserimento.
+     */
+    public void putUser(UserDTO user, long generation) {
+        users.put(user.id(), user);
+        idsByUsername.put(user.username(), user.id());
+        if (invalidations.get() != generation) {
+            users.invalidate(user.id());
+        }
+    }
+
+    public void putProfile(UserProfileDTO profile, long generation) {
+        profiles.put(profile.id(), profile);
+        if (invalidations.get() != generation) {
+            profiles.invalidate(profile.id());
+        }
+    }
+
+    /**
+     * Invalida l'utente subito e, se la modifica è in una transazione, di nuovo dopo il commit:
+     * una lettura tra le due vede ancora i dati confermati precedenti.
+     */
+    public void invalidate(String userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private void evict(String userId) {
+        invalidations.incrementAndGet();
+        users.invalidate(userId);
+        profiles.invalidate(userId);
+    }
+}
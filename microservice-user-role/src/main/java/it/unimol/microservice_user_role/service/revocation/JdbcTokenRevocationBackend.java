@@ -0,0 +1,51 @@
+package it.unimol.microservice_user_role.service.revocation;
+
+import it.unimol.microservice_user_role.model.RevokedToken;
+import it.unimol.microservice_user_role.repository.RevokedTokenRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Backend condiviso sulla tabella revoked_tokens: le istanze che usano lo stesso database
+ * vedono le revoche delle altre tramite la sincronizzazione periodica di {@link TokenRevocationStore}.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.revocation.backend", havingValue = "jdbc")
+public class JdbcTokenRevocationBackend implements TokenRevocationBackend {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    public JdbcTokenRevocationBackend(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @Override
+    @Transactional
+    public void save(String tokenId, Instant expiresAt, Instant revokedAt) {
+        if (!revokedTokenRepository.existsById(tokenId)) {
+            revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt, revokedAt));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isRevoked(String tokenId, Instant now) {
+        return revokedTokenRepository.isRevoked(tokenId, now);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RevokedToken> findRevokedSince(Instant since, Instant now) {
+        return revokedTokenRepository.findRevokedSince(since, now);
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(Instant now) {
+        return revokedTokenRepository.deleteExpired(now);
+    }
+}
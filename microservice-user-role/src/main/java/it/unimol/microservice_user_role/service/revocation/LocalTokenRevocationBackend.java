@@ -0,0 +1,40 @@
+package it.unimol.microservice_user_role.service.revocation;
+
+import it.unimol.microservice_user_role.model.RevokedToken;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Backend di default: le revoche vivono solo nella cache di {@link TokenRevocationStore}.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.revocation.backend", havingValue = "local", matchIfMissing = true)
+public class LocalTokenRevocationBackend implements TokenRevocationBackend {
+
+    @Override
+    public void save(String tokenId, Instant expiresAt, Instant revokedAt) {
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId, Instant now) {
+        return false;
+    }
+
+    @Override
+    public List<RevokedToken> findRevokedSince(Instant since, Instant now) {
+        return List.of();
+    }
+
+    @Override
+    public int purgeExpired(Instant now) {
+        return 0;
+    }
+
+    @Override
+    public boolean isDurable() {
+        return false;
+    }
+}
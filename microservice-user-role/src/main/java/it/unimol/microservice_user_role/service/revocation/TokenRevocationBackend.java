@@ -0,0 +1,37 @@
+package it.unimol.microservice_user_role.service.revocation;
+
+import it.unimol.microservice_user_role.model.RevokedToken;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Backend delle revoche, selezionato con auth.revocation.backend.
+ * "local" mantiene le revoche solo nell'istanza corrente; "jdbc" le salva sul database degli utenti
+ * e le rende visibili a tutte le istanze che lo condividono.
+ */
+public interface TokenRevocationBackend {
+
+    void save(String tokenId, Instant expiresAt, Instant revokedAt);
+
+    /**
+     * Verifica autorevole, usata solo quando il filtro in memoria segnala una possibile revoca
+     * che la cache locale non conosce.
+     */
+    boolean isRevoked(String tokenId, Instant now);
+
+    /**
+     * Revoche registrate da altre istanze dopo {@code since} e non ancora scadute.
+     */
+    List<RevokedToken> findRevokedSince(Instant since, Instant now);
+
+    int purgeExpired(Instant now);
+
+    /**
+     * Indica se le revoche sono conservate fuori dalla cache: solo in quel caso la cache può
+     * scartarne qualcuna per limite di dimensione senza che il token torni valido.
+     */
+    default boolean isDurable() {
+        return true;
+    }
+}
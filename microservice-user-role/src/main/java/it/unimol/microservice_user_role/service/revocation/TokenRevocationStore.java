@@ -0,0 +1,167 @@
+package it.unimol.microservice_user_role.service.revocation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import it.unimol.microservice_user_role.model.RevokedToken;
+import it.unimol.microservice_user_role.util.RotatingBloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro dei token revocati (logout e refresh), indicizzato per jti o per hash del token.
+ * Ogni revoca resta in cache solo fino alla scadenza del token stesso, poi viene rimossa: oltre quel
+ * momento il token è comunque rifiutato perché scaduto.
+ * Davanti alla cache c'è un Bloom filter: per la grande maggioranza dei token, che non sono revocati,
+ * la verifica si chiude in memoria senza accedere né alla cache né al backend.
+ * Con un backend condiviso le revoche delle altre istanze diventano visibili entro auth.revocation.sync-interval-ms.
+ * auth.revocation.max-size limita la cache solo con backend persistente; con il backend local la cache
+ * è l'unica copia delle revoche e si svuota soltanto alla scadenza dei token.
+ */
+@Component
+public class TokenRevocationStore {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    private final TokenRevocationBackend backend;
+    private final RotatingBloomFilter filter;
+    private final Cache<String, Instant> revoked;
+    private final Duration filterRotation;
+
+    // Le revoche vengono rilette con un margine per non perdere quelle committate in ritardo
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private Instant nextRotation;
+    // Al primo giro vengono caricate tutte le revoche non scadute
+    private Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationStore(TokenRevocationBackend backend,
+                                MeterRegistry meterRegistry,
+                                @Value("${jwt.expiration}") long tokenLifetimeSeconds,
+                                @Value("${auth.revocation.max-size:1000000}") long maxSize,
+                                @Value("${auth.revocation.filter.expected-insertions:100000}") long expectedInsertions,
+                                @Value("${auth.revocation.filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.backend = backend;
+        this.filter = new RotatingBloomFilter(expectedInsertions, falsePositiveProbability);
+        this.filterRotation = Duration.ofSeconds(tokenLifetimeSeconds);
+        this.nextRotation = Instant.now().plus(filterRotation);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (backend.isDurable()) {
+            builder.maximumSize(maxSize);
+        } else {
+            // La cache è l'unica copia delle revoche: scartarne una renderebbe di nuovo valido il token,
+            // quindi nessun limite di dimensione e ogni revoca resta fino alla scadenza del token
+            logger.info("Backend delle revoche non persistente: auth.revocation.max-size ignorato");
+        }
+        this.revoked = builder
+                .expireAfter(new RevocationExpiry())
+                .removalListener((String tokenId, Instant expiresAt, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        // Solo con backend persistente: il token resta nel filtro e la verifica passa dal backend
+                        logger.warn("Cache delle revoche piena, rimossa la revoca {} prima della scadenza", tokenId);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, revoked, "auth.revoked-tokens");
+    }
+
+    /**
+     * Revoca il token fino alla sua scadenza.
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (!expiresAt.isAfter(now)) {
+            return;
+        }
+        remember(tokenId, expiresAt);
+        backend.save(tokenId, expiresAt, now);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        if (revoked.getIfPresent(tokenId) != null) {
+            return true;
+        }
+        // Falso positivo del filtro oppure revoca rimossa dalla cache per limite di dimensione
+        return backend.isRevoked(tokenId, Instant.now());
+    }
+
+    /**
+     * Importa le revoche registrate dalle altre istanze e ruota il filtro quando necessario.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval-ms:5000}")
+    public void synchronize() {
+        Instant now = Instant.now();
+        rotateFilterIfDue(now);
+
+        Instant since = lastSync.equals(Instant.EPOCH) ? lastSync : lastSync.minus(SYNC_OVERLAP);
+        List<RevokedToken> updates = backend.findRevokedSince(since, now);
+        for (RevokedToken token : updates) {
+            remember(token.getTokenId(), token.getExpiresAt());
+            if (token.getRevokedAt().isAfter(lastSync)) {
+                lastSync = token.getRevokedAt();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = backend.purgeExpired(Instant.now());
+        if (deleted > 0) {
+            logger.info("Rimosse {} revoche di token scaduti", deleted);
+        }
+    }
+
+    private void remember(String tokenId, Instant expiresAt) {
+        filter.put(tokenId);
+        revoked.put(tokenId, expiresAt);
+    }
+
+    // Una revoca dura al massimo quanto un token: con rotazione ogni jwt.expiration resta nel filtro
+    // per almeno una generazione intera, quindi fino alla scadenza del token
+    private synchronized void rotateFilterIfDue(Instant now) {
+        if (now.isBefore(nextRotation)) {
+            return;
+        }
+        filter.rotate();
+        nextRotation = now.plus(filterRotation);
+    }
+
+    /**
+     * Ogni revoca scade insieme al token a cui si riferisce.
+     */
+    private static class RevocationExpiry implements Expiry<String, Instant> {
+
+        @Override
+        public long expireAfterCreate(String tokenId, Instant expiresAt, long currentTime) {
+            return remaining(expiresAt);
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+            return remaining(expiresAt);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long remaining(Instant expiresAt) {
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(expiresAt.toEpochMilli() - System.currentTimeMillis()));
+        }
+    }
+}
@@ -2,29 +2,160 @@ package it.unimol.microservice_user_role.util;
 
 import de.mkammerer.argon2.Argon2;
 import de.mkammerer.argon2.Argon2Factory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import it.unimol.microservice_user_role.exceptions.PasswordHashingBusyException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashing e verifica delle password con Argon2 su un executor dedicato e limitato.
+ * Argon2 è volutamente costoso in CPU e memoria: eseguirlo sul thread della richiesta fa sì che un picco
+ * di login saturi tutti i thread Tomcat. Qui il lavoro gira su un pool dimensionato sui core con una coda
+ * finita; a coda piena la chiamata fallisce subito con {@link PasswordHashingBusyException}.
+ * I parametri Argon2 sono configurabili: gli hash creati con parametri diversi vengono rilevati
+ * da {@link #needsRehash(String)} e rigenerati al login successivo.
+ */
 @Component
-public final class PasswordUtils {
-    private static final Argon2 argon2 = Argon2Factory.create();
+public class PasswordUtils {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordUtils.class);
+
+    private final Argon2 argon2 = Argon2Factory.create();
+
+    private final int iterations;
+    private final int memoryKb;
+    private final int parallelism;
+    private final long timeoutMs;
+
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordUtils(MeterRegistry meterRegistry,
+                         @Value("${password.argon2.iterations:2}") int iterations,
+                         @Value("${password.argon2.memory-kb:1024}") int memoryKb,
+                         @Value("${password.argon2.parallelism:1}") int parallelism,
+                         @Value("${password.hashing.threads:0}") int threads,
+                         @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+                         @Value("${password.hashing.timeout-ms:5000}") long timeoutMs) {
+        this.iterations = iterations;
+        this.memoryKb = memoryKb;
+        this.parallelism = parallelism;
+        this.timeoutMs = timeoutMs;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "argon2-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // executor.queued / executor.active / executor.completed con tag name=argon2
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "argon2");
+        this.hashTimer = Timer.builder("password.hashing.duration")
+                .description("Durata di hashing e verifica Argon2")
+                .tag("operation", "hash")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("password.hashing.duration")
+                .description("Durata di hashing e verifica Argon2")
+                .tag("operation", "verify")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Richieste Argon2 rifiutate per executor saturo")
+                .register(meterRegistry);
+
+        logger.info("Executor Argon2 inizializzato: {} thread, coda {}, parametri t={} m={}KB p={}",
+                poolSize, queueCapacity, iterations, memoryKb, parallelism);
+    }
+
+    public String hashPassword(String password) {
+        return submit(hashTimer, () -> {
+            char[] passwordChars = password.toCharArray();
 
-    public static String hashPassword(String password) {
-        char[] passwordChars = password.toCharArray();
+            try {
+                return argon2.hash(iterations, memoryKb, parallelism, passwordChars);
+            } finally {
+                argon2.wipeArray(passwordChars);
+            }
+        });
+    }
+
+    public boolean verificaPassword(String hash, String password) {
+        return submit(verifyTimer, () -> {
+            char[] passwordChars = password.toCharArray();
+
+            try {
+                return argon2.verify(hash, passwordChars);
+            } finally {
+                argon2.wipeArray(passwordChars);
+            }
+        });
+    }
+
+    /**
+     * Indica se l'hash è stato generato con parametri Argon2 diversi da quelli configurati.
+     * Legge solo l'intestazione dell'hash, quindi non passa dall'executor.
+     */
+    public boolean needsRehash(String hash) {
+        return argon2.needsRehash(hash, iterations, memoryKb, parallelism);
+    }
 
+    // Package-private per i test, che la usano per occupare l'executor con task controllabili
+    <T> T submit(Timer timer, Callable<T> task) {
+        Future<T> future;
         try {
-            return argon2.hash(2, 1024, 1, passwordChars);
-        } finally {
-            argon2.wipeArray(passwordChars);
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("Executor Argon2 saturo ({} in coda): richiesta rifiutata", executor.getQueue().size());
+            throw new PasswordHashingBusyException("Servizio di autenticazione sovraccarico, riprovare più tardi");
         }
-    }
-    
-    public static boolean verificaPassword(String hash, String password) {
-        char[] passwordChars = password.toCharArray();
 
         try {
-            return argon2.verify(hash, passwordChars);
-        } finally {
-            argon2.wipeArray(passwordChars);
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            logger.warn("Hashing Argon2 non completato entro {} ms", timeoutMs);
+            throw new PasswordHashingBusyException("Servizio di autenticazione sovraccarico, riprovare più tardi");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Hashing della password interrotto");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Errore durante l'hashing della password", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Runnable> pending = executor.shutdownNow();
+        if (!pending.isEmpty()) {
+            logger.info("Executor Argon2 arrestato con {} richieste in coda", pending.size());
         }
     }
 }
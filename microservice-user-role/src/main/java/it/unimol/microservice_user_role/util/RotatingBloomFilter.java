@@ -0,0 +1,92 @@
+package it.unimol.microservice_user_role.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter a due generazioni per chiavi con scadenza.
+ * Un Bloom filter non supporta la rimozione: le chiavi vengono inserite nella generazione corrente e
+ * {@link #rotate()} scarta la generazione precedente. Se la rotazione avviene a intervalli pari alla
+ * durata massima di una chiave, ogni chiave resta nel filtro almeno finché è valida.
+ * Nessun falso negativo, falsi positivi con probabilità circa pari a quella configurata.
+ */
+public class RotatingBloomFilter {
+
+    private final int bitCount;
+    private final int hashCount;
+
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+
+    public RotatingBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.max(64, Math.min(bits, Integer.MAX_VALUE - 63));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.current = new AtomicLongArray(words());
+        this.previous = new AtomicLongArray(words());
+    }
+
+    public void put(String key) {
+        AtomicLongArray bits = current;
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long value;
+            do {
+                value = bits.get(word);
+            } while ((value & mask) == 0 && !bits.compareAndSet(word, value, value | mask));
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        return contains(current, hash) || contains(previous, hash);
+    }
+
+    /**
+     * Apre una nuova generazione e scarta la più vecchia.
+     */
+    public synchronized void rotate() {
+        previous = current;
+        current = new AtomicLongArray(words());
+    }
+
+    public int getBitCount() {
+        return bitCount;
+    }
+
+    private boolean contains(AtomicLongArray bits, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int words() {
+        return (bitCount + 63) >>> 6;
+    }
+
+    // FNV-1a a 64 bit seguito dal finalizer di MurmurHash3 per distribuire i bit
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
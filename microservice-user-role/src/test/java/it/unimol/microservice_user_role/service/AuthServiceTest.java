@@ -0,0 +1,105 @@
+package it.unimol.microservice_user_role.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.unimol.microservice_user_role.dto.auth.TokenDTO;
+import it.unimol.microservice_user_role.exceptions.PasswordHashingBusyException;
+import it.unimol.microservice_user_role.model.Role;
+import it.unimol.microservice_user_role.model.User;
+import it.unimol.microservice_user_role.repository.UserRepository;
+import it.unimol.microservice_user_role.util.PasswordUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private TokenJWTService tokenService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PasswordUtils passwordUtils;
+    @Mock
+    private LastLoginBuffer lastLoginBuffer;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AuthService authService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("u1", "mario", "mario@unimol.it", "Mario", "Rossi", "old-hash",
+                new Role("student", "Studente", null));
+        when(userRepository.findByUsername("mario")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void loginRehashesPasswordsCreatedWithOldParameters() throws Exception {
+        when(passwordUtils.verificaPassword("old-hash", "segreta")).thenReturn(true);
+        when(passwordUtils.needsRehash("old-hash")).thenReturn(true);
+        when(passwordUtils.hashPassword("segreta")).thenReturn("new-hash");
+        when(tokenService.generateToken("u1", "mario", "student")).thenReturn(new TokenDTO("jwt"));
+
+        assertEquals("jwt", authService.login("mario", "segreta").token());
+
+        assertEquals("new-hash", user.getPassword());
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void loginWithCurrentParametersDoesNotRehash() throws Exception {
+        when(passwordUtils.verificaPassword("old-hash", "segreta")).thenReturn(true);
+        when(passwordUtils.needsRehash("old-hash")).thenReturn(false);
+        when(tokenService.generateToken("u1", "mario", "student")).thenReturn(new TokenDTO("jwt"));
+
+        authService.login("mario", "segreta");
+
+        verify(passwordUtils, never()).hashPassword(anyString());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void busyExecutorDuringRehashStillLogsIn() throws Exception {
+        when(passwordUtils.verificaPassword("old-hash", "segreta")).thenReturn(true);
+        when(passwordUtils.needsRehash("old-hash")).thenReturn(true);
+        when(passwordUtils.hashPassword("segreta"))
+                .thenThrow(new PasswordHashingBusyException("Servizio di autenticazione sovraccarico"));
+        when(tokenService.generateToken("u1", "mario", "student")).thenReturn(new TokenDTO("jwt"));
+
+        assertEquals("jwt", authService.login("mario", "segreta").token());
+
+        // L'hash resta quello vecchio e verrà aggiornato a un login successivo
+        assertEquals("old-hash", user.getPassword());
+        verify(userRepository, never()).save(any());
+        assertEquals(1, meterRegistry.get("auth.login").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void busyExecutorDuringVerificationRejectsTheLogin() {
+        when(passwordUtils.verificaPassword("old-hash", "segreta"))
+                .thenThrow(new PasswordHashingBusyException("Servizio di autenticazione sovraccarico"));
+
+        assertThrows(PasswordHashingBusyException.class, () -> authService.login("mario", "segreta"));
+
+        assertEquals(1, meterRegistry.get("auth.login").tag("outcome", "rejected").counter().count());
+    }
+}
@@ -0,0 +1,128 @@
+package it.unimol.microservice_user_role.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LastLoginBufferTest {
+
+    private static final LocalDateTime LOGIN = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private MeterRegistry meterRegistry;
+    private LastLoginBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new LastLoginBuffer(jdbcTemplate, meterRegistry);
+    }
+
+    @Test
+    void loginsOfTheSameUserAreWrittenOnceWithTheLatestTime() {
+        buffer.record("u1", LOGIN);
+        buffer.record("u1", LOGIN.plusMinutes(5));
+        buffer.record("u1", LOGIN.plusMinutes(2));
+        buffer.record("u2", LOGIN);
+
+        buffer.flush();
+
+        List<Map.Entry<String, LocalDateTime>> batch = flushedBatches(1).get(0);
+        assertEquals(Map.of("u1", LOGIN.plusMinutes(5), "u2", LOGIN), Map.ofEntries(batch.toArray(Map.Entry[]::new)));
+        assertEquals(0, pending());
+    }
+
+    @Test
+    void emptyBufferDoesNotTouchTheDatabase() {
+        buffer.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    void newerLoginDuringAFlushIsKeptForTheNextOne() {
+        buffer.record("u1", LOGIN);
+        // Il login successivo arriva mentre l'UPDATE del valore precedente è in corso
+        doAnswer(invocation -> {
+            buffer.record("u1", LOGIN.plusMinutes(1));
+            return new int[0][];
+        }).doReturn(new int[0][]).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        buffer.flush();
+        assertEquals(1, pending());
+        buffer.flush();
+
+        List<List<Map.Entry<String, LocalDateTime>>> batches = flushedBatches(2);
+        assertEquals(List.of(Map.entry("u1", LOGIN)), batches.get(0));
+        assertEquals(List.of(Map.entry("u1", LOGIN.plusMinutes(1))), batches.get(1));
+        assertEquals(0, pending());
+    }
+
+    @Test
+    void failedBatchIsRequeued() {
+        buffer.record("u1", LOGIN);
+        buffer.record("u2", LOGIN);
+        doThrow(new QueryTimeoutException("timeout")).doReturn(new int[0][])
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        buffer.flush();
+        assertEquals(2, pending());
+        // Un login più recente arrivato dopo l'errore prevale sul valore rimesso in coda
+        buffer.record("u1", LOGIN.plusMinutes(3));
+        buffer.flush();
+
+        List<Map.Entry<String, LocalDateTime>> retried = flushedBatches(2).get(1);
+        assertEquals(Map.of("u1", LOGIN.plusMinutes(3), "u2", LOGIN), Map.ofEntries(retried.toArray(Map.Entry[]::new)));
+        assertEquals(0, pending());
+    }
+
+    @Test
+    void pendingLoginsAreFlushedWhenTheContextCloses() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(JdbcTemplate.class, () -> jdbcTemplate);
+            context.registerBean(MeterRegistry.class, () -> meterRegistry);
+            context.registerBean(LastLoginBuffer.class);
+            context.refresh();
+
+            context.getBean(LastLoginBuffer.class).record("u1", LOGIN);
+        }
+
+        assertEquals(List.of(Map.entry("u1", LOGIN)), flushedBatches(1).get(0));
+    }
+
+    private double pending() {
+        return meterRegistry.get("auth.last-login.pending").gauge().value();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Map.Entry<String, LocalDateTime>>> flushedBatches(int expected) {
+        ArgumentCaptor<Collection<Map.Entry<String, LocalDateTime>>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(expected)).batchUpdate(anyString(), batches.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        return batches.getAllValues().stream().map(List::copyOf).toList();
+    }
+}
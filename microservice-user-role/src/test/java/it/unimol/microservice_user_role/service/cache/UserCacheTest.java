@@ -0,0 +1,82 @@
+package it.unimol.microservice_user_role.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.unimol.microservice_user_role.dto.user.UserDTO;
+import it.unimol.microservice_user_role.dto.user.UserProfileDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserCacheTest {
+
+    private UserCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserCache(new SimpleMeterRegistry(), 100, 300);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void userReadBeforeInvalidationIsNotCached() {
+        long generation = cache.generation();
+        UserDTO readBeforeUpdate = user("mario");
+
+        // La modifica viene confermata e invalidata mentre la lettura è in corso
+        cache.invalidate("u1");
+        cache.putUser(readBeforeUpdate, generation);
+
+        assertTrue(cache.getUser("u1").isEmpty());
+        assertTrue(cache.getUserByUsername("mario").isEmpty());
+    }
+
+    @Test
+    void profileReadBeforeInvalidationIsNotCached() {
+        long generation = cache.generation();
+        cache.invalidate("u1");
+        cache.putProfile(profile(), generation);
+
+        assertTrue(cache.getProfile("u1").isEmpty());
+    }
+
+    @Test
+    void userReadAfterInvalidationIsCached() {
+        cache.invalidate("u1");
+        cache.putUser(user("mario.rossi"), cache.generation());
+
+        assertEquals("mario.rossi", cache.getUserByUsername("mario.rossi").orElseThrow().username());
+    }
+
+    @Test
+    void invalidationInsideTransactionIsRepeatedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate("u1");
+
+        // Prima del commit una lettura vede ancora i dati confermati precedenti
+        cache.putUser(user("mario"), cache.generation());
+        assertTrue(cache.getUser("u1").isPresent());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(cache.getUser("u1").isEmpty());
+    }
+
+    private static UserDTO user(String username) {
+        return new UserDTO("u1", username, username + "@studenti.unimol.it", "Mario", "Rossi", null, null, null);
+    }
+
+    private static UserProfileDTO profile() {
+        return new UserProfileDTO("u1", "mario", "mario@studenti.unimol.it", "Mario", "Rossi", "STUDENT", null, null);
+    }
+}
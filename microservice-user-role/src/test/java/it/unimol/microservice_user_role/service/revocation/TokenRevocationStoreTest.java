@@ -0,0 +1,98 @@
+package it.unimol.microservice_user_role.service.revocation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.unimol.microservice_user_role.model.RevokedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationStoreTest {
+
+    private TokenRevocationBackend backend;
+    private TokenRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        backend = mock(TokenRevocationBackend.class);
+        store = new TokenRevocationStore(backend, new SimpleMeterRegistry(), 3600, 1000, 1000, 0.01);
+    }
+
+    @Test
+    void revocationLastsUntilTheTokenExpires() throws Exception {
+        Instant expiresAt = Instant.now().plusMillis(300);
+        store.revoke("jti-1", expiresAt);
+
+        assertTrue(store.isRevoked("jti-1"));
+        verify(backend).save(eq("jti-1"), eq(expiresAt), any());
+
+        Thread.sleep(500);
+
+        // Scaduta in cache: resta solo il filtro, e la verifica passa al backend che non la conosce più
+        assertFalse(store.isRevoked("jti-1"));
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotStored() {
+        store.revoke("jti-expired", Instant.now().minusSeconds(1));
+
+        assertFalse(store.isRevoked("jti-expired"));
+        verify(backend, never()).save(anyString(), any(), any());
+        verify(backend, never()).isRevoked(anyString(), any());
+    }
+
+    @Test
+    void tokensOutsideTheFilterNeverReachTheBackend() {
+        store.revoke("jti-revoked", Instant.now().plusSeconds(600));
+
+        for (int i = 0; i < 1000; i++) {
+            store.isRevoked("jti-valid-" + i);
+        }
+
+        assertTrue(store.isRevoked("jti-revoked"));
+        // Con un solo token nel filtro non ci sono falsi positivi; il revocato è risolto dalla cache
+        verify(backend, never()).isRevoked(anyString(), any());
+    }
+
+    @Test
+    void revocationsFromOtherInstancesAreImported() {
+        Instant revokedAt = Instant.now().minusSeconds(5);
+        when(backend.findRevokedSince(eq(Instant.EPOCH), any()))
+                .thenReturn(List.of(new RevokedToken("jti-remote", Instant.now().plusSeconds(600), revokedAt)));
+
+        store.synchronize();
+
+        assertTrue(store.isRevoked("jti-remote"));
+        verify(backend, never()).isRevoked(eq("jti-remote"), any());
+
+        // Il giro successivo riparte dall'ultima revoca vista, con il margine di sovrapposizione
+        store.synchronize();
+        verify(backend).findRevokedSince(eq(revokedAt.minusSeconds(30)), any());
+    }
+
+    @Test
+    void localBackendNeverEvictsRevocationsBeforeTheyExpire() {
+        TokenRevocationStore localStore = new TokenRevocationStore(new LocalTokenRevocationBackend(),
+                new SimpleMeterRegistry(), 3600, 10, 1000, 0.01);
+
+        for (int i = 0; i < 500; i++) {
+            localStore.revoke("jti-" + i, Instant.now().plusSeconds(600));
+        }
+
+        // Oltre auth.revocation.max-size: il backend local non ha altre copie, quindi nessuna revoca va persa
+        for (int i = 0; i < 500; i++) {
+            assertTrue(localStore.isRevoked("jti-" + i), "jti-" + i);
+        }
+    }
+}
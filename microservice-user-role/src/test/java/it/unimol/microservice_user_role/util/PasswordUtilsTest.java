@@ -0,0 +1,108 @@
+package it.unimol.microservice_user_role.util;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.unimol.microservice_user_role.exceptions.PasswordHashingBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordUtilsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Timer timer = meterRegistry.timer("test");
+    private PasswordUtils passwordUtils;
+
+    @AfterEach
+    void shutdown() {
+        if (passwordUtils != null) {
+            passwordUtils.shutdown();
+        }
+    }
+
+    @Test
+    void hashIsVerifiedAgainstTheOriginalPassword() {
+        passwordUtils = passwordUtils(2, 5000);
+
+        String hash = passwordUtils.hashPassword("segreta");
+
+        assertTrue(passwordUtils.verificaPassword(hash, "segreta"));
+        assertFalse(passwordUtils.verificaPassword(hash, "sbagliata"));
+        assertFalse(passwordUtils.needsRehash(hash));
+    }
+
+    @Test
+    void hashWithOtherParametersNeedsRehash() {
+        passwordUtils = passwordUtils(1, 5000);
+        String oldHash = passwordUtils.hashPassword("segreta");
+        passwordUtils.shutdown();
+
+        passwordUtils = passwordUtils(2, 5000);
+
+        assertTrue(passwordUtils.needsRehash(oldHash));
+        assertTrue(passwordUtils.verificaPassword(oldHash, "segreta"));
+    }
+
+    @Test
+    void fullQueueRejectsImmediately() throws Exception {
+        passwordUtils = passwordUtils(2, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+
+        // Un task in esecuzione sull'unico thread e uno nella coda da un posto
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> passwordUtils.submit(timer, () -> {
+            running.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        }));
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> passwordUtils.submit(timer, () -> true));
+        awaitQueued(1);
+
+        assertThrows(PasswordHashingBusyException.class, () -> passwordUtils.hashPassword("segreta"));
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void timeoutCancelsTheTask() throws Exception {
+        passwordUtils = passwordUtils(2, 100);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThrows(PasswordHashingBusyException.class, () -> passwordUtils.submit(timer, () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        }));
+
+        // Il task viene interrotto e il thread torna disponibile per le richieste successive
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+        assertTrue(passwordUtils.verificaPassword(passwordUtils.hashPassword("segreta"), "segreta"));
+    }
+
+    private PasswordUtils passwordUtils(int iterations, long timeoutMs) {
+        return new PasswordUtils(meterRegistry, iterations, 1024, 1, 1, 1, timeoutMs);
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("executor.queued").tag("name", "argon2").gauge().value() < expected) {
+            assertTrue(System.nanoTime() < deadline, "task non accodato");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package it.unimol.microservice_user_role.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RotatingBloomFilterTest {
+
+    @Test
+    void sizingFollowsTheStandardFormula() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(100_000, 0.01);
+
+        // m = -n ln(p) / ln(2)^2
+        assertEquals(958_506, filter.getBitCount());
+        assertEquals(64, new RotatingBloomFilter(1, 0.5).getBitCount());
+    }
+
+    @Test
+    void insertedKeysAreAlwaysFound() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("token-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("token-" + i), "falso negativo per token-" + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredProbability() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("valid-" + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.02, "tasso di falsi positivi troppo alto: " + rate);
+    }
+
+    @Test
+    void keysSurviveOneRotationAndLeaveAfterTheSecond() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(1_000, 0.01);
+        filter.put("old");
+
+        filter.rotate();
+        filter.put("new");
+        assertTrue(filter.mightContain("old"));
+        assertTrue(filter.mightContain("new"));
+
+        filter.rotate();
+        assertFalse(filter.mightContain("old"));
+        assertTrue(filter.mightContain("new"));
+
+        filter.rotate();
+        assertFalse(filter.mightContain("new"));
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() throws Exception {
+        RotatingBloomFilter filter = new RotatingBloomFilter(40_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        filter.put("token-" + thread + "-" + i);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int t = 0; t < 4; t++) {
+            for (int i = 0; i < 10_000; i++) {
+                assertTrue(filter.mightContain("token-" + t + "-" + i));
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+// Load test: confronto thread di piattaforma / thread virtuali sul microservizio Assessment Feedback.
+//
+// Esecuzione (stesso carico per entrambe le modalità, poi confrontare p99 e throughput):
+//   VIRTUAL_THREADS_ENABLED=false docker compose up --build -d
+//   k6 run -e TOKEN=<jwt> -e COURSE_ID=<id> --summary-export=platform.json utils/load-tests/virtual-threads.k6.js
+//
+//   JAVA_VERSION=21 BUILD_PROFILES=java21 VIRTUAL_THREADS_ENABLED=true docker compose up --build -d
+//   k6 run -e TOKEN=<jwt> -e COURSE_ID=<id> --summary-export=virtual.json utils/load-tests/virtual-threads.k6.js
+//
+// Per confrontare a parità di JVM si può ripetere il primo run con JAVA_VERSION=21 BUILD_PROFILES=java21.
+// Durante il run con thread virtuali controllare /actuator/metrics/jvm.threads.virtual.pinned
+// e i WARN "Virtual thread pinned" nei log del container.
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8082';
+const TOKEN = __ENV.TOKEN;
+const COURSE_ID = __ENV.COURSE_ID || 'COURSE001';
+const CLIENTS = parseInt(__ENV.CLIENTS || '2000', 10);
+
+export const options = {
+    scenarios: {
+        concurrent_clients: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: CLIENTS },
+                { duration: '2m', target: CLIENTS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        'http_req_duration{endpoint:active-surveys}': ['p(99)<500'],
+        'http_req_duration{endpoint:course-assessments}': ['p(99)<1000'],
+        'http_req_duration{endpoint:course-statistics}': ['p(99)<500'],
+    },
+};
+
+const params = (endpoint) => ({
+    headers: { Authorization: `Bearer ${TOKEN}` },
+    tags: { endpoint },
+});
+
+export default function () {
+    const active = http.get(`${BASE_URL}/api/v1/teacher-surveys/active`, params('active-surveys'));
+    check(active, { 'active surveys 200': (r) => r.status === 200 });
+
+    const assessments = http.get(`${BASE_URL}/api/v1/assessments/course/${COURSE_ID}/page?size=20`,
+        params('course-assessments'));
+    check(assessments, { 'course assessments 200': (r) => r.status === 200 });
+
+    const statistics = http.get(`${BASE_URL}/api/v1/assessments/statistics/COURSE/${COURSE_ID}`,
+        params('course-statistics'));
+    check(statistics, { 'course statistics 200': (r) => r.status === 200 });
+}